@@ -0,0 +1,66 @@
+package inote.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Сообщение об инвалидации локального кэша (L1) на других узлах.
+ *
+ * Передается в текстовом виде "узел\nкэш\nключ". Отсутствие ключа означает очистку всего кэша.
+ *
+ * @author Avdeyev Viktor
+ */
+@Getter
+@RequiredArgsConstructor
+public class CacheInvalidation {
+
+    private static final char SEPARATOR = '\n';
+
+    /**
+     * Идентификатор узла-отправителя, собственные сообщения узел игнорирует.
+     */
+    private final String origin;
+
+    /**
+     * Имя кэша.
+     */
+    private final String cacheName;
+
+    /**
+     * Ключ в строковом виде или null для очистки всего кэша.
+     */
+    private final String key;
+
+    /**
+     * Сообщение требует очистить весь кэш.
+     */
+    public boolean isClear() {
+        return key == null;
+    }
+
+    /**
+     * Закодировать сообщение для передачи.
+     */
+    public String encode() {
+        return origin + SEPARATOR + cacheName + (key == null ? "" : SEPARATOR + key);
+    }
+
+    /**
+     * Разобрать сообщение, полученное от другого узла.
+     *
+     * @param message закодированное сообщение
+     * @return сообщение или null, если формат некорректен
+     */
+    public static CacheInvalidation decode(String message) {
+        int first = message.indexOf(SEPARATOR);
+        if (first < 0) {
+            return null;
+        }
+        int second = message.indexOf(SEPARATOR, first + 1);
+        String origin = message.substring(0, first);
+        if (second < 0) {
+            return new CacheInvalidation(origin, message.substring(first + 1), null);
+        }
+        return new CacheInvalidation(origin, message.substring(first + 1, second), message.substring(second + 1));
+    }
+}
@@ -0,0 +1,25 @@
+package inote.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Канал рассылки инвалидаций локального кэша (L1) между узлами приложения.
+ *
+ * @author Avdeyev Viktor
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * Разослать сообщение всем узлам, включая отправителя.
+     *
+     * @param invalidation сообщение
+     */
+    void publish(CacheInvalidation invalidation);
+
+    /**
+     * Подписаться на сообщения.
+     *
+     * @param listener обработчик сообщений
+     */
+    void subscribe(Consumer<CacheInvalidation> listener);
+}
@@ -0,0 +1,68 @@
+package inote.cache;
+
+import inote.dto.CursorPage;
+import inote.dto.NoteSearchHit;
+import inote.dto.NoteSummary;
+import inote.entity.Note;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Приблизительная оценка размера значений кэша в байтах для ограничения локального кэша по весу.
+ *
+ * @author Avdeyev Viktor
+ */
+public final class CacheWeigher {
+
+    /**
+     * Оценка заголовка объекта со ссылками и служебными полями.
+     */
+    private static final int OBJECT_OVERHEAD = 64;
+
+    private CacheWeigher() {
+    }
+
+    /**
+     * Оценить размер значения.
+     *
+     * @param value значение кэша, может быть null
+     * @return размер в байтах, не больше {@link Integer#MAX_VALUE}
+     */
+    public static int weigh(Object value) {
+        return (int) Math.min(Integer.MAX_VALUE, estimate(value));
+    }
+
+    private static long estimate(Object value) {
+        if (value instanceof Note note) {
+            return OBJECT_OVERHEAD + chars(note.getTitle()) + chars(note.getContent());
+        }
+        if (value instanceof NoteSearchHit hit) {
+            return OBJECT_OVERHEAD + chars(hit.getTitle()) + chars(hit.getSnippet());
+        }
+        if (value instanceof NoteSummary summary) {
+            return OBJECT_OVERHEAD + chars(summary.getTitle()) + chars(summary.getPreview());
+        }
+        if (value instanceof CursorPage<?> page) {
+            return OBJECT_OVERHEAD + chars(page.getNext()) + estimate(page.getItems());
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = OBJECT_OVERHEAD;
+            for (Object item : collection) {
+                size += 8 + estimate(item);
+            }
+            return size;
+        }
+        if (value instanceof Optional<?> optional) {
+            return OBJECT_OVERHEAD + estimate(optional.orElse(null));
+        }
+        if (value instanceof CharSequence text) {
+            return OBJECT_OVERHEAD + text.length() * 2L;
+        }
+        return OBJECT_OVERHEAD;
+    }
+
+    private static long chars(String value) {
+        return value == null ? 0 : 40 + value.length() * 2L;
+    }
+}
@@ -0,0 +1,60 @@
+package inote.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * Реактивный кэш поверх {@link CacheManager} с хранением в памяти приложения
+ * ({@code spring.cache.type: simple}, {@code caffeine}, {@code none}).
+ *
+ * Обращения к таким кэшам не выполняют ввода-вывода, поэтому вызываются непосредственно.
+ * Для Redis используется {@link RedisReactiveNoteCache}.
+ *
+ * @author Avdeyev Viktor
+ */
+@RequiredArgsConstructor
+public class LocalReactiveNoteCache implements ReactiveNoteCache {
+
+    private final CacheManager cacheManager;
+
+    @Override
+    public Mono<Object> get(String cacheName, Object key) {
+        return Mono.fromSupplier(() -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            Cache.ValueWrapper wrapper = cache == null ? null : cache.get(key);
+            return wrapper == null ? null : wrapper.get();
+        });
+    }
+
+    @Override
+    public Mono<Void> put(String cacheName, Object key, Object value) {
+        return Mono.fromRunnable(() -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.put(key, value);
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> evict(String cacheName, Object key) {
+        return Mono.fromRunnable(() -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.evict(key);
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> clear(String cacheName) {
+        return Mono.fromRunnable(() -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        });
+    }
+}
@@ -0,0 +1,175 @@
+package inote.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Кэш, считающий попадания, промахи, записи и удаления в Micrometer.
+ *
+ * Счетчики помечаются именем кэша и типом ключа ({@link #keyType(String, Object)}): по ним
+ * видно, какая доля чтений заметки по ID, списков по заголовку и списка всех заметок
+ * обслуживается кэшем:
+ * <ul>
+ *     <li>{@code inote.cache.gets} с тегом {@code result} = hit или miss;</li>
+ *     <li>{@code inote.cache.puts}, {@code inote.cache.evictions};</li>
+ *     <li>{@code inote.cache.clears} без типа ключа.</li>
+ * </ul>
+ *
+ * @author Avdeyev Viktor
+ */
+public class MeteredCache implements org.springframework.cache.Cache {
+
+    public static final String GETS = "inote.cache.gets";
+
+    public static final String PUTS = "inote.cache.puts";
+
+    public static final String EVICTIONS = "inote.cache.evictions";
+
+    public static final String CLEARS = "inote.cache.clears";
+
+    @Getter
+    private final org.springframework.cache.Cache delegate;
+
+    private final MeterRegistry registry;
+
+    public MeteredCache(org.springframework.cache.Cache delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    /**
+     * Кэш без оберток со счетчиками и объединением загрузок, например для прямого удаления ключей из Redis.
+     *
+     * @param cache кэш, возможно обернутый
+     * @return исходный кэш
+     */
+    public static org.springframework.cache.Cache unwrap(org.springframework.cache.Cache cache) {
+        org.springframework.cache.Cache target = cache instanceof MeteredCache metered ? metered.getDelegate() : cache;
+        return target instanceof SingleFlightCache singleFlight ? singleFlight.getDelegate() : target;
+    }
+
+    /**
+     * Тип ключа для тегов метрик: id, title, allNotes, collection, page или other.
+     *
+     * @param cacheName имя кэша
+     * @param key ключ
+     * @return тип ключа
+     */
+    public static String keyType(String cacheName, Object key) {
+        if (key instanceof Number) {
+            return "id";
+        }
+        return switch (cacheName) {
+            case NoteCacheEvictor.NOTES_CACHE -> NoteCacheEvictor.ALL_NOTES_KEY.equals(key) ? "allNotes" : "title";
+            case NoteCacheEvictor.NOTE_VERSIONS_CACHE ->
+                NoteCacheEvictor.COLLECTION_VERSION_KEY.equals(key) ? "collection" : "other";
+            case NoteCacheEvictor.NOTE_PAGES_CACHE, NoteCacheEvictor.NOTE_SUMMARIES_CACHE -> "page";
+            default -> "other";
+        };
+    }
+
+    /**
+     * Учесть удаления, выполненные в обход этого кэша, например одной командой DEL.
+     *
+     * @param key пример удаленного ключа, определяющий тип ключа
+     * @param count количество удаленных ключей
+     */
+    public void recordEvictions(Object key, int count) {
+        registry.counter(EVICTIONS, "cache", getName(), "key.type", keyType(getName(), key)).increment(count);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        recordGet(key, wrapper != null);
+        return wrapper;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T value = delegate.get(key, type);
+        recordGet(key, value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        boolean[] loaded = new boolean[1];
+        T value = delegate.get(key, () -> {
+            loaded[0] = true;
+            return valueLoader.call();
+        });
+        recordGet(key, !loaded[0]);
+        return value;
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        registry.counter(PUTS, "cache", getName(), "key.type", keyType(getName(), key)).increment();
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        if (existing == null) {
+            registry.counter(PUTS, "cache", getName(), "key.type", keyType(getName(), key)).increment();
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        recordEvictions(key, 1);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = delegate.evictIfPresent(key);
+        recordEvictions(key, 1);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        registry.counter(CLEARS, "cache", getName()).increment();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = delegate.invalidate();
+        registry.counter(CLEARS, "cache", getName()).increment();
+        return invalidated;
+    }
+
+    private void recordGet(Object key, boolean hit) {
+        registry.counter(GETS, "cache", getName(), "key.type", keyType(getName(), key),
+            "result", hit ? "hit" : "miss").increment();
+    }
+}
@@ -0,0 +1,518 @@
+package inote.cache;
+
+import inote.dto.CursorPage;
+import inote.dto.NoteSearchHit;
+import inote.dto.NoteSummary;
+import inote.dto.NoteVersion;
+import inote.entity.Note;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Компактный двоичный формат значений кэша заметок в Redis.
+ *
+ * Первый байт значения содержит версию формата, второй тип значения. Числа кодируются varint,
+ * время как миллисекунды эпохи UTC и остаток наносекунд, строки в UTF-8 с длиной.
+ * Заметки, их списки, страницы и версии записываются по схеме, прочие значения сериализуются JDK.
+ *
+ * При чтении значения неизвестной версии, записанного более новым узлом, возвращается null,
+ * и Redis-кэш считает это промахом. Значения, записанные JDK-сериализацией до перехода
+ * на этот формат, читаются по сигнатуре потока JDK.
+ *
+ * @author Avdeyev Viktor
+ */
+@Slf4j
+public class NoteCacheCodec implements RedisSerializer<Object> {
+
+    /**
+     * Текущая версия формата.
+     */
+    public static final byte VERSION = 1;
+
+    private static final byte TYPE_JDK = 0;
+
+    private static final byte TYPE_NOTE = 1;
+
+    private static final byte TYPE_OPTIONAL = 2;
+
+    private static final byte TYPE_NOTE_LIST = 3;
+
+    private static final byte TYPE_NOTE_PAGE = 4;
+
+    private static final byte TYPE_SEARCH_PAGE = 5;
+
+    private static final byte TYPE_SUMMARY_PAGE = 6;
+
+    private static final byte TYPE_VERSION = 7;
+
+    /**
+     * Первый байт сигнатуры потока JDK-сериализации (0xACED).
+     */
+    private static final byte JDK_STREAM_MAGIC = (byte) 0xAC;
+
+    private static final int HAS_ID = 1;
+
+    private static final int HAS_TITLE = 1 << 1;
+
+    private static final int HAS_TEXT = 1 << 2;
+
+    private static final int HAS_CREATED_AT = 1 << 3;
+
+    private static final int HAS_UPDATED_AT = 1 << 4;
+
+    private static final int HAS_RANK = 1 << 5;
+
+    private static final int HAS_LENGTH = 1 << 6;
+
+    private static final int NANOS_PER_MILLI = 1_000_000;
+
+    private final JdkSerializationRedisSerializer jdkSerializer;
+
+    public NoteCacheCodec(ClassLoader classLoader) {
+        this.jdkSerializer = new JdkSerializationRedisSerializer(classLoader);
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        Output out = new Output();
+        out.writeByte(VERSION);
+        if (value instanceof Note note) {
+            out.writeByte(TYPE_NOTE);
+            writeNote(out, note);
+        } else if (value instanceof NoteVersion version) {
+            out.writeByte(TYPE_VERSION);
+            out.writeByte((version.getUpdatedAt() != null ? HAS_UPDATED_AT : 0)
+                | (version.getCount() != null ? HAS_LENGTH : 0));
+            if (version.getUpdatedAt() != null) {
+                out.writeDateTime(version.getUpdatedAt());
+            }
+            if (version.getCount() != null) {
+                out.writeZigZag(version.getCount());
+            }
+        } else if (value instanceof Optional<?> optional && optional.orElse(null) instanceof Note note) {
+            out.writeByte(TYPE_OPTIONAL);
+            out.writeByte(1);
+            writeNote(out, note);
+        } else if (value instanceof Optional<?> optional && optional.isEmpty()) {
+            out.writeByte(TYPE_OPTIONAL);
+            out.writeByte(0);
+        } else if (value instanceof List<?> list && allInstancesOf(list, Note.class)) {
+            out.writeByte(TYPE_NOTE_LIST);
+            writeNotes(out, list);
+        } else if (value instanceof CursorPage<?> page && page.getItems() != null
+            && allInstancesOf(page.getItems(), Note.class)) {
+            out.writeByte(TYPE_NOTE_PAGE);
+            out.writeString(page.getNext());
+            writeNotes(out, page.getItems());
+        } else if (value instanceof CursorPage<?> page && page.getItems() != null
+            && allInstancesOf(page.getItems(), NoteSearchHit.class)) {
+            out.writeByte(TYPE_SEARCH_PAGE);
+            out.writeString(page.getNext());
+            out.writeVarLong(page.getItems().size());
+            for (Object hit : page.getItems()) {
+                writeSearchHit(out, (NoteSearchHit) hit);
+            }
+        } else if (value instanceof CursorPage<?> page && page.getItems() != null
+            && allInstancesOf(page.getItems(), NoteSummary.class)) {
+            out.writeByte(TYPE_SUMMARY_PAGE);
+            out.writeString(page.getNext());
+            out.writeVarLong(page.getItems().size());
+            for (Object summary : page.getItems()) {
+                writeSummary(out, (NoteSummary) summary);
+            }
+        } else {
+            out.writeByte(TYPE_JDK);
+            out.writeBytes(jdkSerializer.serialize(value));
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == JDK_STREAM_MAGIC) {
+            return jdkSerializer.deserialize(bytes);
+        }
+        if (bytes[0] != VERSION) {
+            log.debug("Значение кэша версии {} не поддерживается, считается промахом", bytes[0]);
+            return null;
+        }
+        try {
+            Input in = new Input(bytes, 2);
+            return switch (bytes[1]) {
+                case TYPE_NOTE -> readNote(in);
+                case TYPE_VERSION -> {
+                    int flags = in.readByte();
+                    LocalDateTime updatedAt = (flags & HAS_UPDATED_AT) != 0 ? in.readDateTime() : null;
+                    Long count = (flags & HAS_LENGTH) != 0 ? in.readZigZag() : null;
+                    yield new NoteVersion(updatedAt, count);
+                }
+                case TYPE_OPTIONAL -> in.readByte() == 0 ? Optional.empty() : Optional.of(readNote(in));
+                case TYPE_NOTE_LIST -> readNotes(in);
+                case TYPE_NOTE_PAGE -> {
+                    String next = in.readString();
+                    yield new CursorPage<>(readNotes(in), next);
+                }
+                case TYPE_SEARCH_PAGE -> {
+                    String next = in.readString();
+                    int size = (int) in.readVarLong();
+                    List<NoteSearchHit> hits = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        hits.add(readSearchHit(in));
+                    }
+                    yield new CursorPage<>(hits, next);
+                }
+                case TYPE_SUMMARY_PAGE -> {
+                    String next = in.readString();
+                    int size = (int) in.readVarLong();
+                    List<NoteSummary> summaries = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        summaries.add(readSummary(in));
+                    }
+                    yield new CursorPage<>(summaries, next);
+                }
+                case TYPE_JDK -> jdkSerializer.deserialize(Arrays.copyOfRange(bytes, 2, bytes.length));
+                default -> throw new SerializationException("Неизвестный тип значения кэша: " + bytes[1]);
+            };
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new SerializationException("Поврежденное значение кэша", e);
+        }
+    }
+
+    private static boolean allInstancesOf(List<?> list, Class<?> type) {
+        for (Object item : list) {
+            if (!type.isInstance(item)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeNotes(Output out, List<?> notes) {
+        out.writeVarLong(notes.size());
+        for (Object note : notes) {
+            writeNote(out, (Note) note);
+        }
+    }
+
+    private static List<Note> readNotes(Input in) {
+        int size = (int) in.readVarLong();
+        List<Note> notes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            notes.add(readNote(in));
+        }
+        return notes;
+    }
+
+    private static void writeNote(Output out, Note note) {
+        int flags = (note.getId() != null ? HAS_ID : 0)
+            | (note.getTitle() != null ? HAS_TITLE : 0)
+            | (note.getContent() != null ? HAS_TEXT : 0)
+            | (note.getCreatedAt() != null ? HAS_CREATED_AT : 0)
+            | (note.getUpdatedAt() != null ? HAS_UPDATED_AT : 0);
+        out.writeByte(flags);
+        if (note.getId() != null) {
+            out.writeZigZag(note.getId());
+        }
+        if (note.getTitle() != null) {
+            out.writeUtf8(note.getTitle());
+        }
+        if (note.getContent() != null) {
+            out.writeUtf8(note.getContent());
+        }
+        if (note.getCreatedAt() != null) {
+            out.writeDateTime(note.getCreatedAt());
+        }
+        if (note.getUpdatedAt() != null) {
+            out.writeDateTime(note.getUpdatedAt());
+        }
+    }
+
+    private static Note readNote(Input in) {
+        int flags = in.readByte();
+        Note note = new Note();
+        if ((flags & HAS_ID) != 0) {
+            note.setId(in.readZigZag());
+        }
+        if ((flags & HAS_TITLE) != 0) {
+            note.setTitle(in.readUtf8());
+        }
+        if ((flags & HAS_TEXT) != 0) {
+            note.setContent(in.readUtf8());
+        }
+        if ((flags & HAS_CREATED_AT) != 0) {
+            note.setCreatedAt(in.readDateTime());
+        }
+        if ((flags & HAS_UPDATED_AT) != 0) {
+            note.setUpdatedAt(in.readDateTime());
+        }
+        return note;
+    }
+
+    private static void writeSearchHit(Output out, NoteSearchHit hit) {
+        int flags = (hit.getId() != null ? HAS_ID : 0)
+            | (hit.getTitle() != null ? HAS_TITLE : 0)
+            | (hit.getSnippet() != null ? HAS_TEXT : 0)
+            | (hit.getCreatedAt() != null ? HAS_CREATED_AT : 0)
+            | (hit.getUpdatedAt() != null ? HAS_UPDATED_AT : 0)
+            | (hit.getRank() != null ? HAS_RANK : 0);
+        out.writeByte(flags);
+        if (hit.getId() != null) {
+            out.writeZigZag(hit.getId());
+        }
+        if (hit.getTitle() != null) {
+            out.writeUtf8(hit.getTitle());
+        }
+        if (hit.getSnippet() != null) {
+            out.writeUtf8(hit.getSnippet());
+        }
+        if (hit.getCreatedAt() != null) {
+            out.writeDateTime(hit.getCreatedAt());
+        }
+        if (hit.getUpdatedAt() != null) {
+            out.writeDateTime(hit.getUpdatedAt());
+        }
+        if (hit.getRank() != null) {
+            out.writeLong(Double.doubleToLongBits(hit.getRank()));
+        }
+    }
+
+    private static NoteSearchHit readSearchHit(Input in) {
+        int flags = in.readByte();
+        NoteSearchHit hit = new NoteSearchHit();
+        if ((flags & HAS_ID) != 0) {
+            hit.setId(in.readZigZag());
+        }
+        if ((flags & HAS_TITLE) != 0) {
+            hit.setTitle(in.readUtf8());
+        }
+        if ((flags & HAS_TEXT) != 0) {
+            hit.setSnippet(in.readUtf8());
+        }
+        if ((flags & HAS_CREATED_AT) != 0) {
+            hit.setCreatedAt(in.readDateTime());
+        }
+        if ((flags & HAS_UPDATED_AT) != 0) {
+            hit.setUpdatedAt(in.readDateTime());
+        }
+        if ((flags & HAS_RANK) != 0) {
+            hit.setRank(Double.longBitsToDouble(in.readLong()));
+        }
+        return hit;
+    }
+
+    private static void writeSummary(Output out, NoteSummary summary) {
+        int flags = (summary.getId() != null ? HAS_ID : 0)
+            | (summary.getTitle() != null ? HAS_TITLE : 0)
+            | (summary.getPreview() != null ? HAS_TEXT : 0)
+            | (summary.getCreatedAt() != null ? HAS_CREATED_AT : 0)
+            | (summary.getUpdatedAt() != null ? HAS_UPDATED_AT : 0)
+            | (summary.getContentLength() != null ? HAS_LENGTH : 0);
+        out.writeByte(flags);
+        if (summary.getId() != null) {
+            out.writeZigZag(summary.getId());
+        }
+        if (summary.getTitle() != null) {
+            out.writeUtf8(summary.getTitle());
+        }
+        if (summary.getPreview() != null) {
+            out.writeUtf8(summary.getPreview());
+        }
+        if (summary.getCreatedAt() != null) {
+            out.writeDateTime(summary.getCreatedAt());
+        }
+        if (summary.getUpdatedAt() != null) {
+            out.writeDateTime(summary.getUpdatedAt());
+        }
+        if (summary.getContentLength() != null) {
+            out.writeZigZag(summary.getContentLength());
+        }
+    }
+
+    private static NoteSummary readSummary(Input in) {
+        int flags = in.readByte();
+        NoteSummary summary = new NoteSummary();
+        if ((flags & HAS_ID) != 0) {
+            summary.setId(in.readZigZag());
+        }
+        if ((flags & HAS_TITLE) != 0) {
+            summary.setTitle(in.readUtf8());
+        }
+        if ((flags & HAS_TEXT) != 0) {
+            summary.setPreview(in.readUtf8());
+        }
+        if ((flags & HAS_CREATED_AT) != 0) {
+            summary.setCreatedAt(in.readDateTime());
+        }
+        if ((flags & HAS_UPDATED_AT) != 0) {
+            summary.setUpdatedAt(in.readDateTime());
+        }
+        if ((flags & HAS_LENGTH) != 0) {
+            summary.setContentLength((int) in.readZigZag());
+        }
+        return summary;
+    }
+
+    /**
+     * Буфер записи с автоматическим расширением.
+     */
+    private static final class Output {
+
+        private byte[] buffer = new byte[256];
+
+        private int size;
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeUtf8(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            writeBytes(bytes);
+        }
+
+        /**
+         * Строка, допускающая null: длина записывается со смещением на единицу, 0 означает null.
+         */
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            writeBytes(bytes);
+        }
+
+        void writeDateTime(LocalDateTime value) {
+            long seconds = value.toEpochSecond(ZoneOffset.UTC);
+            int nanos = value.getNano();
+            writeZigZag(seconds * 1000 + nanos / NANOS_PER_MILLI);
+            writeVarLong(nanos % NANOS_PER_MILLI);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(size + extra, buffer.length * 2));
+            }
+        }
+    }
+
+    /**
+     * Последовательное чтение из массива байтов.
+     */
+    private static final class Input {
+
+        private final byte[] buffer;
+
+        private int offset;
+
+        Input(byte[] buffer, int offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+        }
+
+        int readByte() {
+            return buffer[offset++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer[offset++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        long readZigZag() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (buffer[offset++] & 0xFF);
+            }
+            return value;
+        }
+
+        String readUtf8() {
+            int length = (int) readVarLong();
+            return readUtf8(length);
+        }
+
+        String readString() {
+            int length = (int) readVarLong();
+            return length == 0 ? null : readUtf8(length - 1);
+        }
+
+        LocalDateTime readDateTime() {
+            long millis = readZigZag();
+            int nanosOfMilli = (int) readVarLong();
+            long seconds = Math.floorDiv(millis, 1000);
+            int nanos = (int) Math.floorMod(millis, 1000) * NANOS_PER_MILLI + nanosOfMilli;
+            return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+        }
+
+        private String readUtf8(int length) {
+            if (offset + length > buffer.length) {
+                throw new ArrayIndexOutOfBoundsException(offset + length);
+            }
+            String value = new String(buffer, offset, length, StandardCharsets.UTF_8);
+            offset += length;
+            return value;
+        }
+    }
+}
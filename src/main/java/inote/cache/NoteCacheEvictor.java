@@ -0,0 +1,116 @@
+package inote.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Массовое удаление заметок из кэша.
+ *
+ * Для Redis все ключи удаляются одной командой DEL, для остальных реализаций кэша
+ * используется поштучное удаление. Для двухуровневого кэша ключи дополнительно удаляются из L1,
+ * для кэша с объединением загрузок до удаления отменяется сохранение начатых загрузок этих ключей.
+ *
+ * @author Avdeyev Viktor
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NoteCacheEvictor {
+
+    public static final String NOTES_CACHE = "notes";
+
+    public static final String NOTE_PAGES_CACHE = "notePages";
+
+    public static final String NOTE_SUMMARIES_CACHE = "noteSummaries";
+
+    public static final String NOTE_VERSIONS_CACHE = "noteVersions";
+
+    public static final String NOTES_BY_DAY_CACHE = "notesByDay";
+
+    public static final String ALL_NOTES_KEY = "allNotes";
+
+    public static final String COLLECTION_VERSION_KEY = "all";
+
+    private final CacheManager cacheManager;
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplate;
+
+    /**
+     * Удалить из кэша заметки и их версии с указанными ID, список всех заметок, версию набора заметок
+     * и все кэшированные страницы, включая страницы кратких представлений.
+     *
+     * @param ids ID заметок
+     */
+    public void evictNotes(Collection<Long> ids) {
+        log.info("Удаление из кэша {} заметок", ids.size());
+        evictKeys(NOTES_CACHE, ids, ALL_NOTES_KEY);
+        evictKeys(NOTE_VERSIONS_CACHE, ids, COLLECTION_VERSION_KEY);
+        clearPages();
+    }
+
+    /**
+     * Удалить из кэша представления набора заметок: список всех заметок, версию набора
+     * и все страницы. Заметки по ID и их версии сохраняются.
+     */
+    public void evictCollectionViews() {
+        log.info("Удаление из кэша списков и страниц заметок");
+        Cache notes = cacheManager.getCache(NOTES_CACHE);
+        if (notes != null) {
+            notes.evict(ALL_NOTES_KEY);
+        }
+        Cache versions = cacheManager.getCache(NOTE_VERSIONS_CACHE);
+        if (versions != null) {
+            versions.evict(COLLECTION_VERSION_KEY);
+        }
+        clearPages();
+    }
+
+    private void clearPages() {
+        for (String name : List.of(NOTE_PAGES_CACHE, NOTE_SUMMARIES_CACHE)) {
+            Cache pages = cacheManager.getCache(name);
+            if (pages != null) {
+                pages.clear();
+            }
+        }
+    }
+
+    /**
+     * Удалить из кэша записи с ключами-ID и одну общую запись.
+     */
+    private void evictKeys(String cacheName, Collection<Long> ids, String sharedKey) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        Cache layer = cache instanceof MeteredCache metered ? metered.getDelegate() : cache;
+        if (layer instanceof SingleFlightCache singleFlight) {
+            singleFlight.evictInFlight(ids);
+        }
+        Cache target = MeteredCache.unwrap(cache);
+        Cache remote = target instanceof TwoLevelCache twoLevelCache ? twoLevelCache.getRemote() : target;
+        StringRedisTemplate template = redisTemplate.getIfAvailable();
+        if (remote instanceof RedisCache redisCache && template != null && redisCache.getCacheConfiguration().usePrefix()) {
+            String prefix = redisCache.getCacheConfiguration().getKeyPrefixFor(cacheName);
+            List<String> keys = ids.stream().map(id -> prefix + id).toList();
+            template.delete(keys);
+        } else {
+            ids.forEach(remote::evict);
+        }
+        if (target instanceof TwoLevelCache twoLevelCache) {
+            twoLevelCache.evictLocal(ids);
+        }
+        if (cache instanceof MeteredCache metered && !ids.isEmpty()) {
+            metered.recordEvictions(ids.iterator().next(), ids.size());
+        }
+        cache.evict(sharedKey);
+    }
+}
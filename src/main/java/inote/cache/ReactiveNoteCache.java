@@ -0,0 +1,47 @@
+package inote.cache;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Неблокирующий кэш заметок для реактивного стека.
+ *
+ * Использует те же имена кэшей и ключи, что и кэширование через аннотации в {@code NoteServiceImpl},
+ * поэтому узлы обоих стеков, подключенные к одному Redis, видят и сбрасывают общие записи.
+ *
+ * @author Avdeyev Viktor
+ */
+public interface ReactiveNoteCache {
+
+    /**
+     * Прочитать значение из кэша.
+     *
+     * @param cacheName имя кэша
+     * @param key ключ
+     * @return значение или пустой результат при промахе
+     */
+    Mono<Object> get(String cacheName, Object key);
+
+    /**
+     * Записать значение в кэш.
+     *
+     * @param cacheName имя кэша
+     * @param key ключ
+     * @param value значение
+     */
+    Mono<Void> put(String cacheName, Object key, Object value);
+
+    /**
+     * Удалить значение из кэша.
+     *
+     * @param cacheName имя кэша
+     * @param key ключ
+     */
+    Mono<Void> evict(String cacheName, Object key);
+
+    /**
+     * Удалить все значения кэша.
+     *
+     * @param cacheName имя кэша
+     */
+    Mono<Void> clear(String cacheName);
+}
@@ -0,0 +1,50 @@
+package inote.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Рассылка инвалидаций локального кэша через Redis pub/sub.
+ *
+ * Доставка не гарантируется: сообщения, отправленные во время разрыва соединения, теряются,
+ * поэтому записи L1 дополнительно ограничены временем жизни.
+ *
+ * @author Avdeyev Viktor
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RedisCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final String channel;
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        try {
+            redisTemplate.convertAndSend(channel, invalidation.encode());
+        } catch (RuntimeException e) {
+            log.warn("Не удалось отправить инвалидацию кэша {} по ключу {}: {}",
+                invalidation.getCacheName(), invalidation.getKey(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            CacheInvalidation invalidation =
+                CacheInvalidation.decode(new String(message.getBody(), StandardCharsets.UTF_8));
+            if (invalidation != null) {
+                listener.accept(invalidation);
+            }
+        }, new ChannelTopic(channel));
+    }
+}
@@ -0,0 +1,67 @@
+package inote.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Короткая блокировка загрузки ключа кэша в Redis ({@code SET NX PX}), общая для всех узлов.
+ *
+ * Блокировка снимается только узлом, который ее захватил: значение ключа - токен загрузки.
+ * Если Redis недоступен, блокировка считается захваченной, и узел загружает значение сам.
+ *
+ * @author Avdeyev Viktor
+ */
+@Slf4j
+public class RedisLoadLock {
+
+    private static final RedisScript<Long> UNLOCK = new DefaultRedisScript<>(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+        Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String prefix;
+
+    private final Duration ttl;
+
+    public RedisLoadLock(StringRedisTemplate redisTemplate, String prefix, Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.prefix = prefix;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Захватить блокировку.
+     *
+     * @param key   ключ блокировки, например имя кэша и ключ значения
+     * @param token токен загрузки
+     * @return true, если блокировка захвачена или Redis недоступен; false, если загрузку выполняет другой узел
+     */
+    public boolean tryLock(String key, String token) {
+        try {
+            return !Boolean.FALSE.equals(redisTemplate.opsForValue().setIfAbsent(prefix + key, token, ttl));
+        } catch (RuntimeException e) {
+            log.warn("Блокировка загрузки {} недоступна, загрузка без блокировки: {}", key, e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Снять блокировку, если она захвачена с этим токеном.
+     *
+     * @param key   ключ блокировки
+     * @param token токен загрузки
+     */
+    public void unlock(String key, String token) {
+        try {
+            redisTemplate.execute(UNLOCK, List.of(prefix + key), token);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось снять блокировку загрузки {}, она истечет через {}: {}", key, ttl, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package inote.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Реактивный кэш в Redis через неблокирующий клиент Lettuce.
+ *
+ * Ключи, время жизни и формат значений берутся из {@link RedisCacheConfiguration}, как у RedisCache,
+ * поэтому записи совместимы с кэшем {@code NoteServiceImpl}. После изменения записи на канал
+ * инвалидаций отправляется сообщение, чтобы узлы с двухуровневым кэшем удалили ее из своего L1.
+ *
+ * @author Avdeyev Viktor
+ */
+@Slf4j
+public class RedisReactiveNoteCache implements ReactiveNoteCache {
+
+    /**
+     * Количество ключей, запрашиваемых за один SCAN при очистке кэша.
+     */
+    private static final long SCAN_COUNT = 1000;
+
+    private final ReactiveRedisTemplate<String, Object> valueTemplate;
+
+    private final ReactiveStringRedisTemplate stringTemplate;
+
+    private final RedisCacheConfiguration configuration;
+
+    private final String channel;
+
+    private final String nodeId = "reactive-" + UUID.randomUUID();
+
+    public RedisReactiveNoteCache(ReactiveRedisConnectionFactory connectionFactory,
+                                  RedisCacheConfiguration configuration, String channel) {
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+            .<String, Object>newSerializationContext(StringRedisSerializer.UTF_8)
+            .value(configuration.getValueSerializationPair())
+            .build();
+        this.valueTemplate = new ReactiveRedisTemplate<>(connectionFactory, context);
+        this.stringTemplate = new ReactiveStringRedisTemplate(connectionFactory);
+        this.configuration = configuration;
+        this.channel = channel;
+    }
+
+    @Override
+    public Mono<Object> get(String cacheName, Object key) {
+        return valueTemplate.opsForValue().get(redisKey(cacheName, key))
+            .filter(value -> !(value instanceof NullValue));
+    }
+
+    @Override
+    public Mono<Void> put(String cacheName, Object key, Object value) {
+        Duration ttl = configuration.getTtlFunction().getTimeToLive(key, value);
+        String redisKey = redisKey(cacheName, key);
+        Mono<Boolean> set = ttl.isZero() || ttl.isNegative()
+            ? valueTemplate.opsForValue().set(redisKey, value)
+            : valueTemplate.opsForValue().set(redisKey, value, ttl);
+        return set.then(publish(cacheName, String.valueOf(key)));
+    }
+
+    @Override
+    public Mono<Void> evict(String cacheName, Object key) {
+        return stringTemplate.delete(redisKey(cacheName, key))
+            .then(publish(cacheName, String.valueOf(key)));
+    }
+
+    @Override
+    public Mono<Void> clear(String cacheName) {
+        ScanOptions options = ScanOptions.scanOptions()
+            .match(redisKey(cacheName, "*"))
+            .count(SCAN_COUNT)
+            .build();
+        return stringTemplate.delete(stringTemplate.scan(options))
+            .then(publish(cacheName, null));
+    }
+
+    /**
+     * Ключ Redis в формате RedisCache: префикс кэша и строковое представление ключа.
+     */
+    private String redisKey(String cacheName, Object key) {
+        String value = String.valueOf(key);
+        return configuration.usePrefix() ? configuration.getKeyPrefixFor(cacheName) + value : value;
+    }
+
+    /**
+     * Разослать инвалидацию L1. Ошибка отправки не прерывает операцию, как и в {@link RedisCacheInvalidationBus}.
+     */
+    private Mono<Void> publish(String cacheName, String key) {
+        CacheInvalidation invalidation = new CacheInvalidation(nodeId, cacheName, key);
+        return stringTemplate.convertAndSend(channel, invalidation.encode())
+            .onErrorResume(e -> {
+                log.warn("Не удалось отправить инвалидацию кэша {} по ключу {}: {}", cacheName, key, e.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+}
@@ -0,0 +1,263 @@
+package inote.cache;
+
+import inote.config.SingleFlightProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Кэш, объединяющий одновременные загрузки одного ключа при промахе ({@code @Cacheable(sync = true)}).
+ *
+ * На узле значение загружает первый запрос, остальные ждут его результат, в том числе ошибку. Между узлами
+ * загрузка согласуется блокировкой {@link RedisLoadLock}: узел, не захвативший ее, проверяет кэш, пока значение
+ * не появится, блокировка не освободится или не истечет {@code wait-timeout}. Без Redis и при его
+ * недоступности объединяются только загрузки на узле.
+ *
+ * Удаление ключа ({@link #evict}, {@link #clear}, {@link #evictInFlight}) отменяет начатую до него загрузку:
+ * ее результат возвращается ожидающим запросам, но не сохраняется в кэш, а если сохранение успело
+ * произойти одновременно с удалением, значение удаляется снова.
+ *
+ * В отличие от {@code RedisCache.get(key, valueLoader)}, загрузки разных ключей не ждут друг друга.
+ * Ожидающие запросы получают тот же объект, что и загрузивший: изменять его нельзя.
+ *
+ * Метрики с тегами {@code cache} и {@code key.type} ({@link MeteredCache#keyType(String, Object)}):
+ * <ul>
+ *     <li>{@code inote.cache.loads} - выполненные загрузки;</li>
+ *     <li>{@code inote.cache.coalesced} с тегом {@code source} = local или remote - запросы, получившие
+ *     значение, загруженное другим запросом этого узла или другим узлом;</li>
+ *     <li>{@code inote.cache.lock.timeouts} - загрузки без блокировки после истечения ожидания.</li>
+ * </ul>
+ *
+ * @author Avdeyev Viktor
+ */
+public class SingleFlightCache implements org.springframework.cache.Cache {
+
+    public static final String LOADS = "inote.cache.loads";
+
+    public static final String COALESCED = "inote.cache.coalesced";
+
+    public static final String LOCK_TIMEOUTS = "inote.cache.lock.timeouts";
+
+    @Getter
+    private final org.springframework.cache.Cache delegate;
+
+    private final RedisLoadLock lock;
+
+    private final SingleFlightProperties properties;
+
+    private final MeterRegistry registry;
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate   кэш
+     * @param lock       блокировка загрузки между узлами или null, если кэш не общий
+     * @param properties настройки ожидания
+     * @param registry   реестр метрик
+     */
+    public SingleFlightCache(org.springframework.cache.Cache delegate, RedisLoadLock lock,
+                             SingleFlightProperties properties, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.lock = lock;
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = delegate.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        String flightKey = String.valueOf(key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            recordCoalesced(key, "local");
+            return (T) await(existing);
+        }
+        try {
+            Object value = load(key, flightKey, flight, valueLoader);
+            flight.complete(value);
+            return (T) value;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    /**
+     * Удалить значение. Запросы после удаления не ждут загрузку, начатую до него, а загружают значение заново,
+     * результат начатой загрузки в кэш не сохраняется.
+     */
+    @Override
+    public void evict(Object key) {
+        inFlight.remove(String.valueOf(key));
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        inFlight.remove(String.valueOf(key));
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        inFlight.clear();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        inFlight.clear();
+        return delegate.invalidate();
+    }
+
+    /**
+     * Отменить сохранение загрузок, начатых до удаления ключей из кэша в обход этой обертки,
+     * например одной командой DEL в {@link NoteCacheEvictor}. Вызывается до удаления ключей.
+     *
+     * @param keys ключи кэша
+     */
+    public void evictInFlight(Collection<?> keys) {
+        keys.forEach(key -> inFlight.remove(String.valueOf(key)));
+    }
+
+    /**
+     * Загрузить значение, если его не загружает другой узел, и сохранить в кэш.
+     */
+    private Object load(Object key, String flightKey, CompletableFuture<Object> flight, Callable<?> valueLoader) {
+        if (lock == null) {
+            return loadAndPut(key, flightKey, flight, valueLoader);
+        }
+        String lockKey = getName() + ":" + flightKey;
+        String token = UUID.randomUUID().toString();
+        long deadline = System.nanoTime() + properties.getWaitTimeout().toNanos();
+        boolean waited = false;
+        while (!lock.tryLock(lockKey, token)) {
+            if (System.nanoTime() - deadline > 0) {
+                registry.counter(LOCK_TIMEOUTS, "cache", getName()).increment();
+                return loadAndPut(key, flightKey, flight, valueLoader);
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(properties.getPollInterval().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return loadAndPut(key, flightKey, flight, valueLoader);
+            }
+            ValueWrapper cached = delegate.get(key);
+            if (cached != null) {
+                recordCoalesced(key, "remote");
+                return cached.get();
+            }
+            waited = true;
+        }
+        try {
+            // Другой узел мог сохранить значение и снять блокировку между проверками
+            ValueWrapper cached = waited ? delegate.get(key) : null;
+            if (cached != null) {
+                recordCoalesced(key, "remote");
+                return cached.get();
+            }
+            return loadAndPut(key, flightKey, flight, valueLoader);
+        } finally {
+            lock.unlock(lockKey, token);
+        }
+    }
+
+    /**
+     * Загрузить значение и сохранить его, если загрузка не отменена удалением ключа. Удаление между
+     * проверкой и сохранением обнаруживается повторной проверкой, и сохраненное значение удаляется.
+     */
+    private Object loadAndPut(Object key, String flightKey, CompletableFuture<Object> flight,
+                              Callable<?> valueLoader) {
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        registry.counter(LOADS, "cache", getName(), "key.type", MeteredCache.keyType(getName(), key)).increment();
+        if (inFlight.get(flightKey) != flight) {
+            return value;
+        }
+        // Загруженное значение не заменяет записанное за время загрузки и не рассылает инвалидацию
+        delegate.putIfAbsent(key, value);
+        if (inFlight.get(flightKey) != flight) {
+            delegate.evict(key);
+        }
+        return value;
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private void recordCoalesced(Object key, String source) {
+        registry.counter(COALESCED, "cache", getName(), "key.type", MeteredCache.keyType(getName(), key),
+            "source", source).increment();
+    }
+}
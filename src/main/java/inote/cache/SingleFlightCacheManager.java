@@ -0,0 +1,60 @@
+package inote.cache;
+
+import inote.config.SingleFlightProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Менеджер кэшей, оборачивающий кэши другого менеджера в {@link SingleFlightCache}.
+ *
+ * @author Avdeyev Viktor
+ */
+public class SingleFlightCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+
+    private final RedisLoadLock lock;
+
+    private final SingleFlightProperties properties;
+
+    private final MeterRegistry registry;
+
+    private final Map<String, SingleFlightCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate   менеджер кэшей
+     * @param lock       блокировка загрузки между узлами или null, если кэш не общий
+     * @param properties настройки ожидания
+     * @param registry   реестр метрик
+     */
+    public SingleFlightCacheManager(CacheManager delegate, RedisLoadLock lock, SingleFlightProperties properties,
+                                    MeterRegistry registry) {
+        this.delegate = delegate;
+        this.lock = lock;
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        SingleFlightCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> new SingleFlightCache(target, lock, properties, registry));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
@@ -0,0 +1,216 @@
+package inote.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.Getter;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Двухуровневый кэш: локальный Caffeine (L1) перед общим кэшем, например Redis (L2).
+ *
+ * Чтение сначала обращается к L1, при промахе значение читается из L2 и сохраняется в L1.
+ * Запись ({@link #put}, {@code @CachePut}) и удаление выполняются в L2 и L1, после чего остальным
+ * узлам рассылается инвалидация, и они удаляют ключ из своего L1. Загруженное при промахе значение
+ * сохраняется через {@link #putIfAbsent} без рассылки: оно не меняет данные, которые видят другие узлы.
+ * Ключи L1 хранятся в строковом виде, как и в Redis, поэтому инвалидация, переданная строкой,
+ * точно соответствует записи L1.
+ *
+ * Значение, прочитанное из L2, попадает в L1, только если ключ не инвалидировался за время чтения.
+ * Для этого каждая инвалидация увеличивает поколение ключа до удаления из L1, а заполнение L1
+ * сверяет поколение до чтения L2 и после записи в L1. Поколения хранятся по {@link #STRIPES}
+ * группам ключей: совпадение группы с другим ключом приводит только к лишнему промаху L1.
+ *
+ * Значения L1 не копируются: вызывающий код не должен изменять полученные из кэша объекты.
+ *
+ * @author Avdeyev Viktor
+ */
+public class TwoLevelCache implements org.springframework.cache.Cache {
+
+    static final int STRIPES = 1024;
+
+    @Getter
+    private final String name;
+
+    private final Cache<String, Object> local;
+
+    @Getter
+    private final org.springframework.cache.Cache remote;
+
+    private final CacheInvalidationBus bus;
+
+    private final String nodeId;
+
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    public TwoLevelCache(String name, Cache<String, Object> local, org.springframework.cache.Cache remote,
+                         CacheInvalidationBus bus, String nodeId) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.bus = bus;
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object stored = local.getIfPresent(localKey);
+        if (stored != null) {
+            return new SimpleValueWrapper(fromStored(stored));
+        }
+        long generation = generation(localKey);
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null) {
+            fillLocal(localKey, generation, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Значение кэша " + name + " по ключу " + key
+                + " не является " + type.getName());
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object stored = local.getIfPresent(localKey);
+        if (stored != null) {
+            return (T) fromStored(stored);
+        }
+        long generation = generation(localKey);
+        T value = remote.get(key, valueLoader);
+        fillLocal(localKey, generation, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        String localKey = localKey(key);
+        advance(localKey);
+        local.put(localKey, toStored(value));
+        bus.publish(new CacheInvalidation(nodeId, name, localKey));
+    }
+
+    /**
+     * Сохранить значение, загруженное при промахе. Значение, уже записанное в L2, не заменяется,
+     * инвалидация не рассылается.
+     */
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        String localKey = localKey(key);
+        long generation = generation(localKey);
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        fillLocal(localKey, generation, existing == null ? value : existing.get());
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        String localKey = localKey(key);
+        invalidateLocal(localKey);
+        bus.publish(new CacheInvalidation(nodeId, name, localKey));
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        invalidateLocal();
+        bus.publish(new CacheInvalidation(nodeId, name, null));
+    }
+
+    /**
+     * Удалить ключи из L1 после того, как L2 очищен напрямую, например одной командой DEL
+     * в {@link NoteCacheEvictor}. Остальным узлам отправляется одно сообщение об очистке L1
+     * вместо отдельного сообщения на каждый ключ.
+     *
+     * @param keys ключи кэша
+     */
+    public void evictLocal(Collection<?> keys) {
+        keys.forEach(key -> invalidateLocal(localKey(key)));
+        bus.publish(new CacheInvalidation(nodeId, name, null));
+    }
+
+    /**
+     * Применить инвалидацию, полученную от другого узла.
+     *
+     * @param invalidation сообщение
+     */
+    public void onInvalidation(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.getOrigin())) {
+            return;
+        }
+        if (invalidation.isClear()) {
+            invalidateLocal();
+        } else {
+            invalidateLocal(invalidation.getKey());
+        }
+    }
+
+    /**
+     * Сохранить в L1 значение, прочитанное из L2 в поколении generation. Если ключ инвалидирован после
+     * начала чтения, значение удаляется: инвалидация могла удалить ключ из L1 раньше, чем он был записан.
+     */
+    private void fillLocal(String localKey, long generation, Object value) {
+        local.put(localKey, toStored(value));
+        if (generation(localKey) != generation) {
+            local.invalidate(localKey);
+        }
+    }
+
+    private void invalidateLocal(String localKey) {
+        advance(localKey);
+        local.invalidate(localKey);
+    }
+
+    private void invalidateLocal() {
+        for (int i = 0; i < STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        local.invalidateAll();
+    }
+
+    private long generation(String localKey) {
+        return generations.get(stripe(localKey));
+    }
+
+    private void advance(String localKey) {
+        generations.incrementAndGet(stripe(localKey));
+    }
+
+    private static int stripe(String localKey) {
+        int hash = localKey.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private static Object toStored(Object value) {
+        return value == null ? NullValue.INSTANCE : value;
+    }
+
+    private static Object fromStored(Object stored) {
+        return stored == NullValue.INSTANCE ? null : stored;
+    }
+}
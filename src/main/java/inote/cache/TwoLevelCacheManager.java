@@ -0,0 +1,81 @@
+package inote.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import inote.config.TwoLevelCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Менеджер двухуровневых кэшей ({@link TwoLevelCache}) поверх менеджера общего кэша.
+ *
+ * Для каждого кэша создается локальный Caffeine, ограниченный по суммарному весу значений
+ * ({@link CacheWeigher}) и времени жизни. Инвалидации от других узлов применяются
+ * к соответствующему локальному кэшу.
+ *
+ * @author Avdeyev Viktor
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager remoteCacheManager;
+
+    private final CacheInvalidationBus bus;
+
+    private final TwoLevelCacheProperties properties;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, CacheInvalidationBus bus,
+                                TwoLevelCacheProperties properties) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.bus = bus;
+        this.properties = properties;
+        bus.subscribe(this::onInvalidation);
+        log.info("Двухуровневый кэш включен, узел {}", nodeId);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> createCache(key, remote));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    private TwoLevelCache createCache(String name, Cache remote) {
+        TwoLevelCacheProperties.Region region = properties.region(name);
+        log.info("Локальный кэш {}: maxWeight = {}, expireAfterWrite = {}",
+            name, region.getMaxWeight(), region.getExpireAfterWrite());
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+            .maximumWeight(region.getMaxWeight().toBytes())
+            .weigher((String key, Object value) -> CacheWeigher.weigh(value))
+            .expireAfterWrite(region.getExpireAfterWrite())
+            .build();
+        return new TwoLevelCache(name, local, remote, bus, nodeId);
+    }
+
+    private void onInvalidation(CacheInvalidation invalidation) {
+        TwoLevelCache cache = caches.get(invalidation.getCacheName());
+        if (cache != null) {
+            cache.onInvalidation(invalidation);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package inote.config;
+
+import inote.cache.CacheInvalidationBus;
+import inote.cache.RedisCacheInvalidationBus;
+import inote.cache.TwoLevelCacheManager;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.LinkedHashSet;
+
+/**
+ * Конфигурация двухуровневого кэша: локальный Caffeine (L1) перед Redis (L2)
+ * с инвалидацией L1 на всех узлах через Redis pub/sub.
+ *
+ * Включается при {@code spring.cache.type: redis} и {@code inote.cache.l1.enabled: true}
+ * и заменяет автоматически настраиваемый RedisCacheManager, используя настройки из {@link RedisCacheConfig}.
+ *
+ * @author Avdeyev Viktor
+ */
+@Configuration
+@ConditionalOnExpression("'${spring.cache.type:}' == 'redis' and ${inote.cache.l1.enabled:true}")
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(StringRedisTemplate redisTemplate,
+                                                     RedisMessageListenerContainer cacheInvalidationListenerContainer,
+                                                     TwoLevelCacheProperties properties) {
+        return new RedisCacheInvalidationBus(redisTemplate, cacheInvalidationListenerContainer,
+            properties.getChannel());
+    }
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory, CacheProperties cacheProperties,
+                                     RedisCacheConfiguration redisCacheConfiguration,
+                                     CacheInvalidationBus cacheInvalidationBus, TwoLevelCacheProperties properties) {
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+            .cacheDefaults(redisCacheConfiguration)
+            .initialCacheNames(new LinkedHashSet<>(cacheProperties.getCacheNames()))
+            .build();
+        redisCacheManager.afterPropertiesSet();
+        return new TwoLevelCacheManager(redisCacheManager, cacheInvalidationBus, properties);
+    }
+}
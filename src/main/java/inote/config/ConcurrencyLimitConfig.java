@@ -0,0 +1,46 @@
+package inote.config;
+
+import inote.limit.ConcurrencyLimitInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Адаптивное ограничение одновременных запросов к API заметок ({@code inote.concurrency-limit.enabled}).
+ *
+ * Если реестр метрик не создан, например в тестах контроллеров, метрики пишутся в глобальный реестр Micrometer.
+ *
+ * @author Avdeyev Viktor
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "inote.concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final ConcurrencyLimitProperties properties;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ConcurrencyLimitConfig(ConcurrencyLimitProperties properties, ObjectProvider<MeterRegistry> registry) {
+        this.properties = properties;
+        this.meterRegistry = registry;
+    }
+
+    @Bean
+    public ConcurrencyLimitInterceptor concurrencyLimitInterceptor() {
+        return new ConcurrencyLimitInterceptor(properties, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(concurrencyLimitInterceptor()).addPathPatterns("/inote/**");
+    }
+}
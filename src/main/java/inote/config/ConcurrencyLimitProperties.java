@@ -0,0 +1,59 @@
+package inote.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки адаптивного ограничения одновременных запросов к API заметок.
+ * Задаются в application.yaml с префиксом {@code inote.concurrency-limit}.
+ *
+ * @author Avdeyev Viktor
+ */
+@Data
+@ConfigurationProperties(prefix = "inote.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * Ограничивать одновременные запросы и отклонять лишние с кодом 503.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Предел каждой группы при запуске, до первых замеров задержки.
+     */
+    private int initialLimit = 20;
+
+    /**
+     * Наименьший предел группы.
+     */
+    private int minLimit = 4;
+
+    /**
+     * Наибольший предел группы. Не должен превышать размер пула соединений с БД больше,
+     * чем допустимо ожидание соединения.
+     */
+    private int maxLimit = 200;
+
+    /**
+     * Во сколько раз задержка может превысить обычную, прежде чем предел начнет уменьшаться.
+     */
+    private double tolerance = 1.5;
+
+    /**
+     * Доля нового значения при пересчете предела, от 0 до 1.
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * Доля суммарного предела всех групп, которую могут занимать неприоритетные группы (запись
+     * и выборки из БД). Остаток предназначен для чтения из кэша.
+     */
+    private double lowPriorityShare = 0.7;
+
+    /**
+     * Значение заголовка Retry-After отклоненного запроса.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
@@ -0,0 +1,34 @@
+package inote.config;
+
+import inote.cache.MeteredCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация метрик кэша.
+ *
+ * Любой {@link CacheManager} приложения (Redis, двухуровневый, в памяти) оборачивается
+ * в {@link MeteredCacheManager}, который считает попадания и промахи по типам ключей.
+ *
+ * @author Avdeyev Viktor
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor meteredCacheManagerPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CacheManager cacheManager && !(bean instanceof MeteredCacheManager)) {
+                    return new MeteredCacheManager(cacheManager, registry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package inote.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.Period;
+
+/**
+ * Настройки обслуживания разделов таблицы notes, секционированной по месяцам created_at
+ * (миграция с контекстом notes-partitioning).
+ * Задаются в application.yaml с префиксом {@code inote.partitions}.
+ *
+ * @author Avdeyev Viktor
+ */
+@Data
+@ConfigurationProperties(prefix = "inote.partitions")
+public class PartitionProperties {
+
+    /**
+     * Создавать разделы следующих месяцев и отключать устаревшие по расписанию.
+     */
+    private boolean enabled = false;
+
+    /**
+     * На сколько месяцев вперед после текущего должны существовать разделы.
+     */
+    private int monthsAhead = 3;
+
+    /**
+     * Срок хранения заметок: раздел месяца отключается, когда все его заметки старше срока.
+     * Если не задан, разделы не отключаются.
+     */
+    private Period retention;
+
+    /**
+     * Что делать с устаревшим разделом.
+     */
+    private ExpiredAction expiredAction = ExpiredAction.DETACH;
+
+    /**
+     * Интервал проверки разделов.
+     */
+    private Duration checkInterval = Duration.ofHours(1);
+
+    /**
+     * Действие с устаревшим разделом.
+     */
+    public enum ExpiredAction {
+
+        /**
+         * Отсоединить раздел от notes и оставить отдельной таблицей, например для выгрузки в архив.
+         * Версии заметок раздела переносятся из note_revisions в отдельную таблицу note_revisions_ГГГГ_ММ.
+         */
+        DETACH,
+
+        /**
+         * Удалить раздел вместе с версиями его заметок.
+         */
+        DROP
+    }
+}
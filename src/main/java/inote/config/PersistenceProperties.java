@@ -0,0 +1,37 @@
+package inote.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки слоя доступа к данным.
+ * Задаются в application.yaml с префиксом {@code inote.persistence}.
+ *
+ * @author Avdeyev Viktor
+ */
+@Data
+@ConfigurationProperties(prefix = "inote.persistence")
+public class PersistenceProperties {
+
+    /**
+     * Количество строк, получаемых из БД за одно обращение при потоковой выгрузке заметок.
+     */
+    private int exportFetchSize = 500;
+
+    /**
+     * Количество заметок, после которого при пакетном сохранении контекст персистентности
+     * сбрасывается в БД и очищается. Должно совпадать с hibernate.jdbc.batch_size.
+     */
+    private int batchSize = 50;
+
+    /**
+     * Использовать полнотекстовый поиск PostgreSQL (колонка search_vector и GIN-индекс).
+     * Если выключено, поиск выполняется через LIKE, например на H2 в тестовом профиле.
+     */
+    private boolean fullTextSearch = true;
+
+    /**
+     * Максимальное количество символов содержимого в кратком представлении заметки.
+     */
+    private int summaryPreviewLength = 200;
+}
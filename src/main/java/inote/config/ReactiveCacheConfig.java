@@ -0,0 +1,39 @@
+package inote.config;
+
+import inote.cache.LocalReactiveNoteCache;
+import inote.cache.ReactiveNoteCache;
+import inote.cache.RedisReactiveNoteCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+
+/**
+ * Конфигурация кэша реактивного стека (профиль reactive).
+ *
+ * При {@code spring.cache.type: redis} используется {@link RedisReactiveNoteCache} с настройками
+ * из {@link RedisCacheConfig}, иначе кэши в памяти из {@link CacheManager}.
+ *
+ * @author Avdeyev Viktor
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveCacheConfig {
+
+    @Bean
+    @ConditionalOnExpression("'${spring.cache.type:}' == 'redis'")
+    public ReactiveNoteCache redisReactiveNoteCache(ReactiveRedisConnectionFactory connectionFactory,
+                                                    RedisCacheConfiguration redisCacheConfiguration,
+                                                    TwoLevelCacheProperties properties) {
+        return new RedisReactiveNoteCache(connectionFactory, redisCacheConfiguration, properties.getChannel());
+    }
+
+    @Bean
+    @ConditionalOnExpression("'${spring.cache.type:}' != 'redis'")
+    public ReactiveNoteCache localReactiveNoteCache(CacheManager cacheManager) {
+        return new LocalReactiveNoteCache(cacheManager);
+    }
+}
@@ -0,0 +1,85 @@
+package inote.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import inote.datasource.CachedReadsOnPrimary;
+import inote.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Источники соединений при чтении с реплик ({@code inote.read-replicas.enabled: true}).
+ *
+ * Основная БД настраивается как обычно через spring.datasource, пулы реплик получают те же
+ * настройки Hikari. Приложение (JPA, Liquibase) использует {@link LazyConnectionDataSourceProxy}
+ * поверх {@link ReplicaRoutingDataSource}. Чтение для заполнения кэша выполняется на основной БД
+ * ({@link CachedReadsOnPrimary}).
+ *
+ * @author Avdeyev Viktor
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "inote.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             ReadReplicaProperties properties,
+                                                             MeterRegistry registry) {
+        if (properties.getNodes().isEmpty()) {
+            throw new IllegalStateException("Чтение с реплик включено, но inote.read-replicas.nodes не заданы");
+        }
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < properties.getNodes().size(); i++) {
+            ReadReplicaProperties.Node node = properties.getNodes().get(i);
+            String name = node.getName() != null ? node.getName() : "replica-" + (i + 1);
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName(name);
+            config.setJdbcUrl(node.getUrl());
+            config.setUsername(node.getUsername() != null ? node.getUsername() : dataSourceProperties.getUsername());
+            config.setPassword(node.getPassword() != null ? node.getPassword() : dataSourceProperties.getPassword());
+            config.setReadOnly(true);
+            // Недоступная при запуске реплика не должна мешать запуску приложения
+            config.setInitializationFailTimeout(-1);
+            replicas.put(name, new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties, registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+        // Иначе прокси запрашивает соединение при создании, чтобы узнать значения по умолчанию
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+
+    @Bean
+    public CachedReadsOnPrimary cachedReadsOnPrimary() {
+        return new CachedReadsOnPrimary();
+    }
+}
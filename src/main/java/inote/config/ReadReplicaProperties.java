@@ -0,0 +1,67 @@
+package inote.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки чтения с реплик БД.
+ * Задаются в application.yaml с префиксом {@code inote.read-replicas}.
+ *
+ * @author Avdeyev Viktor
+ */
+@Data
+@ConfigurationProperties(prefix = "inote.read-replicas")
+public class ReadReplicaProperties {
+
+    /**
+     * Выполнять транзакции readOnly на репликах из {@link #nodes}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Реплики, между которыми по очереди распределяются читающие транзакции.
+     */
+    private List<Node> nodes = new ArrayList<>();
+
+    /**
+     * Сколько времени после собственной записи клиент читает с основной БД,
+     * чтобы видеть свои изменения, пока они доходят до реплик.
+     */
+    private Duration readYourWrites = Duration.ofSeconds(5);
+
+    /**
+     * Наибольшее отставание реплики, при котором с нее еще читают.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Интервал проверки отставания и доступности реплик.
+     */
+    private Duration checkInterval = Duration.ofSeconds(5);
+
+    /**
+     * Запрос отставания реплики в секундах. Если не задан, проверяется только доступность реплики.
+     * Для PostgreSQL отставание считается нулевым, если все полученные изменения уже применены.
+     */
+    private String lagQuery = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+        + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    /**
+     * Реплика БД. Не заданные имя пользователя и пароль берутся из spring.datasource.
+     */
+    @Data
+    public static class Node {
+
+        private String name;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
@@ -0,0 +1,53 @@
+package inote.config;
+
+import inote.cache.NoteCacheCodec;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Настройки Redis-кэша: формат значений и параметры spring.cache.redis.
+ *
+ * Конфигурация используется и автоматически настраиваемым RedisCacheManager,
+ * и двухуровневым кэшем из {@link CacheConfig}.
+ *
+ * @author Avdeyev Viktor
+ */
+@Configuration
+@ConditionalOnExpression("'${spring.cache.type:}' == 'redis'")
+@EnableConfigurationProperties(CacheProperties.class)
+public class RedisCacheConfig {
+
+    @Bean
+    public RedisCacheConfiguration redisCacheConfiguration(CacheProperties cacheProperties,
+                                                           RedisCacheProperties properties,
+                                                           ResourceLoader resourceLoader) {
+        ClassLoader classLoader = resourceLoader.getClassLoader();
+        RedisSerializer<Object> serializer = properties.getCodec() == RedisCacheProperties.Codec.BINARY
+            ? new NoteCacheCodec(classLoader)
+            : new JdkSerializationRedisSerializer(classLoader);
+        CacheProperties.Redis redis = cacheProperties.getRedis();
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
+            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer));
+        if (redis.getTimeToLive() != null) {
+            config = config.entryTtl(redis.getTimeToLive());
+        }
+        if (redis.getKeyPrefix() != null) {
+            config = config.prefixCacheNameWith(redis.getKeyPrefix());
+        }
+        if (!redis.isCacheNullValues()) {
+            config = config.disableCachingNullValues();
+        }
+        if (!redis.isUseKeyPrefix()) {
+            config = config.disableKeyPrefix();
+        }
+        return config;
+    }
+}
@@ -0,0 +1,36 @@
+package inote.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки хранения значений кэша в Redis.
+ * Задаются в application.yaml с префиксом {@code inote.cache.redis}.
+ *
+ * @author Avdeyev Viktor
+ */
+@Data
+@ConfigurationProperties(prefix = "inote.cache.redis")
+public class RedisCacheProperties {
+
+    /**
+     * Формат значений кэша.
+     */
+    private Codec codec = Codec.BINARY;
+
+    /**
+     * Формат значений кэша в Redis.
+     */
+    public enum Codec {
+
+        /**
+         * Компактный двоичный формат {@link inote.cache.NoteCacheCodec}.
+         */
+        BINARY,
+
+        /**
+         * Стандартная JDK-сериализация.
+         */
+        JDK
+    }
+}
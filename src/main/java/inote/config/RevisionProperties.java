@@ -0,0 +1,26 @@
+package inote.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки истории версий заметок.
+ * Задаются в application.yaml с префиксом {@code inote.revisions}.
+ *
+ * @author Avdeyev Viktor
+ */
+@Data
+@ConfigurationProperties(prefix = "inote.revisions")
+public class RevisionProperties {
+
+    /**
+     * Записывать версию заметки при каждом изменении.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Каждая N-я версия хранится целиком, остальные правкой относительно предыдущей.
+     * Ограничивает количество правок, применяемых при восстановлении версии.
+     */
+    private int snapshotInterval = 20;
+}
@@ -0,0 +1,50 @@
+package inote.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки поиска заметок.
+ * Задаются в application.yaml с префиксом {@code inote.search}.
+ *
+ * @author Avdeyev Viktor
+ */
+@Data
+@ConfigurationProperties(prefix = "inote.search")
+public class SearchProperties {
+
+    /**
+     * Механизм поиска.
+     */
+    public enum Engine {
+        /**
+         * Поиск средствами СУБД (см. {@link PersistenceProperties#isFullTextSearch()}).
+         */
+        DATABASE,
+        /**
+         * Встроенный инвертированный индекс в памяти приложения, БД используется только для чтения
+         * найденных заметок. Пока индекс строится, поиск выполняется средствами СУБД.
+         */
+        INDEX
+    }
+
+    private Engine engine = Engine.DATABASE;
+
+    /**
+     * Количество заметок, читаемых из БД за один запрос при построении индекса.
+     */
+    private int indexChunkSize = 1000;
+
+    /**
+     * Автодополнение заголовков из префиксного индекса в памяти приложения ({@link inote.search.NoteTitleIndex}).
+     * Пока индекс строится или если он выключен, подсказки читаются из БД.
+     * Индекс получает только изменения, сделанные на этом узле, поэтому включается
+     * лишь при одном экземпляре приложения.
+     */
+    private boolean titleIndex;
+
+    /**
+     * Максимальное количество подсказок автодополнения заголовков на один запрос.
+     */
+    private int titleSuggestLimit = 20;
+}
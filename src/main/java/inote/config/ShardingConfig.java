@@ -0,0 +1,196 @@
+package inote.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import inote.entity.Note;
+import inote.repository.NoteRepository;
+import inote.repository.impl.NoteRepositoryImpl;
+import inote.repository.impl.ShardedNoteRepository;
+import jakarta.persistence.EntityManagerFactory;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Хранение заметок в нескольких БД ({@code inote.sharding.enabled: true}).
+ *
+ * Шард 0 - основная БД со своими JPA и транзакциями из автоконфигурации Spring Boot. Для каждой
+ * БД из {@code inote.sharding.shards} создаются пул соединений с настройками Hikari основной БД,
+ * отдельная фабрика EntityManager (генератор ID хранит блоки последовательности своей БД)
+ * и менеджер транзакций. Миграции Liquibase применяются к каждой дополнительной БД при запуске
+ * с параметром shardIdBase, который переносит последовательность notes_id_seq в диапазон ID шарда.
+ *
+ * @author Avdeyev Viktor
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "inote.sharding", name = "enabled", havingValue = "true")
+@Slf4j
+public class ShardingConfig implements DisposableBean {
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @Bean
+    @Primary
+    public ShardedNoteRepository shardedNoteRepository(NoteRepositoryImpl noteRepositoryImpl,
+                                                       PlatformTransactionManager transactionManager,
+                                                       DataSource dataSource,
+                                                       DataSourceProperties dataSourceProperties,
+                                                       ObjectProvider<LiquibaseProperties> liquibaseProperties,
+                                                       EntityManagerFactoryBuilder entityManagerFactoryBuilder,
+                                                       ResourceLoader resourceLoader,
+                                                       ShardingProperties properties,
+                                                       PersistenceProperties persistenceProperties,
+                                                       RevisionProperties revisionProperties,
+                                                       PartitionProperties partitionProperties) throws SQLException {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("Шардирование включено, но inote.sharding.shards не заданы");
+        }
+        if (revisionProperties.isEnabled()) {
+            // История версий ссылается на заметки внешним ключом и хранится только в основной БД
+            throw new IllegalStateException("История версий (inote.revisions.enabled) не поддерживается при шардировании");
+        }
+        if (partitionProperties.isEnabled()) {
+            // Обслуживание разделов создает и отключает разделы только в основной БД,
+            // в дополнительных шардах заметки попадали бы в раздел по умолчанию и не устаревали
+            throw new IllegalStateException("Обслуживание разделов (inote.partitions.enabled) не поддерживается при шардировании");
+        }
+        List<ShardedNoteRepository.Shard> shards = new ArrayList<>();
+        shards.add(shard(0, noteRepositoryImpl, dataSource, transactionManager));
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            int index = i + 1;
+            DataSource shardDataSource = shardDataSource(index, properties.getShards().get(i), dataSource,
+                dataSourceProperties);
+            LiquibaseProperties liquibase = liquibaseProperties.getIfAvailable();
+            if (liquibase != null && liquibase.isEnabled()) {
+                migrate(index, shardDataSource, liquibase, resourceLoader);
+            }
+            LocalContainerEntityManagerFactoryBean factoryBean = entityManagerFactoryBuilder
+                .dataSource(shardDataSource)
+                .packages(Note.class)
+                .persistenceUnit("shard-" + index)
+                .build();
+            factoryBean.afterPropertiesSet();
+            EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+            resources.add(entityManagerFactory::close);
+            NoteRepository repository = new NoteRepositoryImpl(
+                SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory), persistenceProperties);
+            shards.add(shard(index, repository, shardDataSource, new JpaTransactionManager(entityManagerFactory)));
+            log.info("Шард {} подключен: {}", index, properties.getShards().get(i).getUrl());
+        }
+        ExecutorService executor = queryExecutor(shards.size() * maximumPoolSize(dataSource));
+        resources.add(executor::shutdownNow);
+        return new ShardedNoteRepository(shards, executor, persistenceProperties.getExportFetchSize());
+    }
+
+    /**
+     * Пул для параллельных запросов к шардам. Запрос к шарду занимает соединение его пула,
+     * поэтому потоков больше, чем соединений всех шардов, не нужно: лишние только ждали бы
+     * соединения. Задачи сверх числа потоков ждут в очереди, простаивающие потоки завершаются.
+     *
+     * @param threads наибольшее количество потоков
+     */
+    private static ExecutorService queryExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "shard-query-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Размер пула соединений шарда: пулы дополнительных шардов копируют настройки основного.
+     */
+    private static int maximumPoolSize(DataSource dataSource) throws SQLException {
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        }
+        return new HikariConfig().getMaximumPoolSize();
+    }
+
+    /**
+     * Остановить пул запросов к шардам, закрыть фабрики EntityManager и пулы соединений дополнительных шардов.
+     */
+    @Override
+    public void destroy() {
+        for (int i = resources.size() - 1; i >= 0; i--) {
+            try {
+                resources.get(i).close();
+            } catch (Exception e) {
+                log.warn("Ошибка закрытия ресурса шарда", e);
+            }
+        }
+    }
+
+    private static ShardedNoteRepository.Shard shard(int index, NoteRepository repository, DataSource dataSource,
+                                                     PlatformTransactionManager transactionManager) {
+        TransactionTemplate readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        return new ShardedNoteRepository.Shard(index, repository, dataSource, readTransaction,
+            new TransactionTemplate(transactionManager));
+    }
+
+    private DataSource shardDataSource(int index, ShardingProperties.Node node, DataSource primary,
+                                       DataSourceProperties dataSourceProperties) throws SQLException {
+        HikariConfig config = new HikariConfig();
+        if (primary.isWrapperFor(HikariDataSource.class)) {
+            primary.unwrap(HikariDataSource.class).copyStateTo(config);
+        } else {
+            config.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        }
+        config.setPoolName("shard-" + index);
+        config.setJdbcUrl(node.getUrl());
+        config.setUsername(node.getUsername() != null ? node.getUsername() : dataSourceProperties.getUsername());
+        config.setPassword(node.getPassword() != null ? node.getPassword() : dataSourceProperties.getPassword());
+        HikariDataSource dataSource = new HikariDataSource(config);
+        resources.add(dataSource);
+        return dataSource;
+    }
+
+    private static void migrate(int index, DataSource dataSource, LiquibaseProperties properties,
+                                ResourceLoader resourceLoader) {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setResourceLoader(resourceLoader);
+        liquibase.setChangeLog(properties.getChangeLog());
+        if (properties.getContexts() != null) {
+            liquibase.setContexts(String.join(",", properties.getContexts()));
+        }
+        liquibase.setChangeLogParameters(Map.of("shardIdBase", Long.toString(ShardedNoteRepository.idBase(index))));
+        try {
+            liquibase.afterPropertiesSet();
+        } catch (Exception e) {
+            throw new IllegalStateException("Ошибка миграции шарда " + index, e);
+        }
+    }
+}
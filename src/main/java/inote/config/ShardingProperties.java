@@ -0,0 +1,42 @@
+package inote.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки распределения заметок по нескольким БД (шардам).
+ * Задаются в application.yaml с префиксом {@code inote.sharding}.
+ *
+ * @author Avdeyev Viktor
+ */
+@Data
+@ConfigurationProperties(prefix = "inote.sharding")
+public class ShardingProperties {
+
+    /**
+     * Хранить заметки в нескольких БД: шард 0 - основная БД spring.datasource, далее {@link #shards}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Дополнительные БД, номер шарда - позиция в списке плюс один. Порядок менять нельзя:
+     * номер шарда записан в ID его заметок.
+     */
+    private List<Node> shards = new ArrayList<>();
+
+    /**
+     * БД шарда. Не заданные имя пользователя и пароль берутся из spring.datasource.
+     */
+    @Data
+    public static class Node {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
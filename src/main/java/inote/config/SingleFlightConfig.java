@@ -0,0 +1,77 @@
+package inote.config;
+
+import inote.cache.RedisLoadLock;
+import inote.cache.SingleFlightCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Конфигурация объединения загрузок при промахе кэша.
+ *
+ * {@link CacheManager} приложения оборачивается в {@link SingleFlightCacheManager} раньше, чем
+ * в счетчики из {@link MetricsConfig}. При {@code spring.cache.type: redis} загрузки согласуются между
+ * узлами блокировкой в Redis, с другими кэшами - только на узле.
+ *
+ * @author Avdeyev Viktor
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "inote.cache.single-flight", name = "enabled", havingValue = "true",
+    matchIfMissing = true)
+public class SingleFlightConfig {
+
+    @Bean
+    public static BeanPostProcessor singleFlightCacheManagerPostProcessor(
+        ObjectProvider<SingleFlightProperties> properties, ObjectProvider<StringRedisTemplate> redisTemplate,
+        ObjectProvider<MeterRegistry> registry, Environment environment) {
+        return new SingleFlightPostProcessor(properties, redisTemplate, registry, environment);
+    }
+
+    private static final class SingleFlightPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<SingleFlightProperties> properties;
+
+        private final ObjectProvider<StringRedisTemplate> redisTemplate;
+
+        private final ObjectProvider<MeterRegistry> registry;
+
+        private final Environment environment;
+
+        private SingleFlightPostProcessor(ObjectProvider<SingleFlightProperties> properties,
+                                          ObjectProvider<StringRedisTemplate> redisTemplate,
+                                          ObjectProvider<MeterRegistry> registry, Environment environment) {
+            this.properties = properties;
+            this.redisTemplate = redisTemplate;
+            this.registry = registry;
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof CacheManager cacheManager) || bean instanceof SingleFlightCacheManager) {
+                return bean;
+            }
+            SingleFlightProperties settings = properties.getObject();
+            StringRedisTemplate template = redisTemplate.getIfAvailable();
+            RedisLoadLock lock = "redis".equals(environment.getProperty("spring.cache.type")) && template != null
+                ? new RedisLoadLock(template, settings.getLockPrefix(), settings.getLockTtl())
+                : null;
+            return new SingleFlightCacheManager(cacheManager, lock, settings, registry.getObject());
+        }
+
+        /**
+         * Раньше обертки со счетчиками, которая не задает порядок.
+         */
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
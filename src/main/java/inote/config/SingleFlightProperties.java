@@ -0,0 +1,43 @@
+package inote.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки объединения одновременных загрузок при промахе кэша.
+ * Задаются в application.yaml с префиксом {@code inote.cache.single-flight}.
+ *
+ * @author Avdeyev Viktor
+ */
+@Data
+@ConfigurationProperties(prefix = "inote.cache.single-flight")
+public class SingleFlightProperties {
+
+    /**
+     * Объединять загрузки одного ключа кэша.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Время жизни блокировки загрузки в Redis. Если узел, захвативший блокировку, остановился,
+     * другие узлы начнут загрузку не позже чем через это время.
+     */
+    private Duration lockTtl = Duration.ofSeconds(5);
+
+    /**
+     * Наибольшее время ожидания значения, загружаемого другим узлом, после которого узел загружает его сам.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Интервал проверки кэша при ожидании значения, загружаемого другим узлом.
+     */
+    private Duration pollInterval = Duration.ofMillis(50);
+
+    /**
+     * Префикс ключей блокировок в Redis.
+     */
+    private String lockPrefix = "inote:cache:lock:";
+}
@@ -0,0 +1,64 @@
+package inote.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки локального кэша (L1) перед Redis.
+ * Задаются в application.yaml с префиксом {@code inote.cache.l1}.
+ *
+ * @author Avdeyev Viktor
+ */
+@Data
+@ConfigurationProperties(prefix = "inote.cache.l1")
+public class TwoLevelCacheProperties {
+
+    /**
+     * Включить локальный кэш. Действует только при {@code spring.cache.type: redis}.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Канал Redis pub/sub для рассылки инвалидаций между узлами.
+     */
+    private String channel = "inote:cache:invalidation";
+
+    /**
+     * Настройки по умолчанию для кэшей, не перечисленных в regions.
+     */
+    private Region defaults = new Region();
+
+    /**
+     * Настройки отдельных кэшей по имени.
+     */
+    private Map<String, Region> regions = new HashMap<>();
+
+    /**
+     * Получить настройки кэша с учетом значений по умолчанию.
+     */
+    public Region region(String name) {
+        return regions.getOrDefault(name, defaults);
+    }
+
+    /**
+     * Настройки одного кэша.
+     */
+    @Data
+    public static class Region {
+
+        /**
+         * Максимальный суммарный размер значений, оценивается приблизительно.
+         */
+        private DataSize maxWeight = DataSize.ofMegabytes(32);
+
+        /**
+         * Время жизни записи. Ограничивает устаревание при потере сообщения об инвалидации.
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+    }
+}
@@ -0,0 +1,34 @@
+package inote.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки отложенной записи изменений заметок (write-behind).
+ * Задаются в application.yaml с префиксом {@code inote.write-behind}.
+ *
+ * @author Avdeyev Viktor
+ */
+@Data
+@ConfigurationProperties(prefix = "inote.write-behind")
+public class WriteBehindProperties {
+
+    /**
+     * Накапливать изменения заметок в памяти и записывать их в БД пакетами.
+     * При падении узла теряются изменения за последние {@link #maxDelay}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Максимальное время между изменением заметки и его записью в БД.
+     */
+    private Duration maxDelay = Duration.ofSeconds(2);
+
+    /**
+     * Количество заметок с незаписанными изменениями, при котором запись выполняется
+     * немедленно в потоке запроса.
+     */
+    private int maxPending = 10_000;
+}
@@ -1,50 +1,185 @@
 package inote.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import inote.dto.BulkNoteRequest;
+import inote.dto.BulkResult;
+import inote.dto.CursorPage;
+import inote.dto.NotePatch;
+import inote.dto.NoteRevisionSummary;
+import inote.dto.NoteSearchHit;
+import inote.dto.NoteSummary;
+import inote.dto.NoteVersion;
+import inote.dto.TitleSuggestion;
 import inote.entity.Note;
+import inote.exception.BadRequestException;
+import inote.limit.ConcurrencyGroup;
+import inote.limit.RequestGroup;
+import inote.service.NoteRevisionService;
 import inote.service.NoteService;
+import inote.util.NdjsonWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Контроллер для управления заметками.
  *
+ * Одновременные запросы ограничиваются по группам {@link RequestGroup}: при перегрузке лишние запросы
+ * отклоняются с кодом 503, чтение из кэша отклоняется последним.
+ *
  * @author Avdeyev Viktor
  */
 @Tag(name = "Контроллер для управления заметками")
 @RestController
+@Profile("!reactive")
 @Slf4j
 @RequestMapping("/inote/notes")
 @RequiredArgsConstructor
 public class NoteController {
 
+    /**
+     * Размер страницы по умолчанию.
+     */
+    private static final String DEFAULT_PAGE_LIMIT = "50";
+
+    /**
+     * Количество подсказок автодополнения по умолчанию.
+     */
+    private static final String DEFAULT_SUGGEST_LIMIT = "10";
+
+    /**
+     * MIME-тип потоковой выгрузки: одна заметка в формате JSON на строку.
+     */
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
+    /**
+     * Размер буфера сжатия при выгрузке в gzip.
+     */
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final NoteService noteService;
 
-    @Operation(summary = "Получение списка всех заметок")
+    private final NoteRevisionService noteRevisionService;
+
+    private final ObjectMapper objectMapper;
+
+    @Operation(summary = "Получение страницы заметок (keyset-пагинация по ID)")
     @GetMapping
-    public ResponseEntity<List<Note>> getAllNotes() {
-        log.info("getAllNotes - start");
-        long startTime = System.currentTimeMillis();
-        List<Note> notes = noteService.findAll();
-        long duration = System.currentTimeMillis() - startTime;
-        log.info("Duration = {}", duration);
-        log.info("getAllNotes - end, notesCount = {}", notes.size());
-        return ResponseEntity.ok(notes);
+    @ConcurrencyGroup(RequestGroup.CACHED_READ)
+    public ResponseEntity<CursorPage<Note>> getAllNotes(
+        @RequestParam(value = "after", required = false) String after,
+        @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_LIMIT) int limit,
+        WebRequest request
+    ) {
+        log.info("getAllNotes - start, after = {}, limit = {}", after, limit);
+        NoteVersion version = noteService.findCollectionVersion();
+        if (isNotModified(request, version)) {
+            log.info("getAllNotes - end, not modified, version = {}", version);
+            return null;
+        }
+        CursorPage<Note> page = noteService.findPage(after, limit);
+        log.info("getAllNotes - end, notesCount = {}, next = {}", page.getItems().size(), page.getNext());
+        return okWithVersion(version).body(page);
+    }
+
+    @Operation(summary = "Получение страницы кратких представлений заметок без полного содержимого")
+    @GetMapping("/summaries")
+    @ConcurrencyGroup(RequestGroup.CACHED_READ)
+    public ResponseEntity<CursorPage<NoteSummary>> getNoteSummaries(
+        @RequestParam(value = "after", required = false) String after,
+        @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_LIMIT) int limit,
+        WebRequest request
+    ) {
+        log.info("getNoteSummaries - start, after = {}, limit = {}", after, limit);
+        NoteVersion version = noteService.findCollectionVersion();
+        if (isNotModified(request, version)) {
+            log.info("getNoteSummaries - end, not modified, version = {}", version);
+            return null;
+        }
+        CursorPage<NoteSummary> page = noteService.findSummaryPage(after, limit);
+        log.info("getNoteSummaries - end, notesCount = {}, next = {}", page.getItems().size(), page.getNext());
+        return okWithVersion(version).body(page);
+    }
+
+    @Operation(summary = "Потоковая выгрузка всех заметок в формате NDJSON")
+    @GetMapping(value = "/export", produces = NDJSON_VALUE)
+    @ConcurrencyGroup(RequestGroup.SCAN)
+    public ResponseEntity<StreamingResponseBody> exportNotes(
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        log.info("exportNotes - start, gzip = {}", gzip);
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = gzip ? new GZIPOutputStream(outputStream, EXPORT_BUFFER_SIZE, true) : outputStream;
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+            long count = noteService.exportAll(writer::write);
+            writer.finish();
+            log.info("exportNotes - end, notesCount = {}", count);
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(NDJSON_VALUE));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @Operation(summary = "Полнотекстовый поиск заметок по заголовку и содержимому")
+    @GetMapping("/search")
+    @ConcurrencyGroup(RequestGroup.SCAN)
+    public ResponseEntity<CursorPage<NoteSearchHit>> searchNotes(
+        @RequestParam(value = "q", required = false) String query,
+        @RequestParam(value = "after", required = false) String after,
+        @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_LIMIT) int limit
+    ) {
+        log.info("searchNotes - start, q = {}, after = {}, limit = {}", query, after, limit);
+        CursorPage<NoteSearchHit> page = noteService.search(query, after, limit);
+        log.info("searchNotes - end, hitsCount = {}, next = {}", page.getItems().size(), page.getNext());
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(summary = "Автодополнение заголовков заметок по префиксу")
+    @GetMapping("/title-suggest")
+    @ConcurrencyGroup(RequestGroup.CACHED_READ)
+    public ResponseEntity<List<TitleSuggestion>> suggestTitles(
+        @RequestParam(value = "prefix", required = false) String prefix,
+        @RequestParam(value = "limit", defaultValue = DEFAULT_SUGGEST_LIMIT) int limit
+    ) {
+        log.info("suggestTitles - start, prefix = {}, limit = {}", prefix, limit);
+        List<TitleSuggestion> suggestions = noteService.suggestTitles(prefix, limit);
+        log.info("suggestTitles - end, suggestionsCount = {}", suggestions.size());
+        return ResponseEntity.ok(suggestions);
     }
 
     @Operation(summary = "Получение заметки по ID")
     @GetMapping("/{noteId}")
-    public ResponseEntity<Note> getNoteById(@PathVariable Long noteId) {
+    @ConcurrencyGroup(RequestGroup.CACHED_READ)
+    public ResponseEntity<Note> getNoteById(@PathVariable Long noteId, WebRequest request) {
         log.info("getNoteById - start, noteId = {}", noteId);
+        NoteVersion version = noteService.findVersion(noteId);
+        if (isNotModified(request, version)) {
+            log.info("getNoteById - end, not modified, noteId = {}", noteId);
+            return null;
+        }
         Optional<Note> note = noteService.findById(noteId);
         if (note.isEmpty()) {
             log.warn("getNoteById - заметка с ID {} не найдена", noteId);
@@ -52,50 +187,98 @@ public class NoteController {
         }
 
         log.info("getNoteById - end, note = {}", note.get());
-        return ResponseEntity.ok(note.get());
+        return okWithVersion(version).body(note.get());
+    }
+
+    @Operation(summary = "Получение страницы версий заметки без содержимого, от новых к старым")
+    @GetMapping("/{noteId}/revisions")
+    @ConcurrencyGroup(RequestGroup.SCAN)
+    public ResponseEntity<CursorPage<NoteRevisionSummary>> getNoteRevisions(
+        @PathVariable Long noteId,
+        @RequestParam(value = "after", required = false) String after,
+        @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_LIMIT) int limit
+    ) {
+        log.info("getNoteRevisions - start, noteId = {}, after = {}, limit = {}", noteId, after, limit);
+        CursorPage<NoteRevisionSummary> page = noteRevisionService.findPage(noteId, after, limit);
+        log.info("getNoteRevisions - end, revisionsCount = {}, next = {}", page.getItems().size(), page.getNext());
+        return ResponseEntity.ok(page);
     }
 
-    @Operation(summary = "Получение заметок по заголовку")
+    @Operation(summary = "Получение заметки в указанной версии")
+    @GetMapping("/{noteId}/revisions/{revision}")
+    @ConcurrencyGroup(RequestGroup.SCAN)
+    public ResponseEntity<Note> getNoteRevision(@PathVariable Long noteId, @PathVariable int revision) {
+        log.info("getNoteRevision - start, noteId = {}, revision = {}", noteId, revision);
+        Note note = noteRevisionService.findRevision(noteId, revision);
+        log.info("getNoteRevision - end, note = {}", note);
+        return ResponseEntity.ok(note);
+    }
+
+    @Operation(summary = "Получение страницы заметок по заголовку")
     @GetMapping("/title/{title}")
-    public ResponseEntity<List<Note>> getNotesByTitle(@PathVariable String title) {
-        log.info("getNotesByTitle - start, title = {}", title);
-        List<Note> notes = noteService.findByTitle(title);
-        if (notes.isEmpty()) {
+    @ConcurrencyGroup(RequestGroup.CACHED_READ)
+    public ResponseEntity<CursorPage<Note>> getNotesByTitle(
+        @PathVariable String title,
+        @RequestParam(value = "after", required = false) String after,
+        @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_LIMIT) int limit,
+        WebRequest request
+    ) {
+        log.info("getNotesByTitle - start, title = {}, after = {}, limit = {}", title, after, limit);
+        NoteVersion version = noteService.findCollectionVersion();
+        if (isNotModified(request, version)) {
+            log.info("getNotesByTitle - end, not modified, version = {}", version);
+            return null;
+        }
+        CursorPage<Note> page = noteService.findPageByTitle(title, after, limit);
+        if (page.getItems().isEmpty()) {
             log.warn("getNotesByTitle - заметки с заголовком '{}' не найдены", title);
             return ResponseEntity.notFound().build();
         }
 
-        log.info("getNotesByTitle - end, notesCount = {}", notes.size());
-        return ResponseEntity.ok(notes);
+        log.info("getNotesByTitle - end, notesCount = {}, next = {}", page.getItems().size(), page.getNext());
+        return okWithVersion(version).body(page);
     }
 
-    @Operation(summary = "Получение заметок, созданных в указанный период")
+    @Operation(summary = "Получение страницы заметок, созданных в указанный период")
     @GetMapping("/created-between")
-    public ResponseEntity<List<Note>> getNotesByCreatedAtBetween(
+    @ConcurrencyGroup(RequestGroup.SCAN)
+    public ResponseEntity<CursorPage<Note>> getNotesByCreatedAtBetween(
         @RequestParam("startDate")
         @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
 
         @RequestParam("endDate")
-        @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate
+        @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
+
+        @RequestParam(value = "after", required = false) String after,
+        @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_LIMIT) int limit,
+        WebRequest request
     ) {
-        log.info("getNotesByCreatedAtBetween - start, startDate = {}, endDate = {}", startDate, endDate);
+        log.info("getNotesByCreatedAtBetween - start, startDate = {}, endDate = {}, after = {}, limit = {}",
+            startDate, endDate, after, limit);
+        NoteVersion version = noteService.findCollectionVersion();
+        if (isNotModified(request, version)) {
+            log.info("getNotesByCreatedAtBetween - end, not modified, version = {}", version);
+            return null;
+        }
 
         // Преобразуем LocalDate в LocalDateTime (с 00:00:00 до 23:59:59)
         LocalDateTime startDateTime = startDate.atStartOfDay();
         LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
 
-        List<Note> notes = noteService.findByCreatedAtBetween(startDateTime, endDateTime);
-        if (notes.isEmpty()) {
+        CursorPage<Note> page = noteService.findPageByCreatedAtBetween(startDateTime, endDateTime, after, limit);
+        if (page.getItems().isEmpty()) {
             log.warn("getNotesByCreatedAtBetween - заметки не найдены в указанный период");
             return ResponseEntity.notFound().build();
         }
 
-        log.info("getNotesByCreatedAtBetween - end, notesCount = {}", notes.size());
-        return ResponseEntity.ok(notes);
+        log.info("getNotesByCreatedAtBetween - end, notesCount = {}, next = {}",
+            page.getItems().size(), page.getNext());
+        return okWithVersion(version).body(page);
     }
 
     @Operation(summary = "Добавление новой заметки")
     @PostMapping
+    @ConcurrencyGroup(RequestGroup.WRITE)
     public ResponseEntity<Note> addNote(@RequestBody Note note) {
         log.info("addNote - start, note = {}", note);
         Note savedNote = noteService.save(note);
@@ -103,8 +286,21 @@ public class NoteController {
         return ResponseEntity.ok(savedNote);
     }
 
+    @Operation(summary = "Пакетное добавление новых заметок")
+    @PostMapping("/batch")
+    @ConcurrencyGroup(RequestGroup.WRITE)
+    public ResponseEntity<List<Long>> addNotes(@RequestBody List<Note> notes) {
+        log.info("addNotes - start, notesCount = {}", notes.size());
+        List<Long> savedNoteIds = noteService.saveAll(notes).stream()
+            .map(Note::getId)
+            .toList();
+        log.info("addNotes - end, savedNotesCount = {}", savedNoteIds.size());
+        return ResponseEntity.ok(savedNoteIds);
+    }
+
     @Operation(summary = "Обновление заметки")
     @PutMapping("/{noteId}")
+    @ConcurrencyGroup(RequestGroup.WRITE)
     public ResponseEntity<Note> updateNote(@PathVariable Long noteId, @RequestBody Note note) {
         log.info("updateNote - start, noteId = {}, note = {}", noteId, note);
         Optional<Note> updatedNote = noteService.update(noteId, note);
@@ -117,8 +313,37 @@ public class NoteController {
         return ResponseEntity.ok(updatedNote.get());
     }
 
+    @Operation(summary = "Частичное изменение заметки правками содержимого относительно версии из If-Match")
+    @PatchMapping("/{noteId}")
+    @ConcurrencyGroup(RequestGroup.WRITE)
+    public ResponseEntity<Void> patchNote(
+        @PathVariable Long noteId,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody NotePatch patch
+    ) {
+        log.info("patchNote - start, noteId = {}, ifMatch = {}, editsCount = {}", noteId, ifMatch,
+            patch.getEdits() == null ? 0 : patch.getEdits().size());
+        if (ifMatch == null || ifMatch.isBlank()) {
+            throw new BadRequestException("Заголовок If-Match с ETag изменяемой версии заметки обязателен");
+        }
+        Optional<Note> patchedNote = noteService.patch(noteId, ETag.create(ifMatch.trim()).tag(), patch);
+        if (patchedNote.isEmpty()) {
+            log.warn("patchNote - заметка с ID {} не найдена", noteId);
+            return ResponseEntity.notFound().build();
+        }
+
+        // Содержимое заметки не возвращается: клиенту достаточно новой версии для следующих правок
+        NoteVersion version = new NoteVersion(patchedNote.get().getUpdatedAt(), 1L);
+        log.info("patchNote - end, noteId = {}, version = {}", noteId, version);
+        return ResponseEntity.noContent()
+            .eTag(version.eTag())
+            .lastModified(version.lastModified())
+            .build();
+    }
+
     @Operation(summary = "Удаление заметки по ID")
     @DeleteMapping("/{noteId}")
+    @ConcurrencyGroup(RequestGroup.WRITE)
     public ResponseEntity<Void> deleteNote(@PathVariable Long noteId) {
         log.info("deleteNote - start, noteId = {}", noteId);
         Optional<Note> note = noteService.findById(noteId);
@@ -131,4 +356,63 @@ public class NoteController {
         log.info("deleteNote - end, noteId = {}", noteId);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Массовое удаление заметок по списку ID")
+    @PostMapping("/bulk-delete")
+    @ConcurrencyGroup(RequestGroup.WRITE)
+    public ResponseEntity<BulkResult> deleteNotes(@RequestBody BulkNoteRequest request) {
+        log.info("deleteNotes - start, idsCount = {}", request.getIds() == null ? 0 : request.getIds().size());
+        int deleted = noteService.deleteByIds(request.getIds());
+        log.info("deleteNotes - end, deleted = {}", deleted);
+        return ResponseEntity.ok(new BulkResult(deleted));
+    }
+
+    @Operation(summary = "Массовое удаление заметок, созданных в указанный период")
+    @DeleteMapping("/created-between")
+    @ConcurrencyGroup(RequestGroup.WRITE)
+    public ResponseEntity<BulkResult> deleteNotesByCreatedAtBetween(
+        @RequestParam("startDate")
+        @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+
+        @RequestParam("endDate")
+        @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate
+    ) {
+        log.info("deleteNotesByCreatedAtBetween - start, startDate = {}, endDate = {}", startDate, endDate);
+        int deleted = noteService.deleteByCreatedAtBetween(startDate.atStartOfDay(), endDate.atTime(23, 59, 59));
+        log.info("deleteNotesByCreatedAtBetween - end, deleted = {}", deleted);
+        return ResponseEntity.ok(new BulkResult(deleted));
+    }
+
+    @Operation(summary = "Массовое изменение заголовка заметок по списку ID")
+    @PutMapping("/bulk-title")
+    @ConcurrencyGroup(RequestGroup.WRITE)
+    public ResponseEntity<BulkResult> updateNotesTitle(@RequestBody BulkNoteRequest request) {
+        log.info("updateNotesTitle - start, idsCount = {}, title = {}",
+            request.getIds() == null ? 0 : request.getIds().size(), request.getTitle());
+        int updated = noteService.updateTitle(request.getIds(), request.getTitle());
+        log.info("updateNotesTitle - end, updated = {}", updated);
+        return ResponseEntity.ok(new BulkResult(updated));
+    }
+
+    /**
+     * Проверить условный запрос по версии данных. Если версия у клиента актуальна,
+     * в ответ уже записаны статус 304, ETag и Last-Modified, и тело можно не загружать.
+     */
+    private static boolean isNotModified(WebRequest request, NoteVersion version) {
+        return request.checkNotModified(version.eTag(), version.lastModified());
+    }
+
+    /**
+     * Ответ 200 с ETag и Last-Modified версии данных.
+     * Cache-Control: no-cache требует от клиентов и прокси проверять актуальность при каждом запросе.
+     */
+    private static ResponseEntity.BodyBuilder okWithVersion(NoteVersion version) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(version.eTag())
+            .cacheControl(CacheControl.noCache());
+        if (version.lastModified() >= 0) {
+            response.lastModified(version.lastModified());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,125 @@
+package inote.controller;
+
+import inote.dto.NoteVersion;
+import inote.entity.Note;
+import inote.service.ReactiveNoteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Реактивный контроллер для управления заметками (профиль reactive).
+ *
+ * Обслуживает те же пути, что и {@link NoteController}. Список заметок передается потоком:
+ * в формате JSON-массива или NDJSON, заметки читаются из БД по мере отправки клиенту.
+ *
+ * @author Avdeyev Viktor
+ */
+@Tag(name = "Реактивный контроллер для управления заметками")
+@RestController
+@Profile("reactive")
+@Slf4j
+@RequestMapping("/inote/notes")
+@RequiredArgsConstructor
+public class ReactiveNoteController {
+
+    private final ReactiveNoteService noteService;
+
+    @Operation(summary = "Потоковое получение заметок (JSON-массив или NDJSON)")
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Note> getAllNotes(
+        @RequestParam(value = "after", required = false) String after,
+        @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        log.info("getAllNotes - start, after = {}, limit = {}", after, limit);
+        return noteService.findAll(after, limit)
+            .doOnComplete(() -> log.info("getAllNotes - end, after = {}, limit = {}", after, limit));
+    }
+
+    @Operation(summary = "Получение заметки по ID")
+    @GetMapping("/{noteId}")
+    public Mono<ResponseEntity<Note>> getNoteById(@PathVariable Long noteId, ServerWebExchange exchange) {
+        log.info("getNoteById - start, noteId = {}", noteId);
+        return noteService.findVersion(noteId)
+            .flatMap(version -> {
+                if (isNotModified(exchange, version)) {
+                    log.info("getNoteById - end, not modified, noteId = {}", noteId);
+                    return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).<Note>build());
+                }
+                return noteService.findById(noteId)
+                    .map(note -> {
+                        log.info("getNoteById - end, note = {}", note);
+                        return okWithVersion(version).body(note);
+                    });
+            });
+    }
+
+    @Operation(summary = "Получение заметок по заголовку")
+    @GetMapping("/title/{title}")
+    public Flux<Note> getNotesByTitle(@PathVariable String title) {
+        log.info("getNotesByTitle - start, title = {}", title);
+        return noteService.findByTitle(title)
+            .doOnComplete(() -> log.info("getNotesByTitle - end, title = {}", title));
+    }
+
+    @Operation(summary = "Добавление новой заметки")
+    @PostMapping
+    public Mono<Note> addNote(@RequestBody Note note) {
+        log.info("addNote - start, note = {}", note);
+        return noteService.save(note)
+            .doOnNext(savedNote -> log.info("addNote - end, savedNoteId = {}", savedNote.getId()));
+    }
+
+    @Operation(summary = "Обновление заметки")
+    @PutMapping("/{noteId}")
+    public Mono<Note> updateNote(@PathVariable Long noteId, @RequestBody Note note) {
+        log.info("updateNote - start, noteId = {}, note = {}", noteId, note);
+        return noteService.update(noteId, note)
+            .doOnNext(updatedNote -> log.info("updateNote - end, updatedNoteId = {}", updatedNote.getId()));
+    }
+
+    @Operation(summary = "Удаление заметки по ID")
+    @DeleteMapping("/{noteId}")
+    public Mono<ResponseEntity<Void>> deleteNote(@PathVariable Long noteId) {
+        log.info("deleteNote - start, noteId = {}", noteId);
+        return noteService.deleteById(noteId)
+            .then(Mono.fromSupplier(() -> {
+                log.info("deleteNote - end, noteId = {}", noteId);
+                return ResponseEntity.noContent().build();
+            }));
+    }
+
+    /**
+     * Проверить условный запрос по версии заметки. Если версия у клиента актуальна,
+     * статус 304, ETag и Last-Modified уже установлены в ответе.
+     */
+    private static boolean isNotModified(ServerWebExchange exchange, NoteVersion version) {
+        Instant lastModified = version.lastModified() >= 0 ? Instant.ofEpochMilli(version.lastModified()) : null;
+        return exchange.checkNotModified(version.eTag(), lastModified);
+    }
+
+    /**
+     * Ответ 200 с ETag и Last-Modified версии заметки, как в {@link NoteController}.
+     */
+    private static ResponseEntity.BodyBuilder okWithVersion(NoteVersion version) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(version.eTag())
+            .cacheControl(CacheControl.noCache());
+        if (version.lastModified() >= 0) {
+            response.lastModified(version.lastModified());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,36 @@
+package inote.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Чтение на основной БД в методах, результат которых сохраняется в кэш ({@code @Cacheable},
+ * {@code @CachePut}, {@code @Caching}).
+ *
+ * Общий кэш сбрасывается записью на любом узле, после чего его заполняет первый запрос любого клиента.
+ * Если бы этот запрос читал с реплики, еще не получившей запись, старая версия осталась бы в кэше
+ * до следующей записи. Аспект выполняется раньше кэширования и транзакций, поэтому действует
+ * и на загрузку при промахе, и на транзакции readOnly внутри нее. Остальные чтения, например
+ * потоковая выгрузка, по-прежнему выполняются на репликах.
+ *
+ * @author Avdeyev Viktor
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class CachedReadsOnPrimary {
+
+    @Around("execution(* inote..*(..)) && (@annotation(org.springframework.cache.annotation.Cacheable)"
+        + " || @annotation(org.springframework.cache.annotation.CachePut)"
+        + " || @annotation(org.springframework.cache.annotation.Caching))")
+    public Object readFromPrimary(ProceedingJoinPoint joinPoint) throws Throwable {
+        Boolean previous = ReplicaRoutingDataSource.enterPrimaryReads();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingDataSource.restorePrimaryReads(previous);
+        }
+    }
+}
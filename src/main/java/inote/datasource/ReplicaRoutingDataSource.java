@@ -0,0 +1,332 @@
+package inote.datasource;
+
+import inote.config.ReadReplicaProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Источник соединений, выдающий соединения читающих транзакций ({@code @Transactional(readOnly = true)})
+ * с реплик, остальные - с основной БД.
+ *
+ * Признак readOnly известен только после начала транзакции, поэтому источник используется через
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: соединение
+ * запрашивается при первом запросе к БД. Чтение без транзакции и чтение внутри пишущей транзакции
+ * выполняется на основной БД.
+ *
+ * <ul>
+ *     <li>Балансировка: реплики выбираются по очереди, недоступные и отстающие больше
+ *     {@code max-lag} пропускаются. Если подходящих реплик нет, соединение выдает основная БД.</li>
+ *     <li>Чтение своих записей: после фиксации пишущей транзакции оставшаяся часть HTTP-запроса
+ *     и запросы клиента в течение {@code read-your-writes} (по cookie {@value #PRIMARY_UNTIL_COOKIE})
+ *     читают с основной БД.</li>
+ *     <li>Заполнение общего кэша: чтение внутри {@link #readFromPrimary(Supplier)} и методов с аннотациями
+ *     кэширования ({@link CachedReadsOnPrimary}) выполняется на основной БД. Иначе запрос другого клиента
+ *     сразу после записи прочитал бы с отстающей реплики старую версию и сохранил бы ее в кэш до следующей
+ *     записи.</li>
+ *     <li>Метрики: {@code inote.datasource.connections} с тегом {@code target} (primary или имя реплики) -
+ *     количество выданных соединений, то есть транзакций; {@code inote.datasource.fallbacks} - читающие
+ *     транзакции, переданные основной БД из-за недоступности реплик; {@code inote.datasource.replica.lag} -
+ *     отставание реплики в секундах по последней проверке.</li>
+ * </ul>
+ *
+ * @author Avdeyev Viktor
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    /**
+     * Cookie с моментом (мс от эпохи), до которого клиент читает с основной БД.
+     */
+    public static final String PRIMARY_UNTIL_COOKIE = "inote-primary-until";
+
+    private static final String PINNED_ATTRIBUTE = ReplicaRoutingDataSource.class.getName() + ".PINNED";
+
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private static final String PRIMARY = "primary";
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final ReadReplicaProperties properties;
+
+    private final Counter primaryConnections;
+
+    private final Counter fallbacks;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param primary  основная БД
+     * @param replicas реплики по именам
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    ReadReplicaProperties properties, MeterRegistry registry) {
+        this.primary = primary;
+        this.properties = properties;
+        this.primaryConnections = registry.counter("inote.datasource.connections", "target", PRIMARY);
+        this.fallbacks = registry.counter("inote.datasource.fallbacks");
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource, registry.counter("inote.datasource.connections",
+                "target", name));
+            registry.gauge("inote.datasource.replica.lag", Tags.of("replica", name), replica,
+                current -> current.lagSeconds);
+            this.replicas.add(replica);
+        });
+    }
+
+    /**
+     * Запустить периодическую проверку реплик.
+     */
+    @PostConstruct
+    public void start() {
+        checkReplicas();
+        long interval = properties.getCheckInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Остановить проверку и закрыть пулы соединений реплик.
+     */
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Ошибка закрытия пула соединений реплики {}", replica.name, e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * Выполнить чтение на основной БД, например перед сохранением результата в общий кэш.
+     *
+     * @param reader чтение, в том числе в транзакциях readOnly
+     * @return результат чтения
+     */
+    public static <T> T readFromPrimary(Supplier<T> reader) {
+        Boolean previous = enterPrimaryReads();
+        try {
+            return reader.get();
+        } finally {
+            restorePrimaryReads(previous);
+        }
+    }
+
+    /**
+     * Начать чтение на основной БД в текущем потоке.
+     *
+     * @return предыдущее состояние для {@link #restorePrimaryReads(Boolean)}
+     */
+    static Boolean enterPrimaryReads() {
+        Boolean previous = PRIMARY_READS.get();
+        PRIMARY_READS.set(Boolean.TRUE);
+        return previous;
+    }
+
+    static void restorePrimaryReads(Boolean previous) {
+        if (previous == null) {
+            PRIMARY_READS.remove();
+        } else {
+            PRIMARY_READS.set(previous);
+        }
+    }
+
+    private Connection connection(ConnectionSource source) throws SQLException {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            || PRIMARY_READS.get() != null || isPinnedToPrimary()) {
+            return primaryConnection(source);
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                Connection connection = source.open(replica.dataSource);
+                replica.connections.increment();
+                return connection;
+            } catch (SQLException e) {
+                log.warn("Реплика {} недоступна до следующей проверки: {}", replica.name, e.getMessage());
+                replica.available = false;
+            }
+        }
+        fallbacks.increment();
+        return primaryConnection(source);
+    }
+
+    /**
+     * Проверить доступность и отставание каждой реплики.
+     */
+    public void checkReplicas() {
+        String lagQuery = properties.getLagQuery();
+        double maxLag = properties.getMaxLag().toMillis() / 1000.0;
+        for (Replica replica : replicas) {
+            boolean wasAvailable = replica.available;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (lagQuery == null || lagQuery.isBlank()) {
+                    replica.lagSeconds = 0;
+                    replica.available = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+                } else {
+                    try (Statement statement = connection.createStatement();
+                         ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                        replica.lagSeconds = resultSet.next() ? resultSet.getDouble(1) : 0;
+                    }
+                    replica.available = replica.lagSeconds <= maxLag;
+                }
+            } catch (SQLException e) {
+                replica.available = false;
+                log.warn("Ошибка проверки реплики {}: {}", replica.name, e.getMessage());
+            }
+            if (wasAvailable != replica.available) {
+                log.info("Реплика {} {}, отставание {} с", replica.name,
+                    replica.available ? "используется для чтения" : "исключена из чтения", replica.lagSeconds);
+            }
+        }
+    }
+
+    private Connection primaryConnection(ConnectionSource source) throws SQLException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pinToPrimary();
+                }
+            });
+        }
+        primaryConnections.increment();
+        return source.open(primary);
+    }
+
+    /**
+     * Текущий HTTP-запрос выполнил запись или клиент недавно записывал.
+     */
+    private static boolean isPinnedToPrimary() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        if (attributes.getAttribute(PINNED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (PRIMARY_UNTIL_COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Читать с основной БД до конца HTTP-запроса и в течение read-your-writes после него.
+     */
+    private void pinToPrimary() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)
+            || attributes.getAttribute(PINNED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return;
+        }
+        attributes.setAttribute(PINNED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null && !response.isCommitted()) {
+            long until = System.currentTimeMillis() + properties.getReadYourWrites().toMillis();
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(PRIMARY_UNTIL_COOKIE, Long.toString(until))
+                .path("/")
+                .httpOnly(true)
+                .maxAge(properties.getReadYourWrites())
+                .build()
+                .toString());
+        }
+    }
+
+    /**
+     * Получение соединения от пула с учетными данными из настроек или переданными явно.
+     */
+    @FunctionalInterface
+    private interface ConnectionSource {
+
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private final Counter connections;
+
+        private volatile boolean available = true;
+
+        private volatile double lagSeconds;
+
+        private Replica(String name, DataSource dataSource, Counter connections) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.connections = connections;
+        }
+    }
+}
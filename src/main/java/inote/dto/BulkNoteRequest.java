@@ -0,0 +1,31 @@
+package inote.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Запрос на массовую операцию над заметками.
+ *
+ * @author Avdeyev Viktor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkNoteRequest {
+
+    /**
+     * ID заметок, к которым применяется операция.
+     */
+    private List<Long> ids;
+
+    /**
+     * Новый заголовок заметок.
+     * Используется только при массовом изменении заголовка.
+     */
+    private String title;
+}
@@ -0,0 +1,21 @@
+package inote.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат массовой операции над заметками.
+ *
+ * @author Avdeyev Viktor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResult {
+
+    /**
+     * Количество затронутых заметок.
+     */
+    private int affected;
+}
@@ -0,0 +1,34 @@
+package inote.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Страница результатов keyset-пагинации.
+ * Содержит элементы страницы и курсор для запроса следующей страницы.
+ *
+ * @param <T> тип элементов страницы
+ * @author Avdeyev Viktor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPage<T> implements Serializable {
+
+    /**
+     * Элементы текущей страницы.
+     */
+    private List<T> items;
+
+    /**
+     * Курсор следующей страницы.
+     * Равен null, если текущая страница последняя.
+     */
+    private String next;
+}
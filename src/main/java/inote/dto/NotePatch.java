@@ -0,0 +1,57 @@
+package inote.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Частичное изменение заметки: новый заголовок и правки содержимого.
+ *
+ * Правки задаются относительно версии содержимого, указанной в заголовке If-Match,
+ * упорядочены по возрастанию позиции и не пересекаются.
+ *
+ * @author Avdeyev Viktor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotePatch {
+
+    /**
+     * Новый заголовок заметки или null, если заголовок не меняется.
+     */
+    private String title;
+
+    /**
+     * Правки содержимого заметки.
+     */
+    private List<Edit> edits;
+
+    /**
+     * Одна правка содержимого: удаление фрагмента и вставка текста на его место.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Edit {
+
+        /**
+         * Позиция в исходном содержимом в символах UTF-16.
+         */
+        private int offset;
+
+        /**
+         * Количество удаляемых символов начиная с позиции.
+         */
+        private int delete;
+
+        /**
+         * Вставляемый текст или null, если текст только удаляется.
+         */
+        private String insert;
+    }
+}
@@ -0,0 +1,51 @@
+package inote.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Краткое представление версии заметки для списка версий, без содержимого.
+ *
+ * @author Avdeyev Viktor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NoteRevisionSummary implements Serializable {
+
+    /**
+     * Номер версии заметки.
+     */
+    private Integer revision;
+
+    /**
+     * Номер снимка, от которого строится версия.
+     */
+    private Integer baseRevision;
+
+    /**
+     * Название заметки в этой версии.
+     */
+    private String title;
+
+    /**
+     * Длина содержимого заметки в этой версии в символах.
+     */
+    private Integer contentLength;
+
+    /**
+     * Количество символов, хранимых для версии: все содержимое для снимка, вставленный текст для правки.
+     */
+    private Integer storedLength;
+
+    /**
+     * Время изменения заметки, с которым записана версия.
+     */
+    private LocalDateTime updatedAt;
+}
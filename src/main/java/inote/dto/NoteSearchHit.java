@@ -0,0 +1,52 @@
+package inote.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Результат полнотекстового поиска заметок.
+ * Вместо полного содержимого заметки содержит фрагмент с подсвеченными совпадениями.
+ *
+ * @author Avdeyev Viktor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NoteSearchHit implements Serializable {
+
+    /**
+     * Id заметки.
+     */
+    private Long id;
+
+    /**
+     * Название заметки.
+     */
+    private String title;
+
+    /**
+     * Фрагмент содержимого заметки, совпадения выделены тегами &lt;b&gt;...&lt;/b&gt;.
+     */
+    private String snippet;
+
+    /**
+     * Релевантность заметки запросу, чем больше, тем выше в выдаче.
+     */
+    private Double rank;
+
+    /**
+     * Время создания заметки.
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * Время последнего обновления заметки.
+     */
+    private LocalDateTime updatedAt;
+}
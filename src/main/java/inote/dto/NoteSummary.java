@@ -0,0 +1,52 @@
+package inote.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Краткое представление заметки для списков.
+ * Вместо полного содержимого заметки содержит его размер и начальный фрагмент.
+ *
+ * @author Avdeyev Viktor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NoteSummary implements Serializable {
+
+    /**
+     * Id заметки.
+     */
+    private Long id;
+
+    /**
+     * Название заметки.
+     */
+    private String title;
+
+    /**
+     * Размер содержимого заметки в байтах.
+     */
+    private Integer contentLength;
+
+    /**
+     * Начальный фрагмент содержимого заметки.
+     */
+    private String preview;
+
+    /**
+     * Время создания заметки.
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * Время последнего обновления заметки.
+     */
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,52 @@
+package inote.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Версия заметки или всего набора заметок для условных GET-запросов.
+ *
+ * Для одной заметки содержит время ее последнего изменения, для набора заметок
+ * наибольшее время изменения и количество заметок: удаление меняет количество,
+ * создание и изменение меняют наибольшее время.
+ *
+ * @author Avdeyev Viktor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteVersion implements Serializable {
+
+    /**
+     * Время последнего изменения, null для пустого набора заметок.
+     */
+    private LocalDateTime updatedAt;
+
+    /**
+     * Количество заметок.
+     */
+    private Long count;
+
+    /**
+     * Сильный ETag версии без кавычек.
+     */
+    public String eTag() {
+        if (updatedAt == null) {
+            return "0-" + count;
+        }
+        return Long.toHexString(updatedAt.atZone(ZoneId.systemDefault()).toEpochSecond())
+            + "." + Integer.toHexString(updatedAt.getNano()) + "-" + count;
+    }
+
+    /**
+     * Время последнего изменения в миллисекундах эпохи для заголовка Last-Modified, -1 если неизвестно.
+     */
+    public long lastModified() {
+        return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
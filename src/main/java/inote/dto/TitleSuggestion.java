@@ -0,0 +1,30 @@
+package inote.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Подсказка автодополнения заголовка заметки.
+ *
+ * @author Avdeyev Viktor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TitleSuggestion implements Serializable {
+
+    /**
+     * Id заметки.
+     */
+    private Long id;
+
+    /**
+     * Название заметки.
+     */
+    private String title;
+}
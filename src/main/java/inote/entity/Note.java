@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.io.Serializable;
@@ -14,21 +15,32 @@ import java.time.LocalDateTime;
  * Сущность, представляющая заметку.
  * Содержит информацию о названии, содержимом и времени создания/обновления.
  *
+ * В строковом представлении, которое попадает в журнал, содержимое заменено его длиной:
+ * заметки могут занимать мегабайты и содержать личные данные.
+ *
  * @author Avdeyev Viktor
  */
 @Entity
-@Table(name = "notes")
+@Table(name = "notes", indexes = {
+    @Index(name = "idx_notes_title_id", columnList = "title, id"),
+    @Index(name = "idx_notes_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_notes_updated_at", columnList = "updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@ToString
 public class Note implements Serializable {
 
     /**
      * Id заметки.
+     * Генерируется последовательностью notes_id_seq блоками по 50 значений,
+     * что позволяет Hibernate объединять вставки в JDBC-пакеты.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notes_id_seq")
+    @SequenceGenerator(name = "notes_id_seq", sequenceName = "notes_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false, updatable = false)
     private Long id;
 
@@ -44,6 +56,7 @@ public class Note implements Serializable {
      * Обязательное поле, может содержать текст любого размера.
      */
     @Column(nullable = false)
+    @ToString.Exclude
     private String content;
 
     /**
@@ -61,6 +74,14 @@ public class Note implements Serializable {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    /**
+     * Содержимое заметки в строковом представлении: только длина.
+     */
+    @ToString.Include(name = "content")
+    private String contentForLog() {
+        return content == null ? null : "<" + content.length() + " chars>";
+    }
+
     @PrePersist
     public void prePersist() {
         if (createdAt == null) {
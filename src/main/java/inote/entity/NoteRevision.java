@@ -0,0 +1,102 @@
+package inote.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сущность, представляющая сохраненную версию заметки.
+ *
+ * Версия хранится либо целиком (снимок), либо правкой относительно предыдущей версии:
+ * позиция, количество удаленных символов и вставленный текст. Снимок записывается
+ * каждые {@code inote.revisions.snapshot-interval} версий, поэтому для восстановления
+ * любой версии читается не больше этого количества строк.
+ *
+ * @author Avdeyev Viktor
+ */
+@Entity
+@Table(name = "note_revisions", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_note_revisions_note_id_revision", columnNames = {"note_id", "revision"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class NoteRevision {
+
+    /**
+     * Id записи.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, updatable = false)
+    private Long id;
+
+    /**
+     * Id заметки.
+     */
+    @Column(name = "note_id", nullable = false, updatable = false)
+    private Long noteId;
+
+    /**
+     * Номер версии заметки, начиная с 1.
+     */
+    @Column(name = "revision", nullable = false, updatable = false)
+    private Integer revision;
+
+    /**
+     * Номер снимка, от которого строится версия. Для снимка совпадает с номером версии.
+     */
+    @Column(name = "base_revision", nullable = false, updatable = false)
+    private Integer baseRevision;
+
+    /**
+     * Название заметки в этой версии.
+     */
+    @Column(nullable = false, length = 50, updatable = false)
+    private String title;
+
+    /**
+     * Позиция правки в содержимом предыдущей версии, null для снимка.
+     */
+    @Column(name = "edit_offset", updatable = false)
+    private Integer editOffset;
+
+    /**
+     * Количество символов, удаленных правкой, null для снимка.
+     */
+    @Column(name = "edit_delete", updatable = false)
+    private Integer editDelete;
+
+    /**
+     * Содержимое заметки для снимка или текст, вставленный правкой.
+     */
+    @Column(nullable = false, updatable = false)
+    @ToString.Exclude
+    private String content;
+
+    /**
+     * Длина содержимого заметки в этой версии в символах.
+     */
+    @Column(name = "content_length", nullable = false, updatable = false)
+    private Integer contentLength;
+
+    /**
+     * Время изменения заметки, с которым записана эта версия.
+     */
+    @Column(name = "updated_at", nullable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Хранится ли версия целиком.
+     */
+    public boolean isSnapshot() {
+        return revision.equals(baseRevision);
+    }
+}
@@ -0,0 +1,62 @@
+package inote.event;
+
+import inote.entity.Note;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Событие изменения заметок, публикуется сервисом после успешной записи в БД.
+ * Используется для поддержания производных структур, например поискового индекса.
+ *
+ * @author Avdeyev Viktor
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class NoteChangedEvent {
+
+    /**
+     * Вид изменения.
+     */
+    public enum Type {
+        /**
+         * Заметки созданы или обновлены, их актуальное состояние передается в событии.
+         */
+        SAVED,
+        /**
+         * Заметки изменены массовым запросом, актуальное состояние нужно прочитать из БД.
+         */
+        MODIFIED,
+        /**
+         * Заметки удалены.
+         */
+        DELETED
+    }
+
+    private final Type type;
+
+    /**
+     * Сохраненные заметки, заполнено только для {@link Type#SAVED}.
+     */
+    private final List<Note> notes;
+
+    /**
+     * ID затронутых заметок.
+     */
+    private final Collection<Long> ids;
+
+    public static NoteChangedEvent saved(List<Note> notes) {
+        return new NoteChangedEvent(Type.SAVED, notes, notes.stream().map(Note::getId).toList());
+    }
+
+    public static NoteChangedEvent modified(Collection<Long> ids) {
+        return new NoteChangedEvent(Type.MODIFIED, List.of(), ids);
+    }
+
+    public static NoteChangedEvent deleted(Collection<Long> ids) {
+        return new NoteChangedEvent(Type.DELETED, List.of(), ids);
+    }
+}
@@ -0,0 +1,18 @@
+package inote.exception;
+
+/**
+ * Исключение, указывающее, что изменение основано на устаревшей версии ресурса.
+ * Код ошибки: 412.
+ *
+ * @author Avdeyev Viktor
+ */
+public class PreconditionFailedException extends RuntimeException {
+    /**
+     * Конструктор исключения.
+     *
+     * @param message Сообщение.
+     */
+    public PreconditionFailedException(final String message) {
+        super(message);
+    }
+}
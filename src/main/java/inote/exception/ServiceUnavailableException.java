@@ -0,0 +1,32 @@
+package inote.exception;
+
+import java.time.Duration;
+
+/**
+ * Исключение, указывающее, что запрос отклонен из-за перегрузки сервера.
+ * Код ошибки: 503.
+ *
+ * @author Avdeyev Viktor
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    /**
+     * Через сколько времени клиенту повторить запрос.
+     */
+    private final Duration retryAfter;
+
+    /**
+     * Конструктор исключения.
+     *
+     * @param message    Сообщение.
+     * @param retryAfter Через сколько времени повторить запрос.
+     */
+    public ServiceUnavailableException(final String message, final Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,130 @@
+package inote.limit;
+
+import inote.config.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Адаптивный предел одновременных запросов по градиенту задержки (вариант Gradient2 из Netflix concurrency-limits).
+ *
+ * Долгая задержка - экспоненциальное среднее примерно {@value #LONG_WINDOW} последних запросов, короткая -
+ * задержка очередного запроса. Пока короткая задержка не больше долгой, умноженной на tolerance, предел растет
+ * на запас очереди √limit. Когда задержка растет, например БД замедлилась, предел уменьшается пропорционально
+ * отношению задержек, но не больше чем вдвое за шаг. Изменения сглаживаются коэффициентом smoothing.
+ * Пока занято меньше половины предела, он не меняется: без нагрузки рост не подтвержден задержкой.
+ *
+ * @author Avdeyev Viktor
+ */
+public class AdaptiveConcurrencyLimit {
+
+    /**
+     * Количество запросов, по которому усредняется долгая задержка.
+     */
+    private static final int LONG_WINDOW = 600;
+
+    /**
+     * Количество первых запросов, задержка которых только накапливается в долгой задержке.
+     */
+    private static final int WARMUP_SAMPLES = 10;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private double estimatedLimit;
+
+    private double longRtt;
+
+    private int samples;
+
+    private volatile int limit;
+
+    public AdaptiveConcurrencyLimit(ConcurrencyLimitProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.tolerance = properties.getTolerance();
+        this.smoothing = properties.getSmoothing();
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit()));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Занять место, если выполняется меньше min(предел, cap) запросов.
+     *
+     * @param cap дополнительное ограничение, например емкость для неприоритетных групп
+     * @return true, если место занято и его нужно освободить {@link #release(long, boolean)}
+     */
+    public boolean tryAcquire(int cap) {
+        int max = Math.min(limit, cap);
+        while (true) {
+            int current = inFlight.get();
+            if (current >= max) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Освободить место.
+     *
+     * @param rttNanos время выполнения запроса
+     * @param sample   учитывать время в пределе; не учитывается, например, для потоковой выгрузки
+     */
+    public void release(long rttNanos, boolean sample) {
+        int current = inFlight.getAndDecrement();
+        if (sample) {
+            onSample(rttNanos, current);
+        }
+    }
+
+    /**
+     * Пересчитать предел по времени выполнения запроса.
+     *
+     * @param rttNanos время выполнения запроса
+     * @param inFlight количество выполнявшихся запросов, включая этот
+     */
+    synchronized void onSample(long rttNanos, int inFlight) {
+        double rtt = Math.max(1, rttNanos);
+        if (samples < WARMUP_SAMPLES) {
+            longRtt = (longRtt * samples + rtt) / (samples + 1);
+            samples++;
+            return;
+        }
+        longRtt += (rtt - longRtt) * 2 / (LONG_WINDOW + 1);
+        // После долгой перегрузки долгая задержка остается завышенной, пока среднее не догонит новые значения
+        if (longRtt / rtt > 2) {
+            longRtt *= 0.95;
+        }
+        if (inFlight < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / rtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Текущий предел.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Количество выполняющихся запросов.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,21 @@
+package inote.limit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Группа, в пределе которой выполняется метод контроллера ({@link ConcurrencyLimitInterceptor}).
+ * Запросы к методам без аннотации не ограничиваются.
+ *
+ * @author Avdeyev Viktor
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyGroup {
+
+    RequestGroup value();
+}
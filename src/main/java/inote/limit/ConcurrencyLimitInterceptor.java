@@ -0,0 +1,162 @@
+package inote.limit;
+
+import inote.config.ConcurrencyLimitProperties;
+import inote.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ограничение одновременных запросов к методам контроллеров с {@link ConcurrencyGroup}.
+ *
+ * У каждой {@link RequestGroup} свой {@link AdaptiveConcurrencyLimit}, который подстраивается под задержку
+ * запросов группы. Запрос сверх предела сразу отклоняется с кодом 503 и заголовком Retry-After, а не ждет
+ * в очереди потоков Tomcat. Неприоритетные группы дополнительно занимают не больше
+ * {@link ConcurrencyLimitProperties#getLowPriorityShare()} суммарного предела всех групп, поэтому при
+ * перегрузке первыми отклоняются запись и выборки из БД, а чтение из кэша продолжается.
+ *
+ * Асинхронный запрос, например потоковая выгрузка, занимает место до завершения ответа, но его время
+ * не учитывается в пределе. Метрики с тегом {@code group}: {@code inote.concurrency.limit} - текущий предел,
+ * {@code inote.concurrency.inflight} - выполняющиеся запросы, {@code inote.concurrency.rejected} - отклоненные.
+ *
+ * @author Avdeyev Viktor
+ */
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".PERMIT";
+
+    private final ConcurrencyLimitProperties properties;
+
+    private final Map<RequestGroup, AdaptiveConcurrencyLimit> limits = new EnumMap<>(RequestGroup.class);
+
+    private final Map<RequestGroup, Counter> rejections = new EnumMap<>(RequestGroup.class);
+
+    public ConcurrencyLimitInterceptor(ConcurrencyLimitProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        for (RequestGroup group : RequestGroup.values()) {
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties);
+            Tags tags = Tags.of("group", group.tag());
+            registry.gauge("inote.concurrency.limit", tags, limit, AdaptiveConcurrencyLimit::getLimit);
+            registry.gauge("inote.concurrency.inflight", tags, limit, AdaptiveConcurrencyLimit::getInFlight);
+            limits.put(group, limit);
+            rejections.put(group, registry.counter("inote.concurrency.rejected", tags));
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // При асинхронной и повторной обработке место уже занято исходным запросом
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        ConcurrencyGroup annotation = method.getMethodAnnotation(ConcurrencyGroup.class);
+        if (annotation == null) {
+            return true;
+        }
+        RequestGroup group = annotation.value();
+        AdaptiveConcurrencyLimit limit = limits.get(group);
+        if (!limit.tryAcquire(capacity(group))) {
+            rejections.get(group).increment();
+            throw new ServiceUnavailableException("Сервер перегружен, повторите запрос позже", properties.getRetryAfter());
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(limit, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        if (!(request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit)) {
+            return;
+        }
+        permit.async = true;
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                permit.release();
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit) {
+            permit.release();
+        }
+    }
+
+    /**
+     * Предел группы.
+     */
+    public AdaptiveConcurrencyLimit getLimit(RequestGroup group) {
+        return limits.get(group);
+    }
+
+    /**
+     * Сколько запросов группы может выполняться с учетом приоритета: неприоритетная группа получает
+     * место, только пока все группы вместе занимают меньше lowPriorityShare суммарного предела.
+     */
+    private int capacity(RequestGroup group) {
+        if (group.isPriority()) {
+            return Integer.MAX_VALUE;
+        }
+        int totalLimit = 0;
+        int totalInFlight = 0;
+        for (AdaptiveConcurrencyLimit limit : limits.values()) {
+            totalLimit += limit.getLimit();
+            totalInFlight += limit.getInFlight();
+        }
+        int free = (int) (totalLimit * properties.getLowPriorityShare()) - totalInFlight;
+        return limits.get(group).getInFlight() + Math.max(0, free);
+    }
+
+    /**
+     * Занятое запросом место. Освобождается один раз: по завершении обработки
+     * или, для асинхронного запроса, по завершении ответа.
+     */
+    private static final class Permit {
+
+        private final AdaptiveConcurrencyLimit limit;
+
+        private final long start;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private volatile boolean async;
+
+        private Permit(AdaptiveConcurrencyLimit limit, long start) {
+            this.limit = limit;
+            this.start = start;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                limit.release(System.nanoTime() - start, !async);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package inote.limit;
+
+/**
+ * Группа запросов с собственным пределом одновременных запросов.
+ *
+ * @author Avdeyev Viktor
+ */
+public enum RequestGroup {
+
+    /**
+     * Чтение, которое обычно обслуживается из кэша: заметка по ID, страницы заметок и кратких
+     * представлений, подсказки заголовков. Приоритетная группа: при перегрузке отклоняется последней.
+     */
+    CACHED_READ(true),
+
+    /**
+     * Чтение, которое обычно выполняется в БД: выборки по периоду, полнотекстовый поиск,
+     * история версий, выгрузка.
+     */
+    SCAN(false),
+
+    /**
+     * Изменение заметок.
+     */
+    WRITE(false);
+
+    private final boolean priority;
+
+    RequestGroup(boolean priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * Запросы группы могут занимать всю суммарную емкость групп.
+     */
+    public boolean isPriority() {
+        return priority;
+    }
+
+    /**
+     * Значение тега метрик.
+     */
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,84 @@
+package inote.logging;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Журнал доступа: одна строка на запрос в формате ключ=значение с методом, путем,
+ * статусом ответа и временем обработки.
+ *
+ * Пишется в логгер {@code inote.access}, который не участвует в выборке
+ * {@link SamplingTurboFilter}. Отключается уровнем {@code logging.level.inote.access: WARN}.
+ * Для асинхронных запросов, например потоковой выгрузки, строка пишется по завершении ответа.
+ *
+ * @author Avdeyev Viktor
+ */
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j(topic = "inote.access")
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        if (!log.isInfoEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        write(request, response, start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                write(request, response, start);
+            }
+        }
+    }
+
+    private static void write(HttpServletRequest request, HttpServletResponse response, long start) {
+        String query = request.getQueryString();
+        log.info("method={} path={}{} status={} durationMs={}",
+            request.getMethod(),
+            request.getRequestURI(),
+            query == null ? "" : " query=" + query,
+            response.getStatus(),
+            String.format("%.3f", (System.nanoTime() - start) / 1_000_000.0));
+    }
+}
@@ -0,0 +1,45 @@
+package inote.logging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Журнал доступа реактивного стека (профиль reactive) в том же формате, что и {@link AccessLogFilter}.
+ * Строка пишется по завершении ответа, в том числе потокового.
+ *
+ * @author Avdeyev Viktor
+ */
+@Component
+@Profile("reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j(topic = "inote.access")
+public class ReactiveAccessLogFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!log.isInfoEnabled()) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+            .doFinally(signal -> {
+                ServerHttpRequest request = exchange.getRequest();
+                String query = request.getURI().getRawQuery();
+                log.info("method={} path={}{} status={} durationMs={}",
+                    request.getMethod(),
+                    request.getPath().value(),
+                    query == null ? "" : " query=" + query,
+                    exchange.getResponse().getStatusCode() == null
+                        ? "-" : exchange.getResponse().getStatusCode().value(),
+                    String.format("%.3f", (System.nanoTime() - start) / 1_000_000.0));
+            });
+    }
+}
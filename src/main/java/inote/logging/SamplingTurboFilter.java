@@ -0,0 +1,83 @@
+package inote.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Выборочное журналирование для нагруженных логгеров: из сообщений уровня INFO и ниже
+ * пишется каждое rate-е по каждому логгеру, WARN и ERROR пишутся всегда.
+ *
+ * Фильтр срабатывает до форматирования сообщения, поэтому отброшенные сообщения не тратят
+ * время на вызов toString аргументов. Настраивается в logback-spring.xml:
+ * <pre>{@code
+ * <turboFilter class="inote.logging.SamplingTurboFilter">
+ *     <logger>inote.service</logger>
+ *     <rate>10</rate>
+ * </turboFilter>
+ * }</pre>
+ *
+ * @author Avdeyev Viktor
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    /**
+     * Счетчик для логгеров, к которым выборка не применяется.
+     */
+    private static final AtomicLong NOT_SAMPLED = new AtomicLong();
+
+    private final List<String> loggers = new ArrayList<>();
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    private int rate = 1;
+
+    /**
+     * Добавить логгер: выборка применяется к нему и ко всем вложенным логгерам.
+     *
+     * @param logger имя логгера или пакета
+     */
+    public void addLogger(String logger) {
+        loggers.add(logger);
+    }
+
+    /**
+     * Задать частоту выборки: 1 — писать все сообщения, 10 — каждое десятое.
+     *
+     * @param rate частота выборки
+     */
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (rate <= 1 || format == null || level.isGreaterOrEqual(Level.WARN)
+            || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        AtomicLong counter = counters.computeIfAbsent(logger.getName(), this::counterFor);
+        if (counter == NOT_SAMPLED) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private AtomicLong counterFor(String loggerName) {
+        for (String prefix : loggers) {
+            if (loggerName.equals(prefix) || loggerName.startsWith(prefix + ".")) {
+                return new AtomicLong();
+            }
+        }
+        return NOT_SAMPLED;
+    }
+}
@@ -0,0 +1,104 @@
+package inote.metrics;
+
+import inote.dto.CursorPage;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Метрики операций с заметками: время выполнения каждого метода {@code NoteService}
+ * и каждого запроса {@code NoteRepository} с гистограммой для перцентилей и распределение
+ * количества возвращенных заметок.
+ *
+ * <ul>
+ *     <li>{@code inote.service.calls}, {@code inote.repository.queries} — таймеры с тегами
+ *     {@code method} и {@code exception} (none при успешном выполнении);</li>
+ *     <li>{@code inote.service.results}, {@code inote.repository.results} — количество элементов
+ *     в результате: размер списка или страницы, 0 или 1 для Optional.</li>
+ * </ul>
+ *
+ * Аспект выполняется раньше кэширования и транзакций, поэтому время сервиса включает
+ * обращение к кэшу, а при промахе и к БД. Для методов, возвращающих Stream, учитывается
+ * только время открытия потока.
+ *
+ * @author Avdeyev Viktor
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class NoteOperationMetrics {
+
+    public static final String SERVICE_CALLS = "inote.service.calls";
+
+    public static final String SERVICE_RESULTS = "inote.service.results";
+
+    public static final String REPOSITORY_QUERIES = "inote.repository.queries";
+
+    public static final String REPOSITORY_RESULTS = "inote.repository.results";
+
+    private final MeterRegistry registry;
+
+    @Around("execution(public * inote.service.NoteService+.*(..))")
+    public Object measureService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return measure(joinPoint, SERVICE_CALLS, SERVICE_RESULTS);
+    }
+
+    @Around("execution(public * inote.repository.NoteRepository+.*(..))")
+    public Object measureRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return measure(joinPoint, REPOSITORY_QUERIES, REPOSITORY_RESULTS);
+    }
+
+    private Object measure(ProceedingJoinPoint joinPoint, String timerName, String resultsName) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(registry);
+        String exception = "none";
+        try {
+            Object result = joinPoint.proceed();
+            int size = resultSize(result);
+            if (size >= 0) {
+                DistributionSummary.builder(resultsName)
+                    .tag("method", method)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(size);
+            }
+            return result;
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(timerName)
+                .tag("method", method)
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .register(registry));
+        }
+    }
+
+    /**
+     * Количество заметок в результате или -1, если результат не является набором заметок.
+     */
+    private static int resultSize(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof CursorPage<?> page) {
+            return page.getItems() == null ? 0 : page.getItems().size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,54 @@
+package inote.repository;
+
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Репозиторий разделов таблицы notes, секционированной по месяцам created_at.
+ * Раздел месяца называется notes_ГГГГ_ММ, заметки вне созданных разделов хранятся в notes_default.
+ *
+ * @author Avdeyev Viktor
+ */
+@Repository
+public interface NotePartitionRepository {
+
+    /**
+     * Проверить, секционирована ли таблица notes.
+     *
+     * @return true, если notes секционирована.
+     */
+    boolean isPartitioned();
+
+    /**
+     * Найти месяцы, для которых есть разделы.
+     *
+     * @return месяцы присоединенных разделов без раздела по умолчанию.
+     */
+    List<YearMonth> findPartitionMonths();
+
+    /**
+     * Создать раздел месяца. Заметки месяца из раздела по умолчанию переносятся в новый раздел.
+     *
+     * @param month месяц.
+     */
+    void createPartition(YearMonth month);
+
+    /**
+     * Отсоединить раздел месяца от notes. Раздел остается отдельной таблицей с прежним именем,
+     * версии его заметок переносятся из note_revisions в таблицу note_revisions_ГГГГ_ММ.
+     *
+     * @param month месяц.
+     * @return ID заметок отсоединенного раздела.
+     */
+    List<Long> detachPartition(YearMonth month);
+
+    /**
+     * Удалить раздел месяца вместе с версиями его заметок.
+     *
+     * @param month месяц.
+     * @return ID удаленных заметок.
+     */
+    List<Long> dropPartition(YearMonth month);
+}
@@ -1,11 +1,18 @@
 package inote.repository;
 
+import inote.dto.NoteSearchHit;
+import inote.dto.NoteSummary;
+import inote.dto.NoteVersion;
+import inote.dto.TitleSuggestion;
 import inote.entity.Note;
+import inote.util.NoteCursor;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для работы с {@link Note}.
@@ -24,6 +31,16 @@ public interface NoteRepository {
      */
     List<Note> findAll();
 
+    /**
+     * Получить все заметки в виде потока, читаемого из БД порциями.
+     * Заметки отсоединяются от контекста персистентности по мере чтения,
+     * поэтому расход памяти не зависит от количества заметок.
+     * Должен вызываться внутри транзакции, поток необходимо закрыть после использования.
+     *
+     * @return поток всех заметок, упорядоченных по ID.
+     */
+    Stream<Note> streamAll();
+
     /**
      * Найти заметку по ID.
      *
@@ -32,6 +49,30 @@ public interface NoteRepository {
      */
     Optional<Note> findById(Long id);
 
+    /**
+     * Найти время последнего изменения заметки, не читая ее содержимое.
+     * Для заметок, которые не изменялись после создания, возвращается время создания.
+     *
+     * @param id ID заметки.
+     * @return Optional со временем изменения, пустой, если заметка не найдена.
+     */
+    Optional<LocalDateTime> findUpdatedAtById(Long id);
+
+    /**
+     * Получить версию набора всех заметок: наибольшее время изменения и количество заметок.
+     *
+     * @return версия набора заметок.
+     */
+    NoteVersion findCollectionVersion();
+
+    /**
+     * Найти заметки с указанными ID.
+     *
+     * @param ids ID заметок.
+     * @return найденные заметки в произвольном порядке.
+     */
+    List<Note> findByIds(Collection<Long> ids);
+
     /**
      * Найти все заметки по заголовку.
      *
@@ -49,6 +90,70 @@ public interface NoteRepository {
      */
     List<Note> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
 
+    /**
+     * Найти страницу заметок, упорядоченных по ID (keyset-пагинация).
+     *
+     * @param afterId ID, после которого начинается страница, или null для первой страницы.
+     * @param limit   максимальное количество заметок.
+     * @return список заметок страницы.
+     */
+    List<Note> findPage(Long afterId, int limit);
+
+    /**
+     * Найти страницу кратких представлений заметок, упорядоченных по ID (keyset-пагинация).
+     * Содержимое заметок целиком не читается: из БД выбираются только его размер и начальный фрагмент.
+     *
+     * @param afterId ID, после которого начинается страница, или null для первой страницы.
+     * @param limit   максимальное количество заметок.
+     * @return список кратких представлений заметок страницы.
+     */
+    List<NoteSummary> findSummaryPage(Long afterId, int limit);
+
+    /**
+     * Найти страницу заметок с указанным заголовком, упорядоченных по ID (keyset-пагинация).
+     *
+     * @param title   заголовок заметки.
+     * @param afterId ID, после которого начинается страница, или null для первой страницы.
+     * @param limit   максимальное количество заметок.
+     * @return список заметок страницы.
+     */
+    List<Note> findPageByTitle(String title, Long afterId, int limit);
+
+    /**
+     * Найти заголовки, начинающиеся с префикса без учета регистра,
+     * от недавно измененных заметок к давно измененным.
+     *
+     * @param prefix префикс заголовка.
+     * @param limit  максимальное количество заголовков.
+     * @return ID и заголовки заметок.
+     */
+    List<TitleSuggestion> findTitlesByPrefix(String prefix, int limit);
+
+    /**
+     * Найти страницу заметок, созданных в указанный период,
+     * упорядоченных по дате создания и ID (keyset-пагинация).
+     *
+     * @param startDate      начальная дата.
+     * @param endDate        конечная дата.
+     * @param afterCreatedAt дата создания, после которой начинается страница, или null для первой страницы.
+     * @param afterId        ID, после которого начинается страница, или null для первой страницы.
+     * @param limit          максимальное количество заметок.
+     * @return список заметок страницы.
+     */
+    List<Note> findPageByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate,
+                                          LocalDateTime afterCreatedAt, Long afterId, int limit);
+
+    /**
+     * Полнотекстовый поиск заметок по заголовку и содержимому.
+     * Результаты упорядочены по убыванию релевантности, затем по ID (keyset-пагинация).
+     *
+     * @param query  поисковый запрос.
+     * @param limit  максимальное количество результатов.
+     * @param cursor курсор формата "rank,id", после которого начинается страница, или null для первой страницы.
+     * @return результаты поиска с подсвеченными фрагментами содержимого.
+     */
+    List<NoteSearchHit> search(String query, int limit, NoteCursor cursor);
+
     /**
      * Сохранить или обновить заметку.
      *
@@ -57,6 +162,14 @@ public interface NoteRepository {
      */
     Note save(Note note);
 
+    /**
+     * Сохранить список новых заметок пакетными вставками.
+     *
+     * @param notes новые заметки (без ID).
+     * @return сохраненные заметки с присвоенными ID.
+     */
+    List<Note> saveAll(List<Note> notes);
+
     /**
      * Обновить заметку по ID.
      *
@@ -72,4 +185,49 @@ public interface NoteRepository {
      * @param id ID заметки.
      */
     void deleteById(Long id);
+
+    /**
+     * Удалить заметки с указанными ID одним запросом.
+     *
+     * @param ids ID заметок.
+     * @return количество удаленных заметок.
+     */
+    int deleteByIds(Collection<Long> ids);
+
+    /**
+     * Удалить заметки, созданные в указанный период.
+     *
+     * @param startDate начальная дата.
+     * @param endDate   конечная дата.
+     * @return ID удаленных заметок.
+     */
+    List<Long> deleteByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Установить заголовок заметкам с указанными ID одним запросом.
+     *
+     * @param ids   ID заметок.
+     * @param title новый заголовок.
+     * @return количество обновленных заметок.
+     */
+    int updateTitle(Collection<Long> ids, String title);
+
+    /**
+     * Записать заголовок, содержимое и время изменения заметок одним JDBC-пакетом
+     * без предварительного чтения. Время изменения записывается как есть.
+     *
+     * @param notes заметки с ID.
+     * @return количество обновленных заметок.
+     */
+    int updateAll(List<Note> notes);
+
+    /**
+     * Записать заголовок, содержимое и время изменения заметки, если с момента чтения
+     * она не изменялась. Время изменения записывается как есть.
+     *
+     * @param note              заметка с ID и новыми данными.
+     * @param expectedUpdatedAt время изменения прочитанной версии заметки.
+     * @return true, если заметка обновлена, false, если ее нет или она уже изменена.
+     */
+    boolean updateIfUnchanged(Note note, LocalDateTime expectedUpdatedAt);
 }
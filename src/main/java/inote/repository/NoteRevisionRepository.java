@@ -0,0 +1,62 @@
+package inote.repository;
+
+import inote.dto.NoteRevisionSummary;
+import inote.entity.NoteRevision;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий для работы с {@link NoteRevision}.
+ *
+ * @author Avdeyev Viktor
+ */
+@Repository
+public interface NoteRevisionRepository {
+
+    /**
+     * Заблокировать строку заметки до конца текущей транзакции, чтобы версии одной заметки
+     * нумеровались по очереди.
+     *
+     * @param noteId ID заметки.
+     * @return true, если заметка существует.
+     */
+    boolean lockNote(Long noteId);
+
+    /**
+     * Найти последнюю версию заметки без содержимого.
+     *
+     * @param noteId ID заметки.
+     * @return последняя версия или empty, если версий нет.
+     */
+    Optional<NoteRevisionSummary> findLatest(Long noteId);
+
+    /**
+     * Найти страницу версий заметки без содержимого, от новых к старым.
+     *
+     * @param noteId         ID заметки.
+     * @param beforeRevision номер версии, до которой начинается страница, или null для первой страницы.
+     * @param limit          максимальное количество версий.
+     * @return версии по убыванию номера.
+     */
+    List<NoteRevisionSummary> findPage(Long noteId, Integer beforeRevision, int limit);
+
+    /**
+     * Найти записи, из которых восстанавливается версия: ближайший предшествующий снимок
+     * и правки после него до указанной версии включительно.
+     *
+     * @param noteId   ID заметки.
+     * @param revision номер версии.
+     * @return записи по возрастанию номера, начиная со снимка, или пустой список, если версии нет.
+     */
+    List<NoteRevision> findChain(Long noteId, int revision);
+
+    /**
+     * Сохранить новую версию заметки.
+     *
+     * @param revision версия заметки.
+     * @return сохраненная версия с присвоенным ID.
+     */
+    NoteRevision save(NoteRevision revision);
+}
@@ -0,0 +1,76 @@
+package inote.repository;
+
+import inote.entity.Note;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Реактивный репозиторий для работы с {@link Note} через R2DBC.
+ *
+ * Работает с той же таблицей notes, что и {@link NoteRepository}, и используется реактивным стеком
+ * (профиль reactive). Выборки возвращаются потоком строк с учетом обратного давления.
+ *
+ * @author Avdeyev Viktor
+ */
+public interface ReactiveNoteRepository {
+
+    /**
+     * Потоковое чтение заметок в порядке возрастания ID.
+     *
+     * @param afterId ID, после которого начинается выборка, или null для чтения с начала
+     * @param limit максимальное количество заметок или null без ограничения
+     * @return поток заметок
+     */
+    Flux<Note> findAll(Long afterId, Integer limit);
+
+    /**
+     * Поиск заметки по ID.
+     *
+     * @param id уникальный идентификатор заметки
+     * @return заметка или пустой результат, если она не найдена
+     */
+    Mono<Note> findById(Long id);
+
+    /**
+     * Получение времени последнего изменения заметки без чтения ее содержимого.
+     * Для заметок, которые не изменялись, возвращается время создания.
+     *
+     * @param id уникальный идентификатор заметки
+     * @return время изменения или пустой результат, если заметка не найдена
+     */
+    Mono<LocalDateTime> findUpdatedAtById(Long id);
+
+    /**
+     * Поиск заметок по заголовку в порядке возрастания ID.
+     *
+     * @param title заголовок заметки
+     * @return поток заметок с указанным заголовком
+     */
+    Flux<Note> findByTitle(String title);
+
+    /**
+     * Добавление новой заметки. ID присваивается базой данных.
+     *
+     * @param note заметка для сохранения
+     * @return сохраненная заметка с присвоенным ID
+     */
+    Mono<Note> insert(Note note);
+
+    /**
+     * Обновление заголовка и содержимого заметки.
+     *
+     * @param note заметка с ID и новыми данными
+     * @return обновленная заметка или пустой результат, если она не найдена
+     */
+    Mono<Note> update(Note note);
+
+    /**
+     * Удаление заметки по ID.
+     *
+     * @param id уникальный идентификатор заметки
+     * @return количество удаленных заметок
+     */
+    Mono<Long> deleteById(Long id);
+}
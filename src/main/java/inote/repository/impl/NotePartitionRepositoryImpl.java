@@ -0,0 +1,143 @@
+package inote.repository.impl;
+
+import inote.repository.NotePartitionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Реализация {@link NotePartitionRepository} для PostgreSQL.
+ *
+ * Имена разделов формируются только из месяца, поэтому подставляются в DDL без экранирования.
+ * Перед изменением разделов запись в notes блокируется до конца транзакции (SHARE ROW EXCLUSIVE),
+ * чтение продолжается: иначе заметка, добавленная во время изменения, может попасть
+ * не в тот раздел или пропасть из оповещения об удаленных заметках.
+ *
+ * @author Avdeyev Viktor
+ */
+@Repository
+@Profile("!reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class NotePartitionRepositoryImpl implements NotePartitionRepository {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("notes_(\\d{4})_(\\d{2})");
+
+    private static final String COLUMNS = "id, title, content, created_at, updated_at";
+
+    @PersistenceContext
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isPartitioned() {
+        return (Boolean) entityManager.createNativeQuery(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('notes'))")
+            .getSingleResult();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<YearMonth> findPartitionMonths() {
+        List<?> names = entityManager.createNativeQuery(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                    + "WHERE i.inhparent = to_regclass('notes')")
+            .getResultList();
+        List<YearMonth> months = new ArrayList<>(names.size());
+        for (Object name : names) {
+            Matcher matcher = PARTITION_NAME.matcher(name.toString());
+            if (matcher.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            }
+        }
+        return months;
+    }
+
+    @Override
+    @Transactional
+    public void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        String period = "created_at >= '" + from + "' AND created_at < '" + to + "'";
+        lockNotes();
+        long moved = ((Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM notes_default WHERE " + period)
+            .getSingleResult()).longValue();
+        if (moved > 0) {
+            // PostgreSQL не создает раздел, пока строки его периода лежат в разделе по умолчанию.
+            // Строки переносятся через временную таблицу, триггер удаления при этом не удаляет версии
+            entityManager.createNativeQuery("SELECT set_config('inote.keep_revisions', 'on', true)").getSingleResult();
+            execute("CREATE TEMPORARY TABLE notes_moved ON COMMIT DROP AS SELECT " + COLUMNS
+                + " FROM notes_default WHERE " + period);
+            execute("DELETE FROM notes_default WHERE " + period);
+        }
+        execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF notes FOR VALUES FROM ('" + from
+            + "') TO ('" + to + "')");
+        if (moved > 0) {
+            execute("INSERT INTO notes (" + COLUMNS + ") SELECT " + COLUMNS + " FROM notes_moved");
+            entityManager.createNativeQuery("SELECT set_config('inote.keep_revisions', 'off', true)").getSingleResult();
+        }
+        log.info("Создан раздел {}, перенесено заметок из раздела по умолчанию: {}", name, moved);
+    }
+
+    @Override
+    @Transactional
+    public List<Long> detachPartition(YearMonth month) {
+        String name = partitionName(month);
+        lockNotes();
+        List<Long> ids = findIds(name);
+        // Отсоединение раздела не вызывает триггеры удаления строк, а версии без заметок в notes
+        // остались бы в note_revisions навсегда. Они переносятся в архив рядом с разделом
+        String revisions = "note_revisions_" + name.substring("notes_".length());
+        execute("CREATE TABLE " + revisions + " AS SELECT * FROM note_revisions WHERE note_id IN (SELECT id FROM "
+            + name + ")");
+        execute("DELETE FROM note_revisions WHERE note_id IN (SELECT id FROM " + name + ")");
+        execute("ALTER TABLE notes DETACH PARTITION " + name);
+        log.info("Раздел {} отсоединен, заметок: {}, версии перенесены в {}", name, ids.size(), revisions);
+        return ids;
+    }
+
+    @Override
+    @Transactional
+    public List<Long> dropPartition(YearMonth month) {
+        String name = partitionName(month);
+        lockNotes();
+        List<Long> ids = findIds(name);
+        // Удаление раздела не вызывает триггеры удаления строк, версии удаляются явно
+        execute("DELETE FROM note_revisions WHERE note_id IN (SELECT id FROM " + name + ")");
+        execute("DROP TABLE " + name);
+        log.info("Раздел {} удален, заметок: {}", name, ids.size());
+        return ids;
+    }
+
+    /**
+     * Имя раздела месяца.
+     */
+    static String partitionName(YearMonth month) {
+        return String.format("notes_%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private void lockNotes() {
+        execute("LOCK TABLE notes IN SHARE ROW EXCLUSIVE MODE");
+    }
+
+    private List<Long> findIds(String partition) {
+        List<?> ids = entityManager.createNativeQuery("SELECT id FROM " + partition).getResultList();
+        return ids.stream().map(id -> ((Number) id).longValue()).toList();
+    }
+
+    private void execute(String sql) {
+        entityManager.createNativeQuery(sql).executeUpdate();
+    }
+}
@@ -1,17 +1,38 @@
 package inote.repository.impl;
 
+import inote.config.PersistenceProperties;
+import inote.dto.NoteSearchHit;
+import inote.dto.NoteSummary;
+import inote.dto.NoteVersion;
+import inote.dto.TitleSuggestion;
 import inote.entity.Note;
 import inote.repository.NoteRepository;
+import inote.util.NoteCursor;
+import inote.util.Snippets;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Реализация {@link NoteRepository}.
@@ -21,13 +42,64 @@ import java.util.Optional;
  * @author Avdeyev Viktor
  */
 @Repository
+@Profile("!reactive")
 @RequiredArgsConstructor
 @Slf4j
 public class NoteRepositoryImpl implements NoteRepository {
 
+    /**
+     * Максимальное количество ID в одном условии IN.
+     */
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+    /**
+     * Удаление заметок за период с возвратом их ID одним запросом в PostgreSQL.
+     * Условие по дате позволяет секционированной таблице удалять только из разделов периода.
+     */
+    private static final String DELETE_BY_CREATED_AT_RETURNING_SQL =
+        "DELETE FROM notes WHERE created_at BETWEEN ? AND ? RETURNING id";
+
+    /**
+     * То же удаление для H2, где вместо RETURNING используется таблица удаленных строк.
+     */
+    private static final String DELETE_BY_CREATED_AT_OLD_TABLE_SQL =
+        "SELECT id FROM OLD TABLE (DELETE FROM notes WHERE created_at BETWEEN ? AND ?)";
+
+    /**
+     * Поиск по колонке search_vector с ранжированием по ts_rank.
+     * ts_headline вычисляется во внешнем запросе только для строк итоговой страницы.
+     */
+    private static final String FULL_TEXT_SEARCH_SQL =
+        "SELECT h.id, h.title, ts_headline('russian', h.content, h.q, "
+            + "'StartSel=<b>, StopSel=</b>, MaxFragments=2, MaxWords=20, MinWords=5') AS snippet, "
+            + "h.rank, h.created_at, h.updated_at "
+            + "FROM (SELECT n.id, n.title, n.content, n.created_at, n.updated_at, q, "
+            + "ts_rank(n.search_vector, q) AS rank "
+            + "FROM notes n, websearch_to_tsquery('russian', :query) q "
+            + "WHERE n.search_vector @@ q) h "
+            + "%s"
+            + "ORDER BY h.rank DESC, h.id "
+            + "LIMIT :limit";
+
+    /**
+     * Краткое представление заметки без полного содержимого.
+     * octet_length в PostgreSQL берет размер из заголовка TOAST-значения, а substring
+     * читает только начальный фрагмент, поэтому содержимое целиком не распаковывается.
+     */
+    private static final String SUMMARY_SELECT =
+        "SELECT new inote.dto.NoteSummary(n.id, n.title, OCTET_LENGTH(n.content), "
+            + "SUBSTRING(n.content, 1, :previewLength), n.createdAt, n.updatedAt) FROM Note n ";
+
+    private static final String FULL_TEXT_SEARCH_AFTER =
+        "WHERE h.rank < CAST(:afterRank AS double precision) "
+            + "OR (h.rank = CAST(:afterRank AS double precision) AND h.id > :afterId) ";
+
+
     @PersistenceContext
     private final EntityManager entityManager;
 
+    private final PersistenceProperties properties;
+
     @Override
     @Transactional(readOnly = true)
     public List<Note> findAll() {
@@ -37,6 +109,17 @@ public class NoteRepositoryImpl implements NoteRepository {
         return notes;
     }
 
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<Note> streamAll() {
+        log.info("Потоковое чтение всех заметок из базы данных, fetchSize = {}", properties.getExportFetchSize());
+        return entityManager.createQuery("SELECT n FROM Note n ORDER BY n.id", Note.class)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, properties.getExportFetchSize())
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream()
+            .peek(entityManager::detach);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<Note> findById(Long id) {
@@ -45,6 +128,42 @@ public class NoteRepositoryImpl implements NoteRepository {
         return Optional.ofNullable(note);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> findUpdatedAtById(Long id) {
+        log.info("Запрос времени изменения заметки с ID: {}", id);
+        return entityManager.createQuery(
+                "SELECT COALESCE(n.updatedAt, n.createdAt) FROM Note n WHERE n.id = :id", LocalDateTime.class)
+            .setParameter("id", id)
+            .getResultStream()
+            .findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public NoteVersion findCollectionVersion() {
+        log.info("Запрос версии набора заметок");
+        NoteVersion version = entityManager.createQuery(
+                "SELECT new inote.dto.NoteVersion(MAX(n.updatedAt), COUNT(n)) FROM Note n", NoteVersion.class)
+            .getSingleResult();
+        log.info("Версия набора заметок: {}", version);
+        return version;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Note> findByIds(Collection<Long> ids) {
+        log.info("Поиск {} заметок по ID", ids.size());
+        List<Note> notes = new ArrayList<>(ids.size());
+        for (List<Long> chunk : chunks(ids)) {
+            notes.addAll(entityManager.createQuery("SELECT n FROM Note n WHERE n.id IN :ids", Note.class)
+                .setParameter("ids", chunk)
+                .getResultList());
+        }
+        log.info("Найдено {} заметок", notes.size());
+        return notes;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Note> findByTitle(String title) {
@@ -70,6 +189,101 @@ public class NoteRepositoryImpl implements NoteRepository {
         return notes;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Note> findPage(Long afterId, int limit) {
+        log.info("Запрос страницы заметок после ID {}, limit = {}", afterId, limit);
+        TypedQuery<Note> query = afterId == null
+            ? entityManager.createQuery("SELECT n FROM Note n ORDER BY n.id", Note.class)
+            : entityManager.createQuery("SELECT n FROM Note n WHERE n.id > :afterId ORDER BY n.id", Note.class)
+                .setParameter("afterId", afterId);
+        List<Note> notes = query.setMaxResults(limit).getResultList();
+        log.info("Найдено {} заметок на странице", notes.size());
+        return notes;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NoteSummary> findSummaryPage(Long afterId, int limit) {
+        log.info("Запрос страницы кратких представлений заметок после ID {}, limit = {}", afterId, limit);
+        TypedQuery<NoteSummary> query = afterId == null
+            ? entityManager.createQuery(SUMMARY_SELECT + "ORDER BY n.id", NoteSummary.class)
+            : entityManager.createQuery(SUMMARY_SELECT + "WHERE n.id > :afterId ORDER BY n.id", NoteSummary.class)
+                .setParameter("afterId", afterId);
+        List<NoteSummary> summaries = query
+            .setParameter("previewLength", properties.getSummaryPreviewLength())
+            .setMaxResults(limit)
+            .getResultList();
+        log.info("Найдено {} кратких представлений заметок на странице", summaries.size());
+        return summaries;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Note> findPageByTitle(String title, Long afterId, int limit) {
+        log.info("Запрос страницы заметок с заголовком '{}' после ID {}, limit = {}", title, afterId, limit);
+        TypedQuery<Note> query = afterId == null
+            ? entityManager.createQuery("SELECT n FROM Note n WHERE n.title = :title ORDER BY n.id", Note.class)
+            : entityManager.createQuery(
+                    "SELECT n FROM Note n WHERE n.title = :title AND n.id > :afterId ORDER BY n.id", Note.class)
+                .setParameter("afterId", afterId);
+        List<Note> notes = query.setParameter("title", title).setMaxResults(limit).getResultList();
+        log.info("Найдено {} заметок с заголовком '{}' на странице", notes.size(), title);
+        return notes;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TitleSuggestion> findTitlesByPrefix(String prefix, int limit) {
+        log.info("Запрос заголовков с префиксом '{}', limit = {}", prefix, limit);
+        List<TitleSuggestion> titles = entityManager.createQuery(
+                "SELECT new inote.dto.TitleSuggestion(n.id, n.title) FROM Note n "
+                    + "WHERE LOWER(n.title) LIKE :prefix ESCAPE '\\' "
+                    + "ORDER BY COALESCE(n.updatedAt, n.createdAt) DESC, n.id DESC", TitleSuggestion.class)
+            .setParameter("prefix", escapeLike(prefix.toLowerCase()) + "%")
+            .setMaxResults(limit)
+            .getResultList();
+        log.info("Найдено {} заголовков с префиксом '{}'", titles.size(), prefix);
+        return titles;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Note> findPageByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate,
+                                                 LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        log.info("Запрос страницы заметок, созданных между {} и {}, после ({}, {}), limit = {}",
+            startDate, endDate, afterCreatedAt, afterId, limit);
+        TypedQuery<Note> query = afterCreatedAt == null || afterId == null
+            ? entityManager.createQuery(
+                "SELECT n FROM Note n WHERE n.createdAt BETWEEN :startDate AND :endDate "
+                    + "ORDER BY n.createdAt, n.id", Note.class)
+            : entityManager.createQuery(
+                    "SELECT n FROM Note n WHERE n.createdAt BETWEEN :startDate AND :endDate "
+                        + "AND (n.createdAt, n.id) > (:afterCreatedAt, :afterId) "
+                        + "ORDER BY n.createdAt, n.id", Note.class)
+                .setParameter("afterCreatedAt", afterCreatedAt)
+                .setParameter("afterId", afterId);
+        List<Note> notes = query
+            .setParameter("startDate", startDate)
+            .setParameter("endDate", endDate)
+            .setMaxResults(limit)
+            .getResultList();
+        log.info("Найдено {} заметок, созданных в указанный период, на странице", notes.size());
+        return notes;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NoteSearchHit> search(String query, int limit, NoteCursor cursor) {
+        log.info("Поиск заметок по запросу '{}', курсор = {}, limit = {}",
+            query, cursor == null ? null : cursor.getRank() + "," + cursor.getId(), limit);
+        List<NoteSearchHit> hits = properties.isFullTextSearch()
+            ? fullTextSearch(query, limit, cursor)
+            : likeSearch(query, limit, cursor);
+        log.info("Найдено {} заметок по запросу '{}'", hits.size(), query);
+        return hits;
+    }
+
     @Override
     @Transactional
     public Note save(Note note) {
@@ -85,6 +299,24 @@ public class NoteRepositoryImpl implements NoteRepository {
         }
     }
 
+    @Override
+    @Transactional
+    public List<Note> saveAll(List<Note> notes) {
+        int batchSize = properties.getBatchSize();
+        log.info("Пакетное сохранение {} заметок, batchSize = {}", notes.size(), batchSize);
+        for (int i = 0; i < notes.size(); i++) {
+            entityManager.persist(notes.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        log.info("Сохранено {} заметок", notes.size());
+        return notes;
+    }
+
     @Override
     @Transactional
     public Optional<Note> update(Long id, Note updatedNote) {
@@ -115,4 +347,206 @@ public class NoteRepositoryImpl implements NoteRepository {
             log.warn("Заметка с ID {} не найдена для удаления", id);
         }
     }
+
+    @Override
+    @Transactional
+    public int deleteByIds(Collection<Long> ids) {
+        log.info("Массовое удаление {} заметок по ID", ids.size());
+        int deleted = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            deleted += entityManager.createQuery("DELETE FROM Note n WHERE n.id IN :ids")
+                .setParameter("ids", chunk)
+                .executeUpdate();
+        }
+        log.info("Удалено {} заметок", deleted);
+        return deleted;
+    }
+
+    @Override
+    @Transactional
+    public List<Long> deleteByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        log.info("Массовое удаление заметок, созданных между {} и {}", startDate, endDate);
+        // Несохраненные изменения контекста персистентности записываются раньше удаления
+        entityManager.flush();
+        List<Long> ids = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            String sql = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())
+                ? DELETE_BY_CREATED_AT_RETURNING_SQL : DELETE_BY_CREATED_AT_OLD_TABLE_SQL;
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setTimestamp(1, Timestamp.valueOf(startDate));
+                statement.setTimestamp(2, Timestamp.valueOf(endDate));
+                List<Long> deleted = new ArrayList<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        deleted.add(resultSet.getLong(1));
+                    }
+                }
+                return deleted;
+            }
+        });
+        log.info("Удалено {} заметок", ids.size());
+        return ids;
+    }
+
+    @Override
+    @Transactional
+    public int updateTitle(Collection<Long> ids, String title) {
+        log.info("Массовое изменение заголовка {} заметок на '{}'", ids.size(), title);
+        LocalDateTime now = LocalDateTime.now();
+        int updated = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            updated += entityManager.createQuery(
+                    "UPDATE Note n SET n.title = :title, n.updatedAt = :updatedAt WHERE n.id IN :ids")
+                .setParameter("title", title)
+                .setParameter("updatedAt", now)
+                .setParameter("ids", chunk)
+                .executeUpdate();
+        }
+        log.info("Обновлено {} заметок", updated);
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public int updateAll(List<Note> notes) {
+        log.info("Пакетная запись изменений {} заметок", notes.size());
+        // Несохраненные изменения контекста персистентности записываются раньше пакета
+        entityManager.flush();
+        int[] counts = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE notes SET title = ?, content = ?, updated_at = ? WHERE id = ?")) {
+                for (Note note : notes) {
+                    statement.setString(1, note.getTitle());
+                    statement.setString(2, note.getContent());
+                    statement.setTimestamp(3, note.getUpdatedAt() == null ? null : Timestamp.valueOf(note.getUpdatedAt()));
+                    statement.setLong(4, note.getId());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+        int updated = 0;
+        for (int count : counts) {
+            updated += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        log.info("Обновлено {} заметок", updated);
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public boolean updateIfUnchanged(Note note, LocalDateTime expectedUpdatedAt) {
+        log.info("Обновление заметки с ID {} при неизменной версии {}", note.getId(), expectedUpdatedAt);
+        Query query = entityManager.createQuery(
+                "UPDATE Note n SET n.title = :title, n.content = :content, n.updatedAt = :updatedAt "
+                    + "WHERE n.id = :id AND " + (expectedUpdatedAt == null
+                    ? "n.updatedAt IS NULL" : "n.updatedAt = :expectedUpdatedAt"))
+            .setParameter("title", note.getTitle())
+            .setParameter("content", note.getContent())
+            .setParameter("updatedAt", note.getUpdatedAt())
+            .setParameter("id", note.getId());
+        if (expectedUpdatedAt != null) {
+            query.setParameter("expectedUpdatedAt", expectedUpdatedAt);
+        }
+        boolean updated = query.executeUpdate() == 1;
+        log.info("Заметка с ID {} {}", note.getId(), updated ? "обновлена" : "не обновлена: версия изменилась");
+        return updated;
+    }
+
+    /**
+     * Поиск средствами PostgreSQL: websearch_to_tsquery, ts_rank и ts_headline.
+     */
+    @SuppressWarnings("unchecked")
+    private List<NoteSearchHit> fullTextSearch(String query, int limit, NoteCursor cursor) {
+        Query nativeQuery = entityManager.createNativeQuery(
+                FULL_TEXT_SEARCH_SQL.formatted(cursor == null ? "" : FULL_TEXT_SEARCH_AFTER))
+            .setParameter("query", query)
+            .setParameter("limit", limit);
+        if (cursor != null) {
+            nativeQuery.setParameter("afterRank", cursor.getRank())
+                .setParameter("afterId", cursor.getId());
+        }
+        List<Object[]> rows = nativeQuery.getResultList();
+        List<NoteSearchHit> hits = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            hits.add(NoteSearchHit.builder()
+                .id(((Number) row[0]).longValue())
+                .title((String) row[1])
+                .snippet((String) row[2])
+                .rank(((Number) row[3]).doubleValue())
+                .createdAt(toLocalDateTime(row[4]))
+                .updatedAt(toLocalDateTime(row[5]))
+                .build());
+        }
+        return hits;
+    }
+
+    /**
+     * Поиск через LIKE для СУБД без полнотекстового поиска.
+     * Заметка должна содержать все слова запроса; совпадение в заголовке весит 1, в содержимом 0.5.
+     */
+    private List<NoteSearchHit> likeSearch(String query, int limit, NoteCursor cursor) {
+        List<String> terms = List.of(query.toLowerCase(Locale.ROOT).trim().split("\\s+"));
+        StringBuilder where = new StringBuilder();
+        StringBuilder rank = new StringBuilder();
+        for (int i = 0; i < terms.size(); i++) {
+            String titleLike = "LOWER(n.title) LIKE :term" + i + " ESCAPE '\\'";
+            String contentLike = "LOWER(n.content) LIKE :term" + i + " ESCAPE '\\'";
+            where.append(i == 0 ? "" : " AND ")
+                .append('(').append(titleLike).append(" OR ").append(contentLike).append(')');
+            rank.append(i == 0 ? "" : " + ")
+                .append("CASE WHEN ").append(titleLike).append(" THEN 1.0 ELSE 0.5 END");
+        }
+        String jpql = "SELECT n, (" + rank + ") FROM Note n WHERE " + where
+            + (cursor == null ? ""
+                : " AND ((" + rank + ") < :afterRank OR ((" + rank + ") = :afterRank AND n.id > :afterId))")
+            + " ORDER BY (" + rank + ") DESC, n.id";
+        TypedQuery<Object[]> typedQuery = entityManager.createQuery(jpql, Object[].class);
+        for (int i = 0; i < terms.size(); i++) {
+            typedQuery.setParameter("term" + i, "%" + escapeLike(terms.get(i)) + "%");
+        }
+        if (cursor != null) {
+            typedQuery.setParameter("afterRank", cursor.getRank())
+                .setParameter("afterId", cursor.getId());
+        }
+        List<Object[]> rows = typedQuery.setMaxResults(limit).getResultList();
+        List<NoteSearchHit> hits = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Note note = (Note) row[0];
+            hits.add(NoteSearchHit.builder()
+                .id(note.getId())
+                .title(note.getTitle())
+                .snippet(Snippets.highlight(note.getContent(), terms))
+                .rank(((Number) row[1]).doubleValue())
+                .createdAt(note.getCreatedAt())
+                .updatedAt(note.getUpdatedAt())
+                .build());
+        }
+        return hits;
+    }
+
+    /**
+     * Экранировать спецсимволы шаблона LIKE.
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    /**
+     * Разбить ID на части, чтобы не превышать ограничение СУБД на количество параметров запроса.
+     */
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> list = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += IN_CLAUSE_CHUNK_SIZE) {
+            chunks.add(list.subList(i, Math.min(i + IN_CLAUSE_CHUNK_SIZE, list.size())));
+        }
+        return chunks;
+    }
 }
@@ -0,0 +1,105 @@
+package inote.repository.impl;
+
+import inote.dto.NoteRevisionSummary;
+import inote.entity.NoteRevision;
+import inote.repository.NoteRevisionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Реализация {@link NoteRevisionRepository}.
+ *
+ * Использует {@link EntityManager} для взаимодействия с базой данных.
+ *
+ * @author Avdeyev Viktor
+ */
+@Repository
+@Profile("!reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class NoteRevisionRepositoryImpl implements NoteRevisionRepository {
+
+    /**
+     * Краткое представление версии. Содержимое снимка не читается: его размер уже записан
+     * в content_length, длина вычисляется только для короткого текста правки.
+     */
+    private static final String SUMMARY_SELECT =
+        "SELECT new inote.dto.NoteRevisionSummary(r.revision, r.baseRevision, r.title, r.contentLength, "
+            + "CASE WHEN r.revision = r.baseRevision THEN r.contentLength ELSE LENGTH(r.content) END, "
+            + "r.updatedAt) FROM NoteRevision r WHERE r.noteId = :noteId ";
+
+    @PersistenceContext
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean lockNote(Long noteId) {
+        log.info("Блокировка заметки с ID {} для записи версии", noteId);
+        return !entityManager.createNativeQuery("SELECT id FROM notes WHERE id = :noteId FOR UPDATE")
+            .setParameter("noteId", noteId)
+            .getResultList()
+            .isEmpty();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<NoteRevisionSummary> findLatest(Long noteId) {
+        log.info("Запрос последней версии заметки с ID {}", noteId);
+        return entityManager.createQuery(SUMMARY_SELECT + "ORDER BY r.revision DESC", NoteRevisionSummary.class)
+            .setParameter("noteId", noteId)
+            .setMaxResults(1)
+            .getResultStream()
+            .findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NoteRevisionSummary> findPage(Long noteId, Integer beforeRevision, int limit) {
+        log.info("Запрос страницы версий заметки с ID {} до версии {}, limit = {}", noteId, beforeRevision, limit);
+        TypedQuery<NoteRevisionSummary> query = beforeRevision == null
+            ? entityManager.createQuery(SUMMARY_SELECT + "ORDER BY r.revision DESC", NoteRevisionSummary.class)
+            : entityManager.createQuery(SUMMARY_SELECT + "AND r.revision < :before ORDER BY r.revision DESC",
+                    NoteRevisionSummary.class)
+                .setParameter("before", beforeRevision);
+        List<NoteRevisionSummary> revisions = query
+            .setParameter("noteId", noteId)
+            .setMaxResults(limit)
+            .getResultList();
+        log.info("Найдено {} версий на странице", revisions.size());
+        return revisions;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NoteRevision> findChain(Long noteId, int revision) {
+        log.info("Запрос записей для восстановления версии {} заметки с ID {}", revision, noteId);
+        List<NoteRevision> chain = entityManager.createQuery(
+                "SELECT r FROM NoteRevision r WHERE r.noteId = :noteId AND r.revision <= :revision "
+                    + "AND r.revision >= (SELECT t.baseRevision FROM NoteRevision t "
+                    + "WHERE t.noteId = :noteId AND t.revision = :revision) "
+                    + "ORDER BY r.revision", NoteRevision.class)
+            .setParameter("noteId", noteId)
+            .setParameter("revision", revision)
+            .getResultList();
+        log.info("Найдено {} записей", chain.size());
+        return chain;
+    }
+
+    @Override
+    @Transactional
+    public NoteRevision save(NoteRevision revision) {
+        log.info("Сохранение версии заметки: {}", revision);
+        entityManager.persist(revision);
+        return revision;
+    }
+}
@@ -0,0 +1,132 @@
+package inote.repository.impl;
+
+import inote.config.PersistenceProperties;
+import inote.entity.Note;
+import inote.repository.ReactiveNoteRepository;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Реализация {@link ReactiveNoteRepository}.
+ *
+ * Использует {@link DatabaseClient} для неблокирующего взаимодействия с базой данных.
+ * Потоковые выборки читаются порциями по {@code inote.persistence.export-fetch-size} строк,
+ * следующая порция запрашивается по мере потребления предыдущей.
+ *
+ * @author Avdeyev Viktor
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveNoteRepositoryImpl implements ReactiveNoteRepository {
+
+    private static final String SELECT = "SELECT id, title, content, created_at, updated_at FROM notes ";
+
+    private final DatabaseClient databaseClient;
+
+    private final PersistenceProperties properties;
+
+    @Override
+    public Flux<Note> findAll(Long afterId, Integer limit) {
+        log.info("Потоковое чтение заметок после ID {}, limit = {}", afterId, limit);
+        String sql = SELECT
+            + (afterId == null ? "" : "WHERE id > :afterId ")
+            + "ORDER BY id"
+            + (limit == null ? "" : " LIMIT :limit");
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+            .filter(statement -> statement.fetchSize(properties.getExportFetchSize()));
+        if (afterId != null) {
+            spec = spec.bind("afterId", afterId);
+        }
+        if (limit != null) {
+            spec = spec.bind("limit", limit);
+        }
+        return spec.map(ReactiveNoteRepositoryImpl::toNote).all();
+    }
+
+    @Override
+    public Mono<Note> findById(Long id) {
+        log.info("Поиск заметки по ID: {}", id);
+        return databaseClient.sql(SELECT + "WHERE id = :id")
+            .bind("id", id)
+            .map(ReactiveNoteRepositoryImpl::toNote)
+            .one();
+    }
+
+    @Override
+    public Mono<LocalDateTime> findUpdatedAtById(Long id) {
+        log.info("Запрос времени изменения заметки с ID: {}", id);
+        return databaseClient.sql("SELECT COALESCE(updated_at, created_at) AS updated_at FROM notes WHERE id = :id")
+            .bind("id", id)
+            .map(row -> row.get("updated_at", LocalDateTime.class))
+            .one();
+    }
+
+    @Override
+    public Flux<Note> findByTitle(String title) {
+        log.info("Поиск заметок с заголовком: '{}'", title);
+        return databaseClient.sql(SELECT + "WHERE title = :title ORDER BY id")
+            .bind("title", title)
+            .map(ReactiveNoteRepositoryImpl::toNote)
+            .all();
+    }
+
+    @Override
+    public Mono<Note> insert(Note note) {
+        log.info("Сохранение заметки: {}", note);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime createdAt = note.getCreatedAt() == null ? now : note.getCreatedAt();
+        return databaseClient.sql("INSERT INTO notes (title, content, created_at, updated_at) "
+                + "VALUES (:title, :content, :createdAt, :updatedAt)")
+            .filter(statement -> statement.returnGeneratedValues("id"))
+            .bind("title", note.getTitle())
+            .bind("content", note.getContent())
+            .bind("createdAt", createdAt)
+            .bind("updatedAt", now)
+            .map(row -> row.get("id", Long.class))
+            .one()
+            .map(id -> new Note(id, note.getTitle(), note.getContent(), createdAt, now));
+    }
+
+    @Override
+    public Mono<Note> update(Note note) {
+        log.info("Обновление заметки с ID: {}", note.getId());
+        return databaseClient.sql("UPDATE notes SET title = :title, content = :content, updated_at = :updatedAt "
+                + "WHERE id = :id")
+            .bind("title", note.getTitle())
+            .bind("content", note.getContent())
+            .bind("updatedAt", LocalDateTime.now())
+            .bind("id", note.getId())
+            .fetch()
+            .rowsUpdated()
+            .filter(updated -> updated > 0)
+            .flatMap(updated -> findById(note.getId()));
+    }
+
+    @Override
+    public Mono<Long> deleteById(Long id) {
+        log.info("Удаление заметки с ID: {}", id);
+        return databaseClient.sql("DELETE FROM notes WHERE id = :id")
+            .bind("id", id)
+            .fetch()
+            .rowsUpdated();
+    }
+
+    private static Note toNote(Readable row) {
+        return new Note(
+            row.get("id", Long.class),
+            row.get("title", String.class),
+            row.get("content", String.class),
+            row.get("created_at", LocalDateTime.class),
+            row.get("updated_at", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,438 @@
+package inote.repository.impl;
+
+import inote.dto.NoteSearchHit;
+import inote.dto.NoteSummary;
+import inote.dto.NoteVersion;
+import inote.dto.TitleSuggestion;
+import inote.entity.Note;
+import inote.repository.NoteRepository;
+import inote.util.NoteCursor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Реализация {@link NoteRepository}, распределяющая заметки по нескольким БД (шардам).
+ *
+ * ID заметки содержит номер шарда в старших битах ({@link #shardOf(long)}): последовательность
+ * notes_id_seq шарда k начинается с {@link #idBase(int) k << 48}. Поэтому запросы по ID направляются
+ * в один шард без справочника, а добавление шардов не перемещает существующие заметки. Новые заметки
+ * распределяются по шардам по очереди.
+ *
+ * Запросы без ID выполняются на всех шардах параллельно, результаты объединяются с сохранением
+ * порядка, заданного запросом ({@link NoteRepository}): страницы по ID, по дате создания и по
+ * релевантности собираются слиянием страниц шардов. Каждый шард выполняет свою часть в отдельной
+ * транзакции, атомарность изменений нескольких шардов не гарантируется.
+ *
+ * @author Avdeyev Viktor
+ */
+public class ShardedNoteRepository implements NoteRepository {
+
+    /**
+     * Количество младших битов ID, отведенных под номер заметки внутри шарда.
+     */
+    public static final int SHARD_SHIFT = 48;
+
+    private static final Comparator<Note> ID_ORDER = Comparator.comparing(Note::getId);
+
+    private static final Comparator<Note> CREATED_AT_ID_ORDER =
+        Comparator.comparing(Note::getCreatedAt).thenComparing(Note::getId);
+
+    private static final Comparator<NoteSearchHit> RANK_ORDER =
+        Comparator.comparing(NoteSearchHit::getRank).reversed().thenComparing(NoteSearchHit::getId);
+
+    private final List<Shard> shards;
+
+    private final ExecutorService executor;
+
+    private final int exportChunkSize;
+
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    /**
+     * @param shards          шарды, номер шарда равен позиции в списке
+     * @param executor        пул для параллельных запросов ко всем шардам
+     * @param exportChunkSize количество заметок, читаемых с каждого шарда за раз при потоковой выгрузке
+     */
+    public ShardedNoteRepository(List<Shard> shards, ExecutorService executor, int exportChunkSize) {
+        this.shards = List.copyOf(shards);
+        this.executor = executor;
+        this.exportChunkSize = exportChunkSize;
+    }
+
+    /**
+     * Шарды по номерам.
+     */
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    /**
+     * Номер шарда, в котором хранится заметка с указанным ID.
+     */
+    public static int shardOf(long id) {
+        return (int) (id >>> SHARD_SHIFT);
+    }
+
+    /**
+     * Наименьший ID заметок шарда, ID заметок шарда меньше {@code idBase(shard + 1)}.
+     */
+    public static long idBase(int shard) {
+        return (long) shard << SHARD_SHIFT;
+    }
+
+    @Override
+    public List<Note> findAll() {
+        return concat(gather(shard -> shard.read(NoteRepository::findAll)));
+    }
+
+    /**
+     * Потоковое чтение всех заметок по возрастанию ID: страницы шардов читаются по очереди
+     * и объединяются слиянием, в памяти находится не больше одной страницы каждого шарда.
+     */
+    @Override
+    public Stream<Note> streamAll() {
+        Iterator<Note> iterator = new Iterator<>() {
+
+            private List<Note> page = List.of();
+
+            private int position;
+
+            private Long afterId;
+
+            private boolean last;
+
+            @Override
+            public boolean hasNext() {
+                if (position < page.size()) {
+                    return true;
+                }
+                if (last) {
+                    return false;
+                }
+                page = findPage(afterId, exportChunkSize);
+                position = 0;
+                last = page.size() < exportChunkSize;
+                afterId = page.isEmpty() ? afterId : page.get(page.size() - 1).getId();
+                return !page.isEmpty();
+            }
+
+            @Override
+            public Note next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(position++);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+    }
+
+    @Override
+    public Optional<Note> findById(Long id) {
+        return shardFor(id).flatMap(shard -> shard.read(repository -> repository.findById(id)));
+    }
+
+    @Override
+    public Optional<LocalDateTime> findUpdatedAtById(Long id) {
+        return shardFor(id).flatMap(shard -> shard.read(repository -> repository.findUpdatedAtById(id)));
+    }
+
+    /**
+     * Версия набора заметок: наибольшее время изменения и общее количество заметок всех шардов.
+     */
+    @Override
+    public NoteVersion findCollectionVersion() {
+        LocalDateTime updatedAt = null;
+        long count = 0;
+        for (NoteVersion version : gather(shard -> shard.read(NoteRepository::findCollectionVersion))) {
+            if (version.getUpdatedAt() != null && (updatedAt == null || version.getUpdatedAt().isAfter(updatedAt))) {
+                updatedAt = version.getUpdatedAt();
+            }
+            count += version.getCount() == null ? 0 : version.getCount();
+        }
+        return new NoteVersion(updatedAt, count);
+    }
+
+    @Override
+    public List<Note> findByIds(Collection<Long> ids) {
+        return concat(gatherByShard(ids, (shard, shardIds) -> shard.read(repository -> repository.findByIds(shardIds))));
+    }
+
+    @Override
+    public List<Note> findByTitle(String title) {
+        return concat(gather(shard -> shard.read(repository -> repository.findByTitle(title))));
+    }
+
+    @Override
+    public List<Note> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        List<Note> notes = concat(gather(shard ->
+            shard.read(repository -> repository.findByCreatedAtBetween(startDate, endDate))));
+        notes.sort(CREATED_AT_ID_ORDER);
+        return notes;
+    }
+
+    @Override
+    public List<Note> findPage(Long afterId, int limit) {
+        return merge(gather(shard -> shard.read(repository -> repository.findPage(afterId, limit))), ID_ORDER, limit);
+    }
+
+    @Override
+    public List<NoteSummary> findSummaryPage(Long afterId, int limit) {
+        return merge(gather(shard -> shard.read(repository -> repository.findSummaryPage(afterId, limit))),
+            Comparator.comparing(NoteSummary::getId), limit);
+    }
+
+    @Override
+    public List<Note> findPageByTitle(String title, Long afterId, int limit) {
+        return merge(gather(shard -> shard.read(repository -> repository.findPageByTitle(title, afterId, limit))),
+            ID_ORDER, limit);
+    }
+
+    /**
+     * Заголовки с префиксом. Время изменения в подсказках не передается, поэтому подсказки шардов
+     * чередуются: порядок по свежести соблюдается внутри шарда, но не между шардами.
+     */
+    @Override
+    public List<TitleSuggestion> findTitlesByPrefix(String prefix, int limit) {
+        List<List<TitleSuggestion>> pages =
+            gather(shard -> shard.read(repository -> repository.findTitlesByPrefix(prefix, limit)));
+        List<TitleSuggestion> titles = new ArrayList<>(limit);
+        for (int i = 0; titles.size() < limit; i++) {
+            boolean found = false;
+            for (List<TitleSuggestion> page : pages) {
+                if (i < page.size() && titles.size() < limit) {
+                    titles.add(page.get(i));
+                    found = true;
+                }
+            }
+            if (!found) {
+                break;
+            }
+        }
+        return titles;
+    }
+
+    @Override
+    public List<Note> findPageByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate,
+                                                 LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        return merge(gather(shard -> shard.read(repository ->
+                repository.findPageByCreatedAtBetween(startDate, endDate, afterCreatedAt, afterId, limit))),
+            CREATED_AT_ID_ORDER, limit);
+    }
+
+    /**
+     * Поиск на всех шардах. Релевантность вычисляется по статистике каждого шарда отдельно.
+     */
+    @Override
+    public List<NoteSearchHit> search(String query, int limit, NoteCursor cursor) {
+        return merge(gather(shard -> shard.read(repository -> repository.search(query, limit, cursor))),
+            RANK_ORDER, limit);
+    }
+
+    @Override
+    public Note save(Note note) {
+        Shard shard = note.getId() == null ? nextShard() : shardFor(note.getId()).orElseThrow(() ->
+            new IllegalArgumentException("Нет шарда для заметки с ID " + note.getId()));
+        return shard.write(repository -> repository.save(note));
+    }
+
+    /**
+     * Пакетное сохранение: заметки распределяются по шардам по очереди, шарды записывают
+     * свои части параллельно. Каждый шард записывает свою часть в отдельной транзакции.
+     */
+    @Override
+    public List<Note> saveAll(List<Note> notes) {
+        Map<Shard, List<Note>> parts = new LinkedHashMap<>();
+        int first = Math.floorMod(nextShard.getAndAdd(notes.size()), shards.size());
+        for (int i = 0; i < notes.size(); i++) {
+            parts.computeIfAbsent(shards.get((first + i) % shards.size()), shard -> new ArrayList<>())
+                .add(notes.get(i));
+        }
+        gather(parts, (shard, part) -> shard.write(repository -> repository.saveAll(part)));
+        return notes;
+    }
+
+    @Override
+    public Optional<Note> update(Long id, Note updatedNote) {
+        return shardFor(id).flatMap(shard -> shard.write(repository -> repository.update(id, updatedNote)));
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        shardFor(id).ifPresent(shard -> shard.write(repository -> {
+            repository.deleteById(id);
+            return null;
+        }));
+    }
+
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        return sum(gatherByShard(ids, (shard, shardIds) -> shard.write(repository -> repository.deleteByIds(shardIds))));
+    }
+
+    @Override
+    public List<Long> deleteByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        return concat(gather(shard -> shard.write(repository -> repository.deleteByCreatedAtBetween(startDate, endDate))));
+    }
+
+    @Override
+    public int updateTitle(Collection<Long> ids, String title) {
+        return sum(gatherByShard(ids, (shard, shardIds) ->
+            shard.write(repository -> repository.updateTitle(shardIds, title))));
+    }
+
+    @Override
+    public int updateAll(List<Note> notes) {
+        Map<Shard, List<Note>> parts = new LinkedHashMap<>();
+        for (Note note : notes) {
+            shardFor(note.getId()).ifPresent(shard -> parts.computeIfAbsent(shard, key -> new ArrayList<>()).add(note));
+        }
+        return sum(gather(parts, (shard, part) -> shard.write(repository -> repository.updateAll(part))));
+    }
+
+    @Override
+    public boolean updateIfUnchanged(Note note, LocalDateTime expectedUpdatedAt) {
+        return shardFor(note.getId())
+            .map(shard -> shard.write(repository -> repository.updateIfUnchanged(note, expectedUpdatedAt)))
+            .orElse(false);
+    }
+
+    private Optional<Shard> shardFor(Long id) {
+        if (id == null || id < 0) {
+            return Optional.empty();
+        }
+        int index = shardOf(id);
+        return index < shards.size() ? Optional.of(shards.get(index)) : Optional.empty();
+    }
+
+    private Shard nextShard() {
+        return shards.get(Math.floorMod(nextShard.getAndIncrement(), shards.size()));
+    }
+
+    /**
+     * Выполнить запрос на всех шардах параллельно.
+     */
+    private <T> List<T> gather(Function<Shard, T> query) {
+        Map<Shard, Shard> all = new LinkedHashMap<>();
+        shards.forEach(shard -> all.put(shard, shard));
+        return gather(all, (shard, ignored) -> query.apply(shard));
+    }
+
+    /**
+     * Разбить ID по шардам и выполнить запрос на затронутых шардах параллельно.
+     */
+    private <T> List<T> gatherByShard(Collection<Long> ids, ShardQuery<List<Long>, T> query) {
+        Map<Shard, List<Long>> parts = new LinkedHashMap<>();
+        for (Long id : ids) {
+            shardFor(id).ifPresent(shard -> parts.computeIfAbsent(shard, key -> new ArrayList<>()).add(id));
+        }
+        return gather(parts, query);
+    }
+
+    /**
+     * Выполнить запросы шардов параллельно: запрос последнего шарда выполняется в текущем потоке.
+     */
+    private <A, T> List<T> gather(Map<Shard, A> parts, ShardQuery<A, T> query) {
+        if (parts.isEmpty()) {
+            return List.of();
+        }
+        List<Map.Entry<Shard, A>> entries = new ArrayList<>(parts.entrySet());
+        List<CompletableFuture<T>> futures = new ArrayList<>(entries.size() - 1);
+        for (Map.Entry<Shard, A> entry : entries.subList(0, entries.size() - 1)) {
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(entry.getKey(), entry.getValue()), executor));
+        }
+        Map.Entry<Shard, A> lastEntry = entries.get(entries.size() - 1);
+        T last = query.apply(lastEntry.getKey(), lastEntry.getValue());
+        List<T> results = new ArrayList<>(entries.size());
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        results.add(last);
+        return results;
+    }
+
+    /**
+     * Слить упорядоченные страницы шардов в одну страницу размером до limit.
+     */
+    private static <T> List<T> merge(List<List<T>> pages, Comparator<? super T> order, int limit) {
+        List<T> merged = new ArrayList<>();
+        pages.forEach(merged::addAll);
+        merged.sort(order);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    private static <T> List<T> concat(List<List<T>> parts) {
+        List<T> result = new ArrayList<>();
+        parts.forEach(result::addAll);
+        return result;
+    }
+
+    private static int sum(List<Integer> counts) {
+        return counts.stream().mapToInt(Integer::intValue).sum();
+    }
+
+    @FunctionalInterface
+    private interface ShardQuery<A, T> {
+        T apply(Shard shard, A argument);
+    }
+
+    /**
+     * Шард: репозиторий одной БД и транзакции этой БД.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Shard {
+
+        private final int index;
+
+        private final NoteRepository repository;
+
+        private final DataSource dataSource;
+
+        private final TransactionOperations readTransaction;
+
+        private final TransactionOperations writeTransaction;
+
+        <T> T read(Function<NoteRepository, T> query) {
+            return readTransaction.execute(status -> query.apply(repository));
+        }
+
+        <T> T write(Function<NoteRepository, T> query) {
+            return writeTransaction.execute(status -> query.apply(repository));
+        }
+
+        @Override
+        public String toString() {
+            return "shard-" + index;
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package inote.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс заметок в памяти приложения: терм → сжатый список вхождений ({@link PostingList}).
+ * Словарь термов хранится в хеш-таблице, для раскрытия префиксов дополнительно поддерживается
+ * отсортированное множество термов.
+ *
+ * Заголовок и содержимое индексируются как одно поле, между ними оставляется разрыв позиций,
+ * чтобы фраза не совпадала на стыке. Релевантность считается по BM25.
+ * Для удаления и обновления хранится прямой индекс: заметка → ее термы.
+ *
+ * Чтение выполняется параллельно, изменения под блокировкой записи.
+ *
+ * @author Avdeyev Viktor
+ */
+public final class InvertedIndex {
+
+    /**
+     * Максимальное количество термов, в которые раскрывается один префикс.
+     */
+    public static final int MAX_PREFIX_EXPANSIONS = 128;
+
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    private static final Comparator<Hit> RANK_ORDER =
+        Comparator.comparingDouble(Hit::getScore).reversed().thenComparingLong(Hit::getId);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Term> postings = new HashMap<>();
+
+    private final TreeSet<String> dictionary = new TreeSet<>();
+
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    private long totalLength;
+
+    /**
+     * Добавить заметку в индекс или заменить ранее проиндексированную версию.
+     *
+     * @param id      ID заметки
+     * @param title   заголовок
+     * @param content содержимое
+     */
+    public void put(long id, String title, String content) {
+        List<String> titleTerms = Tokenizer.tokenize(title);
+        List<String> contentTerms = Tokenizer.tokenize(content);
+        Map<String, List<Integer>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < titleTerms.size(); i++) {
+            positions.computeIfAbsent(titleTerms.get(i), term -> new ArrayList<>()).add(i);
+        }
+        int offset = titleTerms.size() + 1;
+        for (int i = 0; i < contentTerms.size(); i++) {
+            positions.computeIfAbsent(contentTerms.get(i), term -> new ArrayList<>()).add(offset + i);
+        }
+        int length = titleTerms.size() + contentTerms.size();
+
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.remove(id);
+            if (previous != null) {
+                totalLength -= previous.length;
+                for (Term term : previous.terms) {
+                    if (!positions.containsKey(term.text)) {
+                        removePosting(term, id);
+                    }
+                }
+            }
+            Term[] terms = new Term[positions.size()];
+            int i = 0;
+            for (Map.Entry<String, List<Integer>> entry : positions.entrySet()) {
+                Term term = postings.computeIfAbsent(entry.getKey(), text -> {
+                    dictionary.add(text);
+                    return new Term(text, new PostingList());
+                });
+                term.postings.add(id, length, entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+                terms[i++] = term;
+            }
+            documents.put(id, new Document(length, terms));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удалить заметку из индекса.
+     *
+     * @param id ID заметки
+     * @return true, если заметка была в индексе
+     */
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            return removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Проверить, проиндексирована ли заметка.
+     */
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return documents.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Количество проиндексированных заметок.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Количество различных термов.
+     */
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Суммарный размер закодированных списков вхождений в байтах.
+     */
+    public long postingBytes() {
+        lock.readLock().lock();
+        try {
+            return postings.values().stream().mapToLong(term -> term.postings.sizeInBytes()).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Освободить запас массивов списков вхождений, например после первоначального построения.
+     */
+    public void trim() {
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(term -> term.postings.trim());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Найти заметки, соответствующие запросу, упорядоченные по убыванию релевантности, затем по ID.
+     *
+     * @param query      разобранный запрос
+     * @param limit      максимальное количество результатов
+     * @param afterScore релевантность последнего результата предыдущей страницы или null
+     * @param afterId    ID последнего результата предыдущей страницы или null
+     * @return результаты страницы
+     */
+    public List<Hit> search(SearchQuery query, int limit, Double afterScore, Long afterId) {
+        Matches matches = Matches.EMPTY;
+        lock.readLock().lock();
+        try {
+            double averageLength = documents.isEmpty() ? 1 : (double) totalLength / documents.size();
+            for (List<SearchQuery.Clause> group : query.getGroups()) {
+                Matches groupMatches = null;
+                for (SearchQuery.Clause clause : group) {
+                    Matches clauseMatches = match(clause, averageLength);
+                    groupMatches = groupMatches == null ? clauseMatches : groupMatches.intersect(clauseMatches);
+                    if (groupMatches.size == 0) {
+                        break;
+                    }
+                }
+                matches = matches.union(groupMatches);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return top(matches, limit, afterScore, afterId);
+    }
+
+    private Matches match(SearchQuery.Clause clause, double averageLength) {
+        List<String> terms = clause.getTerms();
+        return switch (clause.getType()) {
+            case TERM -> matchTerm(terms.get(0), averageLength);
+            case PREFIX -> matchPrefix(terms.get(0), averageLength);
+            case PHRASE -> matchPhrase(terms, averageLength);
+        };
+    }
+
+    private Matches matchTerm(String text, double averageLength) {
+        Term term = postings.get(text);
+        if (term == null) {
+            return Matches.EMPTY;
+        }
+        PostingList list = term.postings;
+        double idf = idf(list.docCount());
+        Matches matches = new Matches(list.docCount());
+        PostingList.Cursor cursor = list.cursor();
+        while (cursor.next()) {
+            matches.append(cursor.docId(), score(idf, cursor.termFrequency(), cursor.docLength(), averageLength));
+        }
+        return matches;
+    }
+
+    private Matches matchPrefix(String prefix, double averageLength) {
+        Matches matches = Matches.EMPTY;
+        int expansions = 0;
+        for (String term : dictionary.subSet(prefix, prefix + Character.MAX_VALUE)) {
+            if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            matches = matches.union(matchTerm(term, averageLength));
+        }
+        return matches;
+    }
+
+    private Matches matchPhrase(List<String> terms, double averageLength) {
+        PostingList.Cursor[] cursors = new PostingList.Cursor[terms.size()];
+        double[] idfs = new double[terms.size()];
+        for (int i = 0; i < terms.size(); i++) {
+            Term term = postings.get(terms.get(i));
+            if (term == null) {
+                return Matches.EMPTY;
+            }
+            idfs[i] = idf(term.postings.docCount());
+            cursors[i] = term.postings.cursor();
+            if (!cursors[i].next()) {
+                return Matches.EMPTY;
+            }
+        }
+        Matches matches = new Matches(16);
+        while (true) {
+            long target = Arrays.stream(cursors).mapToLong(PostingList.Cursor::docId).max().orElseThrow();
+            boolean aligned = true;
+            for (PostingList.Cursor cursor : cursors) {
+                while (cursor.docId() < target) {
+                    if (!cursor.next()) {
+                        return matches;
+                    }
+                }
+                aligned &= cursor.docId() == target;
+            }
+            if (!aligned) {
+                continue;
+            }
+            int frequency = phraseFrequency(cursors);
+            if (frequency > 0) {
+                double score = 0;
+                for (double idf : idfs) {
+                    score += score(idf, frequency, cursors[0].docLength(), averageLength);
+                }
+                matches.append(target, score);
+            }
+            for (PostingList.Cursor cursor : cursors) {
+                if (!cursor.next()) {
+                    return matches;
+                }
+            }
+        }
+    }
+
+    /**
+     * Количество позиций, с которых термы фразы идут подряд.
+     */
+    private static int phraseFrequency(PostingList.Cursor[] cursors) {
+        int frequency = 0;
+        for (int start : cursors[0].positions()) {
+            boolean found = true;
+            for (int i = 1; i < cursors.length && found; i++) {
+                found = Arrays.binarySearch(cursors[i].positions(), start + i) >= 0;
+            }
+            if (found) {
+                frequency++;
+            }
+        }
+        return frequency;
+    }
+
+    private double idf(int docFrequency) {
+        return Math.log(1 + (documents.size() - docFrequency + 0.5) / (docFrequency + 0.5));
+    }
+
+    private static double score(double idf, int termFrequency, int length, double averageLength) {
+        return idf * termFrequency * (K1 + 1) / (termFrequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private static List<Hit> top(Matches matches, int limit, Double afterScore, Long afterId) {
+        PriorityQueue<Hit> worstFirst = new PriorityQueue<>(limit + 1, RANK_ORDER.reversed());
+        for (int i = 0; i < matches.size; i++) {
+            long id = matches.ids[i];
+            double score = matches.scores[i];
+            if (afterScore != null && afterId != null && (score > afterScore || score == afterScore && id <= afterId)) {
+                continue;
+            }
+            if (worstFirst.size() == limit) {
+                Hit worst = worstFirst.peek();
+                if (score < worst.score || score == worst.score && id > worst.id) {
+                    continue;
+                }
+                worstFirst.poll();
+            }
+            worstFirst.add(new Hit(id, score));
+        }
+        List<Hit> hits = new ArrayList<>(worstFirst);
+        hits.sort(RANK_ORDER);
+        return hits;
+    }
+
+    private boolean removeDocument(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return false;
+        }
+        for (Term term : document.terms) {
+            removePosting(term, id);
+        }
+        totalLength -= document.length;
+        return true;
+    }
+
+    private void removePosting(Term term, long id) {
+        term.postings.remove(id);
+        if (term.postings.docCount() == 0) {
+            postings.remove(term.text);
+            dictionary.remove(term.text);
+        }
+    }
+
+    /**
+     * Результат поиска: ID заметки и ее релевантность.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Hit {
+
+        private final long id;
+
+        private final double score;
+    }
+
+    /**
+     * Терм словаря и его список вхождений.
+     */
+    @RequiredArgsConstructor
+    private static final class Term {
+
+        private final String text;
+
+        private final PostingList postings;
+    }
+
+    /**
+     * Проиндексированная заметка: длина в термах и различные термы для удаления из индекса.
+     */
+    @RequiredArgsConstructor
+    private static final class Document {
+
+        private final int length;
+
+        private final Term[] terms;
+    }
+
+    /**
+     * Совпадения условия: ID заметок по возрастанию и их релевантность.
+     */
+    private static final class Matches {
+
+        private static final Matches EMPTY = new Matches(0);
+
+        private long[] ids;
+
+        private double[] scores;
+
+        private int size;
+
+        private Matches(int capacity) {
+            ids = new long[capacity];
+            scores = new double[capacity];
+        }
+
+        private void append(long id, double score) {
+            if (size == ids.length) {
+                int capacity = Math.max(16, size * 2);
+                ids = Arrays.copyOf(ids, capacity);
+                scores = Arrays.copyOf(scores, capacity);
+            }
+            ids[size] = id;
+            scores[size] = score;
+            size++;
+        }
+
+        /**
+         * Заметки, входящие в оба набора, релевантность суммируется.
+         */
+        private Matches intersect(Matches other) {
+            Matches result = new Matches(Math.min(size, other.size));
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (ids[i] < other.ids[j]) {
+                    i++;
+                } else if (ids[i] > other.ids[j]) {
+                    j++;
+                } else {
+                    result.append(ids[i], scores[i++] + other.scores[j++]);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Заметки, входящие хотя бы в один набор, релевантность суммируется.
+         */
+        private Matches union(Matches other) {
+            if (size == 0) {
+                return other;
+            }
+            if (other.size == 0) {
+                return this;
+            }
+            Matches result = new Matches(size + other.size);
+            int i = 0;
+            int j = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || i < size && ids[i] < other.ids[j]) {
+                    result.append(ids[i], scores[i++]);
+                } else if (i == size || ids[i] > other.ids[j]) {
+                    result.append(other.ids[j], other.scores[j++]);
+                } else {
+                    result.append(ids[i], scores[i++] + other.scores[j++]);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package inote.search;
+
+import inote.config.SearchProperties;
+import inote.dto.NoteSearchHit;
+import inote.entity.Note;
+import inote.event.NoteChangedEvent;
+import inote.repository.NoteRepository;
+import inote.util.NoteCursor;
+import inote.util.Snippets;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Встроенный поисковый индекс заметок ({@link InvertedIndex}).
+ *
+ * Включается настройкой {@code inote.search.engine: index}. Индекс строится в фоне после запуска
+ * приложения, заметки читаются из БД порциями. Изменения заметок применяются к индексу
+ * по событиям {@link NoteChangedEvent}. Совпадения ищутся только в памяти,
+ * из БД читаются лишь заметки итоговой страницы.
+ *
+ * @author Avdeyev Viktor
+ */
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class NoteSearchIndex {
+
+    private final NoteRepository noteRepository;
+
+    private final SearchProperties properties;
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    /**
+     * Упорядочивает запись порций при построении и применение изменений заметок.
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * ID заметок, измененных до готовности индекса. Построение их пропускает,
+     * чтобы не заменить актуальную версию прочитанной ранее.
+     */
+    private final Set<Long> changedBeforeReady = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready;
+
+    /**
+     * Индекс включен и построен.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Запустить построение индекса в фоновом потоке после запуска приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!isEnabled()) {
+            return;
+        }
+        Thread thread = new Thread(this::build, "note-search-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Построить индекс по всем заметкам, читая их из БД порциями по ID.
+     */
+    public void build() {
+        int chunkSize = properties.getIndexChunkSize();
+        log.info("Построение поискового индекса, размер порции = {}", chunkSize);
+        long startTime = System.currentTimeMillis();
+        try {
+            Long afterId = null;
+            List<Note> chunk;
+            do {
+                chunk = noteRepository.findPage(afterId, chunkSize);
+                writeLock.lock();
+                try {
+                    for (Note note : chunk) {
+                        if (!changedBeforeReady.contains(note.getId())) {
+                            index.put(note.getId(), note.getTitle(), note.getContent());
+                        }
+                    }
+                } finally {
+                    writeLock.unlock();
+                }
+                afterId = chunk.isEmpty() ? afterId : chunk.get(chunk.size() - 1).getId();
+            } while (chunk.size() == chunkSize);
+            index.trim();
+            writeLock.lock();
+            try {
+                ready = true;
+                changedBeforeReady.clear();
+            } finally {
+                writeLock.unlock();
+            }
+            log.info("Поисковый индекс построен за {} мс: {} заметок, {} термов, списки вхождений {} байт",
+                System.currentTimeMillis() - startTime, index.size(), index.termCount(), index.postingBytes());
+        } catch (RuntimeException e) {
+            log.error("Ошибка построения поискового индекса, поиск выполняется средствами БД", e);
+        }
+    }
+
+    /**
+     * Применить изменение заметок к индексу.
+     */
+    @EventListener
+    public void onNoteChanged(NoteChangedEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        log.info("Обновление поискового индекса: {} для {} заметок", event.getType(), event.getIds().size());
+        List<Note> saved = switch (event.getType()) {
+            case SAVED -> event.getNotes();
+            case MODIFIED -> noteRepository.findByIds(event.getIds());
+            case DELETED -> List.of();
+        };
+        Set<Long> savedIds = new HashSet<>();
+        writeLock.lock();
+        try {
+            for (Note note : saved) {
+                markChanged(note.getId());
+                index.put(note.getId(), note.getTitle(), note.getContent());
+                savedIds.add(note.getId());
+            }
+            for (Long id : event.getIds()) {
+                if (!savedIds.contains(id)) {
+                    markChanged(id);
+                    index.remove(id);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Найти заметки по запросу.
+     *
+     * @param query  строка запроса, см. {@link SearchQuery}
+     * @param limit  максимальное количество результатов
+     * @param cursor курсор формата "rank,id" или null для первой страницы
+     * @return результаты поиска с подсвеченными фрагментами
+     */
+    public List<NoteSearchHit> search(String query, int limit, NoteCursor cursor) {
+        SearchQuery parsed = SearchQuery.parse(query);
+        if (parsed.isEmpty()) {
+            return List.of();
+        }
+        List<InvertedIndex.Hit> hits = index.search(parsed, limit,
+            cursor == null ? null : cursor.getRank(), cursor == null ? null : cursor.getId());
+        log.info("Найдено {} заметок в поисковом индексе по запросу '{}'", hits.size(), query);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Note> notes = noteRepository.findByIds(hits.stream().map(InvertedIndex.Hit::getId).toList())
+            .stream()
+            .collect(Collectors.toMap(Note::getId, Function.identity()));
+        List<String> terms = parsed.highlightTerms();
+        List<NoteSearchHit> result = new ArrayList<>(hits.size());
+        for (InvertedIndex.Hit hit : hits) {
+            Note note = notes.get(hit.getId());
+            if (note != null) {
+                result.add(NoteSearchHit.builder()
+                    .id(note.getId())
+                    .title(note.getTitle())
+                    .snippet(Snippets.highlight(note.getContent(), terms))
+                    .rank(hit.getScore())
+                    .createdAt(note.getCreatedAt())
+                    .updatedAt(note.getUpdatedAt())
+                    .build());
+            }
+        }
+        return result;
+    }
+
+    private boolean isEnabled() {
+        return properties.getEngine() == SearchProperties.Engine.INDEX;
+    }
+
+    private void markChanged(Long id) {
+        if (!ready) {
+            changedBeforeReady.add(id);
+        }
+    }
+}
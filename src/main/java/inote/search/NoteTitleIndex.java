@@ -0,0 +1,193 @@
+package inote.search;
+
+import inote.config.SearchProperties;
+import inote.dto.NoteSummary;
+import inote.dto.TitleSuggestion;
+import inote.entity.Note;
+import inote.event.NoteChangedEvent;
+import inote.repository.NoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Индекс заголовков заметок для автодополнения ({@link TitlePrefixIndex}).
+ *
+ * Включается настройкой {@code inote.search.title-index}. Индекс строится в фоне после запуска
+ * приложения по кратким представлениям заметок, читаемым из БД порциями. Изменения заметок
+ * применяются к индексу по событиям {@link NoteChangedEvent}, подсказки выдаются без обращения к БД.
+ * События публикуются только на узле, изменившем заметку, поэтому при нескольких экземплярах
+ * приложения индексы расходятся: по умолчанию индекс выключен.
+ *
+ * @author Avdeyev Viktor
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+public class NoteTitleIndex {
+
+    private final NoteRepository noteRepository;
+
+    private final SearchProperties properties;
+
+    private final TitlePrefixIndex index;
+
+    /**
+     * Упорядочивает запись порций при построении и применение изменений заметок.
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * ID заметок, измененных до готовности индекса. Построение их пропускает,
+     * чтобы не заменить актуальный заголовок прочитанным ранее.
+     */
+    private final Set<Long> changedBeforeReady = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready;
+
+    public NoteTitleIndex(NoteRepository noteRepository, SearchProperties properties) {
+        this.noteRepository = noteRepository;
+        this.properties = properties;
+        this.index = new TitlePrefixIndex(properties.getTitleSuggestLimit());
+    }
+
+    /**
+     * Индекс включен и построен.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Наибольшее количество подсказок, которое можно запросить за раз.
+     */
+    public int getMaxLimit() {
+        return properties.getTitleSuggestLimit();
+    }
+
+    /**
+     * Запустить построение индекса в фоновом потоке после запуска приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isTitleIndex()) {
+            return;
+        }
+        Thread thread = new Thread(this::build, "note-title-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Построить индекс по всем заметкам, читая их краткие представления из БД порциями по ID.
+     */
+    public void build() {
+        int chunkSize = properties.getIndexChunkSize();
+        log.info("Построение индекса заголовков, размер порции = {}", chunkSize);
+        long startTime = System.currentTimeMillis();
+        try {
+            Long afterId = null;
+            List<NoteSummary> chunk;
+            do {
+                chunk = noteRepository.findSummaryPage(afterId, chunkSize);
+                writeLock.lock();
+                try {
+                    for (NoteSummary summary : chunk) {
+                        if (!changedBeforeReady.contains(summary.getId()) && summary.getTitle() != null) {
+                            index.put(summary.getId(), summary.getTitle(),
+                                recency(summary.getUpdatedAt(), summary.getCreatedAt()));
+                        }
+                    }
+                } finally {
+                    writeLock.unlock();
+                }
+                afterId = chunk.isEmpty() ? afterId : chunk.get(chunk.size() - 1).getId();
+            } while (chunk.size() == chunkSize);
+            writeLock.lock();
+            try {
+                ready = true;
+                changedBeforeReady.clear();
+            } finally {
+                writeLock.unlock();
+            }
+            log.info("Индекс заголовков построен за {} мс: {} заметок, {} узлов",
+                System.currentTimeMillis() - startTime, index.size(), index.nodeCount());
+        } catch (RuntimeException e) {
+            log.error("Ошибка построения индекса заголовков, подсказки читаются из БД", e);
+        }
+    }
+
+    /**
+     * Применить изменение заметок к индексу.
+     */
+    @EventListener
+    public void onNoteChanged(NoteChangedEvent event) {
+        if (!properties.isTitleIndex()) {
+            return;
+        }
+        List<Note> saved = switch (event.getType()) {
+            case SAVED -> event.getNotes();
+            case MODIFIED -> noteRepository.findByIds(event.getIds());
+            case DELETED -> List.of();
+        };
+        Set<Long> savedIds = new HashSet<>();
+        writeLock.lock();
+        try {
+            for (Note note : saved) {
+                markChanged(note.getId());
+                if (note.getTitle() != null) {
+                    index.put(note.getId(), note.getTitle(), recency(note.getUpdatedAt(), note.getCreatedAt()));
+                    savedIds.add(note.getId());
+                }
+            }
+            for (Long id : event.getIds()) {
+                if (!savedIds.contains(id)) {
+                    markChanged(id);
+                    index.remove(id);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Подсказки заголовков по префиксу, от недавно измененных заметок к давно измененным.
+     *
+     * @param prefix префикс заголовка, регистр и диакритические знаки не учитываются
+     * @param limit  максимальное количество подсказок
+     * @return подсказки
+     */
+    public List<TitleSuggestion> suggest(String prefix, int limit) {
+        return index.suggest(prefix, limit).stream()
+            .map(suggestion -> new TitleSuggestion(suggestion.getId(), suggestion.getTitle()))
+            .toList();
+    }
+
+    private void markChanged(Long id) {
+        if (!ready) {
+            changedBeforeReady.add(id);
+        }
+    }
+
+    /**
+     * Свежесть заметки - время последнего изменения (или создания) в микросекундах.
+     */
+    private static long recency(LocalDateTime updatedAt, LocalDateTime createdAt) {
+        LocalDateTime time = updatedAt != null ? updatedAt : createdAt;
+        if (time == null) {
+            return 0;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,358 @@
+package inote.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Сжатый список вхождений терма: ID заметок по возрастанию с позициями терма в каждой заметке.
+ *
+ * Для каждой заметки хранятся разность ID с предыдущей заметкой, длина заметки в термах
+ * (нужна для BM25 без обращения к другим структурам), количество вхождений и разности позиций,
+ * все числа кодируются varint.
+ *
+ * Список разбит на блоки не более чем по {@link #BLOCK_SIZE} заметок, первая заметка блока хранит
+ * ID целиком. Новые заметки получают возрастающие ID, поэтому добавление обычно сводится
+ * к дописыванию в конец последнего блока. Вставка в середину и удаление находят блок двоичным
+ * поиском по последнему ID и перестраивают только его: переполненный блок делится пополам,
+ * опустевший удаляется.
+ *
+ * Класс не потокобезопасен, синхронизация выполняется в {@link InvertedIndex}.
+ *
+ * @author Avdeyev Viktor
+ */
+public final class PostingList {
+
+    /**
+     * Наибольшее количество заметок в блоке.
+     */
+    static final int BLOCK_SIZE = 128;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final List<Block> blocks = new ArrayList<>();
+
+    private int docCount;
+
+    /**
+     * Количество заметок, содержащих терм.
+     */
+    public int docCount() {
+        return docCount;
+    }
+
+    /**
+     * Объем памяти, занимаемый закодированным списком, в байтах.
+     */
+    public int sizeInBytes() {
+        int bytes = 0;
+        for (Block block : blocks) {
+            bytes += block.data.length;
+        }
+        return bytes;
+    }
+
+    /**
+     * Добавить заметку в список. Если заметка уже есть в списке, ее позиции заменяются.
+     *
+     * @param docId     ID заметки
+     * @param docLength длина заметки в термах
+     * @param positions позиции терма в заметке по возрастанию, не пустой массив
+     */
+    public void add(long docId, int docLength, int[] positions) {
+        int index = blockOf(docId);
+        if (index == blocks.size()) {
+            Block last = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+            if (last == null || last.docCount >= BLOCK_SIZE) {
+                last = new Block();
+                blocks.add(last);
+            }
+            last.append(docId, docLength, positions);
+            docCount++;
+            return;
+        }
+        Block block = blocks.get(index);
+        Block rebuilt = new Block();
+        boolean added = false;
+        Cursor cursor = new Cursor(List.of(block));
+        while (cursor.next()) {
+            if (!added && cursor.docId() >= docId) {
+                rebuilt.append(docId, docLength, positions);
+                added = true;
+                if (cursor.docId() == docId) {
+                    continue;
+                }
+            }
+            rebuilt.append(cursor.docId(), cursor.docLength(), cursor.positions());
+        }
+        docCount += rebuilt.docCount - block.docCount;
+        if (rebuilt.docCount > BLOCK_SIZE) {
+            blocks.set(index, rebuilt.head(BLOCK_SIZE / 2));
+            blocks.add(index + 1, rebuilt.tail(BLOCK_SIZE / 2));
+        } else {
+            rebuilt.trim();
+            blocks.set(index, rebuilt);
+        }
+    }
+
+    /**
+     * Удалить заметку из списка.
+     *
+     * @param docId ID заметки
+     * @return true, если заметка была в списке
+     */
+    public boolean remove(long docId) {
+        int index = blockOf(docId);
+        if (index == blocks.size() || blocks.get(index).firstDocId > docId) {
+            return false;
+        }
+        Block block = blocks.get(index);
+        Block rebuilt = new Block();
+        boolean removed = false;
+        Cursor cursor = new Cursor(List.of(block));
+        while (cursor.next()) {
+            if (cursor.docId() == docId) {
+                removed = true;
+            } else {
+                rebuilt.append(cursor.docId(), cursor.docLength(), cursor.positions());
+            }
+        }
+        if (!removed) {
+            return false;
+        }
+        docCount--;
+        if (rebuilt.docCount == 0) {
+            blocks.remove(index);
+        } else {
+            rebuilt.trim();
+            blocks.set(index, rebuilt);
+        }
+        return true;
+    }
+
+    /**
+     * Освободить неиспользуемый запас массивов после построения индекса.
+     */
+    public void trim() {
+        blocks.forEach(Block::trim);
+    }
+
+    /**
+     * Получить курсор для последовательного чтения списка.
+     */
+    public Cursor cursor() {
+        return new Cursor(blocks);
+    }
+
+    /**
+     * Индекс первого блока, последний ID которого не меньше docId, или количество блоков.
+     */
+    private int blockOf(long docId) {
+        int low = 0;
+        int high = blocks.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (blocks.get(middle).lastDocId < docId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Блок списка: заметки подряд по возрастанию ID, первая хранит ID целиком.
+     */
+    private static final class Block {
+
+        private byte[] data = new byte[INITIAL_CAPACITY];
+
+        private int size;
+
+        private int docCount;
+
+        private long firstDocId;
+
+        private long lastDocId;
+
+        private void append(long docId, int docLength, int[] positions) {
+            ensureCapacity(10 + 5 + 5 + positions.length * 5);
+            writeVarLong(docCount == 0 ? docId : docId - lastDocId);
+            writeVarLong(docLength);
+            writeVarLong(positions.length);
+            int previous = 0;
+            for (int position : positions) {
+                writeVarLong(position - previous);
+                previous = position;
+            }
+            if (docCount == 0) {
+                firstDocId = docId;
+            }
+            lastDocId = docId;
+            docCount++;
+        }
+
+        /**
+         * Новый блок из первых count заметок.
+         */
+        private Block head(int count) {
+            Block head = new Block();
+            Cursor cursor = new Cursor(List.of(this));
+            for (int i = 0; i < count && cursor.next(); i++) {
+                head.append(cursor.docId(), cursor.docLength(), cursor.positions());
+            }
+            head.trim();
+            return head;
+        }
+
+        /**
+         * Новый блок из заметок после первых count.
+         */
+        private Block tail(int count) {
+            Block tail = new Block();
+            Cursor cursor = new Cursor(List.of(this));
+            for (int i = 0; cursor.next(); i++) {
+                if (i >= count) {
+                    tail.append(cursor.docId(), cursor.docLength(), cursor.positions());
+                }
+            }
+            tail.trim();
+            return tail;
+        }
+
+        private void trim() {
+            if (data.length > size) {
+                data = Arrays.copyOf(data, size);
+            }
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > data.length) {
+                data = Arrays.copyOf(data, Math.max(size + extra, data.length + (data.length >> 1)));
+            }
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+    }
+
+    /**
+     * Курсор по списку вхождений. Позиции декодируются только по запросу.
+     */
+    public static final class Cursor {
+
+        private final List<Block> blocks;
+
+        private int blockIndex = -1;
+
+        private byte[] data;
+
+        private int offset;
+
+        private int remaining;
+
+        private boolean firstInBlock;
+
+        private long docId;
+
+        private int docLength;
+
+        private int termFrequency;
+
+        private int[] positions;
+
+        private boolean positionsRead = true;
+
+        private Cursor(List<Block> blocks) {
+            this.blocks = blocks;
+        }
+
+        /**
+         * Перейти к следующей заметке.
+         *
+         * @return false, если список закончился
+         */
+        public boolean next() {
+            if (!positionsRead) {
+                for (int i = 0; i < termFrequency; i++) {
+                    readVarLong();
+                }
+                positionsRead = true;
+            }
+            while (remaining == 0) {
+                if (blockIndex + 1 >= blocks.size()) {
+                    return false;
+                }
+                Block block = blocks.get(++blockIndex);
+                data = block.data;
+                offset = 0;
+                remaining = block.docCount;
+                firstInBlock = true;
+            }
+            long delta = readVarLong();
+            docId = firstInBlock ? delta : docId + delta;
+            firstInBlock = false;
+            docLength = (int) readVarLong();
+            termFrequency = (int) readVarLong();
+            positions = null;
+            positionsRead = false;
+            remaining--;
+            return true;
+        }
+
+        /**
+         * ID текущей заметки.
+         */
+        public long docId() {
+            return docId;
+        }
+
+        /**
+         * Длина текущей заметки в термах.
+         */
+        public int docLength() {
+            return docLength;
+        }
+
+        /**
+         * Количество вхождений терма в текущую заметку.
+         */
+        public int termFrequency() {
+            return termFrequency;
+        }
+
+        /**
+         * Позиции терма в текущей заметке по возрастанию.
+         */
+        public int[] positions() {
+            if (!positionsRead) {
+                positions = new int[termFrequency];
+                int previous = 0;
+                for (int i = 0; i < termFrequency; i++) {
+                    previous += (int) readVarLong();
+                    positions[i] = previous;
+                }
+                positionsRead = true;
+            }
+            return positions;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[offset++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+}
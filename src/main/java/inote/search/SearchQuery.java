@@ -0,0 +1,129 @@
+package inote.search;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Разобранный поисковый запрос встроенного индекса.
+ *
+ * Синтаксис: слова через пробел объединяются по И, группы разделяются словом OR,
+ * фраза заключается в двойные кавычки, префиксный терм оканчивается на "*".
+ * Например: {@code "список покупок" молок* OR хлеб}.
+ *
+ * @author Avdeyev Viktor
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SearchQuery {
+
+    /**
+     * Минимальная длина префикса, более короткие префиксы ищутся как обычные термы.
+     */
+    public static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final String OR = "OR";
+
+    /**
+     * Группы условий, объединяемые по ИЛИ. Условия внутри группы объединяются по И.
+     */
+    private final List<List<Clause>> groups;
+
+    /**
+     * Разобрать строку запроса.
+     *
+     * @param query строка запроса
+     * @return разобранный запрос, пустой, если в строке нет ни одного терма
+     */
+    public static SearchQuery parse(String query) {
+        List<List<Clause>> groups = new ArrayList<>();
+        List<Clause> group = new ArrayList<>();
+        int i = 0;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"') {
+                int end = query.indexOf('"', i + 1);
+                end = end < 0 ? query.length() : end;
+                addClause(group, Tokenizer.tokenize(query.substring(i + 1, end)), false);
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < query.length() && !Character.isWhitespace(query.charAt(end))) {
+                    end++;
+                }
+                String word = query.substring(i, end);
+                if (OR.equals(word)) {
+                    if (!group.isEmpty()) {
+                        groups.add(group);
+                        group = new ArrayList<>();
+                    }
+                } else {
+                    addClause(group, Tokenizer.tokenize(word), word.endsWith("*"));
+                }
+                i = end;
+            }
+        }
+        if (!group.isEmpty()) {
+            groups.add(group);
+        }
+        return new SearchQuery(groups);
+    }
+
+    /**
+     * Запрос не содержит ни одного терма.
+     */
+    public boolean isEmpty() {
+        return groups.isEmpty();
+    }
+
+    /**
+     * Все термы и префиксы запроса для подсветки во фрагменте.
+     */
+    public List<String> highlightTerms() {
+        Set<String> terms = new LinkedHashSet<>();
+        groups.forEach(group -> group.forEach(clause -> terms.addAll(clause.getTerms())));
+        return new ArrayList<>(terms);
+    }
+
+    private static void addClause(List<Clause> group, List<String> terms, boolean prefix) {
+        if (terms.isEmpty()) {
+            return;
+        }
+        if (terms.size() > 1) {
+            group.add(new Clause(Clause.Type.PHRASE, terms));
+        } else if (prefix && terms.get(0).length() >= MIN_PREFIX_LENGTH) {
+            group.add(new Clause(Clause.Type.PREFIX, terms));
+        } else {
+            group.add(new Clause(Clause.Type.TERM, terms));
+        }
+    }
+
+    /**
+     * Условие запроса: терм, префикс или фраза.
+     */
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Clause {
+
+        /**
+         * Тип условия.
+         */
+        public enum Type {
+            TERM, PREFIX, PHRASE
+        }
+
+        private final Type type;
+
+        /**
+         * Термы условия: один для TERM и PREFIX, несколько подряд идущих для PHRASE.
+         */
+        private final List<String> terms;
+    }
+}
@@ -0,0 +1,507 @@
+package inote.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Префиксный индекс заголовков заметок в памяти приложения для автодополнения.
+ *
+ * Заголовки приводятся к ключу {@link #fold(String)} и хранятся в сжатом префиксном дереве
+ * (radix tree): ребро хранит строку, а не один символ, поэтому узлов не больше двух на заголовок.
+ * Узел, под которым больше {@code topSize} заголовков, хранит упорядоченные по свежести top-k
+ * своего поддерева, поэтому ответ на префиксный запрос - это спуск по дереву на длину префикса
+ * без обхода совпавших заголовков. Для небольших поддеревьев top-k собирается обходом при запросе.
+ *
+ * Заголовки узла и его top-k хранятся в упорядоченных множествах и изменяются на месте:
+ * добавление заголовка обновляет top-k узлов пути за O(log k) каждый, удаление заголовка из top-k
+ * дополняет его следующим по свежести заголовком из заголовков узла и top-k потомков.
+ *
+ * Чтение выполняется параллельно, изменения под блокировкой записи.
+ *
+ * @author Avdeyev Viktor
+ */
+public final class TitlePrefixIndex {
+
+    private static final Node[] NO_NODES = new Node[0];
+
+    private static final char[] NO_LABELS = new char[0];
+
+    /**
+     * Более свежие заголовки раньше, при равной свежести - с большим ID.
+     */
+    private static final Comparator<Entry> RECENCY_ORDER = (a, b) -> a.recency != b.recency
+        ? Long.compare(b.recency, a.recency) : Long.compare(b.id, a.id);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Node root = new Node("");
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    private final int topSize;
+
+    /**
+     * @param topSize максимальное количество подсказок, возвращаемых на один префикс
+     */
+    public TitlePrefixIndex(int topSize) {
+        if (topSize < 1) {
+            throw new IllegalArgumentException("topSize должен быть положительным");
+        }
+        this.topSize = topSize;
+    }
+
+    /**
+     * Привести текст к ключу индекса: нижний регистр, без диакритических знаков
+     * ("ё" → "е", "й" → "и", "é" → "e"), последовательности пробельных символов заменены
+     * одним пробелом, начальные пробелы отброшены.
+     *
+     * @param text заголовок или префикс
+     * @return ключ индекса
+     */
+    public static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder key = new StringBuilder(decomposed.length());
+        boolean space = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                space = !key.isEmpty();
+                continue;
+            }
+            if (space) {
+                key.append(' ');
+                space = false;
+            }
+            key.append(Character.toLowerCase(c));
+        }
+        if (space) {
+            key.append(' ');
+        }
+        return key.toString();
+    }
+
+    /**
+     * Добавить заголовок заметки в индекс или заменить ранее добавленный.
+     *
+     * @param id      ID заметки
+     * @param title   заголовок
+     * @param recency свежесть заметки, например время последнего изменения в микросекундах
+     */
+    public void put(long id, String title, long recency) {
+        Entry entry = new Entry(id, title, fold(title.strip()), recency);
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.put(id, entry);
+            if (previous != null) {
+                if (previous.key.equals(entry.key) && previous.recency == recency && previous.title.equals(title)) {
+                    entries.put(id, previous);
+                    return;
+                }
+                delete(previous);
+            }
+            insert(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удалить заголовок заметки из индекса.
+     *
+     * @param id ID заметки
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(id);
+            if (previous != null) {
+                delete(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Заголовки, ключ которых начинается с ключа префикса, от более свежих к менее свежим.
+     *
+     * @param prefix префикс заголовка
+     * @param limit  максимальное количество подсказок, не больше {@code topSize}
+     * @return подсказки
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = fold(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = find(key);
+            if (node == null) {
+                return List.of();
+            }
+            List<Suggestion> result = new ArrayList<>(Math.min(limit, topSize));
+            for (Entry entry : topOf(node)) {
+                if (result.size() == limit) {
+                    break;
+                }
+                result.add(new Suggestion(entry.id, entry.title));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Количество заголовков в индексе.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Количество узлов дерева, включая корень.
+     */
+    public int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return countNodes(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Узел, все заголовки поддерева которого начинаются с ключа, или null.
+     * Ключ может заканчиваться в середине ребра.
+     */
+    private Node find(String key) {
+        Node node = root;
+        int pos = 0;
+        while (pos < key.length()) {
+            int index = node.indexOf(key.charAt(pos));
+            if (index < 0) {
+                return null;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.edge, key, pos);
+            if (pos + common == key.length()) {
+                return child;
+            }
+            if (common < child.edge.length()) {
+                return null;
+            }
+            node = child;
+            pos += common;
+        }
+        return node;
+    }
+
+    private void insert(Entry entry) {
+        String key = entry.key;
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int pos = 0;
+        while (pos < key.length()) {
+            int index = node.indexOf(key.charAt(pos));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(pos));
+                node.addChild(leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.edge, key, pos);
+            if (common < child.edge.length()) {
+                child = split(node, index, common);
+            }
+            node = child;
+            path.add(node);
+            pos += common;
+        }
+        node.addEntry(entry);
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node current = path.get(i);
+            current.count++;
+            if (current.count <= topSize) {
+                current.top = null;
+            } else if (current.top == null) {
+                current.top = computeTop(current);
+            } else {
+                offer(current.top, entry);
+            }
+        }
+    }
+
+    private void delete(Entry entry) {
+        String key = entry.key;
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int pos = 0;
+        while (pos < key.length()) {
+            node = node.children[node.indexOf(key.charAt(pos))];
+            path.add(node);
+            pos += node.edge.length();
+        }
+        node.removeEntry(entry);
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node current = path.get(i);
+            current.count--;
+            if (current.count <= topSize) {
+                current.top = null;
+            } else if (current.top.remove(entry)) {
+                refill(current);
+            }
+        }
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            Node parent = path.get(i - 1);
+            if (current.count == 0) {
+                parent.removeChild(current);
+            } else if (current.entries == null && current.children.length == 1) {
+                current.mergeWithChild();
+            }
+        }
+    }
+
+    /**
+     * Разделить ребро к потомку index после common символов промежуточным узлом.
+     */
+    private static Node split(Node parent, int index, int common) {
+        Node child = parent.children[index];
+        Node middle = new Node(child.edge.substring(0, common));
+        child.edge = child.edge.substring(common);
+        middle.labels = new char[] {child.edge.charAt(0)};
+        middle.children = new Node[] {child};
+        middle.count = child.count;
+        // top-k изменяется на месте, поэтому у промежуточного узла своя копия
+        middle.top = child.top == null ? null : new TreeSet<>(child.top);
+        parent.children[index] = middle;
+        return middle;
+    }
+
+    /**
+     * top-k узла из его заголовков и top-k потомков.
+     */
+    private NavigableSet<Entry> computeTop(Node node) {
+        NavigableSet<Entry> top = new TreeSet<>(RECENCY_ORDER);
+        if (node.entries != null) {
+            node.entries.forEach(entry -> offer(top, entry));
+        }
+        for (Node child : node.children) {
+            topOf(child).forEach(entry -> offer(top, entry));
+        }
+        return top;
+    }
+
+    /**
+     * Дополнить top-k узла после удаления заголовка самым свежим из не вошедших в него.
+     * Такой заголовок входит в заголовки узла или в top-k одного из потомков, так как
+     * более свежих заголовков в поддереве меньше k.
+     */
+    private void refill(Node node) {
+        Entry last = node.top.isEmpty() ? null : node.top.last();
+        Entry next = node.entries == null ? null : after(node.entries, last);
+        for (Node child : node.children) {
+            Entry candidate = after(topOf(child), last);
+            if (candidate != null && (next == null || RECENCY_ORDER.compare(candidate, next) < 0)) {
+                next = candidate;
+            }
+        }
+        if (next != null) {
+            node.top.add(next);
+        }
+    }
+
+    /**
+     * Самый свежий заголовок менее свежий, чем last, или самый свежий, если last равен null.
+     */
+    private static Entry after(Collection<Entry> ordered, Entry last) {
+        if (ordered instanceof NavigableSet<Entry> set) {
+            return last == null ? (set.isEmpty() ? null : set.first()) : set.higher(last);
+        }
+        for (Entry entry : ordered) {
+            if (last == null || RECENCY_ORDER.compare(entry, last) > 0) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * top-k поддерева по убыванию свежести: хранимый или собранный обходом небольшого поддерева.
+     */
+    private Collection<Entry> topOf(Node node) {
+        if (node.top != null) {
+            return node.top;
+        }
+        List<Entry> collected = new ArrayList<>(node.count);
+        collect(node, collected);
+        collected.sort(RECENCY_ORDER);
+        return collected;
+    }
+
+    private static void collect(Node node, List<Entry> collected) {
+        if (node.entries != null) {
+            collected.addAll(node.entries);
+        }
+        for (Node child : node.children) {
+            collect(child, collected);
+        }
+    }
+
+    /**
+     * Добавить заголовок в top-k, вытеснив наименее свежий, если заголовков стало больше k.
+     */
+    private void offer(NavigableSet<Entry> top, Entry entry) {
+        top.add(entry);
+        if (top.size() > topSize) {
+            top.pollLast();
+        }
+    }
+
+    private static int commonPrefix(String edge, String key, int pos) {
+        int max = Math.min(edge.length(), key.length() - pos);
+        int i = 0;
+        while (i < max && edge.charAt(i) == key.charAt(pos + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int countNodes(Node node) {
+        int count = 1;
+        for (Node child : node.children) {
+            count += countNodes(child);
+        }
+        return count;
+    }
+
+    /**
+     * Подсказка автодополнения.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Suggestion {
+        private final long id;
+        private final String title;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+        private final long id;
+        private final String title;
+        private final String key;
+        private final long recency;
+    }
+
+    /**
+     * Узел дерева. Потомки упорядочены по первому символу ребра.
+     */
+    private static final class Node {
+
+        private String edge;
+
+        private char[] labels = NO_LABELS;
+
+        private Node[] children = NO_NODES;
+
+        /**
+         * Заголовки, ключ которых заканчивается в этом узле, по убыванию свежести или null, если таких нет.
+         */
+        private NavigableSet<Entry> entries;
+
+        /**
+         * Количество заголовков в поддереве.
+         */
+        private int count;
+
+        /**
+         * top-k поддерева по убыванию свежести, null если заголовков в поддереве не больше topSize.
+         */
+        private NavigableSet<Entry> top;
+
+        private Node(String edge) {
+            this.edge = edge;
+        }
+
+        private void addEntry(Entry entry) {
+            if (entries == null) {
+                entries = new TreeSet<>(RECENCY_ORDER);
+            }
+            entries.add(entry);
+        }
+
+        private void removeEntry(Entry entry) {
+            entries.remove(entry);
+            if (entries.isEmpty()) {
+                entries = null;
+            }
+        }
+
+        private int indexOf(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index < 0 ? -1 : index;
+        }
+
+        private void addChild(Node child) {
+            char label = child.edge.charAt(0);
+            int insertAt = -Arrays.binarySearch(labels, label) - 1;
+            char[] updatedLabels = new char[labels.length + 1];
+            Node[] updatedChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, updatedLabels, 0, insertAt);
+            System.arraycopy(children, 0, updatedChildren, 0, insertAt);
+            updatedLabels[insertAt] = label;
+            updatedChildren[insertAt] = child;
+            System.arraycopy(labels, insertAt, updatedLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, updatedChildren, insertAt + 1, children.length - insertAt);
+            labels = updatedLabels;
+            children = updatedChildren;
+        }
+
+        private void removeChild(Node child) {
+            int index = indexOf(child.edge.charAt(0));
+            char[] updatedLabels = new char[labels.length - 1];
+            Node[] updatedChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, updatedLabels, 0, index);
+            System.arraycopy(children, 0, updatedChildren, 0, index);
+            System.arraycopy(labels, index + 1, updatedLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, updatedChildren, index, children.length - index - 1);
+            labels = updatedLabels;
+            children = updatedChildren;
+        }
+
+        /**
+         * Поглотить единственного потомка, когда в узле не заканчивается ни один заголовок.
+         */
+        private void mergeWithChild() {
+            Node child = children[0];
+            edge = edge + child.edge;
+            labels = child.labels;
+            children = child.children;
+            entries = child.entries;
+            top = child.top;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package inote.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Разбиение текста заметки на термы для встроенного поискового индекса.
+ *
+ * Термом считается непрерывная последовательность букв и цифр. Термы приводятся к нижнему
+ * регистру, буква "ё" заменяется на "е". Стемминг не выполняется, словоформы ищутся
+ * префиксными запросами.
+ *
+ * @author Avdeyev Viktor
+ */
+public final class Tokenizer {
+
+    /**
+     * Максимальная длина терма, более длинные последовательности обрезаются.
+     */
+    public static final int MAX_TERM_LENGTH = 64;
+
+    private Tokenizer() {
+    }
+
+    /**
+     * Разбить текст на термы в порядке следования.
+     *
+     * @param text текст, может быть null
+     * @return список термов
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (term.length() < MAX_TERM_LENGTH) {
+                    term.append(normalize(c));
+                }
+            } else if (!term.isEmpty()) {
+                terms.add(term.toString());
+                term.setLength(0);
+            }
+        }
+        if (!term.isEmpty()) {
+            terms.add(term.toString());
+        }
+        return terms;
+    }
+
+    private static char normalize(char c) {
+        char lower = Character.toLowerCase(c);
+        return lower == 'ё' ? 'е' : lower;
+    }
+}
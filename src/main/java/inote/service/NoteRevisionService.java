@@ -0,0 +1,41 @@
+package inote.service;
+
+import inote.dto.CursorPage;
+import inote.dto.NoteRevisionSummary;
+import inote.entity.Note;
+
+/**
+ * Сервис истории версий {@link Note}.
+ *
+ * @author Avdeyev Viktor
+ */
+public interface NoteRevisionService {
+
+    /**
+     * Записать новую версию заметки.
+     * Версия хранится правкой относительно предыдущей или, периодически, целиком.
+     *
+     * @param previous заметка до изменения
+     * @param current заметка после изменения
+     */
+    void record(Note previous, Note current);
+
+    /**
+     * Получение страницы версий заметки без содержимого, от новых к старым.
+     *
+     * @param noteId ID заметки
+     * @param after курсор формата "revision" или null для первой страницы
+     * @param limit максимальное количество версий на странице
+     * @return страница версий с курсором следующей страницы
+     */
+    CursorPage<NoteRevisionSummary> findPage(Long noteId, String after, int limit);
+
+    /**
+     * Восстановление версии заметки.
+     *
+     * @param noteId ID заметки
+     * @param revision номер версии
+     * @return заметка с заголовком и содержимым указанной версии
+     */
+    Note findRevision(Long noteId, int revision);
+}
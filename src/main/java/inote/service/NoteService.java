@@ -1,9 +1,16 @@
 package inote.service;
 
+import inote.dto.CursorPage;
+import inote.dto.NotePatch;
+import inote.dto.NoteSearchHit;
+import inote.dto.NoteSummary;
+import inote.dto.NoteVersion;
+import inote.dto.TitleSuggestion;
 import inote.entity.Note;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Сервис для работы с {@link Note}.
@@ -21,6 +28,16 @@ public interface NoteService {
      */
     List<Note> findAll();
 
+    /**
+     * Потоковая выгрузка всех заметок.
+     * Заметки передаются обработчику по одной в порядке возрастания ID,
+     * без загрузки всего списка в память.
+     *
+     * @param consumer обработчик, получающий каждую заметку
+     * @return количество выгруженных заметок
+     */
+    long exportAll(Consumer<Note> consumer);
+
     /**
      * Поиск заметки по ID.
      *
@@ -29,6 +46,21 @@ public interface NoteService {
      */
     Optional<Note> findById(Long noteId);
 
+    /**
+     * Получение версии заметки для условных GET-запросов без чтения ее содержимого.
+     *
+     * @param noteId уникальный идентификатор заметки
+     * @return версия заметки
+     */
+    NoteVersion findVersion(Long noteId);
+
+    /**
+     * Получение версии набора всех заметок для условных GET-запросов к спискам.
+     *
+     * @return наибольшее время изменения и количество заметок
+     */
+    NoteVersion findCollectionVersion();
+
     /**
      * Поиск заметок по заголовку.
      *
@@ -46,6 +78,69 @@ public interface NoteService {
      */
     List<Note> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
 
+    /**
+     * Получение страницы заметок, упорядоченных по ID.
+     *
+     * @param after курсор формата "id" или null для первой страницы
+     * @param limit максимальное количество заметок на странице
+     * @return страница заметок с курсором следующей страницы
+     */
+    CursorPage<Note> findPage(String after, int limit);
+
+    /**
+     * Получение страницы кратких представлений заметок, упорядоченных по ID.
+     * Вместо полного содержимого заметки возвращаются его размер и начальный фрагмент.
+     *
+     * @param after курсор формата "id" или null для первой страницы
+     * @param limit максимальное количество заметок на странице
+     * @return страница кратких представлений заметок с курсором следующей страницы
+     */
+    CursorPage<NoteSummary> findSummaryPage(String after, int limit);
+
+    /**
+     * Получение страницы заметок с указанным заголовком, упорядоченных по ID.
+     *
+     * @param title заголовок заметки
+     * @param after курсор формата "id" или null для первой страницы
+     * @param limit максимальное количество заметок на странице
+     * @return страница заметок с курсором следующей страницы
+     */
+    CursorPage<Note> findPageByTitle(String title, String after, int limit);
+
+    /**
+     * Получение страницы заметок, созданных в указанный период,
+     * упорядоченных по дате создания и ID.
+     *
+     * @param startDate начальная дата
+     * @param endDate конечная дата
+     * @param after курсор формата "createdAt,id" или null для первой страницы
+     * @param limit максимальное количество заметок на странице
+     * @return страница заметок с курсором следующей страницы
+     */
+    CursorPage<Note> findPageByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate,
+                                                String after, int limit);
+
+    /**
+     * Полнотекстовый поиск заметок по заголовку и содержимому.
+     * Результаты упорядочены по убыванию релевантности.
+     *
+     * @param query поисковый запрос
+     * @param after курсор формата "rank,id" или null для первой страницы
+     * @param limit максимальное количество результатов на странице
+     * @return страница результатов с подсвеченными фрагментами и курсором следующей страницы
+     */
+    CursorPage<NoteSearchHit> search(String query, String after, int limit);
+
+    /**
+     * Подсказки автодополнения заголовков по префиксу, от недавно измененных заметок к давно измененным.
+     * Регистр и диакритические знаки не учитываются.
+     *
+     * @param prefix начало заголовка
+     * @param limit максимальное количество подсказок
+     * @return ID и заголовки заметок
+     */
+    List<TitleSuggestion> suggestTitles(String prefix, int limit);
+
     /**
      * Сохранение новой или обновление существующей заметки.
      *
@@ -54,6 +149,14 @@ public interface NoteService {
      */
     Note save(Note note);
 
+    /**
+     * Пакетное сохранение новых заметок.
+     *
+     * @param notes заметки для сохранения, переданные ID игнорируются
+     * @return сохраненные заметки с присвоенными ID
+     */
+    List<Note> saveAll(List<Note> notes);
+
     /**
      * Обновление заметки.
      *
@@ -63,10 +166,47 @@ public interface NoteService {
      */
     Optional<Note> update(Long noteId, Note updatedNote);
 
+    /**
+     * Частичное изменение заметки правками содержимого.
+     * Правки применяются, только если заметка не изменялась с версии, к которой они относятся.
+     *
+     * @param noteId ID заметки для изменения
+     * @param eTag ETag версии заметки, к которой относятся правки
+     * @param patch новый заголовок и правки содержимого
+     * @return Optional с измененной заметкой
+     */
+    Optional<Note> patch(Long noteId, String eTag, NotePatch patch);
+
     /**
      * Удаление заметки по ID.
      *
      * @param noteId уникальный идентификатор заметки
      */
     void deleteById(Long noteId);
+
+    /**
+     * Массовое удаление заметок по списку ID.
+     *
+     * @param noteIds ID заметок
+     * @return количество удаленных заметок
+     */
+    int deleteByIds(List<Long> noteIds);
+
+    /**
+     * Массовое удаление заметок, созданных в указанный период.
+     *
+     * @param startDate начальная дата
+     * @param endDate конечная дата
+     * @return количество удаленных заметок
+     */
+    int deleteByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Массовое изменение заголовка заметок по списку ID.
+     *
+     * @param noteIds ID заметок
+     * @param title новый заголовок
+     * @return количество обновленных заметок
+     */
+    int updateTitle(List<Long> noteIds, String title);
 }
@@ -0,0 +1,75 @@
+package inote.service;
+
+import inote.dto.NoteVersion;
+import inote.entity.Note;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Реактивный сервис для работы с {@link Note}.
+ *
+ * Неблокирующий аналог {@link NoteService} для реактивного стека (профиль reactive).
+ *
+ * @author Avdeyev Viktor
+ */
+public interface ReactiveNoteService {
+
+    /**
+     * Потоковое получение заметок в порядке возрастания ID.
+     * Заметки читаются из БД по мере потребления потока, без загрузки всего списка в память.
+     *
+     * @param after курсор формата "id" или null для чтения с начала
+     * @param limit максимальное количество заметок или null без ограничения
+     * @return поток заметок
+     */
+    Flux<Note> findAll(String after, Integer limit);
+
+    /**
+     * Поиск заметки по ID.
+     *
+     * @param noteId уникальный идентификатор заметки
+     * @return заметка или ошибка NotFoundException, если она не найдена
+     */
+    Mono<Note> findById(Long noteId);
+
+    /**
+     * Получение версии заметки для условных GET-запросов без чтения ее содержимого.
+     *
+     * @param noteId уникальный идентификатор заметки
+     * @return версия заметки или ошибка NotFoundException, если она не найдена
+     */
+    Mono<NoteVersion> findVersion(Long noteId);
+
+    /**
+     * Поиск заметок по заголовку.
+     *
+     * @param title заголовок заметки
+     * @return поток заметок или ошибка NotFoundException, если заметки не найдены
+     */
+    Flux<Note> findByTitle(String title);
+
+    /**
+     * Сохранение новой заметки.
+     *
+     * @param note заметка для сохранения, переданный ID игнорируется
+     * @return сохраненная заметка
+     */
+    Mono<Note> save(Note note);
+
+    /**
+     * Обновление заметки.
+     *
+     * @param noteId ID заметки для обновления
+     * @param updatedNote объект с обновленными данными
+     * @return обновленная заметка или ошибка NotFoundException, если она не найдена
+     */
+    Mono<Note> update(Long noteId, Note updatedNote);
+
+    /**
+     * Удаление заметки по ID.
+     *
+     * @param noteId уникальный идентификатор заметки
+     * @return завершение или ошибка NotFoundException, если заметка не найдена
+     */
+    Mono<Void> deleteById(Long noteId);
+}
@@ -0,0 +1,224 @@
+package inote.service.impl;
+
+import inote.cache.NoteCacheEvictor;
+import inote.datasource.ReplicaRoutingDataSource;
+import inote.entity.Note;
+import inote.repository.NoteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Кэш заметок, созданных за день, для выборок по периоду создания.
+ *
+ * Заметки каждого дня хранятся в кэше {@link NoteCacheEvictor#NOTES_BY_DAY_CACHE} под ключом-датой,
+ * упорядоченными по дате создания и ID. Выборка за произвольный период собирается из заметок
+ * затронутых дней, отсутствующие в кэше дни читаются из БД одним запросом на каждый непрерывный
+ * отрезок. Изменение заметки сбрасывает только день ее создания.
+ *
+ * Прочитанные из БД дни сохраняются через {@link Cache#putIfAbsent}: это заполнение кэша, а не запись,
+ * поэтому другим узлам не рассылается инвалидация. День сохраняется, только если за время чтения
+ * он не сбрасывался, иначе в кэш попали бы заметки, прочитанные до изменения. Для этого каждый сброс
+ * увеличивает поколение дня до удаления из кэша, а загрузка сверяет поколение до чтения из БД
+ * и после сохранения. Поколения хранятся по {@link #STRIPES} группам дней.
+ *
+ * Периоды длиннее {@link #MAX_BUCKET_DAYS} дней читаются из БД напрямую по индексу created_at.
+ * Постраничные выборки по периоду сюда не относятся: страница читается из БД по индексу created_at
+ * и не требует загрузки всех заметок затронутых дней.
+ *
+ * @author Avdeyev Viktor
+ */
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class NoteDayBuckets {
+
+    /**
+     * Наибольшее количество дней периода, собираемого из кэша.
+     */
+    static final int MAX_BUCKET_DAYS = 366;
+
+    static final int STRIPES = 1024;
+
+    private static final Comparator<Note> CREATED_AT_ID_ORDER =
+        Comparator.comparing(Note::getCreatedAt).thenComparing(Note::getId);
+
+    private final NoteRepository noteRepository;
+
+    private final CacheManager cacheManager;
+
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    /**
+     * Все заметки, созданные в указанный период.
+     *
+     * @param startDate начало периода включительно
+     * @param endDate   конец периода включительно
+     * @return заметки по возрастанию даты создания и ID
+     */
+    public List<Note> findBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        if (days(startDate.toLocalDate(), endDate.toLocalDate()) > MAX_BUCKET_DAYS) {
+            return noteRepository.findByCreatedAtBetween(startDate, endDate);
+        }
+        List<Note> result = new ArrayList<>();
+        for (List<Note> bucket : buckets(startDate.toLocalDate(), endDate.toLocalDate()).values()) {
+            for (Note note : bucket) {
+                if (!note.getCreatedAt().isBefore(startDate) && !note.getCreatedAt().isAfter(endDate)) {
+                    result.add(note);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Сбросить заметки дней, в которые созданы указанные заметки.
+     *
+     * @param notes заметки с датой создания
+     */
+    public void evictNotes(Collection<Note> notes) {
+        evict(notes.stream()
+            .map(Note::getCreatedAt)
+            .filter(createdAt -> createdAt != null)
+            .map(LocalDateTime::toLocalDate)
+            .distinct()
+            .toList());
+    }
+
+    /**
+     * Сбросить заметки дней указанного периода. Если период длиннее {@link #MAX_BUCKET_DAYS} дней,
+     * сбрасываются все дни.
+     *
+     * @param startDate начало периода
+     * @param endDate   конец периода
+     */
+    public void evictBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDate first = startDate.toLocalDate();
+        LocalDate last = endDate.toLocalDate();
+        if (days(first, last) > MAX_BUCKET_DAYS) {
+            clear();
+            return;
+        }
+        List<LocalDate> days = new ArrayList<>();
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            days.add(day);
+        }
+        evict(days);
+    }
+
+    /**
+     * Сбросить заметки всех дней, например после массового изменения заметок с неизвестными датами создания.
+     */
+    public void clear() {
+        Cache cache = cacheManager.getCache(NoteCacheEvictor.NOTES_BY_DAY_CACHE);
+        if (cache != null) {
+            log.info("Удаление из кэша заметок всех дней");
+            for (int i = 0; i < STRIPES; i++) {
+                generations.incrementAndGet(i);
+            }
+            cache.clear();
+        }
+    }
+
+    private void evict(List<LocalDate> days) {
+        Cache cache = cacheManager.getCache(NoteCacheEvictor.NOTES_BY_DAY_CACHE);
+        if (cache == null || days.isEmpty()) {
+            return;
+        }
+        log.info("Удаление из кэша заметок за дни: {}", days);
+        for (LocalDate day : days) {
+            generations.incrementAndGet(stripe(day));
+            cache.evict(day);
+        }
+    }
+
+    /**
+     * Заметки дней с first по last включительно: из кэша, отсутствующие дни из БД.
+     */
+    private Map<LocalDate, List<Note>> buckets(LocalDate first, LocalDate last) {
+        Cache cache = cacheManager.getCache(NoteCacheEvictor.NOTES_BY_DAY_CACHE);
+        Map<LocalDate, List<Note>> buckets = new LinkedHashMap<>();
+        LocalDate missingFrom = null;
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            @SuppressWarnings("unchecked")
+            List<Note> bucket = cache == null ? null : cache.get(day, List.class);
+            buckets.put(day, bucket);
+            if (bucket == null && missingFrom == null) {
+                missingFrom = day;
+            } else if (bucket != null && missingFrom != null) {
+                load(missingFrom, day.minusDays(1), buckets, cache);
+                missingFrom = null;
+            }
+        }
+        if (missingFrom != null) {
+            load(missingFrom, last, buckets, cache);
+        }
+        return buckets;
+    }
+
+    /**
+     * Прочитать из БД заметки непрерывного отрезка дней одним запросом и разложить по дням.
+     */
+    private void load(LocalDate first, LocalDate last, Map<LocalDate, List<Note>> buckets, Cache cache) {
+        log.info("Чтение из БД заметок, созданных с {} по {}", first, last);
+        long[] started = new long[(int) days(first, last)];
+        for (int i = 0; i < started.length; i++) {
+            started[i] = generations.get(stripe(first.plusDays(i)));
+        }
+        // Точность времени в PostgreSQL - микросекунды, конец дня задается с той же точностью.
+        // Заметки сохраняются в кэш, поэтому читаются с основной БД, а не с отстающей реплики
+        List<Note> notes = ReplicaRoutingDataSource.readFromPrimary(() -> noteRepository.findByCreatedAtBetween(
+            first.atStartOfDay(), last.plusDays(1).atStartOfDay().minus(1, ChronoUnit.MICROS)));
+        Map<LocalDate, List<Note>> loaded = new HashMap<>();
+        for (Note note : notes) {
+            loaded.computeIfAbsent(note.getCreatedAt().toLocalDate(), day -> new ArrayList<>()).add(note);
+        }
+        for (int i = 0; i < started.length; i++) {
+            LocalDate day = first.plusDays(i);
+            List<Note> bucket = loaded.getOrDefault(day, new ArrayList<>());
+            bucket.sort(CREATED_AT_ID_ORDER);
+            buckets.put(day, bucket);
+            if (cache != null) {
+                fill(cache, day, started[i], bucket);
+            }
+        }
+    }
+
+    /**
+     * Сохранить день, прочитанный из БД в поколении generation. Если день сброшен после начала чтения,
+     * он не сохраняется, а сохраненный удаляется: сброс мог выполниться раньше сохранения.
+     */
+    private void fill(Cache cache, LocalDate day, long generation, List<Note> bucket) {
+        if (generations.get(stripe(day)) != generation) {
+            return;
+        }
+        cache.putIfAbsent(day, bucket);
+        if (generations.get(stripe(day)) != generation) {
+            cache.evict(day);
+        }
+    }
+
+    private static int stripe(LocalDate day) {
+        return (int) Math.floorMod(day.toEpochDay(), (long) STRIPES);
+    }
+
+    private static long days(LocalDate first, LocalDate last) {
+        return ChronoUnit.DAYS.between(first, last) + 1;
+    }
+}
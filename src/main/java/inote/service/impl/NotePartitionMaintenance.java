@@ -0,0 +1,137 @@
+package inote.service.impl;
+
+import inote.cache.NoteCacheEvictor;
+import inote.config.PartitionProperties;
+import inote.event.NoteChangedEvent;
+import inote.repository.NotePartitionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Обслуживание разделов таблицы notes, секционированной по месяцам created_at
+ * ({@code inote.partitions.enabled: true}).
+ *
+ * Раз в {@link PartitionProperties#getCheckInterval()} создает разделы текущего и
+ * {@link PartitionProperties#getMonthsAhead()} следующих месяцев, чтобы новые заметки
+ * не попадали в раздел по умолчанию, и отсоединяет или удаляет разделы месяцев, все заметки
+ * которых старше {@link PartitionProperties#getRetention()}. Заметки устаревшего раздела
+ * удаляются из кэшей и индексов так же, как при удалении заметок за период.
+ *
+ * На нескольких узлах проверки выполняются независимо: создание раздела пропускается, если он уже есть,
+ * а ошибка из-за раздела, одновременно измененного другим узлом, повторяется при следующей проверке.
+ *
+ * @author Avdeyev Viktor
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "inote.partitions", name = "enabled", havingValue = "true")
+@Slf4j
+public class NotePartitionMaintenance {
+
+    private final NotePartitionRepository partitionRepository;
+
+    private final NoteWriteBehindBuffer writeBehindBuffer;
+
+    private final NoteCacheEvictor noteCacheEvictor;
+
+    private final NoteDayBuckets noteDayBuckets;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final PartitionProperties properties;
+
+    private ScheduledExecutorService scheduler;
+
+    public NotePartitionMaintenance(NotePartitionRepository partitionRepository, NoteWriteBehindBuffer writeBehindBuffer,
+                                    NoteCacheEvictor noteCacheEvictor, NoteDayBuckets noteDayBuckets,
+                                    ApplicationEventPublisher eventPublisher, PartitionProperties properties) {
+        this.partitionRepository = partitionRepository;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.noteCacheEvictor = noteCacheEvictor;
+        this.noteDayBuckets = noteDayBuckets;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        long interval = properties.getCheckInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "note-partitions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::maintain, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Проверить разделы. Ошибки журналируются, проверка повторяется по расписанию.
+     */
+    public void maintain() {
+        try {
+            maintain(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.error("Ошибка обслуживания разделов notes", e);
+        }
+    }
+
+    /**
+     * Создать недостающие разделы и отключить устаревшие на момент now.
+     */
+    void maintain(LocalDateTime now) {
+        if (!partitionRepository.isPartitioned()) {
+            log.warn("Таблица notes не секционирована, обслуживание разделов пропущено. "
+                + "Секционирование выполняет миграция с контекстом Liquibase notes-partitioning");
+            return;
+        }
+        Set<YearMonth> months = new HashSet<>(partitionRepository.findPartitionMonths());
+        YearMonth current = YearMonth.from(now);
+        for (int i = 0; i <= properties.getMonthsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!months.contains(month)) {
+                partitionRepository.createPartition(month);
+            }
+        }
+        if (properties.getRetention() == null) {
+            return;
+        }
+        LocalDateTime cutoff = now.minus(properties.getRetention());
+        months.stream()
+            .filter(month -> !month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff))
+            .sorted()
+            .forEach(this::expire);
+    }
+
+    private void expire(YearMonth month) {
+        List<Long> ids = properties.getExpiredAction() == PartitionProperties.ExpiredAction.DROP
+            ? partitionRepository.dropPartition(month)
+            : partitionRepository.detachPartition(month);
+        writeBehindBuffer.discard(ids);
+        noteCacheEvictor.evictNotes(ids);
+        noteDayBuckets.evictBetween(month.atDay(1).atStartOfDay(), month.atEndOfMonth().atTime(LocalTime.MAX));
+        eventPublisher.publishEvent(NoteChangedEvent.deleted(ids));
+        log.info("Раздел заметок за {} отключен ({}), заметок: {}", month, properties.getExpiredAction(), ids.size());
+    }
+}
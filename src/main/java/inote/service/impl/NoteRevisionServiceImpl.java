@@ -0,0 +1,154 @@
+package inote.service.impl;
+
+import inote.config.RevisionProperties;
+import inote.dto.CursorPage;
+import inote.dto.NotePatch;
+import inote.dto.NoteRevisionSummary;
+import inote.entity.Note;
+import inote.entity.NoteRevision;
+import inote.exception.BadRequestException;
+import inote.exception.NotFoundException;
+import inote.repository.NoteRevisionRepository;
+import inote.service.NoteRevisionService;
+import inote.util.NoteCursor;
+import inote.util.TextPatch;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Реализация {@link NoteRevisionService}.
+ *
+ * Каждая версия хранится правкой относительно предыдущей ({@link TextPatch#diff}), поэтому ее размер
+ * пропорционален изменению, а не размеру заметки. Каждые {@link RevisionProperties#getSnapshotInterval()}
+ * версий записывается снимок, и восстановление любой версии применяет не больше этого количества правок.
+ *
+ * Если последняя записанная версия не совпадает с заметкой до изменения (история пуста или заметка
+ * менялась в обход сервиса), сначала записывается снимок заметки до изменения.
+ *
+ * Номер версии вычисляется по последней версии после блокировки строки заметки в той же транзакции,
+ * поэтому одновременные изменения одной заметки получают разные номера, а не нарушают уникальность.
+ *
+ * @author Avdeyev Viktor
+ */
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class NoteRevisionServiceImpl implements NoteRevisionService {
+
+    private final NoteRevisionRepository noteRevisionRepository;
+
+    private final RevisionProperties properties;
+
+    @Override
+    @Transactional
+    public void record(Note previous, Note current) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        log.info("Запись версии заметки с ID {}", current.getId());
+        if (!noteRevisionRepository.lockNote(current.getId())) {
+            log.warn("Заметка с ID {} удалена, версия не записывается", current.getId());
+            return;
+        }
+        Optional<NoteRevisionSummary> latest = noteRevisionRepository.findLatest(current.getId());
+        int revision;
+        int baseRevision;
+        if (latest.isPresent() && latest.get().getUpdatedAt().equals(versionTime(previous))) {
+            revision = latest.get().getRevision() + 1;
+            baseRevision = latest.get().getBaseRevision();
+        } else {
+            revision = latest.map(NoteRevisionSummary::getRevision).orElse(0) + 1;
+            log.info("История заметки с ID {} не содержит версию до изменения, запись снимка {}",
+                current.getId(), revision);
+            noteRevisionRepository.save(snapshot(previous, revision));
+            baseRevision = revision;
+            revision++;
+        }
+
+        if (revision - baseRevision >= properties.getSnapshotInterval()) {
+            noteRevisionRepository.save(snapshot(current, revision));
+        } else {
+            NotePatch.Edit edit = TextPatch.diff(previous.getContent(), current.getContent());
+            noteRevisionRepository.save(NoteRevision.builder()
+                .noteId(current.getId())
+                .revision(revision)
+                .baseRevision(baseRevision)
+                .title(current.getTitle())
+                .editOffset(edit.getOffset())
+                .editDelete(edit.getDelete())
+                .content(edit.getInsert())
+                .contentLength(current.getContent().length())
+                .updatedAt(versionTime(current))
+                .build());
+        }
+        log.info("Записана версия {} заметки с ID {}", revision, current.getId());
+    }
+
+    @Override
+    public CursorPage<NoteRevisionSummary> findPage(Long noteId, String after, int limit) {
+        log.info("Запрос страницы версий заметки с ID {} после курсора '{}', limit = {}", noteId, after, limit);
+        if (limit < 1 || limit > NoteServiceImpl.MAX_PAGE_LIMIT) {
+            throw new BadRequestException("Размер страницы должен быть от 1 до " + NoteServiceImpl.MAX_PAGE_LIMIT);
+        }
+        Long before = NoteCursor.parseId(after);
+        if (before != null && (before < 1 || before > Integer.MAX_VALUE)) {
+            throw new BadRequestException("Некорректный курсор: " + after);
+        }
+        List<NoteRevisionSummary> rows = noteRevisionRepository.findPage(noteId,
+            before == null ? null : before.intValue(), limit + 1);
+        if (rows.size() <= limit) {
+            return new CursorPage<>(new ArrayList<>(rows), null);
+        }
+        List<NoteRevisionSummary> items = new ArrayList<>(rows.subList(0, limit));
+        return new CursorPage<>(items, String.valueOf(items.get(limit - 1).getRevision()));
+    }
+
+    @Override
+    public Note findRevision(Long noteId, int revision) {
+        log.info("Восстановление версии {} заметки с ID {}", revision, noteId);
+        List<NoteRevision> chain = noteRevisionRepository.findChain(noteId, revision);
+        if (chain.isEmpty()) {
+            log.warn("Версия {} заметки с ID {} не найдена", revision, noteId);
+            throw new NotFoundException("Версия " + revision + " заметки с ID " + noteId + " не найдена");
+        }
+        String content = chain.get(0).getContent();
+        for (NoteRevision delta : chain.subList(1, chain.size())) {
+            content = TextPatch.apply(content, List.of(
+                new NotePatch.Edit(delta.getEditOffset(), delta.getEditDelete(), delta.getContent())));
+        }
+        NoteRevision target = chain.get(chain.size() - 1);
+        log.info("Версия {} заметки с ID {} восстановлена из {} записей", revision, noteId, chain.size());
+        return new Note(noteId, target.getTitle(), content, null, target.getUpdatedAt());
+    }
+
+    /**
+     * Запись версии целиком.
+     */
+    private static NoteRevision snapshot(Note note, int revision) {
+        return NoteRevision.builder()
+            .noteId(note.getId())
+            .revision(revision)
+            .baseRevision(revision)
+            .title(note.getTitle())
+            .content(note.getContent())
+            .contentLength(note.getContent().length())
+            .updatedAt(versionTime(note))
+            .build();
+    }
+
+    /**
+     * Время версии заметки: время изменения или создания, если заметка не изменялась.
+     */
+    private static LocalDateTime versionTime(Note note) {
+        return note.getUpdatedAt() == null ? note.getCreatedAt() : note.getUpdatedAt();
+    }
+}
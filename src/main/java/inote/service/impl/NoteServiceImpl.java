@@ -1,19 +1,45 @@
 package inote.service.impl;
 
+import inote.cache.NoteCacheEvictor;
+import inote.dto.CursorPage;
+import inote.dto.NotePatch;
+import inote.dto.NoteSearchHit;
+import inote.dto.NoteSummary;
+import inote.dto.NoteVersion;
+import inote.dto.TitleSuggestion;
 import inote.entity.Note;
+import inote.event.NoteChangedEvent;
+import inote.exception.BadRequestException;
 import inote.exception.NotFoundException;
+import inote.exception.PreconditionFailedException;
 import inote.repository.NoteRepository;
+import inote.search.NoteSearchIndex;
+import inote.search.NoteTitleIndex;
+import inote.service.NoteRevisionService;
 import inote.service.NoteService;
+import inote.util.NoteCursor;
+import inote.util.TextPatch;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Реализация {@link NoteService}.
@@ -22,18 +48,55 @@ import java.util.Optional;
  * @author Avdeyev Viktor
  */
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 @Slf4j
 public class NoteServiceImpl implements NoteService {
 
+    /**
+     * Максимальный размер страницы при keyset-пагинации.
+     */
+    public static final int MAX_PAGE_LIMIT = 500;
+
+    /**
+     * Максимальное количество заметок в одном запросе пакетного сохранения.
+     */
+    public static final int MAX_BATCH_SIZE = 10_000;
+
+    /**
+     * Максимальная длина заголовка заметки.
+     */
+    private static final int MAX_TITLE_LENGTH = 50;
+
+    /**
+     * Максимальная длина поискового запроса.
+     */
+    public static final int MAX_QUERY_LENGTH = 200;
+
     private final NoteRepository noteRepository;
 
+    private final NoteCacheEvictor noteCacheEvictor;
+
+    private final NoteSearchIndex noteSearchIndex;
+
+    private final NoteTitleIndex noteTitleIndex;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final NoteWriteBehindBuffer writeBehindBuffer;
+
+    private final NoteRevisionService noteRevisionService;
+
+    private final NoteDayBuckets noteDayBuckets;
+
     /**
      * Получить все заметки.
      * Используется кэширование с ключом 'allNotes' для хранения списка заметок.
+     * При промахе список загружает один запрос, одновременные запросы ждут его результат
+     * ({@link inote.cache.SingleFlightCache}).
      */
     @Override
-    @Cacheable(value = "notes", key = "'allNotes'")
+    @Cacheable(value = "notes", key = "'allNotes'", sync = true)
     public List<Note> findAll() {
         log.info("Запрос на получение всех заметок");
         List<Note> notes = noteRepository.findAll();
@@ -41,15 +104,36 @@ public class NoteServiceImpl implements NoteService {
         return notes;
     }
 
+    /**
+     * Потоковая выгрузка всех заметок.
+     * Кэширование не используется: заметки читаются из БД курсором в рамках одной транзакции.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportAll(Consumer<Note> consumer) {
+        log.info("Запрос на потоковую выгрузку всех заметок");
+        long count = 0;
+        try (Stream<Note> notes = noteRepository.streamAll()) {
+            Iterator<Note> iterator = notes.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
+            }
+        }
+        log.info("Выгружено {} заметок", count);
+        return count;
+    }
+
     /**
      * Найти заметку по ID.
      * Результат кэшируется для быстрого доступа по ID и предотвращения повторных запросов к базе данных.
+     * Одновременные промахи по одному ID объединяются в одну загрузку.
      */
     @Override
-    @Cacheable(value = "notes", key = "#noteId")
+    @Cacheable(value = "notes", key = "#noteId", sync = true)
     public Optional<Note> findById(Long noteId) {
         log.info("Поиск заметки по ID: {}", noteId);
-        Optional<Note> note = noteRepository.findById(noteId);
+        Optional<Note> note = writeBehindBuffer.find(noteId).or(() -> noteRepository.findById(noteId));
         if (note.isEmpty()) {
             log.warn("Заметка с ID {} не найдена", noteId);
             throw new NotFoundException("Заметка с ID " + noteId + " не найдена");
@@ -58,12 +142,40 @@ public class NoteServiceImpl implements NoteService {
         return note;
     }
 
+    /**
+     * Получить версию заметки для условного GET-запроса.
+     * Кэшируется отдельно от заметок: для ответа 304 содержимое заметки не читается.
+     */
+    @Override
+    @Cacheable(value = "noteVersions", key = "#noteId", sync = true)
+    public NoteVersion findVersion(Long noteId) {
+        log.info("Запрос версии заметки с ID: {}", noteId);
+        LocalDateTime updatedAt = writeBehindBuffer.find(noteId).map(Note::getUpdatedAt)
+            .or(() -> noteRepository.findUpdatedAtById(noteId))
+            .orElseThrow(() -> {
+                log.warn("Заметка с ID {} не найдена", noteId);
+                return new NotFoundException("Заметка с ID " + noteId + " не найдена");
+            });
+        return new NoteVersion(updatedAt, 1L);
+    }
+
+    /**
+     * Получить версию набора всех заметок для условных GET-запросов к спискам.
+     * Кэшируется с ключом 'all' и сбрасывается при любом изменении заметок.
+     */
+    @Override
+    @Cacheable(value = "noteVersions", key = "'all'", sync = true)
+    public NoteVersion findCollectionVersion() {
+        log.info("Запрос версии набора заметок");
+        return noteRepository.findCollectionVersion();
+    }
+
     /**
      * Поиск заметок по заголовку.
      * Результат кэшируется с использованием заголовка как ключа.
      */
     @Override
-    @Cacheable(value = "notes", key = "#title")
+    @Cacheable(value = "notes", key = "#title", sync = true)
     public List<Note> findByTitle(String title) {
         log.info("Поиск заметок с заголовком: '{}'", title);
         List<Note> notes = noteRepository.findByTitle(title);
@@ -77,12 +189,12 @@ public class NoteServiceImpl implements NoteService {
 
     /**
      * Поиск заметок, созданных в указанный период.
-     * Кэширование не используется для этого метода.
+     * Результат собирается из заметок, кэшированных по дням создания ({@link NoteDayBuckets}).
      */
     @Override
     public List<Note> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate) {
         log.info("Поиск заметок, созданных с {} по {}", startDate, endDate);
-        List<Note> notes = noteRepository.findByCreatedAtBetween(startDate, endDate);
+        List<Note> notes = noteDayBuckets.findBetween(startDate, endDate);
         if (notes.isEmpty()) {
             log.warn("Заметки не найдены в указанный период");
             throw new NotFoundException("Заметки не найдены в указанный период");
@@ -91,53 +203,401 @@ public class NoteServiceImpl implements NoteService {
         return notes;
     }
 
+    /**
+     * Получить страницу заметок, упорядоченных по ID.
+     * Кэшируется каждая страница отдельно, ключ включает курсор и размер страницы.
+     */
+    @Override
+    @Cacheable(value = "notePages", key = "'all:' + #after + ':' + #limit", sync = true)
+    public CursorPage<Note> findPage(String after, int limit) {
+        log.info("Запрос страницы заметок после курсора '{}', limit = {}", after, limit);
+        checkPageLimit(limit);
+        List<Note> notes = noteRepository.findPage(NoteCursor.parseId(after), limit + 1);
+        CursorPage<Note> page = toPage(notes, limit, NoteCursor::ofId);
+        log.info("Найдено {} заметок на странице, next = '{}'", page.getItems().size(), page.getNext());
+        return page;
+    }
+
+    /**
+     * Получить страницу кратких представлений заметок, упорядоченных по ID.
+     * Кэшируется отдельно от страниц полных заметок, каждая страница под своим ключом.
+     */
+    @Override
+    @Cacheable(value = "noteSummaries", key = "#after + ':' + #limit", sync = true)
+    public CursorPage<NoteSummary> findSummaryPage(String after, int limit) {
+        log.info("Запрос страницы кратких представлений заметок после курсора '{}', limit = {}", after, limit);
+        checkPageLimit(limit);
+        List<NoteSummary> summaries = noteRepository.findSummaryPage(NoteCursor.parseId(after), limit + 1);
+        CursorPage<NoteSummary> page = toPage(summaries, limit, NoteCursor::ofId);
+        log.info("Найдено {} кратких представлений заметок на странице, next = '{}'",
+            page.getItems().size(), page.getNext());
+        return page;
+    }
+
+    /**
+     * Получить страницу заметок с указанным заголовком, упорядоченных по ID.
+     * Кэшируется каждая страница отдельно.
+     */
+    @Override
+    @Cacheable(value = "notePages", key = "'title:' + #title + ':' + #after + ':' + #limit", sync = true)
+    public CursorPage<Note> findPageByTitle(String title, String after, int limit) {
+        log.info("Запрос страницы заметок с заголовком '{}' после курсора '{}', limit = {}", title, after, limit);
+        checkPageLimit(limit);
+        List<Note> notes = noteRepository.findPageByTitle(title, NoteCursor.parseId(after), limit + 1);
+        CursorPage<Note> page = toPage(notes, limit, NoteCursor::ofId);
+        log.info("Найдено {} заметок с заголовком '{}' на странице", page.getItems().size(), title);
+        return page;
+    }
+
+    /**
+     * Получить страницу заметок, созданных в указанный период.
+     * Страница читается из БД по индексу created_at после курсора (createdAt, id), поэтому
+     * чтение любой страницы не зависит от количества заметок за затронутые дни.
+     */
+    @Override
+    public CursorPage<Note> findPageByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate,
+                                                       String after, int limit) {
+        log.info("Запрос страницы заметок, созданных с {} по {}, после курсора '{}', limit = {}",
+            startDate, endDate, after, limit);
+        checkPageLimit(limit);
+        NoteCursor cursor = NoteCursor.parseCreatedAt(after);
+        List<Note> notes = noteRepository.findPageByCreatedAtBetween(startDate, endDate,
+            cursor == null ? null : cursor.getCreatedAt(), cursor == null ? null : cursor.getId(), limit + 1);
+        CursorPage<Note> page = toPage(notes, limit, NoteCursor::ofCreatedAt);
+        log.info("Найдено {} заметок в указанный период на странице", page.getItems().size());
+        return page;
+    }
+
+    /**
+     * Полнотекстовый поиск заметок по заголовку и содержимому.
+     * Если встроенный поисковый индекс построен, совпадения ищутся в нем, иначе средствами БД.
+     * Кэшируется каждая страница результатов отдельно.
+     */
+    @Override
+    @Cacheable(value = "notePages", key = "'search:' + #query + ':' + #after + ':' + #limit", sync = true)
+    public CursorPage<NoteSearchHit> search(String query, String after, int limit) {
+        log.info("Поиск заметок по запросу '{}' после курсора '{}', limit = {}", query, after, limit);
+        if (query == null || query.isBlank() || query.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("Поисковый запрос должен быть непустым и не длиннее "
+                + MAX_QUERY_LENGTH + " символов");
+        }
+        checkPageLimit(limit);
+        NoteCursor cursor = NoteCursor.parseRank(after);
+        List<NoteSearchHit> hits = noteSearchIndex.isReady()
+            ? noteSearchIndex.search(query.trim(), limit + 1, cursor)
+            : noteRepository.search(query.trim(), limit + 1, cursor);
+        CursorPage<NoteSearchHit> page = toPage(hits, limit, NoteCursor::ofRank);
+        log.info("Найдено {} заметок по запросу '{}' на странице", page.getItems().size(), query);
+        return page;
+    }
+
+    /**
+     * Подсказки заголовков из индекса в памяти. Пока индекс строится, заголовки читаются из БД
+     * с учетом только регистра.
+     */
+    @Override
+    public List<TitleSuggestion> suggestTitles(String prefix, int limit) {
+        log.info("Подсказки заголовков по префиксу '{}', limit = {}", prefix, limit);
+        if (prefix == null || prefix.isBlank() || prefix.length() > MAX_TITLE_LENGTH) {
+            throw new BadRequestException("Префикс заголовка должен быть непустым и не длиннее "
+                + MAX_TITLE_LENGTH + " символов");
+        }
+        if (limit < 1 || limit > noteTitleIndex.getMaxLimit()) {
+            throw new BadRequestException("Количество подсказок должно быть от 1 до " + noteTitleIndex.getMaxLimit());
+        }
+        List<TitleSuggestion> suggestions = noteTitleIndex.isReady()
+            ? noteTitleIndex.suggest(prefix, limit)
+            : noteRepository.findTitlesByPrefix(prefix.stripLeading(), limit);
+        log.info("Найдено {} подсказок заголовков по префиксу '{}'", suggestions.size(), prefix);
+        return suggestions;
+    }
+
     /**
      * Сохранение или обновление заметки.
-     * При сохранении заметки удаляется кэш для этой заметки, чтобы избежать использования устаревших данных.
+     * При сохранении заметки удаляется кэш для этой заметки и кэши страниц, чтобы избежать использования
+     * устаревших данных.
      */
     @Override
-    @CacheEvict(value = "notes", key = "#note.id")
+    @Caching(evict = {
+        @CacheEvict(value = "notes", key = "#note.id"),
+        @CacheEvict(value = "notePages", allEntries = true),
+        @CacheEvict(value = "noteSummaries", allEntries = true),
+        @CacheEvict(value = "noteVersions", allEntries = true)
+    })
     public Note save(Note note) {
         log.info("Сохранение заметки: {}", note);
         Note savedNote = noteRepository.save(note);
+        noteDayBuckets.evictNotes(List.of(savedNote));
+        eventPublisher.publishEvent(NoteChangedEvent.saved(List.of(savedNote)));
         log.info("Заметка сохранена: {}", savedNote);
         return savedNote;
     }
 
+    /**
+     * Пакетное сохранение новых заметок.
+     * Заметки проверяются до обращения к БД, чтобы одна некорректная заметка не откатывала весь пакет.
+     * Кэш страниц сбрасывается.
+     */
+    @Override
+    @Caching(evict = {
+        @CacheEvict(value = "notePages", allEntries = true),
+        @CacheEvict(value = "noteSummaries", allEntries = true),
+        @CacheEvict(value = "noteVersions", key = "'all'")
+    })
+    public List<Note> saveAll(List<Note> notes) {
+        log.info("Пакетное сохранение {} заметок", notes == null ? 0 : notes.size());
+        if (notes == null || notes.isEmpty() || notes.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Количество заметок в пакете должно быть от 1 до " + MAX_BATCH_SIZE);
+        }
+        for (int i = 0; i < notes.size(); i++) {
+            Note note = notes.get(i);
+            if (!isValid(note)) {
+                throw new BadRequestException("Некорректная заметка в пакете на позиции " + i);
+            }
+            note.setId(null);
+        }
+        List<Note> savedNotes = noteRepository.saveAll(notes);
+        noteDayBuckets.evictNotes(savedNotes);
+        eventPublisher.publishEvent(NoteChangedEvent.saved(savedNotes));
+        log.info("Сохранено {} заметок", savedNotes.size());
+        return savedNotes;
+    }
+
     /**
      * Обновление заметки по ID.
-     * Кэш обновляется только для этой заметки после успешного обновления.
+     * Кэш обновляется для этой заметки после успешного обновления, кэш страниц сбрасывается.
+     * При отложенной записи заметка сохраняется в буфер, а в БД записывается позже
+     * вместе с другими изменениями ({@link NoteWriteBehindBuffer}).
+     * Новая версия заметки добавляется в историю версий ({@link NoteRevisionService}),
+     * при отложенной записи - когда буфер записывается в БД.
      */
     @Override
-    @CachePut(value = "notes", key = "#noteId")
+    @Caching(
+        put = @CachePut(value = "notes", key = "#noteId"),
+        evict = {
+            @CacheEvict(value = "notePages", allEntries = true),
+            @CacheEvict(value = "noteSummaries", allEntries = true),
+            @CacheEvict(value = "noteVersions", key = "#noteId"),
+            @CacheEvict(value = "noteVersions", key = "'all'")
+        }
+    )
     public Optional<Note> update(Long noteId, Note updatedNote) {
         log.info("Обновление заметки с ID: {}", noteId);
 
-        Optional<Note> existingNote = noteRepository.findById(noteId);
+        Optional<Note> existingNote = writeBehindBuffer.find(noteId).or(() -> noteRepository.findById(noteId));
         if (existingNote.isEmpty()) {
             log.warn("Заметка с ID {} не найдена для обновления", noteId);
             throw new NotFoundException("Заметка с ID " + noteId + " не найдена");
         }
 
         updatedNote.setId(noteId);
+        if (writeBehindBuffer.isEnabled()) {
+            // Ошибка записи в БД проявится уже после ответа, поэтому заметка проверяется заранее
+            if (!isValid(updatedNote)) {
+                throw new BadRequestException("Заголовок должен быть непустым и не длиннее "
+                    + MAX_TITLE_LENGTH + " символов, содержимое обязательно");
+            }
+            updatedNote.setCreatedAt(existingNote.get().getCreatedAt());
+            // Точность PostgreSQL: версия заметки из буфера совпадет с записанной в БД
+            updatedNote.setUpdatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+            // Версия добавляется в историю при записи буфера, одна на серию автосохранений
+            writeBehindBuffer.put(existingNote.get(), updatedNote);
+            noteDayBuckets.evictNotes(List.of(updatedNote));
+            eventPublisher.publishEvent(NoteChangedEvent.saved(List.of(updatedNote)));
+            log.info("Изменение заметки с ID {} поставлено в очередь записи", noteId);
+            return Optional.of(updatedNote);
+        }
         Note savedNote = noteRepository.save(updatedNote);
+        noteRevisionService.record(existingNote.get(), savedNote);
+        noteDayBuckets.evictNotes(List.of(existingNote.get()));
+        eventPublisher.publishEvent(NoteChangedEvent.saved(List.of(savedNote)));
         log.info("Заметка обновлена: {}", savedNote);
         return Optional.of(savedNote);
     }
 
+    /**
+     * Частичное изменение заметки по ID.
+     * Правки применяются к текущему содержимому, если его версия совпадает с переданным ETag.
+     * Заметка записывается условным UPDATE по времени изменения, поэтому параллельное изменение
+     * между чтением и записью тоже обнаруживается. Кэши обновляются так же, как при {@link #update}.
+     */
+    @Override
+    @Caching(
+        put = @CachePut(value = "notes", key = "#noteId"),
+        evict = {
+            @CacheEvict(value = "notePages", allEntries = true),
+            @CacheEvict(value = "noteSummaries", allEntries = true),
+            @CacheEvict(value = "noteVersions", key = "#noteId"),
+            @CacheEvict(value = "noteVersions", key = "'all'")
+        }
+    )
+    public Optional<Note> patch(Long noteId, String eTag, NotePatch patch) {
+        log.info("Частичное изменение заметки с ID {}, ETag = {}", noteId, eTag);
+        if (patch == null || patch.getEdits() == null || patch.getEdits().size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Количество правок должно быть от 0 до " + MAX_BATCH_SIZE);
+        }
+
+        Note existingNote = writeBehindBuffer.find(noteId).or(() -> noteRepository.findById(noteId))
+            .orElseThrow(() -> {
+                log.warn("Заметка с ID {} не найдена для изменения", noteId);
+                return new NotFoundException("Заметка с ID " + noteId + " не найдена");
+            });
+        // Версия строится так же, как в findVersion: заметка без изменений версионируется временем создания
+        LocalDateTime version = existingNote.getUpdatedAt() == null
+            ? existingNote.getCreatedAt() : existingNote.getUpdatedAt();
+        if (!new NoteVersion(version, 1L).eTag().equals(eTag)) {
+            log.warn("Заметка с ID {} изменена после версии {}", noteId, eTag);
+            throw new PreconditionFailedException("Заметка с ID " + noteId + " изменена после версии " + eTag);
+        }
+
+        Note patchedNote = new Note(noteId,
+            patch.getTitle() == null ? existingNote.getTitle() : patch.getTitle(),
+            TextPatch.apply(existingNote.getContent(), patch.getEdits()),
+            existingNote.getCreatedAt(),
+            LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        if (!isValid(patchedNote)) {
+            throw new BadRequestException("Заголовок должен быть непустым и не длиннее "
+                + MAX_TITLE_LENGTH + " символов");
+        }
+        boolean written = writeBehindBuffer.isEnabled()
+            ? writeBehindBuffer.replace(existingNote, patchedNote)
+            : noteRepository.updateIfUnchanged(patchedNote, existingNote.getUpdatedAt());
+        if (!written) {
+            log.warn("Заметка с ID {} изменена параллельно", noteId);
+            throw new PreconditionFailedException("Заметка с ID " + noteId + " изменена после версии " + eTag);
+        }
+        if (!writeBehindBuffer.isEnabled()) {
+            noteRevisionService.record(existingNote, patchedNote);
+        }
+        noteDayBuckets.evictNotes(List.of(patchedNote));
+        eventPublisher.publishEvent(NoteChangedEvent.saved(List.of(patchedNote)));
+        log.info("Заметка изменена: {}", patchedNote);
+        return Optional.of(patchedNote);
+    }
+
     /**
      * Удалить заметку по ID.
-     * Удаляется кэш для этой заметки, если она была успешно удалена.
+     * Удаляется кэш для этой заметки и кэш страниц, если она была успешно удалена.
      */
     @Override
-    @CacheEvict(value = "notes", key = "#noteId")
+    @Caching(evict = {
+        @CacheEvict(value = "notes", key = "#noteId"),
+        @CacheEvict(value = "notePages", allEntries = true),
+        @CacheEvict(value = "noteSummaries", allEntries = true),
+        @CacheEvict(value = "noteVersions", key = "#noteId"),
+        @CacheEvict(value = "noteVersions", key = "'all'")
+    })
     public void deleteById(Long noteId) {
         log.info("Удаление заметки с ID: {}", noteId);
-        if (noteRepository.findById(noteId).isEmpty()) {
+        Optional<Note> note = noteRepository.findById(noteId);
+        if (note.isEmpty()) {
             log.warn("Ошибка: заметка с ID {} не найдена, удаление невозможно", noteId);
             throw new NotFoundException("Заметка с ID " + noteId + " не найдена");
         }
         noteRepository.deleteById(noteId);
+        writeBehindBuffer.discard(List.of(noteId));
+        noteDayBuckets.evictNotes(List.of(note.get()));
+        eventPublisher.publishEvent(NoteChangedEvent.deleted(List.of(noteId)));
         log.info("Заметка с ID {} успешно удалена", noteId);
     }
+
+    /**
+     * Массовое удаление заметок по списку ID одним запросом.
+     * Затронутые записи кэша удаляются одной командой.
+     */
+    @Override
+    public int deleteByIds(List<Long> noteIds) {
+        log.info("Массовое удаление заметок, количество ID: {}", noteIds == null ? 0 : noteIds.size());
+        checkBulkIds(noteIds);
+        int deleted = noteRepository.deleteByIds(noteIds);
+        writeBehindBuffer.discard(noteIds);
+        noteCacheEvictor.evictNotes(noteIds);
+        // Даты создания удаленных заметок неизвестны
+        noteDayBuckets.clear();
+        eventPublisher.publishEvent(NoteChangedEvent.deleted(noteIds));
+        log.info("Удалено {} заметок", deleted);
+        return deleted;
+    }
+
+    /**
+     * Массовое удаление заметок, созданных в указанный период.
+     * Затронутые записи кэша удаляются одной командой.
+     */
+    @Override
+    public int deleteByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        log.info("Массовое удаление заметок, созданных с {} по {}", startDate, endDate);
+        if (startDate.isAfter(endDate)) {
+            throw new BadRequestException("Начальная дата периода позже конечной");
+        }
+        List<Long> deletedIds = noteRepository.deleteByCreatedAtBetween(startDate, endDate);
+        writeBehindBuffer.discard(deletedIds);
+        noteCacheEvictor.evictNotes(deletedIds);
+        noteDayBuckets.evictBetween(startDate, endDate);
+        eventPublisher.publishEvent(NoteChangedEvent.deleted(deletedIds));
+        log.info("Удалено {} заметок", deletedIds.size());
+        return deletedIds.size();
+    }
+
+    /**
+     * Массовое изменение заголовка заметок одним запросом.
+     * Затронутые записи кэша удаляются одной командой.
+     */
+    @Override
+    public int updateTitle(List<Long> noteIds, String title) {
+        log.info("Массовое изменение заголовка на '{}', количество ID: {}", title,
+            noteIds == null ? 0 : noteIds.size());
+        checkBulkIds(noteIds);
+        if (title == null || title.isBlank() || title.length() > MAX_TITLE_LENGTH) {
+            throw new BadRequestException("Заголовок должен быть непустым и не длиннее " + MAX_TITLE_LENGTH + " символов");
+        }
+        // Накопленные изменения записываются раньше, иначе они перезапишут новый заголовок
+        writeBehindBuffer.flush();
+        int updated = noteRepository.updateTitle(noteIds, title);
+        noteCacheEvictor.evictNotes(noteIds);
+        noteDayBuckets.clear();
+        eventPublisher.publishEvent(NoteChangedEvent.modified(noteIds));
+        log.info("Обновлено {} заметок", updated);
+        return updated;
+    }
+
+    /**
+     * Проверить обязательные поля заметки и длину заголовка.
+     */
+    private static boolean isValid(Note note) {
+        return note != null && note.getTitle() != null && !note.getTitle().isBlank()
+            && note.getTitle().length() <= MAX_TITLE_LENGTH && note.getContent() != null;
+    }
+
+    /**
+     * Проверить список ID для массовой операции.
+     */
+    private void checkBulkIds(List<Long> noteIds) {
+        if (noteIds == null || noteIds.isEmpty() || noteIds.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Количество ID должно быть от 1 до " + MAX_BATCH_SIZE);
+        }
+        if (noteIds.stream().anyMatch(Objects::isNull)) {
+            throw new BadRequestException("Список ID не должен содержать пустых значений");
+        }
+    }
+
+    /**
+     * Проверить допустимость размера страницы.
+     */
+    private void checkPageLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new BadRequestException("Размер страницы должен быть от 1 до " + MAX_PAGE_LIMIT);
+        }
+    }
+
+    /**
+     * Сформировать страницу из выборки размером до limit + 1 элементов.
+     * Наличие лишнего элемента означает, что есть следующая страница.
+     */
+    private <T> CursorPage<T> toPage(List<T> rows, int limit, Function<T, String> cursor) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(new ArrayList<>(rows), null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, limit));
+        return new CursorPage<>(items, cursor.apply(items.get(limit - 1)));
+    }
 }
@@ -0,0 +1,276 @@
+package inote.service.impl;
+
+import inote.cache.NoteCacheEvictor;
+import inote.config.PersistenceProperties;
+import inote.config.WriteBehindProperties;
+import inote.entity.Note;
+import inote.repository.NoteRepository;
+import inote.service.NoteRevisionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Буфер отложенной записи изменений заметок (write-behind).
+ *
+ * Для каждой заметки хранится только последнее изменение, поэтому серия автосохранений
+ * одной заметки между записями превращается в один UPDATE. Изменения записываются в БД
+ * пакетами по {@link PersistenceProperties#getBatchSize()} в отдельных транзакциях:
+ * по расписанию раз в {@link WriteBehindProperties#getMaxDelay()}, немедленно при достижении
+ * {@link WriteBehindProperties#getMaxPending()} заметок и при остановке приложения.
+ *
+ * Заметка удаляется из буфера только после записи в БД и только если за время записи
+ * не пришло более новое изменение. При ошибке записи изменения остаются в буфере
+ * и повторяются при следующей записи.
+ *
+ * Вместе с изменением хранится версия заметки до первого незаписанного изменения. После записи
+ * в историю версий ({@link NoteRevisionService}) добавляется одна версия на каждую записанную заметку,
+ * а не на каждое автосохранение.
+ *
+ * @author Avdeyev Viktor
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+public class NoteWriteBehindBuffer {
+
+    private final NoteRepository noteRepository;
+
+    private final NoteCacheEvictor noteCacheEvictor;
+
+    private final NoteDayBuckets noteDayBuckets;
+
+    private final NoteRevisionService noteRevisionService;
+
+    private final WriteBehindProperties properties;
+
+    private final int batchSize;
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Counter accepted;
+
+    private final Counter written;
+
+    private ScheduledExecutorService scheduler;
+
+    public NoteWriteBehindBuffer(NoteRepository noteRepository, NoteCacheEvictor noteCacheEvictor,
+                                 NoteDayBuckets noteDayBuckets, NoteRevisionService noteRevisionService,
+                                 WriteBehindProperties properties, PersistenceProperties persistenceProperties,
+                                 MeterRegistry registry) {
+        this.noteRepository = noteRepository;
+        this.noteCacheEvictor = noteCacheEvictor;
+        this.noteDayBuckets = noteDayBuckets;
+        this.noteRevisionService = noteRevisionService;
+        this.properties = properties;
+        this.batchSize = persistenceProperties.getBatchSize();
+        this.accepted = registry.counter("inote.writebehind.updates");
+        this.written = registry.counter("inote.writebehind.writes");
+        registry.gaugeMapSize("inote.writebehind.pending", List.of(), pending);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long delay = properties.getMaxDelay().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "note-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, delay, delay, TimeUnit.MILLISECONDS);
+        log.info("Отложенная запись изменений заметок включена, maxDelay = {}, maxPending = {}",
+            properties.getMaxDelay(), properties.getMaxPending());
+    }
+
+    /**
+     * Записать оставшиеся изменения при остановке приложения.
+     * Бин уничтожается раньше репозитория и пула соединений, от которых он зависит.
+     */
+    @PreDestroy
+    public void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        log.info("Остановка отложенной записи, незаписанных заметок: {}", pending.size());
+        flush();
+        if (!pending.isEmpty()) {
+            log.error("При остановке не записаны изменения {} заметок: {}", pending.size(), pending.keySet());
+        }
+    }
+
+    /**
+     * Включена ли отложенная запись.
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Поставить изменение заметки в очередь записи, заменив предыдущее незаписанное изменение.
+     *
+     * @param previous версия заметки, к которой применено изменение: из буфера или из БД
+     * @param note     заметка с ID и всеми полями
+     */
+    public void put(Note previous, Note note) {
+        pending.compute(note.getId(), (id, current) -> new Pending(current == null ? previous : current.base, note));
+        onAccepted();
+    }
+
+    /**
+     * Поставить изменение заметки в очередь записи, если ее версия не изменилась с момента чтения.
+     *
+     * Если заметки нет в буфере, версия сверяется с БД: изменение записывается сразу условным UPDATE
+     * по времени изменения, как при выключенной отложенной записи. Иначе изменение, прочитанное
+     * до записи буфера в БД, могло бы затереть более новую версию.
+     *
+     * @param current прочитанная версия заметки: из буфера или из БД, если в буфере ее не было
+     * @param note    заметка с ID и всеми полями
+     * @return true, если изменение принято, false, если заметка уже изменена и ее нужно прочитать заново
+     */
+    public boolean replace(Note current, Note note) {
+        boolean[] buffered = new boolean[1];
+        boolean[] replaced = new boolean[1];
+        pending.computeIfPresent(note.getId(), (id, existing) -> {
+            buffered[0] = true;
+            if (existing.note.equals(current)) {
+                replaced[0] = true;
+                return new Pending(existing.base, note);
+            }
+            return existing;
+        });
+        if (!buffered[0]) {
+            if (!noteRepository.updateIfUnchanged(note, current.getUpdatedAt())) {
+                return false;
+            }
+            noteRevisionService.record(current, note);
+            return true;
+        }
+        if (replaced[0]) {
+            onAccepted();
+        }
+        return replaced[0];
+    }
+
+    /**
+     * Незаписанное изменение заметки.
+     *
+     * @param noteId ID заметки
+     * @return последняя версия заметки или empty, если в буфере ее нет
+     */
+    public Optional<Note> find(Long noteId) {
+        return Optional.ofNullable(pending.get(noteId)).map(Pending::note);
+    }
+
+    /**
+     * Отбросить незаписанные изменения удаленных заметок.
+     *
+     * @param noteIds ID заметок
+     */
+    public void discard(Collection<Long> noteIds) {
+        noteIds.forEach(pending::remove);
+    }
+
+    /**
+     * Записать все накопленные изменения в БД.
+     *
+     * @return количество записанных заметок
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            List<Pending> changes = new ArrayList<>(pending.values());
+            List<Note> flushed = new ArrayList<>(changes.size());
+            try {
+                for (int from = 0; from < changes.size(); from += batchSize) {
+                    List<Pending> batch = changes.subList(from, Math.min(from + batchSize, changes.size()));
+                    noteRepository.updateAll(batch.stream().map(Pending::note).toList());
+                    for (Pending change : batch) {
+                        onWritten(change);
+                        flushed.add(change.note);
+                    }
+                    written.increment(batch.size());
+                }
+            } catch (RuntimeException e) {
+                log.error("Ошибка отложенной записи, {} заметок будут записаны повторно", pending.size(), e);
+            }
+            if (!flushed.isEmpty()) {
+                noteCacheEvictor.evictCollectionViews();
+                noteDayBuckets.evictNotes(flushed);
+                log.info("Записано изменений заметок: {}", flushed.size());
+            }
+            return flushed.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Убрать записанное изменение из буфера и добавить версию в историю. Если за время записи пришло
+     * более новое изменение, оно остается в буфере, а его исходной версией становится записанная.
+     */
+    private void onWritten(Pending change) {
+        Long noteId = change.note.getId();
+        if (!pending.remove(noteId, change)) {
+            pending.computeIfPresent(noteId, (id, newer) -> new Pending(change.note, newer.note));
+        }
+        try {
+            noteRevisionService.record(change.base, change.note);
+        } catch (RuntimeException e) {
+            log.error("Ошибка записи версии заметки с ID {}", noteId, e);
+        }
+    }
+
+    /**
+     * Учесть принятое изменение и записать буфер, если он заполнен.
+     */
+    private void onAccepted() {
+        accepted.increment();
+        if (pending.size() >= properties.getMaxPending()) {
+            log.info("Незаписанных заметок {}, запись в потоке запроса", pending.size());
+            flush();
+        }
+    }
+
+    /**
+     * Незаписанное изменение заметки и ее версия до первого незаписанного изменения.
+     */
+    private static final class Pending {
+
+        private final Note base;
+
+        private final Note note;
+
+        private Pending(Note base, Note note) {
+            this.base = base;
+            this.note = note;
+        }
+
+        private Note note() {
+            return note;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package inote.service.impl;
+
+import inote.cache.NoteCacheEvictor;
+import inote.cache.ReactiveNoteCache;
+import inote.dto.NoteVersion;
+import inote.entity.Note;
+import inote.exception.BadRequestException;
+import inote.exception.NotFoundException;
+import inote.repository.ReactiveNoteRepository;
+import inote.service.ReactiveNoteService;
+import inote.util.NoteCursor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Реализация {@link ReactiveNoteService}.
+ *
+ * Кэширует те же данные и под теми же ключами, что и {@link NoteServiceImpl}: заметку по ID
+ * в виде Optional, список заметок по заголовку и версию заметки. При изменении заметок
+ * сбрасываются те же записи и кэши страниц, что и в {@link NoteServiceImpl}.
+ *
+ * @author Avdeyev Viktor
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveNoteServiceImpl implements ReactiveNoteService {
+
+    private final ReactiveNoteRepository noteRepository;
+
+    private final ReactiveNoteCache noteCache;
+
+    /**
+     * Потоковое получение заметок.
+     * Кэширование не используется: заметки передаются клиенту по мере чтения из БД.
+     */
+    @Override
+    public Flux<Note> findAll(String after, Integer limit) {
+        log.info("Запрос потока заметок после курсора '{}', limit = {}", after, limit);
+        if (limit != null && limit < 1) {
+            return Flux.error(new BadRequestException("Количество заметок должно быть положительным"));
+        }
+        Long afterId;
+        try {
+            afterId = NoteCursor.parseId(after);
+        } catch (BadRequestException e) {
+            return Flux.error(e);
+        }
+        return noteRepository.findAll(afterId, limit);
+    }
+
+    /**
+     * Найти заметку по ID.
+     * Результат кэшируется в кэше notes по ID.
+     */
+    @Override
+    public Mono<Note> findById(Long noteId) {
+        log.info("Поиск заметки по ID: {}", noteId);
+        return noteCache.get(NoteCacheEvictor.NOTES_CACHE, noteId)
+            .mapNotNull(ReactiveNoteServiceImpl::unwrap)
+            .switchIfEmpty(Mono.defer(() -> noteRepository.findById(noteId)
+                .flatMap(note -> noteCache.put(NoteCacheEvictor.NOTES_CACHE, noteId, Optional.of(note))
+                    .thenReturn(note))))
+            .switchIfEmpty(Mono.defer(() -> {
+                log.warn("Заметка с ID {} не найдена", noteId);
+                return Mono.error(new NotFoundException("Заметка с ID " + noteId + " не найдена"));
+            }));
+    }
+
+    /**
+     * Получить версию заметки для условного GET-запроса.
+     * Кэшируется в кэше noteVersions по ID.
+     */
+    @Override
+    public Mono<NoteVersion> findVersion(Long noteId) {
+        log.info("Запрос версии заметки с ID: {}", noteId);
+        return noteCache.get(NoteCacheEvictor.NOTE_VERSIONS_CACHE, noteId)
+            .cast(NoteVersion.class)
+            .switchIfEmpty(Mono.defer(() -> noteRepository.findUpdatedAtById(noteId)
+                .map(updatedAt -> new NoteVersion(updatedAt, 1L))
+                .flatMap(version -> noteCache.put(NoteCacheEvictor.NOTE_VERSIONS_CACHE, noteId, version)
+                    .thenReturn(version))))
+            .switchIfEmpty(Mono.defer(() -> {
+                log.warn("Заметка с ID {} не найдена", noteId);
+                return Mono.error(new NotFoundException("Заметка с ID " + noteId + " не найдена"));
+            }));
+    }
+
+    /**
+     * Поиск заметок по заголовку.
+     * Список заметок кэшируется в кэше notes с заголовком в качестве ключа.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Flux<Note> findByTitle(String title) {
+        log.info("Поиск заметок с заголовком: '{}'", title);
+        return noteCache.get(NoteCacheEvictor.NOTES_CACHE, title)
+            .map(cached -> (List<Note>) cached)
+            .switchIfEmpty(Mono.defer(() -> noteRepository.findByTitle(title)
+                .collectList()
+                .filter(notes -> !notes.isEmpty())
+                .flatMap(notes -> noteCache.put(NoteCacheEvictor.NOTES_CACHE, title, notes).thenReturn(notes))))
+            .switchIfEmpty(Mono.defer(() -> {
+                log.warn("Заметки с заголовком '{}' не найдены", title);
+                return Mono.error(new NotFoundException("Заметки с заголовком '" + title + "' не найдены"));
+            }))
+            .flatMapIterable(notes -> notes);
+    }
+
+    /**
+     * Сохранение новой заметки.
+     * Сбрасываются версия набора заметок, список заметок с ее заголовком и кэши страниц.
+     */
+    @Override
+    public Mono<Note> save(Note note) {
+        log.info("Сохранение заметки: {}", note);
+        note.setId(null);
+        return noteRepository.insert(note)
+            .flatMap(saved -> evictChanged(saved.getId(), saved).thenReturn(saved))
+            .doOnNext(saved -> log.info("Заметка сохранена: {}", saved));
+    }
+
+    /**
+     * Обновление заметки по ID.
+     * Кэш обновляется для этой заметки, остальные затронутые записи и кэши страниц сбрасываются.
+     */
+    @Override
+    public Mono<Note> update(Long noteId, Note updatedNote) {
+        log.info("Обновление заметки с ID: {}", noteId);
+        updatedNote.setId(noteId);
+        return noteRepository.findById(noteId)
+            .switchIfEmpty(Mono.defer(() -> {
+                log.warn("Заметка с ID {} не найдена для обновления", noteId);
+                return Mono.error(new NotFoundException("Заметка с ID " + noteId + " не найдена"));
+            }))
+            .flatMap(existing -> noteRepository.update(updatedNote)
+                .flatMap(saved -> evictChanged(noteId, existing, saved)
+                    .then(noteCache.put(NoteCacheEvictor.NOTES_CACHE, noteId, Optional.of(saved)))
+                    .thenReturn(saved)))
+            .doOnNext(saved -> log.info("Заметка обновлена: {}", saved));
+    }
+
+    /**
+     * Удалить заметку по ID.
+     * Удаляется кэш для этой заметки, затронутые записи и кэши страниц.
+     */
+    @Override
+    public Mono<Void> deleteById(Long noteId) {
+        log.info("Удаление заметки с ID: {}", noteId);
+        return noteRepository.findById(noteId)
+            .switchIfEmpty(Mono.defer(() -> {
+                log.warn("Ошибка: заметка с ID {} не найдена, удаление невозможно", noteId);
+                return Mono.error(new NotFoundException("Заметка с ID " + noteId + " не найдена"));
+            }))
+            .flatMap(existing -> noteRepository.deleteById(noteId)
+                .then(evictChanged(noteId, existing)))
+            .doOnSuccess(done -> log.info("Заметка с ID {} успешно удалена", noteId));
+    }
+
+    /**
+     * Сбросить записи кэша, затронутые изменением заметки: в том числе списки по заголовкам
+     * и заметки дней создания старой и новой версии заметки.
+     * Обращения к кэшу выполняются параллельно.
+     */
+    private Mono<Void> evictChanged(Long noteId, Note... notes) {
+        return Mono.when(
+            noteCache.evict(NoteCacheEvictor.NOTES_CACHE, noteId),
+            noteCache.evict(NoteCacheEvictor.NOTES_CACHE, NoteCacheEvictor.ALL_NOTES_KEY),
+            Flux.fromArray(notes).mapNotNull(Note::getTitle).distinct()
+                .flatMap(title -> noteCache.evict(NoteCacheEvictor.NOTES_CACHE, title)),
+            Flux.fromArray(notes).mapNotNull(Note::getCreatedAt).map(LocalDateTime::toLocalDate).distinct()
+                .flatMap(day -> noteCache.evict(NoteCacheEvictor.NOTES_BY_DAY_CACHE, day)),
+            noteCache.evict(NoteCacheEvictor.NOTE_VERSIONS_CACHE, noteId),
+            noteCache.evict(NoteCacheEvictor.NOTE_VERSIONS_CACHE, NoteCacheEvictor.COLLECTION_VERSION_KEY),
+            noteCache.clear(NoteCacheEvictor.NOTE_PAGES_CACHE),
+            noteCache.clear(NoteCacheEvictor.NOTE_SUMMARIES_CACHE));
+    }
+
+    /**
+     * Заметка из записи кэша notes по ID: {@link NoteServiceImpl} хранит ее в виде Optional.
+     */
+    private static Note unwrap(Object cached) {
+        return cached instanceof Optional<?> optional ? (Note) optional.orElse(null) : (Note) cached;
+    }
+}
@@ -2,8 +2,11 @@ package inote.util;
 
 import inote.exception.BadRequestException;
 import inote.exception.NotFoundException;
+import inote.exception.PreconditionFailedException;
+import inote.exception.ServiceUnavailableException;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -12,6 +15,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ServerWebInputException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -34,6 +38,7 @@ public class GlobalExceptionHandler {
         MethodArgumentTypeMismatchException.class,
         HttpMessageNotReadableException.class,
         ConstraintViolationException.class,
+        ServerWebInputException.class,
         IllegalArgumentException.class})
     public ResponseEntity<Map<String, Object>> handleBadRequestException(Exception ex) {
         log.error("Bad Request: {}", ex.getMessage());
@@ -50,6 +55,30 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
+    /**
+     * Обрабатывает исключения 412 PRECONDITION FAILED.
+     */
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Map<String, Object>> handlePreconditionFailedException(PreconditionFailedException ex) {
+        log.error("Precondition Failed: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+    }
+
+    /**
+     * Обрабатывает исключения 503 SERVICE UNAVAILABLE: запрос отклонен при перегрузке,
+     * заголовок Retry-After содержит, через сколько секунд повторить запрос.
+     * При перегрузке таких запросов много, поэтому они журналируются на уровне DEBUG.
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        log.debug("Service Unavailable: {}", ex.getMessage());
+        long retryAfter = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+            .body(buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()).getBody());
+    }
+
     /**
      * Обрабатывает исключения 500 INTERNAL SERVER ERROR.
      */
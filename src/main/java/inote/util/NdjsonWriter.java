@@ -0,0 +1,71 @@
+package inote.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Построчная запись объектов в формате NDJSON (один JSON-документ на строку).
+ *
+ * Первая строка и далее каждая {@link #FLUSH_INTERVAL}-я сразу сбрасываются в выходной поток,
+ * чтобы клиент начинал получать данные до окончания выгрузки.
+ *
+ * @author Avdeyev Viktor
+ */
+public class NdjsonWriter {
+
+    /**
+     * Количество строк между принудительными сбросами буфера.
+     */
+    static final int FLUSH_INTERVAL = 1000;
+
+    private final ObjectMapper objectMapper;
+
+    private final OutputStream out;
+
+    private long lines;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream out) {
+        this.objectMapper = objectMapper;
+        this.out = out;
+    }
+
+    /**
+     * Записать объект отдельной строкой.
+     *
+     * @param value объект для записи
+     */
+    public void write(Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+            if (lines++ % FLUSH_INTERVAL == 0) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Завершить запись: сбросить буфер и, для gzip, дописать концевик архива.
+     *
+     * @throws IOException при ошибке записи
+     */
+    public void finish() throws IOException {
+        if (out instanceof GZIPOutputStream gzip) {
+            gzip.finish();
+        }
+        out.flush();
+    }
+
+    /**
+     * @return количество записанных строк
+     */
+    public long getLines() {
+        return lines;
+    }
+}
@@ -0,0 +1,132 @@
+package inote.util;
+
+import inote.dto.NoteSearchHit;
+import inote.dto.NoteSummary;
+import inote.entity.Note;
+import inote.exception.BadRequestException;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Курсор keyset-пагинации заметок.
+ *
+ * Поддерживаются три формата: "id" для выборок, упорядоченных по ID,
+ * "createdAt,id" для выборок, упорядоченных по дате создания,
+ * и "rank,id" для результатов поиска, упорядоченных по релевантности.
+ *
+ * @author Avdeyev Viktor
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class NoteCursor {
+
+    private static final String SEPARATOR = ",";
+
+    /**
+     * Дата создания последней заметки предыдущей страницы.
+     * Заполнена только для курсора формата "createdAt,id".
+     */
+    private final LocalDateTime createdAt;
+
+    /**
+     * Релевантность последнего результата поиска предыдущей страницы.
+     * Заполнена только для курсора формата "rank,id".
+     */
+    private final Double rank;
+
+    /**
+     * ID последней заметки предыдущей страницы.
+     */
+    private final Long id;
+
+    /**
+     * Разобрать курсор формата "id".
+     *
+     * @param value значение курсора, может быть null
+     * @return ID, после которого начинается страница, или null для первой страницы
+     */
+    public static Long parseId(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Некорректный курсор: " + value);
+        }
+    }
+
+    /**
+     * Разобрать курсор формата "createdAt,id".
+     *
+     * @param value значение курсора, может быть null
+     * @return курсор или null для первой страницы
+     */
+    public static NoteCursor parseCreatedAt(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String[] parts = value.trim().split(SEPARATOR);
+        if (parts.length != 2) {
+            throw new BadRequestException("Некорректный курсор: " + value);
+        }
+        try {
+            return new NoteCursor(LocalDateTime.parse(parts[0]), null, Long.parseLong(parts[1]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new BadRequestException("Некорректный курсор: " + value);
+        }
+    }
+
+    /**
+     * Разобрать курсор формата "rank,id".
+     *
+     * @param value значение курсора, может быть null
+     * @return курсор или null для первой страницы
+     */
+    public static NoteCursor parseRank(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String[] parts = value.trim().split(SEPARATOR);
+        if (parts.length != 2) {
+            throw new BadRequestException("Некорректный курсор: " + value);
+        }
+        try {
+            return new NoteCursor(null, Double.parseDouble(parts[0]), Long.parseLong(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Некорректный курсор: " + value);
+        }
+    }
+
+    /**
+     * Сформировать курсор формата "id" по последней заметке страницы.
+     */
+    public static String ofId(Note note) {
+        return String.valueOf(note.getId());
+    }
+
+    /**
+     * Сформировать курсор формата "id" по последней заметке страницы кратких представлений.
+     */
+    public static String ofId(NoteSummary summary) {
+        return String.valueOf(summary.getId());
+    }
+
+    /**
+     * Сформировать курсор формата "createdAt,id" по последней заметке страницы.
+     */
+    public static String ofCreatedAt(Note note) {
+        return note.getCreatedAt() + SEPARATOR + note.getId();
+    }
+
+    /**
+     * Сформировать курсор формата "rank,id" по последнему результату поиска страницы.
+     */
+    public static String ofRank(NoteSearchHit hit) {
+        return hit.getRank() + SEPARATOR + hit.getId();
+    }
+}
@@ -0,0 +1,66 @@
+package inote.util;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Формирование фрагментов содержимого заметок с подсвеченными совпадениями
+ * для поиска, выполняемого без средств СУБД.
+ *
+ * @author Avdeyev Viktor
+ */
+public final class Snippets {
+
+    /**
+     * Количество символов содержимого вокруг совпадения, попадающих во фрагмент.
+     */
+    private static final int SNIPPET_RADIUS = 60;
+
+    private Snippets() {
+    }
+
+    /**
+     * Вырезать из содержимого фрагмент вокруг первого совпадения и выделить в нем слова запроса.
+     *
+     * @param content содержимое заметки
+     * @param terms   слова запроса в нижнем регистре
+     * @return фрагмент, в котором совпадения выделены тегами &lt;b&gt;...&lt;/b&gt;
+     */
+    public static String highlight(String content, List<String> terms) {
+        if (content == null) {
+            return "";
+        }
+        String lower = content.toLowerCase(Locale.ROOT);
+        int first = -1;
+        for (String term : terms) {
+            int index = lower.indexOf(term);
+            if (index >= 0 && (first < 0 || index < first)) {
+                first = index;
+            }
+        }
+        int start = first < 0 ? 0 : Math.max(0, first - SNIPPET_RADIUS);
+        int end = Math.min(content.length(), (first < 0 ? 0 : first) + SNIPPET_RADIUS * 2);
+        StringBuilder snippet = new StringBuilder(end - start + 16);
+        int position = start;
+        while (position < end) {
+            int matchStart = -1;
+            int matchLength = 0;
+            for (String term : terms) {
+                int index = lower.indexOf(term, position);
+                if (index >= 0 && index < end && (matchStart < 0 || index < matchStart)) {
+                    matchStart = index;
+                    matchLength = term.length();
+                }
+            }
+            if (matchStart < 0) {
+                snippet.append(content, position, end);
+                break;
+            }
+            int matchEnd = Math.min(end, matchStart + matchLength);
+            snippet.append(content, position, matchStart)
+                .append("<b>").append(content, matchStart, matchEnd).append("</b>");
+            position = matchEnd;
+        }
+        return snippet.toString();
+    }
+}
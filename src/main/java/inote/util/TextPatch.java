@@ -0,0 +1,87 @@
+package inote.util;
+
+import inote.dto.NotePatch;
+import inote.exception.BadRequestException;
+
+import java.util.List;
+
+/**
+ * Применение правок {@link NotePatch.Edit} к содержимому заметки и построение правки
+ * между двумя версиями содержимого.
+ *
+ * Результат собирается за один проход по исходному тексту: неизмененные участки
+ * копируются между правками без промежуточных строк.
+ *
+ * @author Avdeyev Viktor
+ */
+public final class TextPatch {
+
+    private TextPatch() {
+    }
+
+    /**
+     * Применить правки к тексту.
+     *
+     * @param base  исходный текст
+     * @param edits правки по возрастанию позиции, позиции относятся к исходному тексту
+     * @return измененный текст
+     * @throws BadRequestException если правка выходит за границы текста или пересекается с предыдущей
+     */
+    public static String apply(String base, List<NotePatch.Edit> edits) {
+        if (edits.isEmpty()) {
+            return base;
+        }
+        long capacity = base.length();
+        for (NotePatch.Edit edit : edits) {
+            if (edit == null) {
+                throw new BadRequestException("Список правок не должен содержать пустых значений");
+            }
+            capacity += (edit.getInsert() == null ? 0 : edit.getInsert().length()) - edit.getDelete();
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            throw new BadRequestException("Содержимое после правок слишком велико");
+        }
+        StringBuilder result = new StringBuilder((int) Math.max(capacity, 0));
+        int position = 0;
+        for (int i = 0; i < edits.size(); i++) {
+            NotePatch.Edit edit = edits.get(i);
+            int offset = edit.getOffset();
+            int delete = edit.getDelete();
+            if (offset < position || delete < 0 || offset > base.length() - delete) {
+                throw new BadRequestException("Правка на позиции " + i
+                    + " выходит за границы содержимого или пересекается с предыдущей");
+            }
+            result.append(base, position, offset);
+            if (edit.getInsert() != null) {
+                result.append(edit.getInsert());
+            }
+            position = offset + delete;
+        }
+        result.append(base, position, base.length());
+        return result.toString();
+    }
+
+    /**
+     * Построить одну правку, превращающую исходный текст в новый: общие начало и конец
+     * текстов сохраняются, заменяется только участок между ними. Размер правки пропорционален
+     * измененному участку, а не размеру текста.
+     *
+     * @param base    исходный текст
+     * @param changed новый текст
+     * @return правка относительно исходного текста
+     */
+    public static NotePatch.Edit diff(String base, String changed) {
+        int limit = Math.min(base.length(), changed.length());
+        int prefix = 0;
+        while (prefix < limit && base.charAt(prefix) == changed.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < limit - prefix
+            && base.charAt(base.length() - 1 - suffix) == changed.charAt(changed.length() - 1 - suffix)) {
+            suffix++;
+        }
+        return new NotePatch.Edit(prefix, base.length() - prefix - suffix,
+            changed.substring(prefix, changed.length() - suffix));
+    }
+}
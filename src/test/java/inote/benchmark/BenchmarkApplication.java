@@ -0,0 +1,71 @@
+package inote.benchmark;
+
+import inote.INoteApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Запуск приложения для замеров.
+ *
+ * Конфигурации замеров из этого пакета исключаются из сканирования компонентов,
+ * подключаются только явно переданные.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Запустить приложение с тестовым профилем (H2) без веб-сервера и без Docker Compose.
+     * Журнал ограничен предупреждениями, чтобы вывод JMH оставался читаемым.
+     */
+    static ConfigurableApplicationContext runEmbedded(String... args) {
+        List<String> arguments = new ArrayList<>(List.of(
+            "--spring.profiles.active=test",
+            "--spring.main.web-application-type=none",
+            "--spring.main.banner-mode=off",
+            "--spring.docker.compose.enabled=false",
+            "--spring.devtools.restart.enabled=false",
+            "--logging.level.root=WARN"));
+        arguments.addAll(List.of(args));
+        return run(new Class<?>[] {INoteApplication.class}, arguments.toArray(String[]::new));
+    }
+
+    /**
+     * Запустить приложение из указанных источников конфигурации.
+     */
+    static ConfigurableApplicationContext run(Class<?>[] sources, String... args) {
+        SpringApplication application = new SpringApplication(sources);
+        application.addInitializers(context -> context.getBeanFactory()
+            .registerSingleton("benchmarkTypeExcludeFilter", new BenchmarkTypeExcludeFilter()));
+        return application.run(args);
+    }
+
+    /**
+     * Исключает классы замеров из сканирования компонентов приложения.
+     */
+    private static final class BenchmarkTypeExcludeFilter extends TypeExcludeFilter {
+
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            return metadataReader.getClassMetadata().getClassName()
+                .startsWith(BenchmarkApplication.class.getPackageName());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof BenchmarkTypeExcludeFilter;
+        }
+
+        @Override
+        public int hashCode() {
+            return BenchmarkTypeExcludeFilter.class.hashCode();
+        }
+    }
+}
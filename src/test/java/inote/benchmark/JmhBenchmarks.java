@@ -0,0 +1,55 @@
+package inote.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Запуск всех JMH-замеров приложения с выгрузкой результатов в JSON для сравнения между версиями:
+ * сервис с холодным и прогретым кэшем ({@link NoteServiceBenchmark}), запросы репозитория
+ * ({@link NoteRepositoryBenchmark}), JSON-сериализация ({@link NoteJsonBenchmark}),
+ * форматы значений Redis ({@link NoteCacheCodecBenchmark}), журналирование ({@link NoteLoggingBenchmark})
+ * и частичное изменение заметок ({@link NotePatchBenchmark}).
+ *
+ * Не входит в обычный прогон тестов, запускается профилем benchmarks:
+ * {@code mvn test -Pbenchmarks}. Параметры:
+ * -Djmh.include=регулярное выражение для имен замеров (по умолчанию все),
+ * -Djmh.result=путь к файлу JSON (по умолчанию target/jmh/jmh-${project.version}.json),
+ * -Djmh.params=rows=10000 для ограничения значений @Param,
+ * -Djmh.prof=gc для профилировщиков JMH, например выделения памяти на операцию.
+ * Результаты открываются в JMH Visualizer или сравниваются между файлами разных версий.
+ */
+class JmhBenchmarks {
+
+    @Test
+    void run() throws RunnerException, IOException {
+        Path result = Path.of(System.getProperty("jmh.result", "target/jmh/jmh.json"));
+        Files.createDirectories(result.toAbsolutePath().getParent());
+        ChainedOptionsBuilder options = new OptionsBuilder()
+            .include(System.getProperty("jmh.include", JmhBenchmarks.class.getPackageName() + "\\..*"))
+            .resultFormat(ResultFormatType.JSON)
+            .result(result.toString());
+        String profilers = System.getProperty("jmh.prof", "");
+        for (String profiler : profilers.split(",")) {
+            if (!profiler.isBlank()) {
+                options.addProfiler(profiler.trim());
+            }
+        }
+        String params = System.getProperty("jmh.params", "");
+        for (String param : params.split(";")) {
+            if (!param.isBlank()) {
+                String[] nameAndValues = param.split("=", 2);
+                options.param(nameAndValues[0].trim(), nameAndValues[1].split(","));
+            }
+        }
+        new Runner(options.build()).run();
+        System.out.println("JMH results: " + result.toAbsolutePath());
+    }
+}
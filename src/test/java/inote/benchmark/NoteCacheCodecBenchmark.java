@@ -0,0 +1,124 @@
+package inote.benchmark;
+
+import inote.cache.NoteCacheCodec;
+import inote.entity.Note;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-замер записи и чтения значений кэша: двоичный формат {@link NoteCacheCodec}
+ * против JDK-сериализации, для одной заметки и страницы из 50 заметок.
+ *
+ * Не входит в обычный прогон тестов, запускается отдельно:
+ * {@code mvn test -Dtest=NoteCacheCodecBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteCacheCodecBenchmark {
+
+    @Param({"binary", "jdk"})
+    public String codec;
+
+    private RedisSerializer<Object> serializer;
+
+    private Note note;
+
+    private List<Note> page;
+
+    private byte[] noteBytes;
+
+    private byte[] pageBytes;
+
+    @Setup
+    public void setUp() {
+        ClassLoader classLoader = getClass().getClassLoader();
+        serializer = codec.equals("binary")
+            ? new NoteCacheCodec(classLoader)
+            : new JdkSerializationRedisSerializer(classLoader);
+        note = note(1);
+        page = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            page.add(note(i));
+        }
+        noteBytes = serializer.serialize(note);
+        pageBytes = serializer.serialize(page);
+    }
+
+    @Benchmark
+    public byte[] encodeNote() {
+        return serializer.serialize(note);
+    }
+
+    @Benchmark
+    public Object decodeNote() {
+        return serializer.deserialize(noteBytes);
+    }
+
+    @Benchmark
+    public byte[] encodePage() {
+        return serializer.serialize(page);
+    }
+
+    @Benchmark
+    public Object decodePage() {
+        return serializer.deserialize(pageBytes);
+    }
+
+    @Test
+    void run() throws RunnerException {
+        printSizes();
+        new Runner(new OptionsBuilder()
+            .include(NoteCacheCodecBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+
+    private static void printSizes() {
+        ClassLoader classLoader = NoteCacheCodecBenchmark.class.getClassLoader();
+        RedisSerializer<Object> binary = new NoteCacheCodec(classLoader);
+        RedisSerializer<Object> jdk = new JdkSerializationRedisSerializer(classLoader);
+        List<Note> page = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            page.add(note(i));
+        }
+        System.out.printf("note: binary %d B, jdk %d B%n",
+            binary.serialize(note(1)).length, jdk.serialize(note(1)).length);
+        System.out.printf("page of 50: binary %d B, jdk %d B%n",
+            binary.serialize(page).length, jdk.serialize(page).length);
+    }
+
+    private static Note note(int i) {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 12, 0).plusSeconds(i * 37L);
+        return Note.builder()
+            .id(1_000_000L + i)
+            .title("Заметка " + i)
+            .content("Список покупок на неделю: молоко, хлеб, сыр, яблоки, кофе. Не забыть про " + i)
+            .createdAt(createdAt)
+            .updatedAt(createdAt.plusMinutes(3))
+            .build();
+    }
+}
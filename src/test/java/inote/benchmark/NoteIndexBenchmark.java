@@ -0,0 +1,135 @@
+package inote.benchmark;
+
+import inote.search.InvertedIndex;
+import inote.search.SearchQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Замер расхода памяти и задержки запросов встроенного поискового индекса {@link InvertedIndex}.
+ *
+ * Заметки генерируются из словаря с распределением Ципфа, как в естественном тексте.
+ * Не входит в обычный прогон тестов, запускается отдельно:
+ * {@code mvn test -Dtest=NoteIndexBenchmark}.
+ */
+class NoteIndexBenchmark {
+
+    private static final int NOTES = 100_000;
+
+    private static final int VOCABULARY = 50_000;
+
+    private static final int WORDS_PER_NOTE = 60;
+
+    private static final int QUERIES = 2_000;
+
+    private final Random random = new Random(42);
+
+    private double[] cumulative;
+
+    @Test
+    void measureMemoryAndLatency() {
+        cumulative = zipf(VOCABULARY);
+        long heapBefore = usedHeap();
+        String[][] notes = new String[NOTES][];
+        for (int i = 0; i < NOTES; i++) {
+            notes[i] = new String[]{sentence(3), sentence(WORDS_PER_NOTE)};
+        }
+        long start = System.nanoTime();
+        InvertedIndex index = new InvertedIndex();
+        for (int i = 0; i < NOTES; i++) {
+            index.put(i + 1, notes[i][0], notes[i][1]);
+        }
+        index.trim();
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        notes = null;
+        long heapAfter = usedHeap();
+
+        System.out.printf("notes: %d, terms: %d, build: %d ms (%.0f notes/sec)%n",
+            index.size(), index.termCount(), buildMillis, NOTES * 1000.0 / buildMillis);
+        System.out.printf("heap: %.1f MB total, %.0f bytes/note; postings %.1f MB, %.0f bytes/note%n",
+            (heapAfter - heapBefore) / 1048576.0, (heapAfter - heapBefore) / (double) NOTES,
+            index.postingBytes() / 1048576.0, index.postingBytes() / (double) NOTES);
+
+        latency(index, "term", i -> word(rank(100, 5000)));
+        latency(index, "frequent term", i -> word(rank(0, 10)));
+        latency(index, "AND", i -> word(rank(0, 1000)) + " " + word(rank(0, 1000)));
+        latency(index, "OR", i -> word(rank(100, 5000)) + " OR " + word(rank(100, 5000)));
+        latency(index, "phrase", i -> "\"" + word(rank(0, 200)) + " " + word(rank(0, 200)) + "\"");
+        latency(index, "prefix", i -> word(rank(0, 5000)).substring(0, 3) + "*");
+
+        System.out.printf("index kept for %d notes%n", index.size());
+    }
+
+    private void latency(InvertedIndex index, String name, IntFunction<String> queries) {
+        SearchQuery[] parsed = new SearchQuery[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            parsed[i] = SearchQuery.parse(queries.apply(i));
+        }
+        for (SearchQuery query : parsed) {
+            index.search(query, 51, null, null);
+        }
+        long[] nanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            index.search(parsed[i], 51, null, null);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-14s p50 %7.1f us, p99 %8.1f us%n", name,
+            nanos[QUERIES / 2] / 1000.0, nanos[QUERIES * 99 / 100] / 1000.0);
+    }
+
+    private String sentence(int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(word(sample())).append(' ');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Синтетическое слово для ранга словаря, длина растет с редкостью, как в естественном языке.
+     */
+    private static String word(int rank) {
+        StringBuilder word = new StringBuilder();
+        int value = rank + 1;
+        do {
+            word.append((char) ('а' + value % 32));
+            value /= 32;
+        } while (value > 0);
+        return word.append("ок").toString();
+    }
+
+    private int sample() {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1);
+    }
+
+    private int rank(int from, int to) {
+        return from + random.nextInt(to - from);
+    }
+
+    private static double[] zipf(int size) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
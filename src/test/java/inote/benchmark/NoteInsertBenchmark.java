@@ -0,0 +1,66 @@
+package inote.benchmark;
+
+import inote.entity.Note;
+import inote.repository.NoteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Сравнение скорости вставки заметок: по одной через {@link NoteRepository#save(Note)}
+ * и пакетом через {@link NoteRepository#saveAll(List)}.
+ *
+ * Не входит в обычный прогон тестов, запускается отдельно:
+ * {@code mvn test -Dtest=NoteInsertBenchmark}.
+ * По умолчанию используется H2 из тестового профиля; для замера на PostgreSQL
+ * достаточно передать {@code -Dspring.datasource.url=...} и учетные данные.
+ */
+@SpringBootTest(properties = "spring.cache.type=simple")
+@ActiveProfiles("test")
+class NoteInsertBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private static final int WARMUP_ROWS = 1_000;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Test
+    void compareSingleAndBatchInsert() {
+        // Прогрев JIT и пулов соединений на обоих путях
+        measure(notes -> notes.forEach(noteRepository::save), WARMUP_ROWS);
+        measure(noteRepository::saveAll, WARMUP_ROWS);
+
+        double single = measure(notes -> notes.forEach(noteRepository::save), ROWS);
+        double batch = measure(noteRepository::saveAll, ROWS);
+
+        System.out.printf("single insert: %.0f rows/sec%n", single);
+        System.out.printf("batch insert:  %.0f rows/sec%n", batch);
+        System.out.printf("speedup:       %.1fx%n", batch / single);
+    }
+
+    /**
+     * Вставить заметки указанным способом и вернуть скорость в строках в секунду.
+     */
+    private double measure(Consumer<List<Note>> insert, int rows) {
+        List<Note> notes = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            notes.add(Note.builder()
+                .title("Benchmark " + i)
+                .content("Benchmark content " + i)
+                .createdAt(LocalDateTime.now())
+                .build());
+        }
+        long start = System.nanoTime();
+        insert.accept(notes);
+        long elapsed = System.nanoTime() - start;
+        return rows / (elapsed / 1_000_000_000.0);
+    }
+}
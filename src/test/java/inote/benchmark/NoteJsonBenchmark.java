@@ -0,0 +1,110 @@
+package inote.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import inote.entity.Note;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-замер JSON-сериализации заметок Jackson: одна заметка и список из 50 и 1000 заметок,
+ * запись в байты и чтение обратно.
+ *
+ * ObjectMapper настраивается {@link Jackson2ObjectMapperBuilder} так же, как в приложении Spring Boot.
+ *
+ * Запускается в составе {@link JmhBenchmarks}: {@code mvn test -Pbenchmarks -Djmh.include=NoteJson}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteJsonBenchmark {
+
+    @Param({"50", "1000"})
+    public int listSize;
+
+    private ObjectWriter noteWriter;
+
+    private ObjectWriter listWriter;
+
+    private ObjectReader noteReader;
+
+    private ObjectReader listReader;
+
+    private Note note;
+
+    private List<Note> notes;
+
+    private byte[] noteJson;
+
+    private byte[] listJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        TypeReference<List<Note>> listType = new TypeReference<>() {
+        };
+        noteWriter = objectMapper.writerFor(Note.class);
+        listWriter = objectMapper.writerFor(listType);
+        noteReader = objectMapper.readerFor(Note.class);
+        listReader = objectMapper.readerFor(listType);
+        note = note(1);
+        notes = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            notes.add(note(i));
+        }
+        noteJson = noteWriter.writeValueAsBytes(note);
+        listJson = listWriter.writeValueAsBytes(notes);
+    }
+
+    @Benchmark
+    public byte[] writeNote() throws JsonProcessingException {
+        return noteWriter.writeValueAsBytes(note);
+    }
+
+    @Benchmark
+    public Note readNote() throws Exception {
+        return noteReader.readValue(noteJson);
+    }
+
+    @Benchmark
+    public byte[] writeList() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(notes);
+    }
+
+    @Benchmark
+    public List<Note> readList() throws Exception {
+        return listReader.readValue(listJson);
+    }
+
+    private static Note note(int i) {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 12, 0).plusSeconds(i * 37L);
+        return Note.builder()
+            .id(1_000_000L + i)
+            .title("Заметка " + i)
+            .content("Список покупок на неделю: молоко, хлеб, сыр, яблоки, кофе. Не забыть про " + i)
+            .createdAt(createdAt)
+            .updatedAt(createdAt.plusMinutes(3))
+            .build();
+    }
+}
@@ -0,0 +1,490 @@
+package inote.benchmark;
+
+import inote.INoteApplication;
+import inote.cache.LocalReactiveNoteCache;
+import inote.cache.ReactiveNoteCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.AbstractCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Нагрузочное сравнение обработки запросов на пуле платформенных потоков Tomcat, на виртуальных
+ * потоках и на реактивном стеке (WebFlux, R2DBC): пропускная способность и p99
+ * при 1k/5k/10k одновременных клиентов.
+ *
+ * Приложение запускается в отдельной JVM с тестовым профилем (H2). Вместо Redis используется
+ * кэш в памяти, который хранит значения по значению и выдерживает задержку сетевого обращения
+ * (по умолчанию 20 мс): блокирующим ожиданием, как клиент Redis, для Tomcat и неблокирующей
+ * задержкой для реактивного стека. Каждый клиент держит одно соединение и последовательно
+ * запрашивает GET /inote/notes/{id}: версия заметки и сама заметка читаются из кэша,
+ * то есть два обращения к кэшу на запрос в каждом режиме.
+ *
+ * Режим виртуальных потоков требует Java 21, на более ранних версиях пропускается.
+ * Сервер виртуального режима запускается с -Djdk.tracePinnedThreads=short, в отчет выводится
+ * количество зафиксированных блокировок потоков-носителей.
+ *
+ * Не входит в обычный прогон тестов, запускается отдельно:
+ * {@code JAVA_HOME=<jdk21> mvn test -Dtest=NoteLoadBenchmark}.
+ * Параметры: -Dload.clients=1000,5000,10000 -Dload.warmupSeconds=5 -Dload.seconds=10 -Dload.latencyMs=20.
+ */
+class NoteLoadBenchmark {
+
+    private static final List<Integer> CLIENTS = parseClients(System.getProperty("load.clients", "1000,5000,10000"));
+
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmupSeconds", 5));
+
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("load.seconds", 10));
+
+    private static final long LATENCY_MS = Long.getLong("load.latencyMs", 20);
+
+    private static final int NOTES = 1_000;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    /**
+     * Режим обработки запросов сервера.
+     */
+    private enum Mode {
+
+        PLATFORM, VIRTUAL, REACTIVE;
+
+        String label() {
+            return name().toLowerCase();
+        }
+    }
+
+    @Test
+    void compareExecutionModels() throws Exception {
+        System.out.printf("remote call latency %d ms, warmup %ds, measurement %ds, java %s%n",
+            LATENCY_MS, WARMUP.toSeconds(), MEASUREMENT.toSeconds(), Runtime.version());
+        System.out.printf("%-9s %8s %10s %9s %9s %9s %8s%n",
+            "mode", "clients", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        measure(Mode.PLATFORM);
+        if (Runtime.version().feature() >= 21) {
+            measure(Mode.VIRTUAL);
+        } else {
+            System.out.println("virtual   skipped: requires Java 21");
+        }
+        measure(Mode.REACTIVE);
+    }
+
+    private void measure(Mode mode) throws Exception {
+        Path log = Path.of("target", "load-benchmark-" + mode.label() + ".log");
+        int port = freePort();
+        Process server = startServer(port, mode, log);
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .executor(Executors.newFixedThreadPool(4))
+            .build();
+        try {
+            awaitReady(client, port);
+            long[] ids = mode == Mode.REACTIVE ? seedOneByOne(client, port) : seedBatch(client, port);
+            for (int clients : CLIENTS) {
+                Result result = run(client, port, ids, clients);
+                System.out.printf("%-9s %8d %10.0f %9.1f %9.1f %9.1f %8d%n", mode.label(), clients, result.throughput(),
+                    result.latencies().percentile(0.50), result.latencies().percentile(0.99),
+                    result.latencies().max(), result.errors());
+            }
+        } finally {
+            server.destroy();
+            server.waitFor(30, TimeUnit.SECONDS);
+            if (client instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (mode == Mode.VIRTUAL) {
+            long pinned = Files.readAllLines(log).stream().filter(line -> line.contains("<== monitors")).count();
+            System.out.printf("virtual   pinned carrier events: %d (see %s)%n", pinned, log);
+        }
+    }
+
+    private Process startServer(int port, Mode mode, Path log) throws IOException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> command = new ArrayList<>(List.of(java, "-Xmx1g", "-Dspring.devtools.restart.enabled=false"));
+        if (mode == Mode.VIRTUAL) {
+            command.add("-Djdk.tracePinnedThreads=short");
+        }
+        command.addAll(List.of(
+            "-cp", System.getProperty("java.class.path"),
+            NoteLoadBenchmark.class.getName(),
+            "--spring.profiles.active=" + (mode == Mode.REACTIVE ? "reactive,test" : "test"),
+            "--spring.cache.type=simple",
+            "--spring.docker.compose.enabled=false",
+            "--spring.main.banner-mode=off",
+            "--logging.level.root=WARN",
+            "--logging.level.inote=WARN",
+            "--server.port=" + port,
+            "--server.tomcat.max-connections=20000",
+            "--server.tomcat.accept-count=4096",
+            "--spring.threads.virtual.enabled=" + (mode == Mode.VIRTUAL),
+            "--inote.benchmark.latency-ms=" + LATENCY_MS));
+        Files.createDirectories(log.getParent());
+        return new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+    }
+
+    /**
+     * Запуск приложения в отдельной JVM с заменой Redis из {@link RemoteCacheStandIn}.
+     * Конфигурации других замеров из этого пакета исключаются из сканирования компонентов.
+     */
+    public static void main(String[] args) {
+        BenchmarkApplication.run(new Class<?>[] {INoteApplication.class, RemoteCacheStandIn.class}, args);
+    }
+
+    private void awaitReady(HttpClient client, int port) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(120);
+        while (System.nanoTime() < deadline) {
+            try {
+                HttpResponse<Void> response = client.send(
+                    HttpRequest.newBuilder(uri(port, "/inote/notes?limit=1"))
+                        .header("Accept", "application/json")
+                        .build(),
+                    HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Сервер еще не принимает соединения
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Сервер не запустился, см. журнал в target");
+    }
+
+    /**
+     * Создать заметки одним пакетным запросом (стек Tomcat).
+     *
+     * @return ID созданных заметок
+     */
+    private long[] seedBatch(HttpClient client, int port) throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < NOTES; i++) {
+            body.append(i == 0 ? "" : ",").append(noteJson(i));
+        }
+        body.append(']');
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri(port, "/inote/notes/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Не удалось создать заметки: " + response.statusCode());
+        }
+        String ids = response.body().replaceAll("[\\[\\]\\s]", "");
+        return Arrays.stream(ids.split(",")).mapToLong(Long::parseLong).toArray();
+    }
+
+    /**
+     * Создать заметки отдельными запросами (в реактивном стеке нет пакетного сохранения).
+     *
+     * @return ID созданных заметок
+     */
+    private long[] seedOneByOne(HttpClient client, int port) {
+        List<CompletableFuture<Long>> ids = new ArrayList<>(NOTES);
+        for (int i = 0; i < NOTES; i++) {
+            ids.add(client.sendAsync(HttpRequest.newBuilder(uri(port, "/inote/notes"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(noteJson(i)))
+                        .build(),
+                    HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    Matcher id = ID.matcher(response.body());
+                    if (response.statusCode() / 100 != 2 || !id.find()) {
+                        throw new IllegalStateException("Не удалось создать заметку: " + response.statusCode());
+                    }
+                    return Long.parseLong(id.group(1));
+                }));
+        }
+        return ids.stream().mapToLong(CompletableFuture::join).toArray();
+    }
+
+    private static String noteJson(int i) {
+        return "{\"title\":\"Заметка " + i + "\",\"content\":\"Содержимое заметки для нагрузочного теста " + i + "\"}";
+    }
+
+    /**
+     * Прогон с заданным количеством клиентов: ожидание первого ответа каждому клиенту
+     * (установка всех соединений), прогрев, затем замер за фиксированное время.
+     * Каждый клиент отправляет следующий запрос сразу после получения ответа на предыдущий.
+     */
+    private Result run(HttpClient client, int port, long[] ids, int clients) throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        AtomicLong completed = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch connected = new CountDownLatch(clients);
+        CountDownLatch finished = new CountDownLatch(clients);
+        ExecutorService callbacks = Executors.newFixedThreadPool(2);
+        Phase phase = new Phase();
+        for (int i = 0; i < clients; i++) {
+            new Client(client, port, ids, phase, histogram, completed, errors, connected, finished, callbacks)
+                .next(true);
+        }
+        connected.await(REQUEST_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+        Thread.sleep(WARMUP.toMillis());
+        phase.measuring = true;
+        long start = System.nanoTime();
+        Thread.sleep(MEASUREMENT.toMillis());
+        phase.stopped = true;
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long done = completed.get();
+        finished.await(REQUEST_TIMEOUT.toSeconds() + 10, TimeUnit.SECONDS);
+        callbacks.shutdown();
+        return new Result(done / seconds, histogram, errors.get());
+    }
+
+    private static URI uri(int port, String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static List<Integer> parseClients(String value) {
+        List<Integer> clients = new ArrayList<>();
+        for (String part : value.split(",")) {
+            clients.add(Integer.parseInt(part.trim()));
+        }
+        return clients;
+    }
+
+    /**
+     * Фаза прогона, общая для всех клиентов.
+     */
+    private static final class Phase {
+
+        volatile boolean measuring;
+
+        volatile boolean stopped;
+    }
+
+    /**
+     * Клиент с одним соединением, отправляющий запросы последовательно.
+     */
+    private record Client(HttpClient http, int port, long[] ids, Phase phase, LatencyHistogram histogram, AtomicLong completed,
+                          AtomicLong errors, CountDownLatch connected, CountDownLatch finished,
+                          ExecutorService callbacks) {
+
+        void next(boolean first) {
+            if (phase.stopped) {
+                finished.countDown();
+                return;
+            }
+            long id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+            HttpRequest request = HttpRequest.newBuilder(uri(port, "/inote/notes/" + id))
+                .timeout(REQUEST_TIMEOUT)
+                .build();
+            long start = System.nanoTime();
+            http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenCompleteAsync((response, error) -> {
+                    if (phase.measuring && !phase.stopped) {
+                        histogram.record(System.nanoTime() - start);
+                        completed.incrementAndGet();
+                        if (error != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    if (first) {
+                        connected.countDown();
+                    }
+                    next(false);
+                }, callbacks);
+        }
+    }
+
+    private record Result(double throughput, LatencyHistogram latencies, long errors) {
+    }
+
+    /**
+     * Гистограмма задержек с шагом 0.1 мс до 60 с.
+     */
+    private static final class LatencyHistogram {
+
+        private static final long BUCKET_NANOS = 100_000;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(600_001);
+
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos) {
+            buckets.incrementAndGet((int) Math.min(nanos / BUCKET_NANOS, buckets.length() - 1));
+            max.accumulateAndGet(nanos, Math::max);
+        }
+
+        double percentile(double quantile) {
+            long total = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                total += buckets.get(i);
+            }
+            long rank = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= rank && seen > 0) {
+                    return (i + 1) * BUCKET_NANOS / 1e6;
+                }
+            }
+            return 0;
+        }
+
+        double max() {
+            return max.get() / 1e6;
+        }
+    }
+
+    /**
+     * Замена Redis для нагрузочного теста: кэш в памяти с хранением по значению
+     * и задержкой каждого обращения. Стек Tomcat ожидает задержку блокирующим Thread.sleep,
+     * реактивный стек — неблокирующим таймером.
+     */
+    @Configuration
+    static class RemoteCacheStandIn {
+
+        @Bean
+        @Primary
+        public ReactiveNoteCache benchmarkReactiveNoteCache(Environment environment) {
+            Duration latency = Duration.ofMillis(environment.getProperty("inote.benchmark.latency-ms", Long.class, 20L));
+            ConcurrentMapCacheManager values = new ConcurrentMapCacheManager();
+            values.setStoreByValue(true);
+            ReactiveNoteCache delegate = new LocalReactiveNoteCache(values);
+            return new ReactiveNoteCache() {
+                @Override
+                public Mono<Object> get(String cacheName, Object key) {
+                    return Mono.delay(latency).then(delegate.get(cacheName, key));
+                }
+
+                @Override
+                public Mono<Void> put(String cacheName, Object key, Object value) {
+                    return Mono.delay(latency).then(delegate.put(cacheName, key, value));
+                }
+
+                @Override
+                public Mono<Void> evict(String cacheName, Object key) {
+                    return Mono.delay(latency).then(delegate.evict(cacheName, key));
+                }
+
+                @Override
+                public Mono<Void> clear(String cacheName) {
+                    return Mono.delay(latency).then(delegate.clear(cacheName));
+                }
+            };
+        }
+
+        @Bean
+        public CacheManager cacheManager(Environment environment) {
+            long latency = environment.getProperty("inote.benchmark.latency-ms", Long.class, 20L);
+            ConcurrentMapCacheManager values = new ConcurrentMapCacheManager();
+            values.setStoreByValue(true);
+            return new AbstractCacheManager() {
+                @Override
+                protected Collection<? extends Cache> loadCaches() {
+                    return List.of();
+                }
+
+                @Override
+                protected Cache getMissingCache(String name) {
+                    return new SlowCache(values.getCache(name), latency);
+                }
+            };
+        }
+    }
+
+    /**
+     * Кэш, выдерживающий задержку сетевого обращения перед каждой операцией.
+     */
+    private record SlowCache(Cache delegate, long latencyMs) implements Cache {
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return delegate.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            pause();
+            return delegate.get(key);
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            pause();
+            return delegate.get(key, type);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            pause();
+            return delegate.get(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            pause();
+            delegate.put(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            pause();
+            delegate.evict(key);
+        }
+
+        @Override
+        public void clear() {
+            pause();
+            delegate.clear();
+        }
+
+        private void pause() {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package inote.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import inote.entity.Note;
+import inote.logging.SamplingTurboFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-замер стоимости журналирования при сохранении заметки: те же сообщения уровня INFO
+ * с заметкой в аргументе, что пишут контроллер, сервис и репозиторий за один запрос.
+ *
+ * Сообщения форматируются шаблоном консольного журнала и пишутся в пустой поток, поэтому
+ * замер показывает затраты процессора и памяти на форматирование без ввода-вывода.
+ * Вариант sync пишет каждое сообщение в потоке запроса, вариант sampled повторяет настройку
+ * logback-spring.xml: выборка каждого десятого сообщения и асинхронная очередь.
+ * Выделение памяти на операцию видно с профилировщиком GC:
+ * {@code mvn test -Pbenchmarks -Djmh.include=NoteLogging -Djmh.prof=gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteLoggingBenchmark {
+
+    @Param({"1024", "1048576"})
+    public int contentLength;
+
+    @Param({"sync", "sampled"})
+    public String setup;
+
+    private LoggerContext context;
+
+    private Logger log;
+
+    private Note note;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{ISO8601} %5level %pid --- [%thread] %logger{39} : %msg%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        log = context.getLogger("inote");
+        if (setup.equals("sampled")) {
+            SamplingTurboFilter sampling = new SamplingTurboFilter();
+            sampling.addLogger("inote");
+            sampling.setRate(10);
+            sampling.start();
+            context.addTurboFilter(sampling);
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setNeverBlock(true);
+            async.addAppender(appender);
+            async.start();
+            log.addAppender(async);
+        } else {
+            log.addAppender(appender);
+        }
+        note = Note.builder()
+            .id(1L)
+            .title("Заметка")
+            .content("x".repeat(contentLength))
+            .createdAt(LocalDateTime.of(2025, 3, 1, 12, 0))
+            .updatedAt(LocalDateTime.of(2025, 3, 1, 12, 5))
+            .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    /**
+     * Сообщения с заметкой, которые пишутся при обработке POST /inote/notes.
+     */
+    @Benchmark
+    public void logSaveRequest() {
+        log.info("addNote - start, note = {}", note);
+        log.info("Сохранение заметки: {}", note);
+        log.info("Сохранение заметки: {}", note);
+        log.info("Новая заметка сохранена: {}", note);
+        log.info("Заметка сохранена: {}", note);
+    }
+}
@@ -0,0 +1,174 @@
+package inote.benchmark;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Сравнение обычной таблицы заметок и таблицы, секционированной по месяцам created_at
+ * (миграция partition-notes-by-created-at), на PostgreSQL.
+ *
+ * Обе таблицы заполняются {@code inote.benchmark.rows} заметками (по умолчанию 10M), равномерно
+ * созданными за {@link #MONTHS} месяцев, и получают те же индексы, что notes. Замеряются:
+ * задержка страницы заметок за случайный день и подсчета заметок за случайный месяц (p50/p99),
+ * удаление самого старого месяца (DELETE против DROP раздела) с последующим VACUUM
+ * и VACUUM после изменения 1% заметок.
+ *
+ * Не входит в обычный прогон тестов и требует отдельной БД PostgreSQL, таблицы bench_notes_* пересоздаются:
+ * {@code mvn test -Dtest=NotePartitioningBenchmark -Dinote.benchmark.postgres-url=jdbc:postgresql://localhost:5432/bench}.
+ * Учетные данные - {@code -Dinote.benchmark.postgres-user} и {@code -Dinote.benchmark.postgres-password}.
+ */
+class NotePartitioningBenchmark {
+
+    private static final int MONTHS = 24;
+
+    private static final YearMonth FIRST_MONTH = YearMonth.of(2024, 1);
+
+    private static final int QUERIES = 500;
+
+    private static final int PAGE_SIZE = 50;
+
+    @Test
+    void comparePlainAndPartitionedTable() throws SQLException {
+        String url = System.getProperty("inote.benchmark.postgres-url");
+        Assumptions.assumeTrue(url != null, "Не задан -Dinote.benchmark.postgres-url");
+        long rows = Long.getLong("inote.benchmark.rows", 10_000_000L);
+        try (Connection connection = DriverManager.getConnection(url,
+            System.getProperty("inote.benchmark.postgres-user", "postgres"),
+            System.getProperty("inote.benchmark.postgres-password", "postgres"))) {
+            connection.setAutoCommit(true);
+            createPlain(connection);
+            createPartitioned(connection);
+            for (String table : new String[] {"bench_notes_plain", "bench_notes_partitioned"}) {
+                long start = System.nanoTime();
+                fill(connection, table, rows);
+                System.out.printf("%s: заполнение %d строк %.1f с%n", table, rows, seconds(start));
+            }
+            for (String table : new String[] {"bench_notes_plain", "bench_notes_partitioned"}) {
+                measureQueries(connection, table);
+                measureVacuumAfterUpdate(connection, table);
+            }
+            measureRetention(connection, "bench_notes_plain",
+                "DELETE FROM bench_notes_plain WHERE created_at < '" + FIRST_MONTH.plusMonths(1).atDay(1) + "'");
+            measureRetention(connection, "bench_notes_partitioned",
+                "DROP TABLE " + partitionName(FIRST_MONTH));
+        }
+    }
+
+    private static void createPlain(Connection connection) throws SQLException {
+        execute(connection, "DROP TABLE IF EXISTS bench_notes_plain");
+        execute(connection, "CREATE TABLE bench_notes_plain (id BIGINT PRIMARY KEY, title VARCHAR(50) NOT NULL, "
+            + "content TEXT NOT NULL, created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP)");
+    }
+
+    private static void createPartitioned(Connection connection) throws SQLException {
+        execute(connection, "DROP TABLE IF EXISTS bench_notes_partitioned");
+        execute(connection, "CREATE TABLE bench_notes_partitioned (id BIGINT NOT NULL, title VARCHAR(50) NOT NULL, "
+            + "content TEXT NOT NULL, created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP, "
+            + "PRIMARY KEY (id, created_at)) PARTITION BY RANGE (created_at)");
+        for (int i = 0; i < MONTHS; i++) {
+            YearMonth month = FIRST_MONTH.plusMonths(i);
+            execute(connection, "CREATE TABLE " + partitionName(month) + " PARTITION OF bench_notes_partitioned "
+                + "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        }
+    }
+
+    /**
+     * Заполнить таблицу и создать индексы notes: по заголовку, по дате создания и по дате изменения.
+     */
+    private static void fill(Connection connection, String table, long rows) throws SQLException {
+        long seconds = Duration.between(FIRST_MONTH.atDay(1).atStartOfDay(),
+            FIRST_MONTH.plusMonths(MONTHS).atDay(1).atStartOfDay()).getSeconds();
+        execute(connection, "INSERT INTO " + table + " (id, title, content, created_at, updated_at) "
+            + "SELECT x, 'Заметка ' || (x % 1000), "
+            + "'Список покупок на неделю: молоко, хлеб, сыр, яблоки, кофе. Не забыть про ' || x, "
+            + "TIMESTAMP '" + FIRST_MONTH.atDay(1).atStartOfDay() + "' + (x * " + seconds + " / " + (rows + 1)
+            + ") * INTERVAL '1 second', NULL FROM generate_series(1, " + rows + ") x");
+        execute(connection, "CREATE INDEX ON " + table + " (title, id)");
+        execute(connection, "CREATE INDEX ON " + table + " (created_at, id)");
+        execute(connection, "CREATE INDEX ON " + table + " (updated_at)");
+        execute(connection, "VACUUM ANALYZE " + table);
+    }
+
+    private static void measureQueries(Connection connection, String table) throws SQLException {
+        long[] page = new long[QUERIES];
+        long[] month = new long[QUERIES / 10];
+        try (PreparedStatement pageQuery = connection.prepareStatement("SELECT id, title, content, created_at "
+                + "FROM " + table + " WHERE created_at BETWEEN ? AND ? ORDER BY created_at, id LIMIT " + PAGE_SIZE);
+             PreparedStatement countQuery = connection.prepareStatement(
+                 "SELECT COUNT(*) FROM " + table + " WHERE created_at BETWEEN ? AND ?")) {
+            for (int i = 0; i < page.length; i++) {
+                LocalDateTime day = FIRST_MONTH.atDay(1).atStartOfDay()
+                    .plusDays(ThreadLocalRandom.current().nextInt(MONTHS * 28));
+                page[i] = time(pageQuery, day, day.plusDays(1).minusNanos(1000));
+            }
+            for (int i = 0; i < month.length; i++) {
+                YearMonth randomMonth = FIRST_MONTH.plusMonths(ThreadLocalRandom.current().nextInt(MONTHS));
+                month[i] = time(countQuery, randomMonth.atDay(1).atStartOfDay(),
+                    randomMonth.plusMonths(1).atDay(1).atStartOfDay().minusNanos(1000));
+            }
+        }
+        System.out.printf("%s: страница за день p50 %.2f мс, p99 %.2f мс; подсчет за месяц p50 %.1f мс, p99 %.1f мс%n",
+            table, percentile(page, 0.5), percentile(page, 0.99), percentile(month, 0.5), percentile(month, 0.99));
+    }
+
+    private static void measureVacuumAfterUpdate(Connection connection, String table) throws SQLException {
+        execute(connection, "UPDATE " + table + " SET updated_at = now() WHERE id % 100 = 0");
+        long start = System.nanoTime();
+        execute(connection, "VACUUM " + table);
+        System.out.printf("%s: VACUUM после изменения 1%% заметок %.1f с%n", table, seconds(start));
+    }
+
+    private static void measureRetention(Connection connection, String table, String sql) throws SQLException {
+        long start = System.nanoTime();
+        execute(connection, sql);
+        double delete = seconds(start);
+        start = System.nanoTime();
+        execute(connection, "VACUUM " + table);
+        System.out.printf("%s: удаление месяца %.1f с, VACUUM после удаления %.1f с%n", table, delete, seconds(start));
+    }
+
+    private static long time(PreparedStatement statement, LocalDateTime from, LocalDateTime to) throws SQLException {
+        statement.setTimestamp(1, Timestamp.valueOf(from));
+        statement.setTimestamp(2, Timestamp.valueOf(to));
+        long start = System.nanoTime();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                resultSet.getLong(1);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static double percentile(long[] nanos, double percentile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(sorted.length * percentile))] / 1_000_000.0;
+    }
+
+    private static double seconds(long start) {
+        return (System.nanoTime() - start) / 1_000_000_000.0;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("bench_notes_%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package inote.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import inote.dto.NotePatch;
+import inote.entity.Note;
+import inote.util.TextPatch;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-замер изменения одной строки в заметке на 1 КБ, 100 КБ и 10 МБ:
+ * полная заметка в PUT против правки в PATCH.
+ *
+ * Замеряется работа сервера над телом запроса: для PUT чтение JSON всей заметки,
+ * для PATCH чтение JSON правки и сборка нового содержимого {@link TextPatch}.
+ * Запись в БД в обоих случаях передает содержимое целиком и в замер не входит.
+ * Размеры тел запросов выводятся перед замером.
+ *
+ * Не входит в обычный прогон тестов, запускается отдельно:
+ * {@code mvn test -Dtest=NotePatchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotePatchBenchmark {
+
+    @Param({"1024", "102400", "10485760"})
+    public int contentSize;
+
+    private ObjectReader noteReader;
+
+    private ObjectReader patchReader;
+
+    private String content;
+
+    private byte[] putJson;
+
+    private byte[] patchJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        noteReader = objectMapper.readerFor(Note.class);
+        patchReader = objectMapper.readerFor(NotePatch.class);
+        content = content(contentSize);
+        putJson = objectMapper.writeValueAsBytes(putBody(content));
+        patchJson = objectMapper.writeValueAsBytes(patchBody(content));
+    }
+
+    @Benchmark
+    public Note put() throws Exception {
+        return noteReader.readValue(putJson);
+    }
+
+    @Benchmark
+    public String patch() throws Exception {
+        NotePatch patch = patchReader.readValue(patchJson);
+        return TextPatch.apply(content, patch.getEdits());
+    }
+
+    @Test
+    void run() throws RunnerException, JsonProcessingException {
+        printSizes();
+        new Runner(new OptionsBuilder()
+            .include(NotePatchBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+
+    private static void printSizes() throws JsonProcessingException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        for (int size : new int[]{1024, 102400, 10485760}) {
+            String content = content(size);
+            System.out.printf("content %d chars: PUT %d B, PATCH %d B%n", size,
+                objectMapper.writeValueAsBytes(putBody(content)).length,
+                objectMapper.writeValueAsBytes(patchBody(content)).length);
+        }
+    }
+
+    /**
+     * Тело PUT: заметка целиком, в середине содержимого заменена одна строка.
+     */
+    private static Note putBody(String content) {
+        return Note.builder()
+            .title("Заметка")
+            .content(TextPatch.apply(content, patchBody(content).getEdits()))
+            .createdAt(LocalDateTime.of(2025, 3, 1, 12, 0))
+            .build();
+    }
+
+    /**
+     * Тело PATCH: замена одной строки в середине содержимого.
+     */
+    private static NotePatch patchBody(String content) {
+        int lineStart = content.lastIndexOf('\n', content.length() / 2) + 1;
+        int lineEnd = content.indexOf('\n', lineStart);
+        return new NotePatch(null, List.of(
+            new NotePatch.Edit(lineStart, lineEnd - lineStart, "Купить молоко, хлеб и сыр до пятницы")));
+    }
+
+    /**
+     * Содержимое из строк списка дел размером около size символов.
+     */
+    private static String content(int size) {
+        StringBuilder content = new StringBuilder(size + 64);
+        for (int i = 0; content.length() < size; i++) {
+            content.append(i).append(". Позвонить в сервис, уточнить сроки ремонта и стоимость работ\n");
+        }
+        return content.toString();
+    }
+}
@@ -0,0 +1,114 @@
+package inote.benchmark;
+
+import inote.dto.NoteSummary;
+import inote.entity.Note;
+import inote.repository.NoteRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-замер запросов {@link NoteRepository} к H2 с 10k, 100k и 1M заметок.
+ *
+ * Заметки создаются одним INSERT ... SELECT: по одной в секунду начиная с {@link #FIRST_CREATED_AT},
+ * заголовки повторяются через {@link #TITLES} заметок. Каждый вызов читает случайные данные,
+ * поэтому замер не упирается в одну и ту же страницу кэша H2.
+ *
+ * Запускается в составе {@link JmhBenchmarks}: {@code mvn test -Pbenchmarks -Djmh.include=NoteRepository}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class NoteRepositoryBenchmark {
+
+    private static final LocalDateTime FIRST_CREATED_AT = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static final int TITLES = 1000;
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private NoteRepository noteRepository;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.runEmbedded("--spring.cache.type=none");
+        noteRepository = context.getBean(NoteRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+            INSERT INTO notes (id, title, content, created_at, updated_at)
+            SELECT X,
+                   'Заметка ' || MOD(X, ?),
+                   'Список покупок на неделю: молоко, хлеб, сыр, яблоки, кофе. Не забыть про ' || X,
+                   DATEADD(SECOND, X, CAST(? AS TIMESTAMP)),
+                   DATEADD(SECOND, X, CAST(? AS TIMESTAMP))
+            FROM SYSTEM_RANGE(1, ?)
+            """, TITLES, FIRST_CREATED_AT, FIRST_CREATED_AT, rows);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Note> findById() {
+        return noteRepository.findById(randomId());
+    }
+
+    @Benchmark
+    public List<Note> findPage() {
+        return noteRepository.findPage(randomId() - 1, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<NoteSummary> findSummaryPage() {
+        return noteRepository.findSummaryPage(randomId() - 1, PAGE_SIZE);
+    }
+
+    /**
+     * Все заметки с одним заголовком: rows / {@link #TITLES} заметок.
+     */
+    @Benchmark
+    public List<Note> findByTitle() {
+        return noteRepository.findByTitle("Заметка " + ThreadLocalRandom.current().nextInt(TITLES));
+    }
+
+    /**
+     * Заметки за случайный интервал в {@link #PAGE_SIZE} секунд, то есть {@link #PAGE_SIZE} заметок.
+     */
+    @Benchmark
+    public List<Note> findByCreatedAtBetween() {
+        LocalDateTime start = FIRST_CREATED_AT.plusSeconds(randomId());
+        return noteRepository.findByCreatedAtBetween(start, start.plusSeconds(PAGE_SIZE - 1));
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, rows - PAGE_SIZE);
+    }
+}
@@ -0,0 +1,105 @@
+package inote.benchmark;
+
+import inote.cache.NoteCacheEvictor;
+import inote.entity.Note;
+import inote.service.NoteService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-замер {@link NoteService#findById(Long)} и {@link NoteService#findAll()} через прокси
+ * {@code @Cacheable} с холодным и прогретым кэшем.
+ *
+ * Кэш в памяти (simple), поэтому прогретый кэш показывает накладные расходы кэширующего прокси
+ * без сети. Для холодного кэша запись сбрасывается перед каждым вызовом, и вызов доходит до H2.
+ *
+ * Запускается в составе {@link JmhBenchmarks}: {@code mvn test -Pbenchmarks -Djmh.include=NoteService}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoteServiceBenchmark {
+
+    /**
+     * Число заметок в БД, findAll возвращает их все.
+     */
+    private static final int ROWS = 1_000;
+
+    @Param({"cold", "warm"})
+    public String cache;
+
+    private ConfigurableApplicationContext context;
+
+    private NoteService noteService;
+
+    private Cache notesCache;
+
+    private boolean cold;
+
+    @Setup
+    public void setUp() {
+        cold = cache.equals("cold");
+        context = BenchmarkApplication.runEmbedded("--spring.cache.type=simple");
+        context.getBean(JdbcTemplate.class).update("""
+            INSERT INTO notes (id, title, content, created_at, updated_at)
+            SELECT X,
+                   'Заметка ' || X,
+                   'Список покупок на неделю: молоко, хлеб, сыр, яблоки, кофе. Не забыть про ' || X,
+                   CURRENT_TIMESTAMP,
+                   CURRENT_TIMESTAMP
+            FROM SYSTEM_RANGE(1, ?)
+            """, ROWS);
+        noteService = context.getBean(NoteService.class);
+        notesCache = context.getBean(CacheManager.class).getCache(NoteCacheEvictor.NOTES_CACHE);
+        if (!cold) {
+            for (long id = 1; id <= ROWS; id++) {
+                noteService.findById(id);
+            }
+            noteService.findAll();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Note> findById() {
+        long id = ThreadLocalRandom.current().nextLong(1, ROWS + 1);
+        if (cold) {
+            notesCache.evict(id);
+        }
+        return noteService.findById(id);
+    }
+
+    @Benchmark
+    public List<Note> findAll() {
+        if (cold) {
+            notesCache.evict(NoteCacheEvictor.ALL_NOTES_KEY);
+        }
+        return noteService.findAll();
+    }
+}
@@ -0,0 +1,130 @@
+package inote.benchmark;
+
+import inote.entity.Note;
+import inote.repository.NoteRepository;
+import inote.repository.impl.ShardedNoteRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-замер пропускной способности чтения и записи при хранении заметок в 1, 2 и 4 БД H2.
+ *
+ * При одном шарде шардирование выключено и используется обычный репозиторий. В каждой БД
+ * {@link #ROWS_PER_SHARD} заметок в диапазоне ID своего шарда, запросы выполняются в 8 потоков:
+ * чтение и запись по ID нагружают один шард, страница заметок - все шарды.
+ *
+ * Все БД - H2 в памяти того же JVM, что и приложение: шарды делят процессор и кучу. Замер показывает
+ * накладные расходы маршрутизации и параллельного обхода шардов и снижение конкуренции за блокировки
+ * одной БД, но не рост емкости БД с числом шардов. Для этого нужны отдельные экземпляры PostgreSQL
+ * на разных узлах.
+ *
+ * Запускается в составе {@link JmhBenchmarks}: {@code mvn test -Pbenchmarks -Djmh.include=NoteSharding}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class NoteShardingBenchmark {
+
+    private static final int ROWS_PER_SHARD = 50_000;
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final LocalDateTime FIRST_CREATED_AT = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Param({"1", "2", "4"})
+    public int shards;
+
+    private ConfigurableApplicationContext context;
+
+    private NoteRepository noteRepository;
+
+    @Setup
+    public void setUp() {
+        List<String> args = new ArrayList<>(List.of("--spring.cache.type=none", "--inote.revisions.enabled=false"));
+        if (shards > 1) {
+            args.add("--inote.sharding.enabled=true");
+            for (int i = 1; i < shards; i++) {
+                args.add("--inote.sharding.shards[" + (i - 1) + "].url=jdbc:h2:mem:shard-" + i + ";DB_CLOSE_DELAY=-1");
+            }
+        }
+        context = BenchmarkApplication.runEmbedded(args.toArray(String[]::new));
+        noteRepository = context.getBean(NoteRepository.class);
+        if (noteRepository instanceof ShardedNoteRepository sharded) {
+            sharded.getShards().forEach(shard -> fill(shard.getDataSource(), shard.getIndex()));
+        } else {
+            fill(context.getBean(DataSource.class), 0);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Note> findById() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return noteRepository.findById(ShardedNoteRepository.idBase(random.nextInt(shards))
+            + random.nextInt(1, ROWS_PER_SHARD + 1));
+    }
+
+    @Benchmark
+    public Note save() {
+        return noteRepository.save(Note.builder()
+            .title("Заметка")
+            .content("Список покупок на неделю: молоко, хлеб, сыр, яблоки, кофе")
+            .build());
+    }
+
+    @Benchmark
+    public List<Note> findPage() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return noteRepository.findPage(ShardedNoteRepository.idBase(random.nextInt(shards))
+            + random.nextInt(ROWS_PER_SHARD), PAGE_SIZE);
+    }
+
+    /**
+     * Заполнить БД шарда и продолжить последовательность после вставленных ID:
+     * в тестовом профиле Liquibase выключен и диапазон ID шарда не настраивается миграцией.
+     */
+    private static void fill(DataSource dataSource, int shard) {
+        long base = ShardedNoteRepository.idBase(shard);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("""
+            INSERT INTO notes (id, title, content, created_at, updated_at)
+            SELECT ? + X,
+                   'Заметка ' || X,
+                   'Список покупок на неделю: молоко, хлеб, сыр, яблоки, кофе. Не забыть про ' || X,
+                   DATEADD(SECOND, X, CAST(? AS TIMESTAMP)),
+                   DATEADD(SECOND, X, CAST(? AS TIMESTAMP))
+            FROM SYSTEM_RANGE(1, ?)
+            """, base, FIRST_CREATED_AT, FIRST_CREATED_AT, ROWS_PER_SHARD);
+        jdbcTemplate.execute("ALTER SEQUENCE notes_id_seq RESTART WITH " + (base + ROWS_PER_SHARD + 100));
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
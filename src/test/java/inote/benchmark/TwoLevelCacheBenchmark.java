@@ -0,0 +1,132 @@
+package inote.benchmark;
+
+import inote.cache.CacheInvalidation;
+import inote.cache.CacheInvalidationBus;
+import inote.cache.TwoLevelCacheManager;
+import inote.config.TwoLevelCacheProperties;
+import inote.entity.Note;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Замер времени попадания в кэш для чтения заметки по ID через {@code @Cacheable}:
+ * только L2 и L1 перед L2.
+ *
+ * L2 заменен на ConcurrentMapCacheManager с хранением по значению: каждое чтение десериализует
+ * заметку, как при чтении из Redis, но без сетевого обмена, поэтому разница с реальным Redis
+ * только больше. Не входит в обычный прогон тестов, запускается отдельно:
+ * {@code mvn test -Dtest=TwoLevelCacheBenchmark}.
+ */
+class TwoLevelCacheBenchmark {
+
+    private static final int WARMUP = 200_000;
+
+    private static final int ITERATIONS = 2_000_000;
+
+    @Test
+    void compareRemoteAndLocalHits() {
+        measure("@Cacheable, L2 only", RemoteOnly.class);
+        measure("@Cacheable, L1 + L2", TwoLevel.class);
+        measureDirectLocalHit();
+    }
+
+    private void measure(String name, Class<?> config) {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(config)) {
+            NoteLookup lookup = context.getBean(NoteLookup.class);
+            for (int i = 0; i < WARMUP; i++) {
+                lookup.findById(i % 16L);
+            }
+            long start = System.nanoTime();
+            long sum = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                sum += lookup.findById(i % 16L).getId();
+            }
+            double nanos = (System.nanoTime() - start) / (double) ITERATIONS;
+            System.out.printf("%-42s %8.1f ns/op (checksum %d)%n", name, nanos, sum);
+        }
+    }
+
+    /**
+     * Попадание в L1 без накладных расходов перехватчика кэширования и вычисления ключа SpEL.
+     */
+    private void measureDirectLocalHit() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(TwoLevel.class)) {
+            Cache cache = context.getBean(CacheManager.class).getCache("notes");
+            NoteLookup lookup = new NoteLookup();
+            for (long id = 0; id < 16; id++) {
+                cache.put(id, lookup.findById(id));
+            }
+            long sum = 0;
+            for (int i = 0; i < WARMUP; i++) {
+                sum += ((Note) cache.get(i % 16L).get()).getId();
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                sum += ((Note) cache.get(i % 16L).get()).getId();
+            }
+            double nanos = (System.nanoTime() - start) / (double) ITERATIONS;
+            System.out.printf("%-42s %8.1f ns/op (checksum %d)%n", "Cache.get, L1 hit", nanos, sum);
+        }
+    }
+
+    static class NoteLookup {
+
+        @Cacheable(value = "notes", key = "#id")
+        public Note findById(long id) {
+            return Note.builder().id(id).title("Заметка " + id).content("Содержимое ".repeat(50))
+                .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build();
+        }
+    }
+
+    @Configuration
+    @EnableCaching
+    static class RemoteOnly {
+
+        @Bean
+        CacheManager cacheManager() {
+            ConcurrentMapCacheManager remote = new ConcurrentMapCacheManager();
+            remote.setStoreByValue(true);
+            return remote;
+        }
+
+        @Bean
+        NoteLookup noteLookup() {
+            return new NoteLookup();
+        }
+    }
+
+    @Configuration
+    @EnableCaching
+    static class TwoLevel {
+
+        @Bean
+        CacheManager cacheManager() {
+            ConcurrentMapCacheManager remote = new ConcurrentMapCacheManager();
+            remote.setStoreByValue(true);
+            return new TwoLevelCacheManager(remote, new CacheInvalidationBus() {
+                @Override
+                public void publish(CacheInvalidation invalidation) {
+                }
+
+                @Override
+                public void subscribe(Consumer<CacheInvalidation> listener) {
+                }
+            }, new TwoLevelCacheProperties());
+        }
+
+        @Bean
+        NoteLookup noteLookup() {
+            return new NoteLookup();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package inote.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class MeteredCacheTest {
+
+    private SimpleMeterRegistry registry;  // Реестр метрик в памяти
+
+    private MeteredCacheManager cacheManager;  // Тестируемый менеджер поверх кэшей в памяти
+
+    @BeforeEach
+    void setUp() {
+        // Given: кэши в памяти, обернутые в кэши со счетчиками
+        registry = new SimpleMeterRegistry();
+        cacheManager = new MeteredCacheManager(new ConcurrentMapCacheManager(), registry);
+    }
+
+    @Test
+    void get_ShouldCountHitsAndMissesByKeyType() {
+        // Given: в кэше есть заметка по ID и список всех заметок
+        Cache notes = cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE);
+        notes.put(1L, "note");
+        notes.put(NoteCacheEvictor.ALL_NOTES_KEY, List.of());
+
+        // When: читаем существующие и отсутствующие ключи разных типов
+        notes.get(1L);
+        notes.get(2L);
+        notes.get(NoteCacheEvictor.ALL_NOTES_KEY);
+        notes.get("Title");
+
+        // Then: попадания и промахи учтены отдельно по каждому типу ключа
+        assertThat(gets("id", "hit")).isEqualTo(1);
+        assertThat(gets("id", "miss")).isEqualTo(1);
+        assertThat(gets("allNotes", "hit")).isEqualTo(1);
+        assertThat(gets("title", "miss")).isEqualTo(1);
+        assertThat(registry.get(MeteredCache.PUTS).tag("key.type", "id").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getWithValueLoader_ShouldCountMiss_OnlyWhenValueIsLoaded() {
+        // Given: пустой кэш заметок
+        Cache notes = cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE);
+
+        // When: дважды читаем значение с загрузкой при промахе
+        notes.get(1L, () -> "note");
+        notes.get(1L, () -> "other");
+
+        // Then: первое чтение — промах с загрузкой, второе — попадание
+        assertThat(gets("id", "miss")).isEqualTo(1);
+        assertThat(gets("id", "hit")).isEqualTo(1);
+        assertThat(notes.get(1L).get()).isEqualTo("note");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void evictNotes_ShouldCountEvictionsOfUnwrappedCache() {
+        // Given: две заметки в кэше
+        Cache notes = cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE);
+        notes.put(1L, "first");
+        notes.put(2L, "second");
+
+        // When: удаляем заметки через NoteCacheEvictor
+        new NoteCacheEvictor(cacheManager, mock(ObjectProvider.class)).evictNotes(List.of(1L, 2L));
+
+        // Then: заметки удалены, учтены два удаления по ID и удаление списка всех заметок
+        assertThat(notes.get(1L)).isNull();
+        assertThat(registry.get(MeteredCache.EVICTIONS).tags("cache", NoteCacheEvictor.NOTES_CACHE, "key.type", "id")
+            .counter().count()).isEqualTo(2);
+        assertThat(registry.get(MeteredCache.EVICTIONS).tags("cache", NoteCacheEvictor.NOTES_CACHE, "key.type", "allNotes")
+            .counter().count()).isEqualTo(1);
+        assertThat(registry.get(MeteredCache.CLEARS).tag("cache", NoteCacheEvictor.NOTE_PAGES_CACHE)
+            .counter().count()).isEqualTo(1);
+    }
+
+    private double gets(String keyType, String result) {
+        return registry.get(MeteredCache.GETS)
+            .tags("cache", NoteCacheEvictor.NOTES_CACHE, "key.type", keyType, "result", result)
+            .counter()
+            .count();
+    }
+}
@@ -0,0 +1,147 @@
+package inote.cache;
+
+import inote.dto.CursorPage;
+import inote.dto.NoteSearchHit;
+import inote.dto.NoteSummary;
+import inote.dto.NoteVersion;
+import inote.entity.Note;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NoteCacheCodecTest {
+
+    private final NoteCacheCodec codec = new NoteCacheCodec(getClass().getClassLoader());
+
+    @Test
+    void note_ShouldRoundTrip() {
+        // Given: заметка с кириллицей и временем с микросекундами, как из PostgreSQL
+        Note note = note(42L, "Заметка", LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_456_000));
+
+        // When: записываем и читаем значение
+        Object result = codec.deserialize(codec.serialize(note));
+
+        // Then: заметка восстановлена полностью
+        assertThat(result).isEqualTo(note);
+    }
+
+    @Test
+    void note_ShouldRoundTrip_WithMissingFieldsAndDateBeforeEpoch() {
+        // Given: заметка без содержимого и времени обновления, создана до 1970 года
+        Note note = Note.builder()
+            .id(-7L)
+            .title("Старая")
+            .createdAt(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_999))
+            .build();
+
+        // When: записываем и читаем значение
+        Object result = codec.deserialize(codec.serialize(note));
+
+        // Then: отсутствующие поля остались null
+        assertThat(result).isEqualTo(note);
+    }
+
+    @Test
+    void collections_ShouldRoundTrip() {
+        // Given: значения всех типов, которые кладет в кэш сервис заметок
+        Note first = note(1L, "Первая", LocalDateTime.of(2025, 1, 1, 0, 0));
+        Note second = note(2L, "Вторая", LocalDateTime.of(2025, 1, 2, 0, 0));
+        NoteSearchHit hit = NoteSearchHit.builder()
+            .id(1L)
+            .title("Первая")
+            .snippet("<b>первая</b> заметка")
+            .rank(0.75)
+            .createdAt(first.getCreatedAt())
+            .build();
+
+        NoteSummary summary = NoteSummary.builder()
+            .id(2L)
+            .title("Вторая")
+            .contentLength(42)
+            .preview("Содержимое")
+            .createdAt(second.getCreatedAt())
+            .build();
+
+        // When & Then: все значения восстановлены без потерь
+        assertThat(codec.deserialize(codec.serialize(Optional.of(first)))).isEqualTo(Optional.of(first));
+        assertThat(codec.deserialize(codec.serialize(Optional.empty()))).isEqualTo(Optional.empty());
+        assertThat(codec.deserialize(codec.serialize(List.of(first, second)))).isEqualTo(List.of(first, second));
+        assertThat(codec.deserialize(codec.serialize(new CursorPage<>(List.of(first, second), "1,2"))))
+            .isEqualTo(new CursorPage<>(List.of(first, second), "1,2"));
+        assertThat(codec.deserialize(codec.serialize(new CursorPage<>(List.of(hit), null))))
+            .isEqualTo(new CursorPage<>(List.of(hit), null));
+        assertThat(codec.deserialize(codec.serialize(new CursorPage<>(List.of(summary), "2"))))
+            .isEqualTo(new CursorPage<>(List.of(summary), "2"));
+        assertThat(codec.deserialize(codec.serialize(new NoteVersion(first.getUpdatedAt(), 2L))))
+            .isEqualTo(new NoteVersion(first.getUpdatedAt(), 2L));
+        assertThat(codec.deserialize(codec.serialize(new NoteVersion(null, 0L))))
+            .isEqualTo(new NoteVersion(null, 0L));
+    }
+
+    @Test
+    void binary_ShouldBeSmallerThanJdkSerialization() {
+        // Given: заметка
+        Note note = note(42L, "Заметка", LocalDateTime.of(2025, 3, 1, 12, 30));
+
+        // When: сериализуем заметку двумя способами
+        int binary = codec.serialize(note).length;
+        int jdk = new JdkSerializationRedisSerializer().serialize(note).length;
+
+        // Then: двоичный формат значительно компактнее
+        assertThat(binary).isLessThan(jdk / 4);
+    }
+
+    @Test
+    void deserialize_ShouldReadLegacyJdkValues() {
+        // Given: значение, записанное JDK-сериализацией до перехода на двоичный формат
+        Note note = note(42L, "Заметка", LocalDateTime.of(2025, 3, 1, 12, 30));
+        byte[] legacy = new JdkSerializationRedisSerializer().serialize(note);
+
+        // When: читаем значение
+        Object result = codec.deserialize(legacy);
+
+        // Then: заметка прочитана
+        assertThat(result).isEqualTo(note);
+    }
+
+    @Test
+    void deserialize_ShouldReturnNull_ForUnknownVersion() {
+        // Given: значение, записанное более новой версией формата
+        byte[] bytes = codec.serialize(note(1L, "Заметка", LocalDateTime.of(2025, 1, 1, 0, 0)));
+        bytes[0] = NoteCacheCodec.VERSION + 1;
+
+        // When: читаем значение
+        Object result = codec.deserialize(bytes);
+
+        // Then: значение считается промахом кэша
+        assertThat(result).isNull();
+    }
+
+    @Test
+    void otherValues_ShouldFallBackToJdkSerialization() {
+        // Given: значение, для которого нет двоичной схемы
+        Map<String, Long> value = Map.of("count", 3L);
+
+        // When: записываем и читаем значение
+        Object result = codec.deserialize(codec.serialize(value));
+
+        // Then: значение восстановлено
+        assertThat(result).isEqualTo(value);
+    }
+
+    private static Note note(Long id, String title, LocalDateTime createdAt) {
+        return Note.builder()
+            .id(id)
+            .title(title)
+            .content("Содержимое заметки " + title)
+            .createdAt(createdAt)
+            .updatedAt(createdAt.plusMinutes(5))
+            .build();
+    }
+}
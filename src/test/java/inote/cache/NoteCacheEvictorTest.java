@@ -0,0 +1,105 @@
+package inote.cache;
+
+import inote.config.SingleFlightProperties;
+import inote.config.TwoLevelCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class NoteCacheEvictorTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void evictNotes_ShouldDeleteRedisKeysWithSingleCommand() {
+        // Given: кэш заметок в Redis с префиксом ключей по умолчанию
+        RedisCache redisCache = mock(RedisCache.class);
+        when(redisCache.getCacheConfiguration()).thenReturn(RedisCacheConfiguration.defaultCacheConfig());
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE)).thenReturn(redisCache);
+        StringRedisTemplate template = mock(StringRedisTemplate.class);
+        ObjectProvider<StringRedisTemplate> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(template);
+
+        // When: удаляем из кэша три заметки
+        new NoteCacheEvictor(cacheManager, provider).evictNotes(List.of(1L, 2L, 3L));
+
+        // Then: ключи удалены одной командой, поштучного удаления не было
+        verify(template).delete(List.of("notes::1", "notes::2", "notes::3"));
+        verify(redisCache, never()).evict(1L);
+        verify(redisCache).evict(NoteCacheEvictor.ALL_NOTES_KEY);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void evictNotes_ShouldFallBackToPerKeyEviction_WhenCacheIsNotRedis() {
+        // Given: локальный кэш с двумя заметками, списком всех заметок и страницей
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE).put(1L, "first");
+        cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE).put(2L, "second");
+        cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE).put(NoteCacheEvictor.ALL_NOTES_KEY, "all");
+        cacheManager.getCache(NoteCacheEvictor.NOTE_PAGES_CACHE).put("all:null:50", "page");
+        cacheManager.getCache(NoteCacheEvictor.NOTE_VERSIONS_CACHE).put(1L, "version");
+        cacheManager.getCache(NoteCacheEvictor.NOTE_VERSIONS_CACHE).put(NoteCacheEvictor.COLLECTION_VERSION_KEY, "all");
+        ObjectProvider<StringRedisTemplate> provider = mock(ObjectProvider.class);
+
+        // When: удаляем из кэша первую заметку
+        new NoteCacheEvictor(cacheManager, provider).evictNotes(List.of(1L));
+
+        // Then: удалены заметка, ее версия, список всех заметок, версия набора и страницы, вторая заметка осталась
+        assertThat(cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE).get(1L)).isNull();
+        assertThat(cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE).get(2L)).isNotNull();
+        assertThat(cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE).get(NoteCacheEvictor.ALL_NOTES_KEY)).isNull();
+        assertThat(cacheManager.getCache(NoteCacheEvictor.NOTE_PAGES_CACHE).get("all:null:50")).isNull();
+        assertThat(cacheManager.getCache(NoteCacheEvictor.NOTE_VERSIONS_CACHE).get(1L)).isNull();
+        assertThat(cacheManager.getCache(NoteCacheEvictor.NOTE_VERSIONS_CACHE)
+            .get(NoteCacheEvictor.COLLECTION_VERSION_KEY)).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void evictNotes_ShouldEvictRemoteAndLocalLevels_WhenCacheIsTwoLevel() {
+        // Given: двухуровневый кэш, заметка есть в L1 и L2
+        ConcurrentMapCacheManager remote = new ConcurrentMapCacheManager();
+        CacheInvalidationBus bus = mock(CacheInvalidationBus.class);
+        CacheManager cacheManager = new TwoLevelCacheManager(remote, bus, new TwoLevelCacheProperties());
+        cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE).put(1L, "first");
+        ObjectProvider<StringRedisTemplate> provider = mock(ObjectProvider.class);
+
+        // When: удаляем заметку из кэша
+        new NoteCacheEvictor(cacheManager, provider).evictNotes(List.of(1L));
+
+        // Then: заметки нет ни в L2, ни в L1, другим узлам отправлена очистка L1
+        assertThat(remote.getCache(NoteCacheEvictor.NOTES_CACHE).get(1L)).isNull();
+        assertThat(cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE).get(1L)).isNull();
+        verify(bus).publish(argThat(invalidation -> invalidation.isClear()
+            && NoteCacheEvictor.NOTES_CACHE.equals(invalidation.getCacheName())));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void evictNotes_ShouldCancelInFlightLoads_WhenCacheIsSingleFlight() {
+        // Given: кэш заметок обернут в объединение загрузок
+        ConcurrentMapCacheManager remote = new ConcurrentMapCacheManager();
+        SingleFlightCache notes = spy(new SingleFlightCache(remote.getCache(NoteCacheEvictor.NOTES_CACHE), null,
+            new SingleFlightProperties(), new SimpleMeterRegistry()));
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE)).thenReturn(notes);
+        ObjectProvider<StringRedisTemplate> provider = mock(ObjectProvider.class);
+
+        // When: удаляем заметки из кэша
+        new NoteCacheEvictor(cacheManager, provider).evictNotes(List.of(1L, 2L));
+
+        // Then: сохранение начатых загрузок отменено до удаления ключей
+        verify(notes).evictInFlight(List.of(1L, 2L));
+    }
+}
@@ -0,0 +1,206 @@
+package inote.cache;
+
+import inote.config.SingleFlightProperties;
+import inote.exception.NotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SingleFlightCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final ConcurrentMapCache delegate = new ConcurrentMapCache(NoteCacheEvictor.NOTES_CACHE);
+
+    private final SingleFlightProperties properties = new SingleFlightProperties();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @BeforeEach
+    void setUp() {
+        // Given: кэш заметок, другие узлы проверяются каждую миллисекунду
+        properties.setPollInterval(Duration.ofMillis(1));
+        properties.setWaitTimeout(Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void get_ShouldLoadOnce_WhenConcurrentMissesOnNode() throws Exception {
+        // Given: загрузка списка всех заметок ждет, пока остальные запросы не присоединятся к ней
+        SingleFlightCache cache = new SingleFlightCache(delegate, null, properties, registry);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // When: 8 одновременных промахов по ключу 'allNotes'
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> cache.get(NoteCacheEvictor.ALL_NOTES_KEY, () -> {
+                loads.incrementAndGet();
+                release.await();
+                return "notes";
+            })));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalesced("allNotes", "local") < 7 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        // Then: выполнена одна загрузка, все запросы получили ее результат, значение сохранено в кэш
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("notes");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(coalesced("allNotes", "local")).isEqualTo(7);
+        assertThat(registry.get(SingleFlightCache.LOADS).tag("key.type", "allNotes").counter().count()).isEqualTo(1);
+        assertThat(delegate.get(NoteCacheEvictor.ALL_NOTES_KEY, String.class)).isEqualTo("notes");
+    }
+
+    @Test
+    void get_ShouldPropagateFailureAndRetry_WhenLoaderFails() {
+        // Given: заметки нет в БД
+        SingleFlightCache cache = new SingleFlightCache(delegate, null, properties, registry);
+
+        // When / Then: ошибка загрузки передается вызывающему, в кэш ничего не сохраняется
+        assertThatThrownBy(() -> cache.get(1L, () -> {
+            throw new NotFoundException("Заметка с ID 1 не найдена");
+        }))
+            .isInstanceOf(Cache.ValueRetrievalException.class)
+            .hasCauseInstanceOf(NotFoundException.class);
+        assertThat(delegate.get(1L)).isNull();
+
+        // When / Then: следующий промах загружает значение заново
+        assertThat(cache.get(1L, () -> "note")).isEqualTo("note");
+    }
+
+    @Test
+    void get_ShouldWaitForValue_WhenAnotherNodeHoldsLock() {
+        // Given: блокировку держит другой узел, который сохраняет заметку в общий кэш
+        RedisLoadLock lock = mock(RedisLoadLock.class);
+        when(lock.tryLock(anyString(), anyString())).thenAnswer(invocation -> {
+            delegate.put(1L, "remote note");
+            return false;
+        });
+        SingleFlightCache cache = new SingleFlightCache(delegate, lock, properties, registry);
+
+        // When: промах по ID 1
+        String note = cache.get(1L, () -> "local note");
+
+        // Then: получено значение другого узла без загрузки из БД
+        assertThat(note).isEqualTo("remote note");
+        assertThat(coalesced("id", "remote")).isEqualTo(1);
+        assertThat(registry.find(SingleFlightCache.LOADS).counter()).isNull();
+        verify(lock, never()).unlock(anyString(), anyString());
+    }
+
+    @Test
+    void get_ShouldLoadWithoutLock_WhenWaitTimesOut() {
+        // Given: блокировку держит узел, который не сохраняет значение
+        RedisLoadLock lock = mock(RedisLoadLock.class);
+        when(lock.tryLock(anyString(), anyString())).thenReturn(false);
+        SingleFlightCache cache = new SingleFlightCache(delegate, lock, properties, registry);
+
+        // When: промах по ID 1
+        String note = cache.get(1L, () -> "local note");
+
+        // Then: после ожидания значение загружено и сохранено этим узлом
+        assertThat(note).isEqualTo("local note");
+        assertThat(delegate.get(1L, String.class)).isEqualTo("local note");
+        assertThat(registry.get(SingleFlightCache.LOCK_TIMEOUTS).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_ShouldReleaseLock_AfterLoad() {
+        // Given: блокировка свободна
+        RedisLoadLock lock = mock(RedisLoadLock.class);
+        when(lock.tryLock(anyString(), anyString())).thenReturn(true);
+        SingleFlightCache cache = new SingleFlightCache(delegate, lock, properties, registry);
+
+        // When: промах по ID 1
+        cache.get(1L, () -> "local note");
+
+        // Then: блокировка по имени кэша и ключу снята после сохранения значения
+        verify(lock).unlock(eq("notes:1"), anyString());
+        assertThat(delegate.get(1L, String.class)).isEqualTo("local note");
+    }
+
+    @Test
+    void evict_ShouldDropLoadedValue_WhenEvictedDuringSlowLoad() throws Exception {
+        // Given: загрузка заметки читает данные до ее изменения и продолжается после удаления из кэша
+        SingleFlightCache cache = new SingleFlightCache(delegate, null, properties, registry);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> result = executor.submit(() -> cache.get(1L, () -> {
+            loading.countDown();
+            release.await();
+            return "stale note";
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When: заметка изменена и удалена из кэша до окончания загрузки
+        cache.evict(1L);
+        release.countDown();
+
+        // Then: загрузивший запрос получил значение, но в кэш оно не сохранено, следующий промах загружает заново
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("stale note");
+        assertThat(delegate.get(1L)).isNull();
+        assertThat(cache.get(1L, () -> "fresh note")).isEqualTo("fresh note");
+    }
+
+    @Test
+    void evictInFlight_ShouldDropLoadedValue_WhenKeysDeletedPastWrapper() throws Exception {
+        // Given: медленная загрузка заметки
+        SingleFlightCache cache = new SingleFlightCache(delegate, null, properties, registry);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> result = executor.submit(() -> cache.get(1L, () -> {
+            loading.countDown();
+            release.await();
+            return "stale note";
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When: ключ удаляется напрямую из кэша, как одной командой DEL в NoteCacheEvictor
+        cache.evictInFlight(List.of(1L));
+        delegate.evict(1L);
+        release.countDown();
+
+        // Then: результат загрузки не сохранен в кэш
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("stale note");
+        assertThat(delegate.get(1L)).isNull();
+    }
+
+    private double coalesced(String keyType, String source) {
+        Counter counter = registry.find(SingleFlightCache.COALESCED).tag("key.type", keyType).tag("source", source)
+            .counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,165 @@
+package inote.cache;
+
+import inote.config.TwoLevelCacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class TwoLevelCacheTest {
+
+    private ConcurrentMapCacheManager remote;  // Общий кэш L2, заменяющий Redis
+
+    private TwoLevelCacheManager firstNode;  // Первый узел приложения
+
+    private TwoLevelCacheManager secondNode;  // Второй узел приложения
+
+    @BeforeEach
+    void setUp() {
+        // Given: два узла с общим L2 и общей шиной инвалидаций в памяти вместо Redis pub/sub
+        remote = spy(new ConcurrentMapCacheManager());
+        InMemoryBus bus = new InMemoryBus();
+        firstNode = new TwoLevelCacheManager(remote, bus, new TwoLevelCacheProperties());
+        secondNode = new TwoLevelCacheManager(remote, bus, new TwoLevelCacheProperties());
+    }
+
+    @Test
+    void get_ShouldServeFromLocalCache_AfterFirstRead() {
+        // Given: значение есть в L2
+        Cache remoteNotes = spy(remote.getCache("notes"));
+        when(remote.getCache("notes")).thenReturn(remoteNotes);
+        remoteNotes.put(1L, "note");
+        Cache notes = new TwoLevelCacheManager(remote, new InMemoryBus(), new TwoLevelCacheProperties())
+            .getCache("notes");
+
+        // When: читаем значение трижды
+        notes.get(1L);
+        notes.get(1L);
+        Cache.ValueWrapper value = notes.get(1L);
+
+        // Then: L2 прочитан только один раз, остальные чтения обслужены L1
+        assertThat(value.get()).isEqualTo("note");
+        verify(remoteNotes, times(1)).get(1L);
+    }
+
+    @Test
+    void evict_ShouldInvalidateLocalCacheOnOtherNodes() {
+        // Given: оба узла прочитали значение в свой L1
+        firstNode.getCache("notes").put(1L, "old");
+        assertThat(secondNode.getCache("notes").get(1L).get()).isEqualTo("old");
+
+        // When: первый узел удаляет значение
+        firstNode.getCache("notes").evict(1L);
+
+        // Then: второй узел больше не видит значение ни в L1, ни в L2
+        assertThat(secondNode.getCache("notes").get(1L)).isNull();
+    }
+
+    @Test
+    void put_ShouldMakeOtherNodesReadNewValue() {
+        // Given: второй узел закэшировал старое значение
+        firstNode.getCache("notes").put(1L, "old");
+        secondNode.getCache("notes").get(1L);
+
+        // When: первый узел обновляет значение (@CachePut)
+        firstNode.getCache("notes").put(1L, "new");
+
+        // Then: второй узел читает новое значение из L2
+        assertThat(secondNode.getCache("notes").get(1L).get()).isEqualTo("new");
+    }
+
+    @Test
+    void clear_ShouldClearLocalCacheOnOtherNodes() {
+        // Given: второй узел закэшировал страницу
+        firstNode.getCache("notePages").put("all:null:50", "page");
+        secondNode.getCache("notePages").get("all:null:50");
+
+        // When: первый узел очищает кэш страниц (@CacheEvict allEntries)
+        firstNode.getCache("notePages").clear();
+
+        // Then: на втором узле страница отсутствует
+        assertThat(secondNode.getCache("notePages").get("all:null:50")).isNull();
+    }
+
+    @Test
+    void get_ShouldCacheNullValuesLocally() {
+        // Given: в L2 сохранено значение null
+        firstNode.getCache("notes").put(2L, null);
+
+        // When: читаем значение
+        Cache.ValueWrapper value = firstNode.getCache("notes").get(2L);
+
+        // Then: возвращается обертка с null, а не промах
+        assertThat(value).isNotNull();
+        assertThat(value.get()).isNull();
+    }
+
+    @Test
+    void get_ShouldNotFillLocalCache_WhenInvalidatedDuringRemoteRead() {
+        // Given: пока первый узел читает старое значение из L2, второй узел записывает новое
+        Cache remoteNotes = spy(remote.getCache("notes"));
+        when(remote.getCache("notes")).thenReturn(remoteNotes);
+        InMemoryBus bus = new InMemoryBus();
+        Cache reader = new TwoLevelCacheManager(remote, bus, new TwoLevelCacheProperties()).getCache("notes");
+        Cache writer = new TwoLevelCacheManager(remote, bus, new TwoLevelCacheProperties()).getCache("notes");
+        remoteNotes.put(1L, "old");
+        doAnswer(invocation -> {
+            Object read = invocation.callRealMethod();
+            writer.put(1L, "new");
+            return read;
+        }).doCallRealMethod().when(remoteNotes).get(1L);
+
+        // When: первый узел читает значение при промахе L1
+        Cache.ValueWrapper first = reader.get(1L);
+
+        // Then: прочитанное старое значение не сохранено в L1, следующее чтение получает новое из L2
+        assertThat(first.get()).isEqualTo("old");
+        assertThat(reader.get(1L).get()).isEqualTo("new");
+    }
+
+    @Test
+    void putIfAbsent_ShouldNotPublishInvalidation_ForLoadedValues() {
+        // Given: узел с шиной, на которой учитываются рассылки
+        CacheInvalidationBus bus = mock(CacheInvalidationBus.class);
+        Cache notes = new TwoLevelCacheManager(remote, bus, new TwoLevelCacheProperties()).getCache("notes");
+
+        // When: значения загружены при промахе (@Cacheable(sync = true) и объединение загрузок)
+        notes.putIfAbsent(1L, "loaded");
+        notes.get(2L, () -> "loaded");
+
+        // Then: значения доступны, инвалидации не рассылались
+        assertThat(notes.get(1L).get()).isEqualTo("loaded");
+        assertThat(notes.get(2L).get()).isEqualTo("loaded");
+        verify(bus, never()).publish(any());
+
+        // When / Then: запись (@CachePut) рассылает инвалидацию
+        notes.put(1L, "written");
+        verify(bus, times(1)).publish(any());
+    }
+
+    /**
+     * Шина инвалидаций в памяти: доставляет сообщения всем подписчикам синхронно, как Redis pub/sub.
+     */
+    private static class InMemoryBus implements CacheInvalidationBus {
+
+        private final List<Consumer<CacheInvalidation>> listeners = new ArrayList<>();
+
+        @Override
+        public void publish(CacheInvalidation invalidation) {
+            CacheInvalidation received = CacheInvalidation.decode(invalidation.encode());
+            listeners.forEach(listener -> listener.accept(received));
+        }
+
+        @Override
+        public void subscribe(Consumer<CacheInvalidation> listener) {
+            listeners.add(listener);
+        }
+    }
+}
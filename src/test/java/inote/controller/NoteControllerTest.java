@@ -1,6 +1,16 @@
 package inote.controller;
 
+import inote.dto.CursorPage;
+import inote.dto.NotePatch;
+import inote.dto.NoteRevisionSummary;
+import inote.dto.NoteSearchHit;
+import inote.dto.NoteSummary;
+import inote.dto.NoteVersion;
+import inote.dto.TitleSuggestion;
 import inote.entity.Note;
+import inote.exception.BadRequestException;
+import inote.exception.PreconditionFailedException;
+import inote.service.NoteRevisionService;
 import inote.service.NoteService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,17 +18,32 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -29,12 +54,23 @@ public class NoteControllerTest {
     @MockBean
     private NoteService noteService;  // Мокируем сервис для контроллера
 
+    @MockBean
+    private NoteRevisionService noteRevisionService;  // Мокируем сервис истории версий
+
     @Autowired
     private MockMvc mockMvc;  // Мокируем MVC для выполнения HTTP-запросов и проверки ответов
 
+    private static final NoteVersion NOTE_VERSION =
+        new NoteVersion(LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_456_000), 1L);  // Версия одной заметки
+
+    private static final NoteVersion COLLECTION_VERSION =
+        new NoteVersion(LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_456_000), 42L);  // Версия набора заметок
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);  // Инициализация моков перед каждым тестом
+        when(noteService.findVersion(anyLong())).thenReturn(NOTE_VERSION);
+        when(noteService.findCollectionVersion()).thenReturn(COLLECTION_VERSION);
     }
 
     // Test for GET /inote/notes
@@ -46,17 +82,185 @@ public class NoteControllerTest {
         note.setTitle("Test Note");
         note.setContent("Test Content");
         note.setCreatedAt(LocalDateTime.now());
-        List<Note> notes = Collections.singletonList(note);
+        CursorPage<Note> page = new CursorPage<>(Collections.singletonList(note), "1");
 
-        // When: имитируем вызов метода findAll() сервиса, который возвращает созданную заметку
-        when(noteService.findAll()).thenReturn(notes);
+        // When: имитируем вызов метода findPage() сервиса, который возвращает страницу с созданной заметкой
+        when(noteService.findPage(null, 50)).thenReturn(page);
 
         // Then: выполняем запрос GET и проверяем статус и содержимое ответа
         mockMvc.perform(get("/inote/notes"))
             .andExpect(status().isOk())  // Статус должен быть OK
-            .andExpect(jsonPath("$[0].id").value(1L))  // Проверяем ID
-            .andExpect(jsonPath("$[0].title").value("Test Note"))  // Проверяем название
-            .andExpect(jsonPath("$[0].content").value("Test Content"));  // Проверяем содержимое
+            .andExpect(jsonPath("$.items[0].id").value(1L))  // Проверяем ID
+            .andExpect(jsonPath("$.items[0].title").value("Test Note"))  // Проверяем название
+            .andExpect(jsonPath("$.items[0].content").value("Test Content"))  // Проверяем содержимое
+            .andExpect(jsonPath("$.next").value("1"));  // Проверяем курсор следующей страницы
+    }
+
+    // Test for GET /inote/notes with matching If-None-Match
+    @Test
+    void testGetAllNotes_NotModified() throws Exception {
+        // When: клиент присылает ETag актуальной версии набора заметок
+        // Then: ответ 304, страница заметок не загружается
+        mockMvc.perform(get("/inote/notes").header(HttpHeaders.IF_NONE_MATCH, "\"" + COLLECTION_VERSION.eTag() + "\""))
+            .andExpect(status().isNotModified());
+        verify(noteService, never()).findPage(any(), anyInt());
+    }
+
+    // Test for GET /inote/notes?after=1&limit=10
+    @Test
+    void testGetAllNotes_WithCursor() throws Exception {
+        // Given: сервис возвращает последнюю страницу без курсора следующей страницы
+        Note note = new Note();
+        note.setId(2L);
+        note.setTitle("Second Note");
+        note.setContent("Second Content");
+        note.setCreatedAt(LocalDateTime.now());
+
+        when(noteService.findPage("1", 10)).thenReturn(new CursorPage<>(List.of(note), null));
+
+        // When: выполняем запрос GET с курсором и размером страницы
+        // Then: проверяем, что курсор и размер страницы переданы в сервис, а next отсутствует
+        mockMvc.perform(get("/inote/notes").param("after", "1").param("limit", "10"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].id").value(2L))
+            .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    // Test for GET /inote/notes with invalid cursor
+    @Test
+    void testGetAllNotes_BadCursor() throws Exception {
+        // Given: сервис отклоняет некорректный курсор
+        when(noteService.findPage("abc", 50)).thenThrow(new BadRequestException("Некорректный курсор: abc"));
+
+        // When: выполняем запрос GET с некорректным курсором
+        // Then: ожидаем статус Bad Request (400)
+        mockMvc.perform(get("/inote/notes").param("after", "abc"))
+            .andExpect(status().isBadRequest());
+    }
+
+    // Test for GET /inote/notes/summaries
+    @Test
+    void testGetNoteSummaries() throws Exception {
+        // Given: сервис возвращает страницу кратких представлений заметок
+        NoteSummary summary = NoteSummary.builder()
+            .id(1L).title("Покупки").contentLength(120).preview("Купить молоко").build();
+        when(noteService.findSummaryPage("5", 10)).thenReturn(new CursorPage<>(List.of(summary), "1"));
+
+        // When: выполняем запрос GET с курсором и размером страницы
+        // Then: ответ содержит размер и фрагмент содержимого, но не само содержимое
+        mockMvc.perform(get("/inote/notes/summaries").param("after", "5").param("limit", "10"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].id").value(1L))
+            .andExpect(jsonPath("$.items[0].contentLength").value(120))
+            .andExpect(jsonPath("$.items[0].preview").value("Купить молоко"))
+            .andExpect(jsonPath("$.items[0].content").doesNotExist())
+            .andExpect(jsonPath("$.next").value("1"));
+    }
+
+    // Test for GET /inote/notes/search?q=...
+    @Test
+    void testSearchNotes() throws Exception {
+        // Given: сервис возвращает страницу результатов поиска с подсвеченным фрагментом
+        NoteSearchHit hit = NoteSearchHit.builder()
+            .id(1L).title("Покупки").snippet("Купить <b>молоко</b>").rank(0.5).build();
+        when(noteService.search("молоко", null, 50)).thenReturn(new CursorPage<>(List.of(hit), "0.5,1"));
+
+        // When: выполняем поисковый запрос
+        // Then: ответ содержит фрагмент, релевантность и курсор следующей страницы
+        mockMvc.perform(get("/inote/notes/search").param("q", "молоко"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].id").value(1L))
+            .andExpect(jsonPath("$.items[0].snippet").value("Купить <b>молоко</b>"))
+            .andExpect(jsonPath("$.items[0].rank").value(0.5))
+            .andExpect(jsonPath("$.next").value("0.5,1"));
+    }
+
+    // Test for GET /inote/notes/title-suggest?prefix=...
+    @Test
+    void testSuggestTitles() throws Exception {
+        // Given: сервис возвращает подсказки заголовков
+        when(noteService.suggestTitles("мол", 10)).thenReturn(List.of(new TitleSuggestion(1L, "Молоко")));
+
+        // When: запрашиваем подсказки с количеством по умолчанию
+        // Then: ответ содержит ID и заголовок
+        mockMvc.perform(get("/inote/notes/title-suggest").param("prefix", "мол"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(1L))
+            .andExpect(jsonPath("$[0].title").value("Молоко"));
+    }
+
+    // Test for GET /inote/notes/search without q
+    @Test
+    void testSearchNotes_MissingQuery() throws Exception {
+        // Given: сервис отклоняет пустой поисковый запрос
+        when(noteService.search(isNull(), isNull(), eq(50)))
+            .thenThrow(new BadRequestException("Поисковый запрос должен быть непустым"));
+
+        // When: выполняем поисковый запрос без параметра q
+        // Then: ожидаем статус Bad Request (400)
+        mockMvc.perform(get("/inote/notes/search"))
+            .andExpect(status().isBadRequest());
+    }
+
+    // Test for GET /inote/notes/export
+    @Test
+    void testExportNotes() throws Exception {
+        // Given: сервис передает обработчику две заметки
+        Note first = Note.builder().id(1L).title("First").content("First Content").build();
+        Note second = Note.builder().id(2L).title("Second").content("Second Content").build();
+        doAnswer(invocation -> {
+            Consumer<Note> consumer = invocation.getArgument(0);
+            consumer.accept(first);
+            consumer.accept(second);
+            return 2L;
+        }).when(noteService).exportAll(any());
+
+        // When: выполняем запрос GET на выгрузку, ответ формируется асинхронно
+        MvcResult result = mockMvc.perform(get("/inote/notes/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // Then: ответ содержит по одной заметке на строку в формате NDJSON
+        String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"title\":\"First\""));
+        assertTrue(lines[1].contains("\"title\":\"Second\""));
+    }
+
+    // Test for GET /inote/notes/export with gzip
+    @Test
+    void testExportNotes_Gzip() throws Exception {
+        // Given: сервис передает обработчику одну заметку
+        Note note = Note.builder().id(1L).title("First").content("First Content").build();
+        doAnswer(invocation -> {
+            Consumer<Note> consumer = invocation.getArgument(0);
+            consumer.accept(note);
+            return 1L;
+        }).when(noteService).exportAll(any());
+
+        // When: выполняем запрос GET на выгрузку с поддержкой gzip
+        MvcResult result = mockMvc.perform(get("/inote/notes/export").header("Accept-Encoding", "gzip"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // Then: ответ сжат и после распаковки содержит заметку
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Encoding", "gzip"))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            String line = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(line.startsWith("{\"id\":1"));
+            assertTrue(line.endsWith("\n"));
+        }
     }
 
     // Test for GET /inote/notes/1
@@ -80,6 +284,49 @@ public class NoteControllerTest {
             .andExpect(jsonPath("$.content").value("Test Content"));  // Проверяем содержимое
     }
 
+    // Test for GET /inote/notes/1 with ETag and Last-Modified
+    @Test
+    void testGetNoteById_ShouldReturnVersionHeaders() throws Exception {
+        // Given: заметка с известной версией
+        Note note = Note.builder().id(1L).title("Test Note").content("Test Content").build();
+        when(noteService.findById(1L)).thenReturn(Optional.of(note));
+
+        // When: выполняем обычный запрос GET
+        // Then: ответ содержит сильный ETag и Last-Modified версии заметки
+        mockMvc.perform(get("/inote/notes/1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + NOTE_VERSION.eTag() + "\""))
+            .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, NOTE_VERSION.lastModified() / 1000 * 1000))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    // Test for GET /inote/notes/1 with matching If-None-Match
+    @Test
+    void testGetNoteById_NotModified() throws Exception {
+        // When: клиент присылает ETag актуальной версии заметки
+        // Then: ответ 304 без тела, заметка не загружается
+        mockMvc.perform(get("/inote/notes/1").header(HttpHeaders.IF_NONE_MATCH, "\"" + NOTE_VERSION.eTag() + "\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + NOTE_VERSION.eTag() + "\""))
+            .andExpect(content().string(""));
+        verify(noteService, never()).findById(anyLong());
+    }
+
+    // Test for GET /inote/notes/1 with outdated If-None-Match
+    @Test
+    void testGetNoteById_ModifiedSinceClientVersion() throws Exception {
+        // Given: заметка изменилась после того, как клиент получил ETag
+        Note note = Note.builder().id(1L).title("Test Note").content("Test Content").build();
+        when(noteService.findById(1L)).thenReturn(Optional.of(note));
+
+        // When: клиент присылает устаревший ETag
+        // Then: ответ 200 с заметкой и новым ETag
+        mockMvc.perform(get("/inote/notes/1").header(HttpHeaders.IF_NONE_MATCH, "\"0-1\""))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(1L))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + NOTE_VERSION.eTag() + "\""));
+    }
+
     // Test for GET /inote/notes/1 when note is not found
     @Test
     void testGetNoteById_NotFound() throws Exception {
@@ -101,24 +348,25 @@ public class NoteControllerTest {
         note.setTitle("Test Note");
         note.setContent("Test Content");
         note.setCreatedAt(LocalDateTime.now());
-        List<Note> notes = Collections.singletonList(note);
+        CursorPage<Note> page = new CursorPage<>(Collections.singletonList(note), null);
 
-        // When: имитируем вызов findByTitle() для поиска по названию
-        when(noteService.findByTitle("Test Note")).thenReturn(notes);
+        // When: имитируем вызов findPageByTitle() для поиска по названию
+        when(noteService.findPageByTitle("Test Note", null, 50)).thenReturn(page);
 
         // Then: выполняем запрос GET по названию и проверяем статус и содержимое ответа
         mockMvc.perform(get("/inote/notes/title/Test Note"))
             .andExpect(status().isOk())  // Статус должен быть OK
-            .andExpect(jsonPath("$[0].id").value(1L))  // Проверяем ID
-            .andExpect(jsonPath("$[0].title").value("Test Note"))  // Проверяем название
-            .andExpect(jsonPath("$[0].content").value("Test Content"));  // Проверяем содержимое
+            .andExpect(jsonPath("$.items[0].id").value(1L))  // Проверяем ID
+            .andExpect(jsonPath("$.items[0].title").value("Test Note"))  // Проверяем название
+            .andExpect(jsonPath("$.items[0].content").value("Test Content"));  // Проверяем содержимое
     }
 
     // Test for GET /inote/notes/title/Test Note when no notes found
     @Test
     void testGetNotesByTitle_NotFound() throws Exception {
         // Given: сервис возвращает пустой список (нет заметок с таким названием)
-        when(noteService.findByTitle("Test Note")).thenReturn(Collections.emptyList());
+        when(noteService.findPageByTitle("Test Note", null, 50))
+            .thenReturn(new CursorPage<>(Collections.emptyList(), null));
 
         // When: выполняем запрос GET для названия, по которому нет заметок
         // Then: ожидаем статус Not Found (404)
@@ -135,23 +383,24 @@ public class NoteControllerTest {
         note.setTitle("Test Note");
         note.setContent("Test Content");
         note.setCreatedAt(LocalDateTime.now());
-        List<Note> notes = Collections.singletonList(note);
+        CursorPage<Note> page = new CursorPage<>(Collections.singletonList(note), null);
 
         LocalDate startDate = LocalDate.now();
         LocalDate endDate = LocalDate.now().plusDays(1);
 
-        // When: имитируем вызов findByCreatedAtBetween() для получения заметок по диапазону дат
-        when(noteService.findByCreatedAtBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
-            .thenReturn(notes);
+        // When: имитируем вызов findPageByCreatedAtBetween() для получения заметок по диапазону дат
+        when(noteService.findPageByCreatedAtBetween(any(LocalDateTime.class), any(LocalDateTime.class),
+            isNull(), eq(50)))
+            .thenReturn(page);
 
         // Then: выполняем запрос GET с параметрами дат и проверяем статус и содержимое ответа
         mockMvc.perform(get("/inote/notes/created-between")
                 .param("startDate", startDate.toString())
                 .param("endDate", endDate.toString()))
             .andExpect(status().isOk())  // Статус должен быть OK
-            .andExpect(jsonPath("$[0].id").value(1L))  // Проверяем ID
-            .andExpect(jsonPath("$[0].title").value("Test Note"))  // Проверяем название
-            .andExpect(jsonPath("$[0].content").value("Test Content"));  // Проверяем содержимое
+            .andExpect(jsonPath("$.items[0].id").value(1L))  // Проверяем ID
+            .andExpect(jsonPath("$.items[0].title").value("Test Note"))  // Проверяем название
+            .andExpect(jsonPath("$.items[0].content").value("Test Content"));  // Проверяем содержимое
     }
 
     // Test for GET /inote/notes/created-between when no notes found
@@ -161,8 +410,9 @@ public class NoteControllerTest {
         LocalDate startDate = LocalDate.now();
         LocalDate endDate = LocalDate.now().plusDays(1);
 
-        when(noteService.findByCreatedAtBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
-            .thenReturn(Collections.emptyList());
+        when(noteService.findPageByCreatedAtBetween(any(LocalDateTime.class), any(LocalDateTime.class),
+            isNull(), eq(50)))
+            .thenReturn(new CursorPage<>(Collections.emptyList(), null));
 
         // When: выполняем запрос GET с диапазоном дат, по которому нет заметок
         // Then: ожидаем статус Not Found (404)
@@ -195,6 +445,30 @@ public class NoteControllerTest {
             .andExpect(jsonPath("$.content").value("Test Content"));  // Проверяем содержимое
     }
 
+    // Test for POST /inote/notes/batch
+    @Test
+    void testAddNotes() throws Exception {
+        // Given: сервис сохраняет пакет и присваивает заметкам ID
+        when(noteService.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Note> notes = invocation.getArgument(0);
+            for (int i = 0; i < notes.size(); i++) {
+                notes.get(i).setId(i + 1L);
+            }
+            return notes;
+        });
+
+        // When: выполняем запрос POST с пакетом из двух заметок
+        // Then: в ответе ID сохраненных заметок в исходном порядке
+        mockMvc.perform(post("/inote/notes/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"title\": \"First\", \"content\": \"A\"}, "
+                    + "{\"title\": \"Second\", \"content\": \"B\"}]"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0]").value(1L))
+            .andExpect(jsonPath("$[1]").value(2L));
+    }
+
     // Test for PUT /inote/notes/1
     @Test
     void testUpdateNote() throws Exception {
@@ -232,6 +506,82 @@ public class NoteControllerTest {
             .andExpect(status().isNotFound());
     }
 
+    // Test for GET /inote/notes/1/revisions
+    @Test
+    void testGetNoteRevisions() throws Exception {
+        // Given: сервис возвращает страницу версий заметки
+        CursorPage<NoteRevisionSummary> page = new CursorPage<>(List.of(
+            new NoteRevisionSummary(2, 1, "Test Note", 12, 5, LocalDateTime.of(2025, 3, 1, 12, 0))), "2");
+        when(noteRevisionService.findPage(1L, null, 50)).thenReturn(page);
+
+        // When & Then: ответ содержит версии без содержимого и курсор
+        mockMvc.perform(get("/inote/notes/1/revisions"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].revision").value(2))
+            .andExpect(jsonPath("$.items[0].storedLength").value(5))
+            .andExpect(jsonPath("$.items[0].content").doesNotExist())
+            .andExpect(jsonPath("$.next").value("2"));
+    }
+
+    // Test for GET /inote/notes/1/revisions/2
+    @Test
+    void testGetNoteRevision() throws Exception {
+        // Given: сервис восстанавливает версию заметки
+        Note note = new Note(1L, "Test Note", "Old Content", null, LocalDateTime.of(2025, 3, 1, 12, 0));
+        when(noteRevisionService.findRevision(1L, 2)).thenReturn(note);
+
+        // When & Then: ответ содержит содержимое версии
+        mockMvc.perform(get("/inote/notes/1/revisions/2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content").value("Old Content"));
+    }
+
+    // Test for PATCH /inote/notes/1
+    @Test
+    void testPatchNote() throws Exception {
+        // Given: сервис применяет правки к версии из If-Match
+        Note note = new Note(1L, "Test Note", "Patched Content", LocalDateTime.now(), NOTE_VERSION.getUpdatedAt());
+        when(noteService.patch(eq(1L), eq("base-1"), any(NotePatch.class))).thenReturn(Optional.of(note));
+
+        // When: выполняем запрос PATCH с правками содержимого
+        // Then: ответ 204 без содержимого заметки, с ETag и Last-Modified новой версии
+        mockMvc.perform(patch("/inote/notes/1")
+                .header(HttpHeaders.IF_MATCH, "\"base-1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"edits\": [{\"offset\": 0, \"delete\": 4, \"insert\": \"Patched\"}]}"))
+            .andExpect(status().isNoContent())
+            .andExpect(content().string(""))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + NOTE_VERSION.eTag() + "\""))
+            .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, NOTE_VERSION.lastModified() / 1000 * 1000));
+    }
+
+    // Test for PATCH /inote/notes/1 without If-Match
+    @Test
+    void testPatchNote_MissingIfMatch() throws Exception {
+        // When: клиент не указывает версию, к которой относятся правки
+        // Then: ответ 400, сервис не вызывается
+        mockMvc.perform(patch("/inote/notes/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"edits\": []}"))
+            .andExpect(status().isBadRequest());
+        verify(noteService, never()).patch(anyLong(), any(), any());
+    }
+
+    // Test for PATCH /inote/notes/1 with stale version
+    @Test
+    void testPatchNote_PreconditionFailed() throws Exception {
+        // Given: заметка изменена после версии клиента
+        when(noteService.patch(eq(1L), eq("stale-1"), any(NotePatch.class)))
+            .thenThrow(new PreconditionFailedException("Заметка с ID 1 изменена после версии stale-1"));
+
+        // When & Then: ответ 412
+        mockMvc.perform(patch("/inote/notes/1")
+                .header(HttpHeaders.IF_MATCH, "\"stale-1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"edits\": []}"))
+            .andExpect(status().isPreconditionFailed());
+    }
+
     // Test for DELETE /inote/notes/1
     @Test
     void testDeleteNote() throws Exception {
@@ -261,4 +611,50 @@ public class NoteControllerTest {
         mockMvc.perform(delete("/inote/notes/1"))
             .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    // Test for POST /inote/notes/bulk-delete
+    @Test
+    void testDeleteNotes() throws Exception {
+        // Given: сервис удаляет две заметки
+        when(noteService.deleteByIds(List.of(1L, 2L))).thenReturn(2);
+
+        // When: выполняем запрос на массовое удаление
+        // Then: в ответе количество удаленных заметок
+        mockMvc.perform(post("/inote/notes/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [1, 2]}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.affected").value(2));
+    }
+
+    // Test for DELETE /inote/notes/created-between
+    @Test
+    void testDeleteNotesByCreatedAtBetween() throws Exception {
+        // Given: сервис удаляет три заметки за период
+        when(noteService.deleteByCreatedAtBetween(LocalDate.of(2024, 1, 1).atStartOfDay(),
+            LocalDate.of(2024, 1, 31).atTime(23, 59, 59))).thenReturn(3);
+
+        // When: выполняем запрос на удаление за период
+        // Then: в ответе количество удаленных заметок
+        mockMvc.perform(delete("/inote/notes/created-between")
+                .param("startDate", "2024-01-01")
+                .param("endDate", "2024-01-31"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.affected").value(3));
+    }
+
+    // Test for PUT /inote/notes/bulk-title
+    @Test
+    void testUpdateNotesTitle() throws Exception {
+        // Given: сервис обновляет заголовок двух заметок
+        when(noteService.updateTitle(List.of(1L, 2L), "New Title")).thenReturn(2);
+
+        // When: выполняем запрос на массовое изменение заголовка
+        // Then: в ответе количество обновленных заметок
+        mockMvc.perform(put("/inote/notes/bulk-title")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [1, 2], \"title\": \"New Title\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.affected").value(2));
+    }
+}
@@ -0,0 +1,204 @@
+package inote.controller;
+
+import inote.entity.Note;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты реактивного стека (профиль reactive): WebFlux, сервис и R2DBC-репозиторий поверх H2.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"reactive", "test"})
+class ReactiveNoteControllerTest {
+
+    private static final String BASE_URL = "/inote/notes";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        // Given: пустая таблица заметок и пустые кэши
+        databaseClient.sql("DELETE FROM notes").fetch().rowsUpdated().block();
+        cacheManager.getCacheNames().forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
+    }
+
+    @Test
+    void addNote_ShouldAssignId_AndGetNoteById_ShouldReturnIt() {
+        // Given: добавляем заметку
+        Note saved = addNote("Title", "Content");
+
+        // When & Then: заметка читается по присвоенному ID вместе с ETag
+        assertThat(saved.getId()).isNotNull();
+        assertThat(saved.getCreatedAt()).isNotNull();
+        webTestClient.get().uri(BASE_URL + "/{id}", saved.getId())
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().exists(HttpHeaders.ETAG)
+            .expectBody()
+            .jsonPath("$.title").isEqualTo("Title")
+            .jsonPath("$.content").isEqualTo("Content");
+    }
+
+    @Test
+    void getNoteById_ShouldReturnNotModified_WhenETagMatches() {
+        // Given: заметка и ее ETag
+        Note saved = addNote("Title", "Content");
+        String eTag = webTestClient.get().uri(BASE_URL + "/{id}", saved.getId())
+            .exchange()
+            .expectStatus().isOk()
+            .returnResult(Note.class)
+            .getResponseHeaders()
+            .getETag();
+
+        // When & Then: повторный запрос с If-None-Match получает 304
+        webTestClient.get().uri(BASE_URL + "/{id}", saved.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus().isNotModified()
+            .expectBody().isEmpty();
+    }
+
+    @Test
+    void getNoteById_ShouldReturnNotFound_WhenNoteDoesNotExist() {
+        // When & Then: запрос несуществующей заметки возвращает 404
+        webTestClient.get().uri(BASE_URL + "/{id}", 999_999)
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody()
+            .jsonPath("$.message").isEqualTo("Заметка с ID 999999 не найдена");
+    }
+
+    @Test
+    void getAllNotes_ShouldStreamNotesInIdOrder() {
+        // Given: три заметки
+        Note first = addNote("First", "1");
+        Note second = addNote("Second", "2");
+        Note third = addNote("Third", "3");
+
+        // When: читаем поток в формате NDJSON после первой заметки
+        List<Note> notes = webTestClient.get().uri(BASE_URL + "?after={after}", first.getId())
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .returnResult(Note.class)
+            .getResponseBody()
+            .collectList()
+            .block();
+
+        // Then: получены остальные заметки в порядке возрастания ID
+        assertThat(notes).extracting(Note::getId).containsExactly(second.getId(), third.getId());
+    }
+
+    @Test
+    void getAllNotes_ShouldReturnJsonArray_LimitedByLimit() {
+        // Given: три заметки
+        addNote("First", "1");
+        addNote("Second", "2");
+        addNote("Third", "3");
+
+        // When & Then: JSON-массив из двух первых заметок
+        webTestClient.get().uri(BASE_URL + "?limit=2")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(2)
+            .jsonPath("$[0].title").isEqualTo("First")
+            .jsonPath("$[1].title").isEqualTo("Second");
+    }
+
+    @Test
+    void getAllNotes_ShouldReturnBadRequest_WhenCursorIsInvalid() {
+        // When & Then: некорректный курсор отклоняется
+        webTestClient.get().uri(BASE_URL + "?after=abc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getNotesByTitle_ShouldReturnMatchingNotes() {
+        // Given: две заметки с одинаковым заголовком и одна с другим
+        addNote("Same", "1");
+        addNote("Same", "2");
+        addNote("Other", "3");
+
+        // When & Then: возвращаются только заметки с указанным заголовком
+        webTestClient.get().uri(BASE_URL + "/title/{title}", "Same")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(2);
+    }
+
+    @Test
+    void updateNote_ShouldChangeNote_AndRefreshCachedVersion() {
+        // Given: заметка, прочитанная по ID (попадает в кэш)
+        Note saved = addNote("Title", "Content");
+        webTestClient.get().uri(BASE_URL + "/{id}", saved.getId()).exchange().expectStatus().isOk();
+
+        // When: обновляем заметку
+        webTestClient.put().uri(BASE_URL + "/{id}", saved.getId())
+            .bodyValue(new Note(null, "New Title", "New Content", null, null))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.title").isEqualTo("New Title");
+
+        // Then: чтение по ID возвращает обновленную заметку
+        webTestClient.get().uri(BASE_URL + "/{id}", saved.getId())
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.title").isEqualTo("New Title")
+            .jsonPath("$.content").isEqualTo("New Content");
+    }
+
+    @Test
+    void deleteNote_ShouldRemoveNote() {
+        // Given: заметка, прочитанная по ID (попадает в кэш)
+        Note saved = addNote("Title", "Content");
+        webTestClient.get().uri(BASE_URL + "/{id}", saved.getId()).exchange().expectStatus().isOk();
+
+        // When: удаляем заметку
+        webTestClient.delete().uri(BASE_URL + "/{id}", saved.getId())
+            .exchange()
+            .expectStatus().isNoContent();
+
+        // Then: заметка больше не находится, повторное удаление возвращает 404
+        webTestClient.get().uri(BASE_URL + "/{id}", saved.getId()).exchange().expectStatus().isNotFound();
+        webTestClient.delete().uri(BASE_URL + "/{id}", saved.getId()).exchange().expectStatus().isNotFound();
+    }
+
+    private Note addNote(String title, String content) {
+        return webTestClient.post().uri(BASE_URL)
+            .bodyValue(new Note(null, title, content, null, null))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(Note.class)
+            .returnResult()
+            .getResponseBody();
+    }
+}
@@ -0,0 +1,234 @@
+package inote.datasource;
+
+import inote.config.ReadReplicaProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.CacheInterceptor;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ReadReplicaProperties properties;
+
+    private ReplicaRoutingDataSource routingDataSource;  // Тестируемый источник соединений
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate writeTransaction;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        // Given: две независимые БД H2, каждая хранит свое имя, проверка отставания отключена
+        properties = new ReadReplicaProperties();
+        properties.setLagQuery(null);
+        init(h2("routing-primary"), h2("routing-replica"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        routingDataSource.close();
+    }
+
+    @Test
+    void getConnection_ShouldUseReplica_ForReadOnlyTransaction() {
+        // When / Then: читающая транзакция выполняется на реплике, пишущая и чтение без транзакции - на основной БД
+        assertThat(readOnlyTransaction.<String>execute(status -> nodeName())).isEqualTo("routing-replica");
+        assertThat(writeTransaction.<String>execute(status -> nodeName())).isEqualTo("routing-primary");
+        assertThat(nodeName()).isEqualTo("routing-primary");
+        assertThat(connections("replica-1")).isEqualTo(1);
+        assertThat(connections("primary")).isEqualTo(2);
+    }
+
+    @Test
+    void getConnection_ShouldFallBackToPrimary_WhenReplicaUnavailable() {
+        // Given: реплика не принимает соединения
+        routingDataSource.close();
+        init(h2("routing-primary"), unavailable());
+
+        // When: дважды читаем в транзакции readOnly
+        String first = readOnlyTransaction.execute(status -> nodeName());
+        String second = readOnlyTransaction.execute(status -> nodeName());
+
+        // Then: чтение выполнено на основной БД, реплика исключена после первой ошибки
+        assertThat(first).isEqualTo("routing-primary");
+        assertThat(second).isEqualTo("routing-primary");
+        assertThat(registry.get("inote.datasource.fallbacks").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void getConnection_ShouldReadOwnWritesFromPrimary_WithinRequestAndByCookie() {
+        // Given: HTTP-запрос клиента, выполнивший запись
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+        writeTransaction.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET name = name"));
+
+        // When / Then: чтение в том же запросе выполняется на основной БД, клиенту выставлен cookie
+        assertThat(readOnlyTransaction.<String>execute(status -> nodeName())).isEqualTo("routing-primary");
+        Cookie cookie = response.getCookie(ReplicaRoutingDataSource.PRIMARY_UNTIL_COOKIE);
+        assertThat(cookie).isNotNull();
+        assertThat(response.getHeaders(HttpHeaders.SET_COOKIE)).hasSize(1);
+
+        // When / Then: следующий запрос с cookie читает с основной БД, с истекшим cookie - с реплики
+        assertThat(readInRequest(cookie)).isEqualTo("routing-primary");
+        assertThat(readInRequest(new Cookie(ReplicaRoutingDataSource.PRIMARY_UNTIL_COOKIE,
+            Long.toString(System.currentTimeMillis() - 1)))).isEqualTo("routing-replica");
+    }
+
+    @Test
+    void checkReplicas_ShouldExcludeReplica_WhenLagExceedsMax() {
+        // Given: реплика отстает на 10 секунд при допустимых 5
+        properties.setLagQuery("SELECT 10");
+        properties.setMaxLag(Duration.ofSeconds(5));
+
+        // When: проверяем реплики
+        routingDataSource.checkReplicas();
+
+        // Then: чтение выполняется на основной БД, отставание доступно в метрике
+        assertThat(readOnlyTransaction.<String>execute(status -> nodeName())).isEqualTo("routing-primary");
+        assertThat(registry.get("inote.datasource.replica.lag").gauge().value()).isEqualTo(10.0);
+
+        // When / Then: реплика догнала основную БД и снова используется
+        properties.setLagQuery("SELECT 0");
+        routingDataSource.checkReplicas();
+        assertThat(readOnlyTransaction.<String>execute(status -> nodeName())).isEqualTo("routing-replica");
+    }
+
+    @Test
+    void cachedRead_ShouldFillCacheFromPrimary_WhenReplicaLags() {
+        // Given: запись выполнена на основной БД, реплика ее еще не получила
+        writeTransaction.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET name = 'updated'"));
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        CacheInterceptor cacheInterceptor = new CacheInterceptor();
+        cacheInterceptor.setCacheOperationSource(new AnnotationCacheOperationSource());
+        cacheInterceptor.setCacheManager(cacheManager);
+        cacheInterceptor.afterSingletonsInstantiated();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new NodeReader(readOnlyTransaction, jdbcTemplate));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new CachedReadsOnPrimary());
+        factory.addAdvice(cacheInterceptor);
+        NodeReader reader = factory.getProxy();
+
+        // When: запрос другого клиента, без cookie после записи, заполняет кэш
+        String cached = reader.cachedName();
+
+        // Then: в кэш сохранена новая версия с основной БД, остальные чтения выполняются на реплике
+        assertThat(cached).isEqualTo("updated");
+        assertThat(cacheManager.getCache("nodes").get(SimpleKey.EMPTY).get()).isEqualTo("updated");
+        assertThat(readOnlyTransaction.<String>execute(status -> nodeName())).isEqualTo("routing-replica");
+    }
+
+    @Test
+    void getConnection_ShouldPassCredentialsToTarget() throws SQLException {
+        // When: соединение запрашивается с явными учетными данными вне транзакции
+        try (Connection connection = routingDataSource.getConnection("", "")) {
+            // Then: соединение выдано основной БД
+            assertThat(connection.isValid(1)).isTrue();
+        }
+        assertThat(connections("primary")).isEqualTo(1);
+    }
+
+    private void init(DataSource primary, DataSource replica) {
+        routingDataSource = new ReplicaRoutingDataSource(primary, Map.of("replica-1", replica), properties, registry);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    private String readInRequest(Cookie cookie) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(cookie);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, new MockHttpServletResponse()));
+        return readOnlyTransaction.execute(status -> nodeName());
+    }
+
+    private String nodeName() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private double connections(String target) {
+        return registry.get("inote.datasource.connections").tag("target", target).counter().count();
+    }
+
+    /**
+     * БД H2 в памяти с таблицей node, содержащей имя БД.
+     */
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(32))");
+        jdbcTemplate.update("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    /**
+     * Чтение, результат которого сохраняется в кэш.
+     */
+    static class NodeReader {
+
+        private final TransactionTemplate transaction;
+
+        private final JdbcTemplate jdbcTemplate;
+
+        NodeReader(TransactionTemplate transaction, JdbcTemplate jdbcTemplate) {
+            this.transaction = transaction;
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Cacheable("nodes")
+        public String cachedName() {
+            return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        }
+    }
+
+    private static DataSource unavailable() {
+        return new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                throw new SQLException("Connection refused");
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return getConnection();
+            }
+        };
+    }
+}
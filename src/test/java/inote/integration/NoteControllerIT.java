@@ -65,9 +65,11 @@ public class NoteControllerIT {
             // Then: ожидаем, что ответ будет успешным (200 OK)
             .andExpect(status().isOk())
             // Then: ожидаем, что количество заметок будет равно 1
-            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.items.length()").value(1))
             // Then: ожидаем, что в ответе будет первая заметка с соответствующим title
-            .andExpect(jsonPath("$[0].title").value(testNote.getTitle()));
+            .andExpect(jsonPath("$.items[0].title").value(testNote.getTitle()))
+            // Then: ожидаем, что следующей страницы нет
+            .andExpect(jsonPath("$.next").doesNotExist());
     }
 
     @Test
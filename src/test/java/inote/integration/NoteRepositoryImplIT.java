@@ -2,6 +2,7 @@ package inote.integration;
 
 import inote.entity.Note;
 import inote.repository.NoteRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,6 +24,9 @@ class NoteRepositoryImplIT {
     @Autowired
     private NoteRepository noteRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private Note note;
 
     @BeforeEach
@@ -120,4 +124,43 @@ class NoteRepositoryImplIT {
         Optional<Note> deletedNote = noteRepository.findById(noteId);
         assertThat(deletedNote).isEmpty();
     }
+
+    @Test
+    void testUpdateAll() {
+        // Given: новые данные существующей заметки и заметка, которой нет в базе
+        Note changed = new Note(note.getId(), "Batched Title", "Batched content",
+            note.getCreatedAt(), LocalDateTime.now());
+        Note missing = new Note(-1L, "Missing", "Missing", null, LocalDateTime.now());
+
+        // When: обновляем заметки одним пакетом
+        int updated = noteRepository.updateAll(List.of(changed, missing));
+
+        // Then: обновлена только существующая заметка
+        entityManager.clear();
+        assertThat(updated).isEqualTo(1);
+        Optional<Note> foundNote = noteRepository.findById(note.getId());
+        assertThat(foundNote).isPresent();
+        assertThat(foundNote.get().getTitle()).isEqualTo("Batched Title");
+        assertThat(foundNote.get().getContent()).isEqualTo("Batched content");
+    }
+
+    @Test
+    void testUpdateIfUnchanged() {
+        // Given: версия заметки, прочитанная из БД
+        entityManager.flush();
+        entityManager.clear();
+        Note stored = noteRepository.findById(note.getId()).orElseThrow();
+        Note patched = new Note(note.getId(), "Patched Title", "Patched content",
+            stored.getCreatedAt(), stored.getUpdatedAt().plusSeconds(1));
+
+        // When: записываем изменение при прочитанной и при устаревшей версии
+        boolean first = noteRepository.updateIfUnchanged(patched, stored.getUpdatedAt());
+        boolean second = noteRepository.updateIfUnchanged(patched, stored.getUpdatedAt());
+
+        // Then: записано только первое изменение
+        entityManager.clear();
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        assertThat(noteRepository.findById(note.getId()).orElseThrow().getContent()).isEqualTo("Patched content");
+    }
 }
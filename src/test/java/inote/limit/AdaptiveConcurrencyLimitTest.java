@@ -0,0 +1,102 @@
+package inote.limit;
+
+import inote.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private AdaptiveConcurrencyLimit limit;  // Тестируемый предел
+
+    @BeforeEach
+    void setUp() {
+        // Given: предел 20 при запуске, от 4 до 200
+        limit = new AdaptiveConcurrencyLimit(new ConcurrencyLimitProperties());
+    }
+
+    @Test
+    void onSample_ShouldGrowLimit_WhileLatencyIsStableUnderLoad() {
+        // When: все места заняты, задержка постоянна
+        feed(FAST, 300);
+
+        // Then: предел вырос, но не выше наибольшего
+        assertThat(limit.getLimit()).isGreaterThan(20).isLessThanOrEqualTo(200);
+    }
+
+    @Test
+    void onSample_ShouldShrinkLimit_WhenLatencyGrows() {
+        // Given: предел вырос при обычной задержке
+        feed(FAST, 100);
+        int grown = limit.getLimit();
+
+        // When: задержка выросла в 10 раз
+        feed(SLOW, 30);
+
+        // Then: предел уменьшился
+        assertThat(limit.getLimit()).isLessThan(grown);
+    }
+
+    @Test
+    void onSample_ShouldKeepLimitWithinBounds() {
+        // Given: предел от 15 до 30
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setMinLimit(15);
+        properties.setMaxLimit(30);
+        limit = new AdaptiveConcurrencyLimit(properties);
+
+        // When / Then: рост останавливается на наибольшем пределе
+        feed(FAST, 300);
+        assertThat(limit.getLimit()).isEqualTo(30);
+
+        // When / Then: снижение останавливается на наименьшем пределе
+        feed(SLOW, 30);
+        assertThat(limit.getLimit()).isEqualTo(15);
+    }
+
+    @Test
+    void onSample_ShouldKeepLimit_WhenMostlyIdle() {
+        // When: выполняется один запрос из двадцати
+        for (int i = 0; i < 300; i++) {
+            limit.onSample(FAST, 1);
+        }
+
+        // Then: рост без нагрузки не подтвержден, предел не изменился
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void tryAcquire_ShouldRespectLimitAndCap() {
+        // When / Then: дополнительное ограничение меньше предела
+        assertThat(limit.tryAcquire(2)).isTrue();
+        assertThat(limit.tryAcquire(2)).isTrue();
+        assertThat(limit.tryAcquire(2)).isFalse();
+
+        // When / Then: без дополнительного ограничения действует предел
+        for (int i = 2; i < 20; i++) {
+            assertThat(limit.tryAcquire(Integer.MAX_VALUE)).isTrue();
+        }
+        assertThat(limit.tryAcquire(Integer.MAX_VALUE)).isFalse();
+
+        // When / Then: освобожденное место снова доступно
+        limit.release(FAST, false);
+        assertThat(limit.getInFlight()).isEqualTo(19);
+        assertThat(limit.tryAcquire(Integer.MAX_VALUE)).isTrue();
+    }
+
+    /**
+     * Передать замеры запросов, выполнявшихся при полностью занятом пределе.
+     */
+    private void feed(long rttNanos, int count) {
+        for (int i = 0; i < count; i++) {
+            limit.onSample(rttNanos, limit.getLimit());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package inote.limit;
+
+import inote.config.ConcurrencyLimitProperties;
+import inote.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private ConcurrencyLimitInterceptor interceptor;  // Тестируемый перехватчик
+
+    @BeforeEach
+    void setUp() {
+        // Given: предел каждой группы 10, неприоритетные группы занимают не больше половины суммы пределов (15)
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(10);
+        properties.setMinLimit(1);
+        properties.setLowPriorityShare(0.5);
+        properties.setRetryAfter(Duration.ofSeconds(2));
+        interceptor = new ConcurrencyLimitInterceptor(properties, registry);
+    }
+
+    @Test
+    void preHandle_ShouldReject_WhenGroupLimitReached() throws Exception {
+        // Given: заняты все 10 мест чтения из кэша
+        List<MockHttpServletRequest> requests = acquire("read", 10);
+
+        // When / Then: следующий запрос группы отклонен с Retry-After из настроек
+        assertThatThrownBy(() -> interceptor.preHandle(new MockHttpServletRequest(), response, handler("read")))
+            .isInstanceOfSatisfying(ServiceUnavailableException.class,
+                ex -> assertThat(ex.getRetryAfter()).isEqualTo(Duration.ofSeconds(2)));
+        assertThat(registry.get("inote.concurrency.rejected").tag("group", "cached_read").counter().count())
+            .isEqualTo(1);
+        assertThat(registry.get("inote.concurrency.inflight").tag("group", "cached_read").gauge().value())
+            .isEqualTo(10);
+
+        // When / Then: после завершения запроса место освобождается
+        interceptor.afterCompletion(requests.get(0), response, handler("read"), null);
+        assertThat(interceptor.preHandle(new MockHttpServletRequest(), response, handler("read"))).isTrue();
+    }
+
+    @Test
+    void preHandle_ShouldShedLowPriorityGroupsFirst() throws Exception {
+        // Given: 10 запросов чтения из кэша
+        acquire("read", 10);
+
+        // When / Then: запись получает только 5 мест до половины суммарного предела
+        acquire("write", 5);
+        assertThatThrownBy(() -> interceptor.preHandle(new MockHttpServletRequest(), response, handler("write")))
+            .isInstanceOf(ServiceUnavailableException.class);
+        assertThatThrownBy(() -> interceptor.preHandle(new MockHttpServletRequest(), response, handler("scan")))
+            .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(registry.get("inote.concurrency.rejected").tag("group", "write").counter().count()).isEqualTo(1);
+        assertThat(registry.get("inote.concurrency.rejected").tag("group", "scan").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void afterConcurrentHandlingStarted_ShouldHoldPermitUntilAsyncComplete() throws Exception {
+        // Given: запрос выгрузки перешел в асинхронный режим
+        MockHttpServletRequest request = acquire("scan", 1).get(0);
+        request.setAsyncSupported(true);
+        request.startAsync();
+        interceptor.afterConcurrentHandlingStarted(request, response, handler("scan"));
+        assertThat(interceptor.getLimit(RequestGroup.SCAN).getInFlight()).isEqualTo(1);
+
+        // When: ответ завершен, после чего выполнена асинхронная обработка
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        interceptor.afterCompletion(request, response, handler("scan"), null);
+
+        // Then: место освобождено один раз
+        assertThat(interceptor.getLimit(RequestGroup.SCAN).getInFlight()).isZero();
+    }
+
+    @Test
+    void preHandle_ShouldSkipMethodsWithoutGroup() throws Exception {
+        // When / Then: метод без группы не ограничивается
+        for (int i = 0; i < 50; i++) {
+            assertThat(interceptor.preHandle(new MockHttpServletRequest(), response, handler("health"))).isTrue();
+        }
+    }
+
+    private List<MockHttpServletRequest> acquire(String method, int count) throws Exception {
+        List<MockHttpServletRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            assertThat(interceptor.preHandle(request, response, handler(method))).isTrue();
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    private static HandlerMethod handler(String method) throws NoSuchMethodException {
+        return new HandlerMethod(new TestController(), TestController.class.getMethod(method));
+    }
+
+    static class TestController {
+
+        @ConcurrencyGroup(RequestGroup.CACHED_READ)
+        public void read() {
+        }
+
+        @ConcurrencyGroup(RequestGroup.SCAN)
+        public void scan() {
+        }
+
+        @ConcurrencyGroup(RequestGroup.WRITE)
+        public void write() {
+        }
+
+        public void health() {
+        }
+    }
+}
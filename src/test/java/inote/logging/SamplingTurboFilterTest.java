@@ -0,0 +1,76 @@
+package inote.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SamplingTurboFilterTest {
+
+    private LoggerContext context;  // Контекст логгеров без конфигурации
+
+    private SamplingTurboFilter filter;  // Тестируемый фильтр
+
+    @BeforeEach
+    void setUp() {
+        // Given: выборка каждого третьего сообщения для пакета inote.service
+        context = new LoggerContext();
+        filter = new SamplingTurboFilter();
+        filter.addLogger("inote.service");
+        filter.setRate(3);
+        filter.start();
+    }
+
+    @Test
+    void decide_ShouldPassEveryNthInfoMessage_OfSampledLogger() {
+        // Given: логгер вложенного пакета
+        Logger logger = context.getLogger("inote.service.impl.NoteServiceImpl");
+
+        // When: шесть сообщений INFO
+        List<FilterReply> replies = decide(logger, Level.INFO, 6);
+
+        // Then: проходят первое и четвертое сообщения
+        assertThat(replies).containsExactly(FilterReply.NEUTRAL, FilterReply.DENY, FilterReply.DENY,
+            FilterReply.NEUTRAL, FilterReply.DENY, FilterReply.DENY);
+    }
+
+    @Test
+    void decide_ShouldPassAllMessages_OfWarnLevelAndOtherLoggers() {
+        // Given: логгер выбранного пакета и логгер журнала доступа
+        Logger service = context.getLogger("inote.service.impl.NoteServiceImpl");
+        Logger access = context.getLogger("inote.access");
+
+        // When & Then: WARN и сообщения других логгеров не отбрасываются
+        assertThat(decide(service, Level.WARN, 3)).containsOnly(FilterReply.NEUTRAL);
+        assertThat(decide(access, Level.INFO, 3)).containsOnly(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void decide_ShouldNotCountMessages_BelowLoggerLevel() {
+        // Given: логгер с уровнем INFO
+        Logger logger = context.getLogger("inote.service.impl.NoteServiceImpl");
+        logger.setLevel(Level.INFO);
+
+        // When: отключенные сообщения DEBUG, затем сообщения INFO
+        decide(logger, Level.DEBUG, 2);
+        List<FilterReply> replies = decide(logger, Level.INFO, 2);
+
+        // Then: DEBUG не сдвигает выборку, первое сообщение INFO проходит
+        assertThat(replies).containsExactly(FilterReply.NEUTRAL, FilterReply.DENY);
+    }
+
+    private List<FilterReply> decide(Logger logger, Level level, int count) {
+        List<FilterReply> replies = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            replies.add(filter.decide(null, logger, level, "Сообщение {}", new Object[] {i}, null));
+        }
+        return replies;
+    }
+}
@@ -0,0 +1,63 @@
+package inote.metrics;
+
+import inote.entity.Note;
+import inote.exception.NotFoundException;
+import inote.service.NoteService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class NoteOperationMetricsTest {
+
+    private SimpleMeterRegistry registry;  // Реестр метрик в памяти
+
+    private NoteService target;  // Мок сервиса за прокси с аспектом
+
+    private NoteService noteService;  // Прокси сервиса с аспектом метрик
+
+    @BeforeEach
+    void setUp() {
+        // Given: сервис, обернутый аспектом метрик
+        registry = new SimpleMeterRegistry();
+        target = mock(NoteService.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addInterface(NoteService.class);
+        factory.addAspect(new NoteOperationMetrics(registry));
+        noteService = factory.getProxy();
+    }
+
+    @Test
+    void serviceCall_ShouldRecordTimerAndResultSize() {
+        // Given: сервис возвращает две заметки по заголовку
+        BDDMockito.given(target.findByTitle("Title")).willReturn(List.of(new Note(), new Note()));
+
+        // When: вызываем метод сервиса
+        noteService.findByTitle("Title");
+
+        // Then: записаны время вызова без исключения и размер результата
+        assertThat(registry.get(NoteOperationMetrics.SERVICE_CALLS)
+            .tags("method", "findByTitle", "exception", "none").timer().count()).isEqualTo(1);
+        assertThat(registry.get(NoteOperationMetrics.SERVICE_RESULTS)
+            .tag("method", "findByTitle").summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void serviceCall_ShouldTagException_WhenMethodFails() {
+        // Given: сервис не находит заметку
+        BDDMockito.willThrow(new NotFoundException("Заметка с ID 1 не найдена")).given(target).deleteById(1L);
+
+        // When & Then: исключение пробрасывается, вызов учтен с именем исключения
+        assertThatThrownBy(() -> noteService.deleteById(1L)).isInstanceOf(NotFoundException.class);
+        assertThat(registry.get(NoteOperationMetrics.SERVICE_CALLS)
+            .tags("method", "deleteById", "exception", "NotFoundException").timer().count()).isEqualTo(1);
+        assertThat(registry.find(NoteOperationMetrics.SERVICE_RESULTS).summary()).isNull();
+    }
+}
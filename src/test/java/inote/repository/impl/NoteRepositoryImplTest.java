@@ -1,19 +1,33 @@
 package inote.repository.impl;
 
+import inote.config.PersistenceProperties;
+import inote.dto.NoteSearchHit;
+import inote.dto.NoteSummary;
 import inote.entity.Note;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -29,6 +43,9 @@ public class NoteRepositoryImplTest {
     @Mock
     private TypedQuery<Note> typedQuery; // Используем TypedQuery для выполнения запросов
 
+    @Spy
+    private PersistenceProperties properties = new PersistenceProperties(); // Настройки со значениями по умолчанию
+
     private Note testNote; // Тестовая заметка для использования в тестах
 
     @BeforeEach
@@ -55,6 +72,63 @@ public class NoteRepositoryImplTest {
         assertEquals(1, result.size());
     }
 
+    @Test
+    public void testFindPage_ShouldUseKeysetQuery_WhenAfterIdIsGiven() {
+        // Given: мокируем keyset-запрос с условием по ID и ограничением размера выборки
+        String jpql = "SELECT n FROM Note n WHERE n.id > :afterId ORDER BY n.id";
+        when(entityManager.createQuery(jpql, Note.class)).thenReturn(typedQuery);
+        when(typedQuery.setParameter("afterId", 10L)).thenReturn(typedQuery);
+        when(typedQuery.setMaxResults(5)).thenReturn(typedQuery);
+        when(typedQuery.getResultList()).thenReturn(Arrays.asList(testNote));
+
+        // When: запрашиваем страницу после ID 10
+        List<Note> result = noteRepository.findPage(10L, 5);
+
+        // Then: проверяем, что использован keyset-запрос с ограничением выборки
+        assertEquals(1, result.size());
+        verify(typedQuery, times(1)).setParameter("afterId", 10L);
+        verify(typedQuery, times(1)).setMaxResults(5);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFindSummaryPage_ShouldSelectPreviewInsteadOfContent() {
+        // Given: мокируем запрос кратких представлений с keyset-условием по ID
+        TypedQuery<NoteSummary> summaryQuery = mock(TypedQuery.class);
+        NoteSummary summary = NoteSummary.builder().id(11L).title("Test Title").contentLength(12).build();
+        when(entityManager.createQuery(
+            argThat((String jpql) -> jpql.contains("new inote.dto.NoteSummary") && jpql.contains("n.id > :afterId")),
+            eq(NoteSummary.class))).thenReturn(summaryQuery);
+        when(summaryQuery.setParameter(anyString(), any())).thenReturn(summaryQuery);
+        when(summaryQuery.setMaxResults(5)).thenReturn(summaryQuery);
+        when(summaryQuery.getResultList()).thenReturn(List.of(summary));
+
+        // When: запрашиваем страницу кратких представлений после ID 10
+        List<NoteSummary> result = noteRepository.findSummaryPage(10L, 5);
+
+        // Then: передана длина фрагмента из настроек, а выборка ограничена размером страницы
+        assertEquals(List.of(summary), result);
+        verify(summaryQuery).setParameter("afterId", 10L);
+        verify(summaryQuery).setParameter("previewLength", properties.getSummaryPreviewLength());
+        verify(summaryQuery).setMaxResults(5);
+    }
+
+    @Test
+    public void testStreamAll_ShouldUseFetchSizeAndDetachNotes() {
+        // Given: мокируем потоковый запрос с подсказками Hibernate
+        when(entityManager.createQuery("SELECT n FROM Note n ORDER BY n.id", Note.class)).thenReturn(typedQuery);
+        when(typedQuery.setHint(anyString(), any())).thenReturn(typedQuery);
+        when(typedQuery.getResultStream()).thenReturn(Stream.of(testNote));
+
+        // When: читаем все заметки потоком
+        List<Note> result = noteRepository.streamAll().toList();
+
+        // Then: установлен размер порции чтения, а прочитанная заметка отсоединена от контекста
+        assertEquals(1, result.size());
+        verify(typedQuery).setHint(HibernateHints.HINT_FETCH_SIZE, properties.getExportFetchSize());
+        verify(entityManager).detach(testNote);
+    }
+
     @Test
     public void testFindByTitle_ShouldReturnNotes_WhenNotesExist() {
         // Given: мокируем создание запроса с использованием EntityManager, устанавливаем параметры и результат
@@ -136,6 +210,24 @@ public class NoteRepositoryImplTest {
         verify(entityManager, times(1)).merge(testNote); // Проверка, что был вызван метод merge
     }
 
+    @Test
+    public void testSaveAll_ShouldFlushAndClearEveryBatch() {
+        // Given: 120 новых заметок при размере пакета 50
+        List<Note> notes = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            notes.add(Note.builder().title("Note " + i).content("Content").build());
+        }
+
+        // When: сохраняем заметки пакетом
+        List<Note> saved = noteRepository.saveAll(notes);
+
+        // Then: каждая заметка сохранена, контекст сброшен после 50-й, 100-й и последней заметки
+        assertEquals(120, saved.size());
+        verify(entityManager, times(120)).persist(any(Note.class));
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+    }
+
     @Test
     public void testUpdate_ShouldReturnUpdatedNote_WhenNoteExists() {
         // Given: мокаем нахождение заметки и ее обновление
@@ -177,4 +269,44 @@ public class NoteRepositoryImplTest {
         // Then: проверяем, что метод remove не был вызван
         verify(entityManager, times(0)).remove(any());
     }
+
+    @Test
+    public void testDeleteByIds_ShouldSplitIdsIntoChunks() {
+        // Given: 1500 ID и мок запроса на удаление
+        Query query = mock(Query.class);
+        when(entityManager.createQuery("DELETE FROM Note n WHERE n.id IN :ids")).thenReturn(query);
+        when(query.setParameter(eq("ids"), any())).thenReturn(query);
+        when(query.executeUpdate()).thenReturn(1000, 500);
+        List<Long> ids = LongStream.rangeClosed(1, 1500).boxed().toList();
+
+        // When: удаляем заметки по списку ID
+        int deleted = noteRepository.deleteByIds(ids);
+
+        // Then: выполнено два запроса (1000 + 500 ID), удаленные строки просуммированы
+        assertEquals(1500, deleted);
+        verify(query, times(2)).executeUpdate();
+    }
+
+    @Test
+    public void testSearch_ShouldMapNativeRows_WhenFullTextSearchEnabled() {
+        // Given: мок нативного запроса полнотекстового поиска, возвращающего одну строку
+        Query query = mock(Query.class);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 10, 0);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, "Test Title", "<b>Test</b> Content", 0.6f, Timestamp.valueOf(createdAt), null});
+        when(query.getResultList()).thenReturn(rows);
+
+        // When: выполняем поиск
+        List<NoteSearchHit> hits = noteRepository.search("test", 10, null);
+
+        // Then: строка преобразована в результат поиска, курсор в запрос не передавался
+        assertEquals(1, hits.size());
+        assertEquals(1L, hits.get(0).getId());
+        assertEquals("<b>Test</b> Content", hits.get(0).getSnippet());
+        assertEquals(0.6f, hits.get(0).getRank().floatValue());
+        assertEquals(createdAt, hits.get(0).getCreatedAt());
+        verify(query, never()).setParameter(eq("afterRank"), any());
+    }
 }
@@ -0,0 +1,170 @@
+package inote.repository.impl;
+
+import inote.config.PersistenceProperties;
+import inote.dto.NoteVersion;
+import inote.entity.Note;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardedNoteRepositoryTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private final List<EntityManagerFactory> entityManagerFactories = new ArrayList<>();
+
+    private ExecutorService executor;
+
+    private ShardedNoteRepository noteRepository;  // Тестируемый репозиторий поверх трех БД H2
+
+    @BeforeEach
+    void setUp() {
+        // Given: три независимые БД H2, последовательность каждой начинается с диапазона ID своего шарда
+        executor = Executors.newFixedThreadPool(2);
+        List<ShardedNoteRepository.Shard> shards = IntStream.range(0, 3).mapToObj(this::shard).toList();
+        noteRepository = new ShardedNoteRepository(shards, executor, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        entityManagerFactories.forEach(EntityManagerFactory::close);
+    }
+
+    @Test
+    void save_ShouldDistributeNotesAndRouteById() {
+        // When: сохраняем три заметки по одной
+        List<Note> saved = IntStream.range(0, 3).mapToObj(i -> noteRepository.save(note("Заметка " + i, i))).toList();
+
+        // Then: заметки попали в разные шарды, номер шарда записан в ID
+        assertThat(saved).extracting(note -> ShardedNoteRepository.shardOf(note.getId()))
+            .containsExactlyInAnyOrder(0, 1, 2);
+        for (Note note : saved) {
+            ShardedNoteRepository.Shard shard = noteRepository.getShards().get(ShardedNoteRepository.shardOf(note.getId()));
+            assertThat(rows(shard)).isEqualTo(1);
+            assertThat(noteRepository.findById(note.getId())).get().extracting(Note::getTitle).isEqualTo(note.getTitle());
+        }
+
+        // When / Then: изменение и удаление выполняются в шарде заметки
+        Note changed = saved.get(1);
+        assertThat(noteRepository.update(changed.getId(), note("Изменена", 1))).isPresent();
+        assertThat(noteRepository.findById(changed.getId())).get().extracting(Note::getTitle).isEqualTo("Изменена");
+        noteRepository.deleteById(changed.getId());
+        assertThat(noteRepository.findById(changed.getId())).isEmpty();
+        assertThat(noteRepository.findById(ShardedNoteRepository.idBase(7) + 1)).isEmpty();
+    }
+
+    @Test
+    void saveAll_ShouldPreserveOrder_AndSpreadOverShards() {
+        // When: сохраняем шесть заметок пакетом
+        List<Note> notes = IntStream.range(0, 6).mapToObj(i -> note("Заметка " + i, i)).toList();
+        List<Note> saved = noteRepository.saveAll(new ArrayList<>(notes));
+
+        // Then: порядок результата совпадает с переданным, в каждом шарде по две заметки
+        assertThat(saved).extracting(Note::getTitle)
+            .containsExactly("Заметка 0", "Заметка 1", "Заметка 2", "Заметка 3", "Заметка 4", "Заметка 5");
+        assertThat(noteRepository.getShards()).allSatisfy(shard -> assertThat(rows(shard)).isEqualTo(2));
+        assertThat(noteRepository.findByIds(saved.stream().map(Note::getId).toList())).hasSize(6);
+    }
+
+    @Test
+    void findPage_ShouldMergeShardsInQueryOrder() {
+        // Given: шесть заметок, созданных по одной в минуту
+        noteRepository.saveAll(IntStream.range(0, 6).mapToObj(i -> note("Заметка " + i % 2, i))
+            .collect(ArrayList::new, ArrayList::add, ArrayList::addAll));
+
+        // When: читаем все заметки страницами по две и запрашиваем диапазон дат
+        List<Long> ids = new ArrayList<>();
+        List<Note> page = noteRepository.findPage(null, 2);
+        while (!page.isEmpty()) {
+            page.forEach(note -> ids.add(note.getId()));
+            page = noteRepository.findPage(ids.get(ids.size() - 1), 2);
+        }
+        List<Note> range = noteRepository.findByCreatedAtBetween(CREATED_AT.plusMinutes(1), CREATED_AT.plusMinutes(4));
+
+        // Then: страницы идут по возрастанию ID всех шардов, диапазон упорядочен по дате создания
+        assertThat(ids).hasSize(6).isSorted();
+        assertThat(noteRepository.streamAll().map(Note::getId).toList()).isEqualTo(ids);
+        assertThat(range).extracting(Note::getCreatedAt)
+            .containsExactly(CREATED_AT.plusMinutes(1), CREATED_AT.plusMinutes(2), CREATED_AT.plusMinutes(3),
+                CREATED_AT.plusMinutes(4));
+        assertThat(noteRepository.findByTitle("Заметка 1")).hasSize(3);
+        assertThat(noteRepository.findAll()).hasSize(6);
+    }
+
+    @Test
+    void bulkOperations_ShouldSumResultsOfShards() {
+        // Given: шесть заметок в трех шардах
+        List<Long> ids = noteRepository.saveAll(IntStream.range(0, 6).mapToObj(i -> note("Заметка", i))
+                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll))
+            .stream().map(Note::getId).toList();
+
+        // When / Then: версия набора учитывает все шарды
+        NoteVersion version = noteRepository.findCollectionVersion();
+        assertThat(version.getCount()).isEqualTo(6);
+
+        // When / Then: изменение и удаление по списку ID затрагивают заметки всех шардов
+        assertThat(noteRepository.updateTitle(ids.subList(0, 4), "Новый")).isEqualTo(4);
+        assertThat(noteRepository.findByTitle("Новый")).hasSize(4);
+        assertThat(noteRepository.deleteByIds(ids.subList(0, 3))).isEqualTo(3);
+        assertThat(noteRepository.deleteByCreatedAtBetween(CREATED_AT, CREATED_AT.plusMinutes(4))).hasSize(2);
+        assertThat(noteRepository.findAll()).extracting(Note::getId).containsExactly(ids.get(5));
+    }
+
+    private ShardedNoteRepository.Shard shard(int index) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:sharded-" + index + ";DB_CLOSE_DELAY=-1");
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan(Note.class.getPackageName());
+        factoryBean.setPersistenceUnitName("shard-" + index);
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "create-drop"));
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+        entityManagerFactories.add(entityManagerFactory);
+        if (index > 0) {
+            new JdbcTemplate(dataSource).execute("ALTER SEQUENCE notes_id_seq RESTART WITH "
+                + (ShardedNoteRepository.idBase(index) + 50));
+        }
+        PersistenceProperties properties = new PersistenceProperties();
+        properties.setFullTextSearch(false);
+        NoteRepositoryImpl repository = new NoteRepositoryImpl(
+            SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory), properties);
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        TransactionTemplate readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        return new ShardedNoteRepository.Shard(index, repository, dataSource, readTransaction,
+            new TransactionTemplate(transactionManager));
+    }
+
+    private static long rows(ShardedNoteRepository.Shard shard) {
+        return new JdbcTemplate(shard.getDataSource()).queryForObject("SELECT COUNT(*) FROM notes", Long.class);
+    }
+
+    private static Note note(String title, int minute) {
+        return Note.builder()
+            .title(title)
+            .content("Содержимое")
+            .createdAt(CREATED_AT.plusMinutes(minute))
+            .build();
+    }
+}
@@ -0,0 +1,121 @@
+package inote.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private InvertedIndex index;  // Индекс, заполняемый перед каждым тестом
+
+    @BeforeEach
+    void setUp() {
+        // Given: индекс с несколькими заметками
+        index = new InvertedIndex();
+        index.put(1L, "Покупки", "Купить молоко и хлеб");
+        index.put(2L, "Работа", "Позвонить насчет молока, отправить отчет");
+        index.put(3L, "Молоко", "Молоко закончилось");
+        index.put(4L, "Книги", "Прочитать список книг, список на столе");
+    }
+
+    @Test
+    void search_ShouldRankByBm25_WhenSingleTerm() {
+        // When: ищем по одному терму
+        List<Long> ids = ids(index.search(SearchQuery.parse("молоко"), 10, null, null));
+
+        // Then: заметка с двумя вхождениями выше заметки с одним, словоформа "молока" не совпадает
+        assertThat(ids).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void search_ShouldIntersectTerms_WhenAnd() {
+        // When / Then: оба терма должны входить в заметку
+        assertThat(ids(index.search(SearchQuery.parse("молоко хлеб"), 10, null, null))).containsExactly(1L);
+    }
+
+    @Test
+    void search_ShouldUniteGroups_WhenOr() {
+        // When / Then: достаточно совпадения любой группы
+        assertThat(ids(index.search(SearchQuery.parse("хлеб OR отчет"), 10, null, null)))
+            .containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void search_ShouldMatchPrefix() {
+        // When / Then: префикс раскрывается в "молоко" и "молока"
+        assertThat(ids(index.search(SearchQuery.parse("молок*"), 10, null, null)))
+            .containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    void search_ShouldMatchPhraseOnlyInOrder() {
+        // When / Then: фраза совпадает только при подряд идущих термах
+        assertThat(ids(index.search(SearchQuery.parse("\"список книг\""), 10, null, null))).containsExactly(4L);
+        assertThat(ids(index.search(SearchQuery.parse("\"список прочитать\""), 10, null, null))).isEmpty();
+    }
+
+    @Test
+    void search_ShouldNotMatchPhraseAcrossTitleAndContent() {
+        // When / Then: последнее слово заголовка и первое слово содержимого не образуют фразу
+        assertThat(ids(index.search(SearchQuery.parse("\"покупки купить\""), 10, null, null))).isEmpty();
+    }
+
+    @Test
+    void search_ShouldContinueAfterCursor() {
+        // Given: первая страница из одного результата
+        List<InvertedIndex.Hit> first = index.search(SearchQuery.parse("молок*"), 1, null, null);
+
+        // When: запрашиваем следующие страницы после последнего результата
+        List<InvertedIndex.Hit> rest = index.search(SearchQuery.parse("молок*"), 10,
+            first.get(0).getScore(), first.get(0).getId());
+
+        // Then: страницы не пересекаются и вместе содержат все совпадения
+        assertThat(ids(rest)).hasSize(2).doesNotContain(first.get(0).getId());
+    }
+
+    @Test
+    void put_ShouldReplacePreviousVersion_WhenNoteUpdated() {
+        // When: обновляем заметку, в которой больше нет слова "молоко"
+        index.put(1L, "Покупки", "Купить хлеб");
+
+        // Then: заметка не находится по старому слову и находится по оставшемуся
+        assertThat(ids(index.search(SearchQuery.parse("молоко"), 10, null, null))).containsExactly(3L);
+        assertThat(ids(index.search(SearchQuery.parse("хлеб"), 10, null, null))).containsExactly(1L);
+    }
+
+    @Test
+    void remove_ShouldDropNoteAndUnusedTerms() {
+        // When: удаляем единственную заметку со словом "книг"
+        int terms = index.termCount();
+        boolean removed = index.remove(4L);
+
+        // Then: заметка и ее уникальные термы удалены из индекса
+        assertThat(removed).isTrue();
+        assertThat(index.contains(4L)).isFalse();
+        assertThat(index.termCount()).isLessThan(terms);
+        assertThat(ids(index.search(SearchQuery.parse("книг"), 10, null, null))).isEmpty();
+    }
+
+    @Test
+    void put_ShouldKeepPostingsSorted_WhenOlderNoteReindexed() {
+        // Given: много заметок с общим словом
+        InvertedIndex large = new InvertedIndex();
+        LongStream.rangeClosed(1, 1000).forEach(id -> large.put(id, "Заметка " + id, "общее слово"));
+
+        // When: обновляем заметку из середины списка и удаляем другую
+        large.put(500L, "Заметка 500", "общее слово и новое слово");
+        large.remove(10L);
+
+        // Then: все оставшиеся заметки находятся, обновленная находится по новому слову
+        assertThat(large.search(SearchQuery.parse("общее"), 2000, null, null)).hasSize(999);
+        assertThat(ids(large.search(SearchQuery.parse("новое"), 10, null, null))).containsExactly(500L);
+    }
+
+    private static List<Long> ids(List<InvertedIndex.Hit> hits) {
+        return hits.stream().map(InvertedIndex.Hit::getId).toList();
+    }
+}
@@ -0,0 +1,89 @@
+package inote.search;
+
+import inote.config.SearchProperties;
+import inote.dto.NoteSearchHit;
+import inote.entity.Note;
+import inote.event.NoteChangedEvent;
+import inote.repository.NoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+
+@ExtendWith(MockitoExtension.class)
+class NoteSearchIndexTest {
+
+    @Mock
+    private NoteRepository noteRepository;  // Мокируем репозиторий для построения индекса и чтения заметок
+
+    @Spy
+    private SearchProperties properties = new SearchProperties();  // Настройки с включенным индексом
+
+    @InjectMocks
+    private NoteSearchIndex noteSearchIndex;  // Тестируемый индекс
+
+    private Note milk;  // Заметка, попадающая в индекс при построении
+
+    @BeforeEach
+    void setUp() {
+        // Given: включенный индекс и одна порция заметок в БД
+        properties.setEngine(SearchProperties.Engine.INDEX);
+        properties.setIndexChunkSize(2);
+        milk = Note.builder().id(1L).title("Покупки").content("Купить молоко").build();
+        Note work = Note.builder().id(2L).title("Работа").content("Отправить отчет").build();
+        BDDMockito.given(noteRepository.findPage(null, 2)).willReturn(List.of(milk, work));
+        BDDMockito.given(noteRepository.findPage(2L, 2)).willReturn(List.of());
+    }
+
+    @Test
+    void build_ShouldIndexAllChunksAndHydrateOnlyFoundNotes() {
+        // Given: индекс построен
+        noteSearchIndex.build();
+        BDDMockito.given(noteRepository.findByIds(List.of(1L))).willReturn(List.of(milk));
+
+        // When: ищем по слову из содержимого
+        List<NoteSearchHit> hits = noteSearchIndex.search("молоко", 10, null);
+
+        // Then: индекс готов, из БД прочитана только найденная заметка, совпадение подсвечено
+        assertThat(noteSearchIndex.isReady()).isTrue();
+        assertThat(hits).extracting(NoteSearchHit::getId).containsExactly(1L);
+        assertThat(hits.get(0).getSnippet()).isEqualTo("Купить <b>молоко</b>");
+    }
+
+    @Test
+    void onNoteChanged_ShouldNotBeOverriddenByBuild_WhenNoteChangedBeforeReady() {
+        // Given: заметка удалена до того, как построение дошло до нее
+        noteSearchIndex.onNoteChanged(NoteChangedEvent.deleted(List.of(1L)));
+
+        // When: строим индекс из ранее прочитанной порции
+        noteSearchIndex.build();
+
+        // Then: удаленная заметка не попала в индекс
+        assertThat(noteSearchIndex.search("молоко", 10, null)).isEmpty();
+        BDDMockito.then(noteRepository).should(BDDMockito.never()).findByIds(anyCollection());
+    }
+
+    @Test
+    void onNoteChanged_ShouldReloadModifiedNotes() {
+        // Given: индекс построен, заголовок заметки изменен массовым запросом
+        noteSearchIndex.build();
+        Note renamed = Note.builder().id(2L).title("Отпуск").content("Отправить отчет").build();
+        BDDMockito.given(noteRepository.findByIds(List.of(2L))).willReturn(List.of(renamed));
+
+        // When: индекс получает событие об изменении
+        noteSearchIndex.onNoteChanged(NoteChangedEvent.modified(List.of(2L)));
+
+        // Then: заметка находится по новому заголовку
+        assertThat(noteSearchIndex.search("отпуск", 10, null))
+            .extracting(NoteSearchHit::getTitle).containsExactly("Отпуск");
+    }
+}
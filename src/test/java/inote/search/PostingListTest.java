@@ -0,0 +1,76 @@
+package inote.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostingListTest {
+
+    @Test
+    void add_ShouldKeepOrder_WhenInsertingIntoFullBlocks() {
+        // Given: заметки добавляются в случайном порядке, блоки переполняются и делятся
+        PostingList list = new PostingList();
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= PostingList.BLOCK_SIZE * 5L; id++) {
+            ids.add(id);
+        }
+        Collections.shuffle(ids, new Random(42));
+
+        // When: добавляем все заметки, одну из них повторно с другими позициями
+        for (long id : ids) {
+            list.add(id, (int) id, new int[] {1, (int) id + 1});
+        }
+        list.add(7L, 3, new int[] {2});
+
+        // Then: курсор возвращает заметки по возрастанию ID с последними позициями
+        PostingList.Cursor cursor = list.cursor();
+        long expected = 1;
+        while (cursor.next()) {
+            assertThat(cursor.docId()).isEqualTo(expected);
+            if (expected == 7L) {
+                assertThat(cursor.positions()).containsExactly(2);
+                assertThat(cursor.docLength()).isEqualTo(3);
+            } else {
+                assertThat(cursor.positions()).containsExactly(1, (int) expected + 1);
+            }
+            expected++;
+        }
+        assertThat(expected - 1).isEqualTo(PostingList.BLOCK_SIZE * 5L);
+        assertThat(list.docCount()).isEqualTo(PostingList.BLOCK_SIZE * 5);
+    }
+
+    @Test
+    void remove_ShouldMatchSortedMap_AfterRandomChanges() {
+        // Given: список и эталон - упорядоченный словарь ID → длина заметки
+        PostingList list = new PostingList();
+        TreeMap<Long, Integer> expected = new TreeMap<>();
+        Random random = new Random(7);
+
+        // When: случайные добавления и удаления
+        for (int i = 0; i < 5000; i++) {
+            long id = random.nextInt(1000);
+            if (random.nextInt(3) == 0) {
+                assertThat(list.remove(id)).isEqualTo(expected.remove(id) != null);
+            } else {
+                int length = random.nextInt(100) + 1;
+                list.add(id, length, new int[] {length});
+                expected.put(id, length);
+            }
+        }
+
+        // Then: содержимое совпадает с эталоном
+        TreeMap<Long, Integer> actual = new TreeMap<>();
+        PostingList.Cursor cursor = list.cursor();
+        while (cursor.next()) {
+            actual.put(cursor.docId(), cursor.docLength());
+        }
+        assertThat(actual).isEqualTo(expected);
+        assertThat(list.docCount()).isEqualTo(expected.size());
+    }
+}
@@ -0,0 +1,128 @@
+package inote.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TitlePrefixIndexTest {
+
+    private TitlePrefixIndex index;  // Индекс с top-2, чтобы проверялись и хранимые, и собираемые top-k
+
+    @BeforeEach
+    void setUp() {
+        // Given: индекс с несколькими заголовками, чем больше recency, тем свежее заметка
+        index = new TitlePrefixIndex(2);
+        index.put(1L, "Молоко", 10);
+        index.put(2L, "Молочный коктейль", 30);
+        index.put(3L, "Мёд", 20);
+        index.put(4L, "Café au lait", 40);
+    }
+
+    @Test
+    void fold_ShouldIgnoreCaseDiacriticsAndRepeatedSpaces() {
+        // When / Then: ключ в нижнем регистре без диакритических знаков, пробелы схлопнуты
+        assertThat(TitlePrefixIndex.fold("  Ёжик   в\tТумане ")).isEqualTo("ежик в тумане ");
+        assertThat(TitlePrefixIndex.fold("Йогурт")).isEqualTo("иогурт");
+        assertThat(TitlePrefixIndex.fold("CAFÉ")).isEqualTo("cafe");
+    }
+
+    @Test
+    void suggest_ShouldReturnMostRecentFirst_WhenPrefixEndsInsideEdge() {
+        // When / Then: "мол" заканчивается внутри ребра "моло", "ме" совпадает с "мёд"
+        assertThat(ids(index.suggest("Мол", 10))).containsExactly(2L, 1L);
+        assertThat(ids(index.suggest("ме", 10))).containsExactly(3L);
+        assertThat(ids(index.suggest("cafe", 10))).containsExactly(4L);
+    }
+
+    @Test
+    void suggest_ShouldRespectLimit_AndReturnEmpty_WhenNoMatch() {
+        // When / Then: из трех заголовков на "м" возвращаются два самых свежих
+        assertThat(ids(index.suggest("м", 2))).containsExactly(2L, 3L);
+        assertThat(ids(index.suggest("м", 1))).containsExactly(2L);
+        assertThat(index.suggest("молоток", 10)).isEmpty();
+        assertThat(index.suggest("х", 10)).isEmpty();
+    }
+
+    @Test
+    void put_ShouldReplaceTitle_AndRemove_ShouldMergeNodes() {
+        // When: заголовок заметки изменен, другая заметка удалена
+        index.put(2L, "Хлеб", 50);
+        index.remove(1L);
+
+        // Then: старый заголовок не находится, новый находится, лишних узлов не осталось
+        assertThat(ids(index.suggest("мол", 10))).isEmpty();
+        assertThat(ids(index.suggest("хл", 10))).containsExactly(2L);
+        assertThat(ids(index.suggest("м", 10))).containsExactly(3L);
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.nodeCount()).isEqualTo(4);
+    }
+
+    @Test
+    void remove_ShouldRefillTop_FromEntriesAndChildren() {
+        // Given: у "мол" хранимый top-2 из заметок 2 и 1, еще два заголовка в узле "молоко" и потомке
+        index.put(5L, "Молоко", 5);
+        index.put(6L, "Молоко топленое", 7);
+
+        // When: удаляются две самые свежие заметки top-2
+        index.remove(2L);
+        index.remove(1L);
+
+        // Then: top-2 дополнен следующими по свежести заголовками узла и потомка
+        assertThat(ids(index.suggest("мол", 10))).containsExactly(6L, 5L);
+        assertThat(ids(index.suggest("м", 2))).containsExactly(3L, 6L);
+    }
+
+    @Test
+    void suggest_ShouldMatchBruteForce_AfterRandomChanges() {
+        // Given: случайные заголовки из короткого алфавита, чтобы ребра часто делились и сливались
+        Random random = new Random(42);
+        TitlePrefixIndex randomIndex = new TitlePrefixIndex(3);
+        Map<Long, String> titles = new HashMap<>();
+        Map<Long, Long> recency = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            long id = random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                randomIndex.remove(id);
+                titles.remove(id);
+            } else {
+                String title = randomTitle(random);
+                long time = random.nextInt(1000);
+                randomIndex.put(id, title, time);
+                titles.put(id, title);
+                recency.put(id, time);
+            }
+        }
+
+        // When / Then: подсказки совпадают с перебором всех заголовков
+        for (String prefix : List.of("а", "аб", "ба", "абв", "вв", "бвба", "ВА")) {
+            List<Long> expected = titles.entrySet().stream()
+                .filter(entry -> TitlePrefixIndex.fold(entry.getValue()).startsWith(TitlePrefixIndex.fold(prefix)))
+                .map(Map.Entry::getKey)
+                .sorted(Comparator.<Long>comparingLong(recency::get).reversed().thenComparing(Comparator.reverseOrder()))
+                .limit(3)
+                .toList();
+            assertThat(ids(randomIndex.suggest(prefix, 3))).as(prefix).isEqualTo(expected);
+        }
+        assertThat(randomIndex.size()).isEqualTo(titles.size());
+    }
+
+    private static String randomTitle(Random random) {
+        StringBuilder title = new StringBuilder();
+        int length = 1 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            title.append("абв".charAt(random.nextInt(3)));
+        }
+        return title.toString();
+    }
+
+    private static List<Long> ids(List<TitlePrefixIndex.Suggestion> suggestions) {
+        return suggestions.stream().map(TitlePrefixIndex.Suggestion::getId).toList();
+    }
+}
@@ -0,0 +1,143 @@
+package inote.service.impl;
+
+import inote.cache.NoteCacheEvictor;
+import inote.entity.Note;
+import inote.repository.NoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class NoteDayBucketsTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 10);
+
+    @Mock
+    private NoteRepository noteRepository;  // Мокируем репозиторий, из которого читаются отсутствующие дни
+
+    private ConcurrentMapCacheManager cacheManager;
+
+    private NoteDayBuckets noteDayBuckets;  // Тестируемый кэш по дням
+
+    private final Note first = note(1L, DAY.atTime(9, 0));
+
+    private final Note second = note(2L, DAY.atTime(18, 30));
+
+    private final Note third = note(3L, DAY.plusDays(1).atTime(12, 0));
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(NoteCacheEvictor.NOTES_BY_DAY_CACHE);
+        noteDayBuckets = new NoteDayBuckets(noteRepository, cacheManager);
+    }
+
+    @Test
+    void findBetween_ShouldLoadMissingDays_WithOneQuery_AndFilterByTime() {
+        // Given: в БД заметки двух дней, кэш пуст
+        BDDMockito.given(noteRepository.findByCreatedAtBetween(DAY.atStartOfDay(), endOfDay(DAY.plusDays(1))))
+            .willReturn(List.of(third, second, first));
+
+        // When: запрашиваем период с середины первого дня
+        List<Note> notes = noteDayBuckets.findBetween(DAY.atTime(12, 0), DAY.plusDays(1).atTime(23, 0));
+
+        // Then: заметки отфильтрованы по времени и упорядочены, оба дня сохранены в кэше
+        assertThat(notes).containsExactly(second, third);
+        assertThat(cacheManager.getCache(NoteCacheEvictor.NOTES_BY_DAY_CACHE).get(DAY, List.class))
+            .containsExactly(first, second);
+    }
+
+    @Test
+    void findBetween_ShouldReadOnlyMissingDays_FromRepository() {
+        // Given: первый день уже в кэше, второй и третий (пустой) отсутствуют
+        BDDMockito.given(noteRepository.findByCreatedAtBetween(DAY.atStartOfDay(), endOfDay(DAY)))
+            .willReturn(List.of(first, second));
+        noteDayBuckets.findBetween(DAY.atStartOfDay(), endOfDay(DAY));
+        BDDMockito.given(noteRepository.findByCreatedAtBetween(DAY.plusDays(1).atStartOfDay(), endOfDay(DAY.plusDays(2))))
+            .willReturn(List.of(third));
+
+        // When: дважды запрашиваем три дня
+        noteDayBuckets.findBetween(DAY.atStartOfDay(), endOfDay(DAY.plusDays(2)));
+        List<Note> notes = noteDayBuckets.findBetween(DAY.atStartOfDay(), endOfDay(DAY.plusDays(2)));
+
+        // Then: из БД прочитаны только отсутствующие дни и только один раз, пустой день тоже кэширован
+        assertThat(notes).containsExactly(first, second, third);
+        BDDMockito.verify(noteRepository, BDDMockito.times(2))
+            .findByCreatedAtBetween(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void evictNotes_ShouldReloadOnlyDayOfChangedNote() {
+        // Given: два дня в кэше
+        BDDMockito.given(noteRepository.findByCreatedAtBetween(DAY.atStartOfDay(), endOfDay(DAY.plusDays(1))))
+            .willReturn(List.of(first, second, third));
+        noteDayBuckets.findBetween(DAY.atStartOfDay(), endOfDay(DAY.plusDays(1)));
+        Note changed = note(3L, third.getCreatedAt());
+        changed.setTitle("Changed");
+        BDDMockito.given(noteRepository.findByCreatedAtBetween(DAY.plusDays(1).atStartOfDay(), endOfDay(DAY.plusDays(1))))
+            .willReturn(List.of(changed));
+
+        // When: заметка второго дня изменена
+        noteDayBuckets.evictNotes(List.of(third));
+        List<Note> notes = noteDayBuckets.findBetween(DAY.atStartOfDay(), endOfDay(DAY.plusDays(1)));
+
+        // Then: перечитан только второй день
+        assertThat(notes).containsExactly(first, second, changed);
+        assertThat(notes.get(2).getTitle()).isEqualTo("Changed");
+    }
+
+    @Test
+    void findBetween_ShouldNotCacheDay_EvictedDuringLoad() {
+        // Given: пока дни читаются из БД, заметка первого дня изменяется и ее день сбрасывается
+        Note changed = note(1L, first.getCreatedAt());
+        changed.setTitle("Changed");
+        BDDMockito.given(noteRepository.findByCreatedAtBetween(DAY.atStartOfDay(), endOfDay(DAY.plusDays(1))))
+            .willAnswer(invocation -> {
+                noteDayBuckets.evictNotes(List.of(changed));
+                return List.of(first, second, third);
+            });
+
+        // When: запрашиваем оба дня
+        List<Note> notes = noteDayBuckets.findBetween(DAY.atStartOfDay(), endOfDay(DAY.plusDays(1)));
+
+        // Then: запрос получил прочитанные заметки, но сброшенный день не сохранен в кэше, второй сохранен
+        assertThat(notes).containsExactly(first, second, third);
+        assertThat(cacheManager.getCache(NoteCacheEvictor.NOTES_BY_DAY_CACHE).get(DAY)).isNull();
+        assertThat(cacheManager.getCache(NoteCacheEvictor.NOTES_BY_DAY_CACHE).get(DAY.plusDays(1), List.class))
+            .containsExactly(third);
+    }
+
+    @Test
+    void findBetween_ShouldQueryRepository_WhenPeriodTooLong() {
+        // Given: период длиннее предела кэша по дням
+        LocalDateTime start = DAY.atStartOfDay();
+        LocalDateTime end = start.plusDays(NoteDayBuckets.MAX_BUCKET_DAYS);
+        BDDMockito.given(noteRepository.findByCreatedAtBetween(start, end)).willReturn(List.of(first));
+
+        // When: запрашиваем заметки периода
+        List<Note> notes = noteDayBuckets.findBetween(start, end);
+
+        // Then: период прочитан из БД одним запросом без заполнения кэша
+        assertThat(notes).containsExactly(first);
+        assertThat(cacheManager.getCache(NoteCacheEvictor.NOTES_BY_DAY_CACHE).get(DAY)).isNull();
+    }
+
+    private static LocalDateTime endOfDay(LocalDate day) {
+        return day.plusDays(1).atStartOfDay().minus(1, ChronoUnit.MICROS);
+    }
+
+    private static Note note(Long id, LocalDateTime createdAt) {
+        return new Note(id, "Title " + id, "Content " + id, createdAt, null);
+    }
+}
@@ -0,0 +1,116 @@
+package inote.service.impl;
+
+import inote.cache.NoteCacheEvictor;
+import inote.config.PartitionProperties;
+import inote.event.NoteChangedEvent;
+import inote.repository.NotePartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+class NotePartitionMaintenanceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 5, 15, 12, 0);
+
+    @Mock
+    private NotePartitionRepository partitionRepository;  // Мокируем разделы таблицы notes
+
+    @Mock
+    private NoteWriteBehindBuffer writeBehindBuffer;
+
+    @Mock
+    private NoteCacheEvictor noteCacheEvictor;
+
+    @Mock
+    private NoteDayBuckets noteDayBuckets;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private PartitionProperties properties;
+
+    private NotePartitionMaintenance maintenance;  // Тестируемое обслуживание разделов
+
+    @BeforeEach
+    void setUp() {
+        // Given: разделы на два месяца вперед
+        properties = new PartitionProperties();
+        properties.setMonthsAhead(2);
+        maintenance = new NotePartitionMaintenance(partitionRepository, writeBehindBuffer, noteCacheEvictor,
+            noteDayBuckets, eventPublisher, properties);
+    }
+
+    @Test
+    void maintain_ShouldCreateMissingUpcomingPartitions() {
+        // Given: есть разделы до текущего месяца включительно
+        given(partitionRepository.isPartitioned()).willReturn(true);
+        given(partitionRepository.findPartitionMonths()).willReturn(List.of(YearMonth.of(2026, 4), YearMonth.of(2026, 5)));
+
+        // When: проверяем разделы
+        maintenance.maintain(NOW);
+
+        // Then: созданы разделы двух следующих месяцев, без срока хранения разделы не отключаются
+        then(partitionRepository).should().createPartition(YearMonth.of(2026, 6));
+        then(partitionRepository).should().createPartition(YearMonth.of(2026, 7));
+        then(partitionRepository).should(never()).createPartition(YearMonth.of(2026, 5));
+        then(partitionRepository).should(never()).detachPartition(any());
+    }
+
+    @Test
+    void maintain_ShouldExpireOnlyFullyOutdatedPartitions() {
+        // Given: срок хранения 3 месяца, удаление разделов, граница срока - 15 февраля 2026
+        properties.setRetention(Period.ofMonths(3));
+        properties.setExpiredAction(PartitionProperties.ExpiredAction.DROP);
+        given(partitionRepository.isPartitioned()).willReturn(true);
+        given(partitionRepository.findPartitionMonths()).willReturn(List.of(YearMonth.of(2026, 1),
+            YearMonth.of(2026, 2), YearMonth.of(2026, 5), YearMonth.of(2026, 6), YearMonth.of(2026, 7)));
+        given(partitionRepository.dropPartition(YearMonth.of(2026, 1))).willReturn(List.of(1L, 2L));
+
+        // When: проверяем разделы
+        maintenance.maintain(NOW);
+
+        // Then: удален только январь, в феврале есть заметки моложе срока
+        then(partitionRepository).should().dropPartition(YearMonth.of(2026, 1));
+        then(partitionRepository).should(never()).dropPartition(YearMonth.of(2026, 2));
+        then(partitionRepository).should(never()).createPartition(any());
+
+        // Then: удаленные заметки убраны из буфера, кэшей и индексов
+        then(writeBehindBuffer).should().discard(List.of(1L, 2L));
+        then(noteCacheEvictor).should().evictNotes(List.of(1L, 2L));
+        then(noteDayBuckets).should().evictBetween(LocalDateTime.of(2026, 1, 1, 0, 0),
+            LocalDateTime.of(2026, 1, 31, 23, 59, 59, 999_999_999));
+        ArgumentCaptor<NoteChangedEvent> event = ArgumentCaptor.forClass(NoteChangedEvent.class);
+        then(eventPublisher).should().publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(NoteChangedEvent.Type.DELETED);
+        assertThat(event.getValue().getIds()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void maintain_ShouldSkip_WhenNotesIsNotPartitioned() {
+        // Given: миграция секционирования не применялась
+        given(partitionRepository.isPartitioned()).willReturn(false);
+
+        // When: проверяем разделы
+        maintenance.maintain(NOW);
+
+        // Then: разделы не создаются
+        then(partitionRepository).should(never()).findPartitionMonths();
+        then(partitionRepository).should(never()).createPartition(any());
+    }
+}
@@ -0,0 +1,187 @@
+package inote.service.impl;
+
+import inote.config.RevisionProperties;
+import inote.dto.CursorPage;
+import inote.dto.NoteRevisionSummary;
+import inote.entity.Note;
+import inote.entity.NoteRevision;
+import inote.exception.NotFoundException;
+import inote.repository.NoteRevisionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+class NoteRevisionServiceImplTest {
+
+    private static final LocalDateTime V1 = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    private static final LocalDateTime V2 = V1.plusMinutes(1);
+
+    @Mock
+    private NoteRevisionRepository noteRevisionRepository;  // Мокируем репозиторий версий
+
+    private NoteRevisionServiceImpl service;  // Тестируемый сервис
+
+    @BeforeEach
+    void setUp() {
+        // Given: снимок каждые 3 версии
+        RevisionProperties properties = new RevisionProperties();
+        properties.setSnapshotInterval(3);
+        service = new NoteRevisionServiceImpl(noteRevisionRepository, properties);
+    }
+
+    @Test
+    void record_ShouldWriteSnapshotOfPreviousAndDelta_WhenHistoryIsEmpty() {
+        // Given: у заметки еще нет версий
+        BDDMockito.given(noteRevisionRepository.lockNote(1L)).willReturn(true);
+        BDDMockito.given(noteRevisionRepository.findLatest(1L)).willReturn(Optional.empty());
+
+        // When: записываем изменение
+        service.record(note("Купить молоко", V1), note("Купить молоко и хлеб", V2));
+
+        // Then: снимок версии до изменения и правка, содержащая только вставленный текст
+        List<NoteRevision> saved = saved(2);
+        assertThat(saved.get(0).isSnapshot()).isTrue();
+        assertThat(saved.get(0).getRevision()).isEqualTo(1);
+        assertThat(saved.get(0).getContent()).isEqualTo("Купить молоко");
+        assertThat(saved.get(1).isSnapshot()).isFalse();
+        assertThat(saved.get(1).getRevision()).isEqualTo(2);
+        assertThat(saved.get(1).getBaseRevision()).isEqualTo(1);
+        assertThat(saved.get(1).getEditOffset()).isEqualTo(13);
+        assertThat(saved.get(1).getEditDelete()).isZero();
+        assertThat(saved.get(1).getContent()).isEqualTo(" и хлеб");
+        assertThat(saved.get(1).getUpdatedAt()).isEqualTo(V2);
+    }
+
+    @Test
+    void record_ShouldWriteOnlyDelta_WhenLatestRevisionMatchesPrevious() {
+        // Given: последняя версия совпадает с заметкой до изменения
+        BDDMockito.given(noteRevisionRepository.lockNote(1L)).willReturn(true);
+        BDDMockito.given(noteRevisionRepository.findLatest(1L))
+            .willReturn(Optional.of(new NoteRevisionSummary(1, 1, "Title", 13, 13, V1)));
+
+        // When: записываем изменение
+        service.record(note("Купить молоко", V1), note("Купить кефир", V2));
+
+        // Then: записана одна правка
+        List<NoteRevision> saved = saved(1);
+        assertThat(saved.get(0).getRevision()).isEqualTo(2);
+        assertThat(saved.get(0).getContent()).isEqualTo("кефир");
+        assertThat(saved.get(0).getEditDelete()).isEqualTo(6);
+    }
+
+    @Test
+    void record_ShouldWriteSnapshot_WhenSnapshotIntervalReached() {
+        // Given: две правки после снимка 1
+        BDDMockito.given(noteRevisionRepository.lockNote(1L)).willReturn(true);
+        BDDMockito.given(noteRevisionRepository.findLatest(1L))
+            .willReturn(Optional.of(new NoteRevisionSummary(3, 1, "Title", 13, 2, V1)));
+
+        // When: записываем изменение
+        service.record(note("Купить молоко", V1), note("Купить кефир", V2));
+
+        // Then: версия 4 записана целиком
+        List<NoteRevision> saved = saved(1);
+        assertThat(saved.get(0).getRevision()).isEqualTo(4);
+        assertThat(saved.get(0).isSnapshot()).isTrue();
+        assertThat(saved.get(0).getContent()).isEqualTo("Купить кефир");
+    }
+
+    @Test
+    void record_ShouldLockNoteBeforeReadingLatestRevision() {
+        // Given: заметка существует, версий нет
+        BDDMockito.given(noteRevisionRepository.lockNote(1L)).willReturn(true);
+        BDDMockito.given(noteRevisionRepository.findLatest(1L)).willReturn(Optional.empty());
+
+        // When: записываем изменение
+        service.record(note("Купить молоко", V1), note("Купить кефир", V2));
+
+        // Then: номер версии вычислен после блокировки заметки
+        InOrder inOrder = BDDMockito.inOrder(noteRevisionRepository);
+        inOrder.verify(noteRevisionRepository).lockNote(1L);
+        inOrder.verify(noteRevisionRepository).findLatest(1L);
+    }
+
+    @Test
+    void record_ShouldSkip_WhenNoteDeleted() {
+        // Given: заметка удалена до записи версии
+        BDDMockito.given(noteRevisionRepository.lockNote(1L)).willReturn(false);
+
+        // When: записываем изменение
+        service.record(note("Купить молоко", V1), note("Купить кефир", V2));
+
+        // Then: версия не записана
+        BDDMockito.verify(noteRevisionRepository, BDDMockito.never()).save(ArgumentMatchers.any());
+    }
+
+    @Test
+    void findRevision_ShouldApplyDeltasFromSnapshot() {
+        // Given: снимок и две правки после него
+        BDDMockito.given(noteRevisionRepository.findChain(1L, 3)).willReturn(List.of(
+            revision(1, 1, null, null, "Купить молоко"),
+            revision(2, 1, 13, 0, " и хлеб"),
+            revision(3, 1, 7, 6, "кефир")));
+
+        // When: восстанавливаем версию 3
+        Note note = service.findRevision(1L, 3);
+
+        // Then: правки применены по порядку
+        assertThat(note.getContent()).isEqualTo("Купить кефир и хлеб");
+        assertThat(note.getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void findRevision_ShouldThrowNotFoundException_WhenRevisionDoesNotExist() {
+        // Given: версии нет
+        BDDMockito.given(noteRevisionRepository.findChain(1L, 5)).willReturn(List.of());
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> service.findRevision(1L, 5));
+    }
+
+    @Test
+    void findPage_ShouldReturnNextCursor_WhenMoreRevisionsExist() {
+        // Given: версий больше, чем помещается на странице
+        BDDMockito.given(noteRevisionRepository.findPage(1L, null, 3)).willReturn(List.of(
+            new NoteRevisionSummary(5, 4, "Title", 10, 1, V2),
+            new NoteRevisionSummary(4, 4, "Title", 10, 10, V2),
+            new NoteRevisionSummary(3, 1, "Title", 10, 1, V1)));
+
+        // When: запрашиваем первую страницу из двух версий
+        CursorPage<NoteRevisionSummary> page = service.findPage(1L, null, 2);
+
+        // Then: курсор указывает на последнюю версию страницы
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.getNext()).isEqualTo("4");
+    }
+
+    private List<NoteRevision> saved(int count) {
+        ArgumentCaptor<NoteRevision> captor = ArgumentCaptor.forClass(NoteRevision.class);
+        BDDMockito.verify(noteRevisionRepository, BDDMockito.times(count)).save(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static Note note(String content, LocalDateTime updatedAt) {
+        return new Note(1L, "Title", content, V1, updatedAt);
+    }
+
+    private static NoteRevision revision(int revision, int baseRevision, Integer offset, Integer delete,
+                                         String content) {
+        return new NoteRevision(null, 1L, revision, baseRevision, "Title", offset, delete, content,
+            0, V1);
+    }
+}
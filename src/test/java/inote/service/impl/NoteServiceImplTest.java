@@ -1,8 +1,21 @@
 package inote.service.impl;
 
+import inote.cache.NoteCacheEvictor;
+import inote.dto.CursorPage;
+import inote.dto.NotePatch;
+import inote.dto.NoteSearchHit;
+import inote.dto.NoteSummary;
+import inote.dto.NoteVersion;
+import inote.dto.TitleSuggestion;
 import inote.entity.Note;
+import inote.exception.BadRequestException;
 import inote.exception.NotFoundException;
+import inote.exception.PreconditionFailedException;
+import inote.event.NoteChangedEvent;
 import inote.repository.NoteRepository;
+import inote.search.NoteSearchIndex;
+import inote.search.NoteTitleIndex;
+import inote.service.NoteRevisionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
@@ -10,11 +23,14 @@ import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,6 +41,27 @@ class NoteServiceImplTest {
     @Mock
     private NoteRepository noteRepository;  // Мокируем репозиторий для работы с данными
 
+    @Mock
+    private NoteCacheEvictor noteCacheEvictor;  // Мокируем массовое удаление из кэша
+
+    @Mock
+    private NoteSearchIndex noteSearchIndex;  // Мокируем встроенный поисковый индекс
+
+    @Mock
+    private NoteTitleIndex noteTitleIndex;  // Мокируем индекс заголовков для автодополнения
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;  // Мокируем публикацию событий изменения заметок
+
+    @Mock
+    private NoteWriteBehindBuffer writeBehindBuffer;  // Мокируем буфер отложенной записи (по умолчанию выключен)
+
+    @Mock
+    private NoteRevisionService noteRevisionService;  // Мокируем запись истории версий
+
+    @Mock
+    private NoteDayBuckets noteDayBuckets;  // Мокируем кэш заметок по дням создания
+
     @InjectMocks
     private NoteServiceImpl noteServiceImpl;  // Внедряем сервис, который тестируем
 
@@ -75,6 +112,8 @@ class NoteServiceImplTest {
         // Then: проверяем, что сохраненная заметка не null и что ее данные правильные
         assertThat(savedNote).isNotNull();
         assertThat(savedNote.getTitle()).isEqualTo("Test Title");
+        BDDMockito.verify(eventPublisher).publishEvent(ArgumentMatchers.<NoteChangedEvent>argThat(
+            event -> event.getType() == NoteChangedEvent.Type.SAVED && event.getNotes().contains(testNote)));
     }
 
     @Test
@@ -123,10 +162,122 @@ class NoteServiceImplTest {
         // When: вызываем метод обновления заметки
         Optional<Note> result = noteServiceImpl.update(1L, updatedNote);
 
-        // Then: проверяем, что обновленная заметка имеет правильные данные
+        // Then: проверяем, что обновленная заметка имеет правильные данные и записана в историю версий
         assertThat(result).isPresent();
         assertThat(result.get().getTitle()).isEqualTo("Updated Title");
         assertThat(result.get().getContent()).isEqualTo("Updated Content");
+        BDDMockito.verify(noteRevisionService).record(testNote, updatedNote);
+    }
+
+    @Test
+    void update_ShouldPutNoteToWriteBehindBuffer_WhenEnabled() {
+        // Given: отложенная запись включена, заметка есть в БД
+        Note updatedNote = new Note(null, "Updated Title", "Updated Content", null, null);
+        BDDMockito.given(writeBehindBuffer.isEnabled()).willReturn(true);
+        BDDMockito.given(noteRepository.findById(1L)).willReturn(Optional.of(testNote));
+
+        // When: обновляем заметку
+        Optional<Note> result = noteServiceImpl.update(1L, updatedNote);
+
+        // Then: заметка поставлена в очередь записи с ID, временем создания и изменения, БД не изменяется,
+        // версия добавляется в историю при записи буфера
+        assertThat(result).contains(updatedNote);
+        assertThat(updatedNote.getId()).isEqualTo(1L);
+        assertThat(updatedNote.getCreatedAt()).isEqualTo(testNote.getCreatedAt());
+        assertThat(updatedNote.getUpdatedAt()).isNotNull();
+        BDDMockito.verify(writeBehindBuffer).put(testNote, updatedNote);
+        BDDMockito.verify(noteRepository, BDDMockito.never()).save(ArgumentMatchers.any());
+        BDDMockito.verifyNoInteractions(noteRevisionService);
+    }
+
+    @Test
+    void update_ShouldThrowBadRequestException_WhenWriteBehindEnabledAndTitleIsBlank() {
+        // Given: отложенная запись включена, в буфере есть незаписанная версия заметки
+        BDDMockito.given(writeBehindBuffer.isEnabled()).willReturn(true);
+        BDDMockito.given(writeBehindBuffer.find(1L)).willReturn(Optional.of(testNote));
+
+        // When & Then: некорректная заметка отклоняется до постановки в очередь, БД не читается
+        assertThrows(BadRequestException.class,
+            () -> noteServiceImpl.update(1L, new Note(null, " ", "Content", null, null)));
+        BDDMockito.verify(writeBehindBuffer, BDDMockito.never()).put(ArgumentMatchers.any(), ArgumentMatchers.any());
+        BDDMockito.verifyNoInteractions(noteRepository);
+    }
+
+    @Test
+    void findById_ShouldReturnPendingNote_FromWriteBehindBuffer() {
+        // Given: незаписанное изменение заметки в буфере
+        BDDMockito.given(writeBehindBuffer.find(1L)).willReturn(Optional.of(testNote));
+
+        // When: ищем заметку по ID
+        Optional<Note> result = noteServiceImpl.findById(1L);
+
+        // Then: возвращена версия из буфера без обращения к БД
+        assertThat(result).contains(testNote);
+        BDDMockito.verifyNoInteractions(noteRepository);
+    }
+
+    @Test
+    void patch_ShouldApplyEditsAndWriteConditionally_WhenVersionMatches() {
+        // Given: заметка в БД и правки относительно ее текущей версии
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 3, 1, 12, 0, 0, 123_456_000);
+        testNote.setUpdatedAt(updatedAt);
+        BDDMockito.given(noteRepository.findById(1L)).willReturn(Optional.of(testNote));
+        BDDMockito.given(noteRepository.updateIfUnchanged(ArgumentMatchers.any(), ArgumentMatchers.eq(updatedAt)))
+            .willReturn(true);
+        NotePatch patch = new NotePatch(null, List.of(new NotePatch.Edit(5, 7, "Patched")));
+
+        // When: изменяем заметку правками
+        Optional<Note> result = noteServiceImpl.patch(1L, new NoteVersion(updatedAt, 1L).eTag(), patch);
+
+        // Then: содержимое изменено, заголовок сохранен, запись выполнена при неизменной версии
+        assertThat(result).isPresent();
+        assertThat(result.get().getContent()).isEqualTo("Test Patched");
+        assertThat(result.get().getTitle()).isEqualTo("Test Title");
+        assertThat(result.get().getUpdatedAt()).isAfter(updatedAt);
+        BDDMockito.verify(noteRepository).updateIfUnchanged(result.get(), updatedAt);
+        BDDMockito.verify(noteRepository, BDDMockito.never()).save(ArgumentMatchers.any());
+    }
+
+    @Test
+    void patch_ShouldThrowPreconditionFailedException_WhenVersionIsStale() {
+        // Given: заметка изменена после версии, к которой относятся правки
+        testNote.setUpdatedAt(LocalDateTime.of(2025, 3, 1, 12, 0));
+        BDDMockito.given(noteRepository.findById(1L)).willReturn(Optional.of(testNote));
+        String staleETag = new NoteVersion(LocalDateTime.of(2025, 2, 1, 12, 0), 1L).eTag();
+
+        // When & Then: правки отклоняются без записи в БД
+        assertThrows(PreconditionFailedException.class,
+            () -> noteServiceImpl.patch(1L, staleETag, new NotePatch(null, List.of())));
+        BDDMockito.verify(noteRepository, BDDMockito.never())
+            .updateIfUnchanged(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void patch_ShouldThrowPreconditionFailedException_WhenNoteChangedConcurrently() {
+        // Given: версия совпадает при чтении, но условный UPDATE не находит ее в БД
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 3, 1, 12, 0);
+        testNote.setUpdatedAt(updatedAt);
+        BDDMockito.given(noteRepository.findById(1L)).willReturn(Optional.of(testNote));
+        BDDMockito.given(noteRepository.updateIfUnchanged(ArgumentMatchers.any(), ArgumentMatchers.eq(updatedAt)))
+            .willReturn(false);
+
+        // When & Then: изменение отклоняется, событие не публикуется
+        assertThrows(PreconditionFailedException.class,
+            () -> noteServiceImpl.patch(1L, new NoteVersion(updatedAt, 1L).eTag(), new NotePatch("New", List.of())));
+        BDDMockito.verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void patch_ShouldThrowBadRequestException_WhenEditIsOutOfBounds() {
+        // Given: правка выходит за границы содержимого
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 3, 1, 12, 0);
+        testNote.setUpdatedAt(updatedAt);
+        BDDMockito.given(noteRepository.findById(1L)).willReturn(Optional.of(testNote));
+        NotePatch patch = new NotePatch(null, List.of(new NotePatch.Edit(10, 100, "x")));
+
+        // When & Then
+        assertThrows(BadRequestException.class,
+            () -> noteServiceImpl.patch(1L, new NoteVersion(updatedAt, 1L).eTag(), patch));
     }
 
     @Test
@@ -142,4 +293,289 @@ class NoteServiceImplTest {
         assertThat(result).isNotEmpty();
         assertThat(result.size()).isEqualTo(1);
     }
+
+    @Test
+    void findPage_ShouldReturnNextCursor_WhenMoreNotesExist() {
+        // Given: репозиторий возвращает на одну заметку больше, чем размер страницы
+        Note secondNote = Note.builder().id(2L).title("Second").content("Second").build();
+        BDDMockito.given(noteRepository.findPage(null, 2))
+            .willReturn(List.of(testNote, secondNote));
+
+        // When: запрашиваем первую страницу размером 1
+        CursorPage<Note> page = noteServiceImpl.findPage(null, 1);
+
+        // Then: на странице одна заметка, а курсор указывает на её ID
+        assertThat(page.getItems()).containsExactly(testNote);
+        assertThat(page.getNext()).isEqualTo("1");
+    }
+
+    @Test
+    void findPage_ShouldNotReturnNextCursor_WhenLastPage() {
+        // Given: репозиторий возвращает заметки после ID 1, их меньше размера страницы
+        BDDMockito.given(noteRepository.findPage(1L, 11)).willReturn(List.of(testNote));
+
+        // When: запрашиваем страницу после курсора "1"
+        CursorPage<Note> page = noteServiceImpl.findPage("1", 10);
+
+        // Then: курсор следующей страницы отсутствует
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNext()).isNull();
+    }
+
+    @Test
+    void findPage_ShouldThrowBadRequestException_WhenLimitOutOfRange() {
+        // When & Then: размер страницы вне допустимого диапазона
+        assertThrows(BadRequestException.class, () -> noteServiceImpl.findPage(null, 0));
+        assertThrows(BadRequestException.class,
+            () -> noteServiceImpl.findPage(null, NoteServiceImpl.MAX_PAGE_LIMIT + 1));
+    }
+
+    @Test
+    void findPage_ShouldThrowBadRequestException_WhenCursorIsInvalid() {
+        // When & Then: курсор не является числом
+        assertThrows(BadRequestException.class, () -> noteServiceImpl.findPage("abc", 10));
+    }
+
+    @Test
+    void findVersion_ShouldReturnUpdatedAtWithoutLoadingNote() {
+        // Given: репозиторий возвращает только время изменения заметки
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 3, 1, 12, 30);
+        BDDMockito.given(noteRepository.findUpdatedAtById(1L)).willReturn(Optional.of(updatedAt));
+
+        // When: запрашиваем версию заметки
+        NoteVersion version = noteServiceImpl.findVersion(1L);
+
+        // Then: версия построена по времени изменения, заметка целиком не читалась
+        assertThat(version).isEqualTo(new NoteVersion(updatedAt, 1L));
+        BDDMockito.verify(noteRepository, BDDMockito.never()).findById(ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    void findVersion_ShouldThrowNotFoundException_WhenNoteDoesNotExist() {
+        // Given: заметки с ID 1 нет
+        BDDMockito.given(noteRepository.findUpdatedAtById(1L)).willReturn(Optional.empty());
+
+        // When & Then: запрос версии завершается NotFoundException
+        assertThrows(NotFoundException.class, () -> noteServiceImpl.findVersion(1L));
+    }
+
+    @Test
+    void findSummaryPage_ShouldReturnNextCursor_WhenMoreNotesExist() {
+        // Given: репозиторий возвращает на одно краткое представление больше, чем размер страницы
+        NoteSummary first = NoteSummary.builder().id(3L).title("First").contentLength(10).preview("First").build();
+        NoteSummary second = NoteSummary.builder().id(4L).title("Second").contentLength(6).preview("Second").build();
+        BDDMockito.given(noteRepository.findSummaryPage(2L, 2)).willReturn(List.of(first, second));
+
+        // When: запрашиваем страницу размером 1 после курсора "2"
+        CursorPage<NoteSummary> page = noteServiceImpl.findSummaryPage("2", 1);
+
+        // Then: на странице одна заметка, курсор указывает на её ID, полные заметки не читались
+        assertThat(page.getItems()).containsExactly(first);
+        assertThat(page.getNext()).isEqualTo("3");
+        BDDMockito.verify(noteRepository, BDDMockito.never()).findPage(ArgumentMatchers.any(), ArgumentMatchers.anyInt());
+    }
+
+    @Test
+    void findPageByCreatedAtBetween_ShouldUseCreatedAtCursor() {
+        // Given: курсор формата "createdAt,id" и репозиторий, возвращающий больше заметок, чем размер страницы
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 12, 31, 23, 59, 59);
+        LocalDateTime cursorDate = LocalDateTime.of(2024, 5, 1, 10, 0);
+        Note secondNote = Note.builder().id(7L).title("Second").content("Second")
+            .createdAt(LocalDateTime.of(2024, 6, 1, 10, 0)).build();
+        BDDMockito.given(noteRepository.findPageByCreatedAtBetween(start, end, cursorDate, 5L, 2))
+            .willReturn(List.of(testNote, secondNote));
+
+        // When: запрашиваем страницу размером 1 после курсора
+        CursorPage<Note> page = noteServiceImpl.findPageByCreatedAtBetween(start, end, cursorDate + ",5", 1);
+
+        // Then: курсор следующей страницы содержит дату создания и ID последней заметки страницы
+        assertThat(page.getItems()).containsExactly(testNote);
+        assertThat(page.getNext()).isEqualTo(testNote.getCreatedAt() + ",1");
+        BDDMockito.verifyNoInteractions(noteDayBuckets);
+    }
+
+    @Test
+    void search_ShouldReturnRankCursor_WhenMoreHitsExist() {
+        // Given: репозиторий возвращает на один результат больше размера страницы
+        NoteSearchHit first = NoteSearchHit.builder().id(3L).title("Молоко").rank(0.75).build();
+        NoteSearchHit second = NoteSearchHit.builder().id(4L).title("Хлеб").rank(0.5).build();
+        BDDMockito.given(noteRepository.search(ArgumentMatchers.eq("молоко"), ArgumentMatchers.eq(2),
+                ArgumentMatchers.argThat(cursor -> cursor.getRank() == 0.9 && cursor.getId() == 1L)))
+            .willReturn(List.of(first, second));
+
+        // When: ищем страницу размером 1 после курсора "0.9,1"
+        CursorPage<NoteSearchHit> page = noteServiceImpl.search("  молоко ", "0.9,1", 1);
+
+        // Then: курсор следующей страницы содержит релевантность и ID последнего результата
+        assertThat(page.getItems()).containsExactly(first);
+        assertThat(page.getNext()).isEqualTo("0.75,3");
+    }
+
+    @Test
+    void search_ShouldUseIndex_WhenIndexIsReady() {
+        // Given: встроенный индекс построен и находит одну заметку
+        NoteSearchHit hit = NoteSearchHit.builder().id(3L).title("Молоко").rank(2.5).build();
+        BDDMockito.given(noteSearchIndex.isReady()).willReturn(true);
+        BDDMockito.given(noteSearchIndex.search("молоко", 11, null)).willReturn(List.of(hit));
+
+        // When: ищем первую страницу
+        CursorPage<NoteSearchHit> page = noteServiceImpl.search("молоко", null, 10);
+
+        // Then: результат получен из индекса, поиск средствами БД не выполнялся
+        assertThat(page.getItems()).containsExactly(hit);
+        BDDMockito.then(noteRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void suggestTitles_ShouldUseIndex_WhenIndexIsReady() {
+        // Given: индекс заголовков построен и находит одну заметку
+        TitleSuggestion suggestion = new TitleSuggestion(3L, "Молоко");
+        BDDMockito.given(noteTitleIndex.getMaxLimit()).willReturn(20);
+        BDDMockito.given(noteTitleIndex.isReady()).willReturn(true);
+        BDDMockito.given(noteTitleIndex.suggest("мол", 10)).willReturn(List.of(suggestion));
+
+        // When: запрашиваем подсказки
+        List<TitleSuggestion> suggestions = noteServiceImpl.suggestTitles("мол", 10);
+
+        // Then: подсказки получены из индекса без обращения к БД
+        assertThat(suggestions).containsExactly(suggestion);
+        BDDMockito.then(noteRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void suggestTitles_ShouldQueryRepository_WhenIndexIsNotReady() {
+        // Given: индекс заголовков еще строится
+        TitleSuggestion suggestion = new TitleSuggestion(3L, "Молоко");
+        BDDMockito.given(noteTitleIndex.getMaxLimit()).willReturn(20);
+        BDDMockito.given(noteRepository.findTitlesByPrefix("Мол", 5)).willReturn(List.of(suggestion));
+
+        // When: запрашиваем подсказки с начальными пробелами
+        List<TitleSuggestion> suggestions = noteServiceImpl.suggestTitles("  Мол", 5);
+
+        // Then: подсказки прочитаны из БД
+        assertThat(suggestions).containsExactly(suggestion);
+    }
+
+    @Test
+    void suggestTitles_ShouldThrowBadRequestException_WhenPrefixBlankOrLimitTooLarge() {
+        // When / Then: пустой префикс и слишком большое количество подсказок отклоняются
+        BDDMockito.given(noteTitleIndex.getMaxLimit()).willReturn(20);
+        assertThrows(BadRequestException.class, () -> noteServiceImpl.suggestTitles(" ", 10));
+        assertThrows(BadRequestException.class, () -> noteServiceImpl.suggestTitles("мол", 21));
+        BDDMockito.then(noteRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void search_ShouldThrowBadRequestException_WhenQueryIsBlankOrTooLong() {
+        // When / Then: пустой и слишком длинный запрос отклоняются без обращения к репозиторию
+        assertThrows(BadRequestException.class, () -> noteServiceImpl.search(" ", null, 10));
+        assertThrows(BadRequestException.class,
+            () -> noteServiceImpl.search("a".repeat(NoteServiceImpl.MAX_QUERY_LENGTH + 1), null, 10));
+        BDDMockito.then(noteRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void exportAll_ShouldPassEveryNoteToConsumer() {
+        // Given: репозиторий возвращает поток из двух заметок
+        Note secondNote = Note.builder().id(2L).title("Second").content("Second").build();
+        BDDMockito.given(noteRepository.streamAll()).willReturn(Stream.of(testNote, secondNote));
+        List<Note> exported = new ArrayList<>();
+
+        // When: выгружаем все заметки
+        long count = noteServiceImpl.exportAll(exported::add);
+
+        // Then: обработчик получил обе заметки в исходном порядке
+        assertThat(count).isEqualTo(2);
+        assertThat(exported).containsExactly(testNote, secondNote);
+    }
+
+    @Test
+    void saveAll_ShouldResetIdsAndDelegateToRepository() {
+        // Given: пакет с заметкой, у которой передан посторонний ID
+        Note note = Note.builder().id(42L).title("Batch").content("Content").build();
+        BDDMockito.given(noteRepository.saveAll(ArgumentMatchers.anyList()))
+            .willAnswer(invocation -> invocation.getArgument(0));
+
+        // When: сохраняем пакет
+        List<Note> saved = noteServiceImpl.saveAll(new ArrayList<>(List.of(note)));
+
+        // Then: ID сброшен перед сохранением, чтобы заметка была создана заново
+        assertThat(saved).hasSize(1);
+        assertThat(saved.get(0).getId()).isNull();
+        BDDMockito.verify(noteRepository).saveAll(ArgumentMatchers.anyList());
+    }
+
+    @Test
+    void saveAll_ShouldThrowBadRequestException_WhenNoteIsInvalid() {
+        // Given: пакет, в котором у второй заметки нет заголовка
+        List<Note> notes = List.of(
+            Note.builder().title("Valid").content("Content").build(),
+            Note.builder().content("Content").build()
+        );
+
+        // When & Then: пакет отклоняется до обращения к репозиторию
+        assertThrows(BadRequestException.class, () -> noteServiceImpl.saveAll(notes));
+        BDDMockito.verify(noteRepository, BDDMockito.never()).saveAll(ArgumentMatchers.anyList());
+    }
+
+    @Test
+    void saveAll_ShouldThrowBadRequestException_WhenBatchIsEmpty() {
+        // When & Then: пустой пакет отклоняется
+        assertThrows(BadRequestException.class, () -> noteServiceImpl.saveAll(List.of()));
+    }
+
+    @Test
+    void deleteByIds_ShouldDeleteAndEvictInOneCall() {
+        // Given: репозиторий удаляет две заметки из трех запрошенных
+        List<Long> ids = List.of(1L, 2L, 3L);
+        BDDMockito.given(noteRepository.deleteByIds(ids)).willReturn(2);
+
+        // When: удаляем заметки по списку ID
+        int deleted = noteServiceImpl.deleteByIds(ids);
+
+        // Then: возвращено количество удаленных заметок, кэш очищен и индекс уведомлен для всех запрошенных ID
+        assertThat(deleted).isEqualTo(2);
+        BDDMockito.verify(noteCacheEvictor).evictNotes(ids);
+        BDDMockito.verify(eventPublisher).publishEvent(ArgumentMatchers.<NoteChangedEvent>argThat(
+            event -> event.getType() == NoteChangedEvent.Type.DELETED && event.getIds().equals(ids)));
+    }
+
+    @Test
+    void deleteByCreatedAtBetween_ShouldEvictDeletedIds() {
+        // Given: репозиторий удаляет заметки периода и возвращает их ID
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+        BDDMockito.given(noteRepository.deleteByCreatedAtBetween(start, end)).willReturn(List.of(5L, 6L));
+
+        // When: удаляем заметки за период
+        int deleted = noteServiceImpl.deleteByCreatedAtBetween(start, end);
+
+        // Then: из кэша удалены именно удаленные заметки и дни периода
+        assertThat(deleted).isEqualTo(2);
+        BDDMockito.verify(noteCacheEvictor).evictNotes(List.of(5L, 6L));
+        BDDMockito.verify(noteDayBuckets).evictBetween(start, end);
+    }
+
+    @Test
+    void updateTitle_ShouldThrowBadRequestException_WhenTitleTooLong() {
+        // When & Then: заголовок длиннее 50 символов отклоняется до обращения к репозиторию
+        assertThrows(BadRequestException.class, () -> noteServiceImpl.updateTitle(List.of(1L), "x".repeat(51)));
+        BDDMockito.verify(noteRepository, BDDMockito.never())
+            .updateTitle(ArgumentMatchers.anyCollection(), ArgumentMatchers.anyString());
+    }
+
+    @Test
+    void updateTitle_ShouldUpdateAndEvict() {
+        // Given: репозиторий обновляет заголовок двух заметок
+        List<Long> ids = List.of(1L, 2L);
+        BDDMockito.given(noteRepository.updateTitle(ids, "New Title")).willReturn(2);
+
+        // When: меняем заголовок
+        int updated = noteServiceImpl.updateTitle(ids, "New Title");
+
+        // Then: возвращено количество обновленных заметок, кэш очищен
+        assertThat(updated).isEqualTo(2);
+        BDDMockito.verify(noteCacheEvictor).evictNotes(ids);
+    }
 }
@@ -0,0 +1,209 @@
+package inote.service.impl;
+
+import inote.cache.NoteCacheEvictor;
+import inote.config.PersistenceProperties;
+import inote.config.WriteBehindProperties;
+import inote.entity.Note;
+import inote.repository.NoteRepository;
+import inote.service.NoteRevisionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class NoteWriteBehindBufferTest {
+
+    @Mock
+    private NoteRepository noteRepository;  // Мокируем репозиторий, в который записываются изменения
+
+    @Mock
+    private NoteCacheEvictor noteCacheEvictor;  // Мокируем сброс кэшей списков и страниц
+
+    @Mock
+    private NoteDayBuckets noteDayBuckets;  // Мокируем кэш заметок по дням создания
+
+    @Mock
+    private NoteRevisionService noteRevisionService;  // Мокируем историю версий заметок
+
+    private WriteBehindProperties properties;
+
+    private NoteWriteBehindBuffer buffer;  // Тестируемый буфер
+
+    @BeforeEach
+    void setUp() {
+        // Given: буфер с пакетами по 2 заметки и пределом 3 незаписанные заметки
+        properties = new WriteBehindProperties();
+        properties.setMaxPending(3);
+        PersistenceProperties persistenceProperties = new PersistenceProperties();
+        persistenceProperties.setBatchSize(2);
+        buffer = new NoteWriteBehindBuffer(noteRepository, noteCacheEvictor, noteDayBuckets,
+            noteRevisionService, properties, persistenceProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void flush_ShouldWriteOnlyLastUpdate_OfEachNote() {
+        // Given: три изменения одной заметки подряд
+        Note stored = note(1L, "v0");
+        Note v1 = note(1L, "v1");
+        Note v2 = note(1L, "v2");
+        Note last = note(1L, "v3");
+        buffer.put(stored, v1);
+        buffer.put(v1, v2);
+        buffer.put(v2, last);
+
+        // When: записываем изменения
+        int written = buffer.flush();
+
+        // Then: в БД записано одно последнее изменение, буфер пуст, кэши списков сброшены,
+        // в историю добавлена одна версия от записанной в БД до последней
+        assertThat(written).isEqualTo(1);
+        BDDMockito.verify(noteRepository).updateAll(List.of(last));
+        BDDMockito.verify(noteRevisionService).record(stored, last);
+        BDDMockito.verifyNoMoreInteractions(noteRevisionService);
+        assertThat(buffer.find(1L)).isEmpty();
+        BDDMockito.verify(noteCacheEvictor).evictCollectionViews();
+        BDDMockito.verify(noteDayBuckets).evictNotes(List.of(last));
+    }
+
+    @Test
+    void put_ShouldFlushInBatches_WhenMaxPendingReached() {
+        // When: изменяем три разные заметки (предел буфера)
+        buffer.put(note(1L, "stored"), note(1L, "a"));
+        buffer.put(note(2L, "stored"), note(2L, "b"));
+        buffer.put(note(3L, "stored"), note(3L, "c"));
+
+        // Then: изменения записаны сразу, двумя пакетами по batchSize
+        ArgumentCaptor<List<Note>> batches = ArgumentCaptor.captor();
+        BDDMockito.verify(noteRepository, BDDMockito.times(2)).updateAll(batches.capture());
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(2, 1);
+        assertThat(buffer.flush()).isZero();
+    }
+
+    @Test
+    void flush_ShouldKeepNotes_WhenWriteFails() {
+        // Given: запись в БД завершается ошибкой
+        Note note = note(1L, "a");
+        buffer.put(note(1L, "stored"), note);
+        BDDMockito.given(noteRepository.updateAll(ArgumentMatchers.anyList()))
+            .willThrow(new IllegalStateException("DB is down"));
+
+        // When: записываем изменения
+        int written = buffer.flush();
+
+        // Then: ничего не записано, изменение осталось в буфере для повторной записи
+        assertThat(written).isZero();
+        assertThat(buffer.find(1L)).contains(note);
+        BDDMockito.verifyNoInteractions(noteCacheEvictor, noteRevisionService);
+    }
+
+    @Test
+    void flush_ShouldKeepNewerUpdate_ReceivedDuringWrite() {
+        // Given: во время записи приходит более новое изменение той же заметки
+        Note stored = note(1L, "stored");
+        Note older = note(1L, "older");
+        Note newer = note(1L, "newer");
+        List<List<Note>> batches = new ArrayList<>();
+        BDDMockito.given(noteRepository.updateAll(ArgumentMatchers.anyList())).willAnswer(invocation -> {
+            batches.add(List.copyOf(invocation.getArgument(0)));
+            buffer.put(older, newer);
+            return 1;
+        });
+        buffer.put(stored, older);
+
+        // When: записываем изменения
+        buffer.flush();
+
+        // Then: записана старая версия и добавлена в историю, новая осталась в буфере
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0).get(0).getContent()).isEqualTo("older");
+        assertThat(buffer.find(1L)).contains(newer);
+        BDDMockito.verify(noteRevisionService).record(stored, older);
+
+        // When: записываем оставшееся изменение
+        BDDMockito.willReturn(1).given(noteRepository).updateAll(ArgumentMatchers.anyList());
+        buffer.flush();
+
+        // Then: следующая версия в истории начинается с уже записанной
+        BDDMockito.verify(noteRevisionService).record(older, newer);
+    }
+
+    @Test
+    void replace_ShouldRejectUpdate_WhenPendingVersionChanged() {
+        // Given: в буфере уже есть более новое изменение, чем прочитанная версия
+        Note read = note(1L, "read");
+        buffer.put(note(1L, "stored"), read);
+        Note newer = note(1L, "newer");
+        buffer.put(read, newer);
+
+        // When: изменение основано на прочитанной версии
+        boolean replaced = buffer.replace(read, note(1L, "patched"));
+
+        // Then: изменение отклонено, в буфере более новая версия
+        assertThat(replaced).isFalse();
+        assertThat(buffer.find(1L)).contains(newer);
+        assertThat(buffer.replace(newer, note(1L, "patched"))).isTrue();
+    }
+
+    @Test
+    void replace_ShouldWriteConditionally_WhenNoteNotBuffered() {
+        // Given: заметки нет в буфере, прочитанная из БД версия еще актуальна
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        Note stored = new Note(1L, "Title", "stored", null, updatedAt);
+        Note patched = note(1L, "patched");
+        BDDMockito.given(noteRepository.updateIfUnchanged(patched, updatedAt)).willReturn(true);
+
+        // When: изменение основано на версии из БД
+        boolean replaced = buffer.replace(stored, patched);
+
+        // Then: изменение записано сразу условным UPDATE и добавлено в историю, буфер пуст
+        assertThat(replaced).isTrue();
+        BDDMockito.verify(noteRevisionService).record(stored, patched);
+        assertThat(buffer.find(1L)).isEmpty();
+    }
+
+    @Test
+    void replace_ShouldRejectUpdate_WhenNoteChangedInDatabase() {
+        // Given: заметки нет в буфере, а в БД она изменена после чтения (буфер уже записан)
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        Note stale = new Note(1L, "Title", "stale", null, updatedAt);
+        Note patched = note(1L, "patched");
+        BDDMockito.given(noteRepository.updateIfUnchanged(patched, updatedAt)).willReturn(false);
+
+        // When: изменение основано на устаревшей версии
+        boolean replaced = buffer.replace(stale, patched);
+
+        // Then: изменение отклонено и не попало в буфер, клиент должен прочитать заметку заново
+        assertThat(replaced).isFalse();
+        assertThat(buffer.find(1L)).isEmpty();
+        BDDMockito.verifyNoInteractions(noteRevisionService);
+    }
+
+    @Test
+    void discard_ShouldDropPendingUpdate() {
+        // Given: незаписанное изменение заметки
+        buffer.put(note(1L, "stored"), note(1L, "a"));
+
+        // When: заметка удалена
+        buffer.discard(List.of(1L));
+
+        // Then: изменение не записывается
+        assertThat(buffer.flush()).isZero();
+        BDDMockito.verifyNoInteractions(noteRepository);
+    }
+
+    private static Note note(Long id, String content) {
+        return new Note(id, "Title", content, null, null);
+    }
+}
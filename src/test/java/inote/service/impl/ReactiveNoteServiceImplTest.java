@@ -0,0 +1,187 @@
+package inote.service.impl;
+
+import inote.cache.LocalReactiveNoteCache;
+import inote.cache.NoteCacheEvictor;
+import inote.dto.CursorPage;
+import inote.dto.NoteVersion;
+import inote.entity.Note;
+import inote.exception.BadRequestException;
+import inote.exception.NotFoundException;
+import inote.repository.ReactiveNoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveNoteServiceImplTest {
+
+    @Mock
+    private ReactiveNoteRepository noteRepository;  // Мокируем реактивный репозиторий
+
+    private ConcurrentMapCacheManager cacheManager;  // Кэши в памяти вместо Redis
+
+    private ReactiveNoteServiceImpl noteService;  // Тестируемый сервис
+
+    private Note testNote;
+
+    @BeforeEach
+    void setUp() {
+        // Given: сервис с кэшем в памяти и тестовая заметка
+        cacheManager = new ConcurrentMapCacheManager();
+        noteService = new ReactiveNoteServiceImpl(noteRepository, new LocalReactiveNoteCache(cacheManager));
+        testNote = new Note(1L, "Test Title", "Test Content",
+            LocalDateTime.of(2025, 3, 1, 10, 0), LocalDateTime.of(2025, 3, 2, 10, 0));
+    }
+
+    @Test
+    void findById_ShouldReadDatabaseOnce_AndServeRepeatedRequestsFromCache() {
+        // Given: заметка есть в БД
+        BDDMockito.given(noteRepository.findById(1L)).willReturn(Mono.just(testNote));
+
+        // When: запрашиваем заметку дважды
+        StepVerifier.create(noteService.findById(1L)).expectNext(testNote).verifyComplete();
+        StepVerifier.create(noteService.findById(1L)).expectNext(testNote).verifyComplete();
+
+        // Then: БД прочитана один раз, в кэше заметка хранится в виде Optional, как в NoteServiceImpl
+        BDDMockito.verify(noteRepository, BDDMockito.times(1)).findById(1L);
+        assertThat(cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE).get(1L).get()).isEqualTo(Optional.of(testNote));
+    }
+
+    @Test
+    void findById_ShouldFailWithNotFound_WhenNoteDoesNotExist() {
+        // Given: заметки нет в БД
+        BDDMockito.given(noteRepository.findById(1L)).willReturn(Mono.empty());
+
+        // When & Then: ожидаем ошибку NotFoundException
+        StepVerifier.create(noteService.findById(1L)).expectError(NotFoundException.class).verify();
+    }
+
+    @Test
+    void findVersion_ShouldBuildVersionFromUpdatedAt() {
+        // Given: время изменения заметки в БД
+        BDDMockito.given(noteRepository.findUpdatedAtById(1L)).willReturn(Mono.just(testNote.getUpdatedAt()));
+
+        // When & Then: версия содержит время изменения и кэшируется
+        StepVerifier.create(noteService.findVersion(1L))
+            .expectNext(new NoteVersion(testNote.getUpdatedAt(), 1L))
+            .verifyComplete();
+        assertThat(cacheManager.getCache(NoteCacheEvictor.NOTE_VERSIONS_CACHE).get(1L)).isNotNull();
+    }
+
+    @Test
+    void findAll_ShouldStreamNotesAfterCursor() {
+        // Given: репозиторий возвращает поток заметок после ID 5
+        BDDMockito.given(noteRepository.findAll(5L, 10)).willReturn(Flux.just(testNote));
+
+        // When & Then: сервис передает поток без изменений
+        StepVerifier.create(noteService.findAll("5", 10)).expectNext(testNote).verifyComplete();
+    }
+
+    @Test
+    void findAll_ShouldFailWithBadRequest_WhenCursorOrLimitIsInvalid() {
+        // When & Then: некорректный курсор и неположительный limit отклоняются без обращения к БД
+        StepVerifier.create(noteService.findAll("abc", null)).expectError(BadRequestException.class).verify();
+        StepVerifier.create(noteService.findAll(null, 0)).expectError(BadRequestException.class).verify();
+        BDDMockito.verifyNoInteractions(noteRepository);
+    }
+
+    @Test
+    void findByTitle_ShouldFailWithNotFound_WhenNoNotesMatch() {
+        // Given: заметок с заголовком нет
+        BDDMockito.given(noteRepository.findByTitle("Missing")).willReturn(Flux.empty());
+
+        // When & Then: ожидаем ошибку NotFoundException
+        StepVerifier.create(noteService.findByTitle("Missing")).expectError(NotFoundException.class).verify();
+    }
+
+    @Test
+    void save_ShouldEvictCollectionVersionTitleAndPages() {
+        // Given: в кэше есть версия набора заметок, список по заголовку и страница
+        cacheManager.getCache(NoteCacheEvictor.NOTE_VERSIONS_CACHE)
+            .put(NoteCacheEvictor.COLLECTION_VERSION_KEY, new NoteVersion(null, 0L));
+        cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE).put("Test Title", List.of());
+        cacheManager.getCache(NoteCacheEvictor.NOTE_PAGES_CACHE).put("all:null:50", new CursorPage<Note>());
+        BDDMockito.given(noteRepository.insert(ArgumentMatchers.any(Note.class))).willReturn(Mono.just(testNote));
+
+        // When: сохраняем новую заметку
+        StepVerifier.create(noteService.save(new Note(null, "Test Title", "Test Content", null, null)))
+            .expectNext(testNote)
+            .verifyComplete();
+
+        // Then: затронутые записи кэша сброшены
+        assertThat(cacheManager.getCache(NoteCacheEvictor.NOTE_VERSIONS_CACHE)
+            .get(NoteCacheEvictor.COLLECTION_VERSION_KEY)).isNull();
+        assertThat(cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE).get("Test Title")).isNull();
+        assertThat(cacheManager.getCache(NoteCacheEvictor.NOTE_PAGES_CACHE).get("all:null:50")).isNull();
+    }
+
+    @Test
+    void update_ShouldFailWithNotFound_WhenNoteDoesNotExist() {
+        // Given: заметки нет в БД
+        BDDMockito.given(noteRepository.findById(1L)).willReturn(Mono.empty());
+
+        // When & Then: ожидаем ошибку NotFoundException, обновление не выполняется
+        StepVerifier.create(noteService.update(1L, testNote)).expectError(NotFoundException.class).verify();
+        BDDMockito.verify(noteRepository, BDDMockito.never()).update(ArgumentMatchers.any());
+    }
+
+    @Test
+    void update_ShouldPutUpdatedNoteToCache() {
+        // Given: заметка есть в БД, в кэше ее старая версия
+        Note updated = new Note(1L, "New Title", "New Content", testNote.getCreatedAt(), LocalDateTime.now());
+        cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE).put(1L, Optional.of(testNote));
+        BDDMockito.given(noteRepository.findById(1L)).willReturn(Mono.just(testNote));
+        BDDMockito.given(noteRepository.update(ArgumentMatchers.any(Note.class))).willReturn(Mono.just(updated));
+
+        // When: обновляем заметку
+        StepVerifier.create(noteService.update(1L, updated)).expectNext(updated).verifyComplete();
+
+        // Then: в кэше новая версия заметки
+        assertThat(cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE).get(1L).get()).isEqualTo(Optional.of(updated));
+    }
+
+    @Test
+    void update_ShouldEvictDayBucketOfNote() {
+        // Given: заметки дня создания заметки закэшированы
+        Note updated = new Note(1L, "New Title", "New Content", testNote.getCreatedAt(), LocalDateTime.now());
+        LocalDate day = testNote.getCreatedAt().toLocalDate();
+        cacheManager.getCache(NoteCacheEvictor.NOTES_BY_DAY_CACHE).put(day, List.of(testNote));
+        BDDMockito.given(noteRepository.findById(1L)).willReturn(Mono.just(testNote));
+        BDDMockito.given(noteRepository.update(ArgumentMatchers.any(Note.class))).willReturn(Mono.just(updated));
+
+        // When: обновляем заметку
+        StepVerifier.create(noteService.update(1L, updated)).expectNext(updated).verifyComplete();
+
+        // Then: заметки дня сброшены, как и при обновлении через NoteServiceImpl
+        assertThat(cacheManager.getCache(NoteCacheEvictor.NOTES_BY_DAY_CACHE).get(day)).isNull();
+    }
+
+    @Test
+    void deleteById_ShouldEvictCachedNote() {
+        // Given: заметка есть в БД и в кэше
+        cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE).put(1L, Optional.of(testNote));
+        BDDMockito.given(noteRepository.findById(1L)).willReturn(Mono.just(testNote));
+        BDDMockito.given(noteRepository.deleteById(1L)).willReturn(Mono.just(1L));
+
+        // When: удаляем заметку
+        StepVerifier.create(noteService.deleteById(1L)).verifyComplete();
+
+        // Then: заметка удалена из кэша
+        assertThat(cacheManager.getCache(NoteCacheEvictor.NOTES_CACHE).get(1L)).isNull();
+    }
+}
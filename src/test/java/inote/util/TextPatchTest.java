@@ -0,0 +1,81 @@
+package inote.util;
+
+import inote.dto.NotePatch;
+import inote.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TextPatchTest {
+
+    @Test
+    void apply_ShouldApplyEditsRelativeToBase() {
+        // Given: замена, вставка и удаление относительно исходного текста
+        List<NotePatch.Edit> edits = List.of(
+            new NotePatch.Edit(0, 6, "Купить"),
+            new NotePatch.Edit(13, 0, ", сыр"),
+            new NotePatch.Edit(15, 5, null));
+
+        // When: применяем правки
+        String result = TextPatch.apply("Забыть молоко и хлеб", edits);
+
+        // Then: позиции всех правок отсчитаны от исходного текста
+        assertThat(result).isEqualTo("Купить молоко, сыр и");
+    }
+
+    @Test
+    void apply_ShouldReturnBase_WhenNoEdits() {
+        // When / Then
+        assertThat(TextPatch.apply("Текст", List.of())).isEqualTo("Текст");
+    }
+
+    @Test
+    void apply_ShouldAppendAtEnd() {
+        // When / Then: вставка в позицию, равную длине текста
+        assertThat(TextPatch.apply("abc", List.of(new NotePatch.Edit(3, 0, "d")))).isEqualTo("abcd");
+    }
+
+    @Test
+    void apply_ShouldThrowBadRequestException_WhenEditOutOfBounds() {
+        // When / Then: удаление за концом текста и отрицательная позиция
+        assertThrows(BadRequestException.class,
+            () -> TextPatch.apply("abc", List.of(new NotePatch.Edit(2, 2, null))));
+        assertThrows(BadRequestException.class,
+            () -> TextPatch.apply("abc", List.of(new NotePatch.Edit(-1, 0, "x"))));
+    }
+
+    @Test
+    void apply_ShouldThrowBadRequestException_WhenEditsOverlap() {
+        // Given: вторая правка начинается внутри удаляемого первой фрагмента
+        List<NotePatch.Edit> edits = List.of(new NotePatch.Edit(0, 3, "x"), new NotePatch.Edit(2, 0, "y"));
+
+        // When / Then
+        assertThrows(BadRequestException.class, () -> TextPatch.apply("abcdef", edits));
+    }
+
+    @Test
+    void diff_ShouldKeepCommonPrefixAndSuffix() {
+        // When: в середине текста заменено одно слово
+        NotePatch.Edit edit = TextPatch.diff("Купить молоко и хлеб", "Купить кефир и хлеб");
+
+        // Then: правка содержит только замененный участок
+        assertThat(edit).isEqualTo(new NotePatch.Edit(7, 6, "кефир"));
+    }
+
+    @Test
+    void diff_ShouldRestoreChangedText_WhenApplied() {
+        // Given: пары текстов с вставкой, удалением, повтором символов и без изменений
+        String[][] pairs = {{"abc", "abcabc"}, {"aaaa", "aa"}, {"", "new"}, {"old", ""}, {"same", "same"}};
+
+        for (String[] pair : pairs) {
+            // When: строим правку и применяем ее к исходному тексту
+            NotePatch.Edit edit = TextPatch.diff(pair[0], pair[1]);
+
+            // Then: получаем новый текст
+            assertThat(TextPatch.apply(pair[0], List.of(edit))).isEqualTo(pair[1]);
+        }
+    }
+}
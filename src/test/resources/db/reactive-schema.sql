@@ -0,0 +1,10 @@
+-- Схема таблицы notes для тестов реактивного стека на H2, соответствует миграциям Liquibase для PostgreSQL
+CREATE SEQUENCE IF NOT EXISTS notes_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS notes (
+    id BIGINT DEFAULT NEXT VALUE FOR notes_id_seq PRIMARY KEY,
+    title VARCHAR(50) NOT NULL,
+    content VARCHAR NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP
+);